@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration.PERSISTENT_STORE_TYPE_PROPERTY;
+import static org.mule.runtime.core.api.util.queue.PersistentQueueStoreType.DUAL_FILE;
+import static org.mule.runtime.core.api.util.queue.PersistentQueueStoreType.SEGMENTED_LOG;
+import static org.mule.tck.MuleTestUtils.testWithSystemProperty;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class DefaultQueueConfigurationTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void dualFileByDefault() {
+    assertThat(new DefaultQueueConfiguration(0, true).getPersistentStoreType(), is(DUAL_FILE));
+  }
+
+  @Test
+  public void storeTypeFromSystemPropertyIgnoringCase() throws Exception {
+    testWithSystemProperty(PERSISTENT_STORE_TYPE_PROPERTY, "segmented_log", () -> {
+      assertThat(new DefaultQueueConfiguration(0, true).getPersistentStoreType(), is(SEGMENTED_LOG));
+    });
+  }
+
+  @Test
+  public void invalidStoreTypeFallsBackToDefault() throws Exception {
+    testWithSystemProperty(PERSISTENT_STORE_TYPE_PROPERTY, "unknown", () -> {
+      assertThat(new DefaultQueueConfiguration(0, true).getPersistentStoreType(), is(DUAL_FILE));
+    });
+  }
+
+  @Test
+  public void storeTypeIgnoredForTransientQueues() throws Exception {
+    testWithSystemProperty(PERSISTENT_STORE_TYPE_PROPERTY, "unknown", () -> {
+      assertThat(new DefaultQueueConfiguration(0, false).getPersistentStoreType(), is(DUAL_FILE));
+    });
+  }
+}
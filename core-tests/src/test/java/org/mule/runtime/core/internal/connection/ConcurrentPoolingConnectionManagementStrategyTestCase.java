@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.core.internal.connection.ConcurrentConnectionPool.MAX_WAITERS_PROPERTY;
+import static org.mule.runtime.core.internal.connection.PoolingConnectionManagementStrategy.CONCURRENT_POOL_PROPERTY;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ConcurrentPoolingConnectionManagementStrategyTestCase extends PoolingConnectionManagementStrategyTestCase {
+
+  @Rule
+  public SystemProperty concurrentPool = new SystemProperty(CONCURRENT_POOL_PROPERTY, "true");
+
+  @Rule
+  public SystemProperty maxWaiters = new SystemProperty(MAX_WAITERS_PROPERTY, "1");
+
+  @Test
+  public void returnedConnectionHandedOffToWaitingThread() throws Exception {
+    final Object connection = connection1.getConnection();
+    CompletableFuture<ConnectionHandler<Object>> waiting = CompletableFuture.supplyAsync(() -> {
+      try {
+        return strategy.getConnectionHandler();
+      } catch (ConnectionException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    while (strategy.getPoolStatistics().getPendingBorrows() == 0) {
+      Thread.yield();
+    }
+    connection1.release();
+
+    assertThat(waiting.get().getConnection(), is(sameInstance(connection)));
+    verify(connectionProvider, times(MAX_ACTIVE)).connect();
+  }
+
+  @Test
+  public void waitingThreadFailsWhenPoolIsClosed() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    strategy.getConnectionHandler();
+
+    CompletableFuture<ConnectionHandler<Object>> waiting = CompletableFuture.supplyAsync(() -> {
+      try {
+        return strategy.getConnectionHandler();
+      } catch (ConnectionException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    while (strategy.getPoolStatistics().getPendingBorrows() == 0) {
+      Thread.yield();
+    }
+
+    strategy.close();
+    try {
+      waiting.get(DEFAULT_MAX_POOL_WAIT / 2, MILLISECONDS);
+      fail("Was expecting the waiting thread to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause().getCause(), instanceOf(ConnectionException.class));
+    }
+    // the connections borrowed on setup and the one borrowed before closing the pool
+    verify(connectionProvider, times(MAX_ACTIVE + 1)).connect();
+  }
+
+  @Test
+  public void waitersBounded() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+    strategy.getConnectionHandler();
+
+    CompletableFuture.runAsync(() -> {
+      try {
+        strategy.getConnectionHandler();
+      } catch (ConnectionException e) {
+        // the pool is closed once the test finishes
+      }
+    });
+    while (strategy.getPoolStatistics().getPendingBorrows() == 0) {
+      Thread.yield();
+    }
+
+    try {
+      strategy.getConnectionHandler();
+      fail("Was expecting the wait queue to be full");
+    } catch (ConnectionException e) {
+      assertThat(strategy.getPoolStatistics().getPendingBorrows(), is(1));
+    }
+  }
+}
@@ -46,18 +46,18 @@ import org.mockito.runners.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleContextTestCase {
 
-  private static final int MAX_ACTIVE = 2;
+  protected static final int MAX_ACTIVE = 2;
 
-  private ConnectionProvider<Object> connectionProvider;
+  protected ConnectionProvider<Object> connectionProvider;
 
-  private PoolingProfile poolingProfile =
+  protected PoolingProfile poolingProfile =
       new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
-  private PoolingConnectionManagementStrategy<Object> strategy;
+  protected PoolingConnectionManagementStrategy<Object> strategy;
   private PoolingListener<Object> poolingListener;
   private Injector injector;
 
-  private ConnectionHandler<Object> connection1;
-  private ConnectionHandler<Object> connection2;
+  protected ConnectionHandler<Object> connection1;
+  protected ConnectionHandler<Object> connection2;
 
   @Before
   public void before() throws Exception {
@@ -132,6 +132,20 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     verify(connectionProvider, times(2)).disconnect(any(Object.class));
   }
 
+  @Test
+  public void poolStatistics() throws Exception {
+    ConnectionPoolStatistics statistics = strategy.getPoolStatistics();
+    assertThat(statistics.getActive(), is(MAX_ACTIVE));
+    assertThat(statistics.getIdle(), is(0));
+    assertThat(statistics.getBorrows(), is((long) MAX_ACTIVE));
+
+    connection1.release();
+
+    assertThat(statistics.getActive(), is(MAX_ACTIVE - 1));
+    assertThat(statistics.getIdle(), is(1));
+    assertThat(statistics.getPendingBorrows(), is(0));
+  }
+
   @Test(expected = ConnectionException.class)
   public void failDueToInvalidConnection() throws ConnectionException {
     when(connectionProvider.validate(anyVararg())).thenReturn(ConnectionValidationResult
@@ -153,7 +167,7 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     this.connectionProvider = spy(new DefaultConnectionProviderWrapper<>(connectionProvider, muleContext));
   }
 
-  private void initStrategy() {
+  protected void initStrategy() {
     strategy = new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext);
   }
 
@@ -17,6 +17,7 @@ import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
@@ -54,6 +55,8 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.api.config.MuleConfiguration;
 import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.streaming.StreamingManager;
@@ -62,6 +65,7 @@ import org.mule.runtime.core.internal.el.mvel.MVELExpressionLanguage;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import org.mule.tck.util.MuleContextUtils;
 
+import com.google.common.cache.CacheStats;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -71,6 +75,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.ByteArrayInputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -279,6 +284,89 @@ public class DefaultExpressionManagerTestCase extends AbstractMuleContextTestCas
                both(startsWith("this is ")).and(containsString(stream.getClass().getSimpleName())));
   }
 
+  @Test
+  @Description("Verifies that compiled log templates give the same results as parsing them for both DW and MVEL.")
+  public void compiledLogTemplate() throws MuleException {
+    CompiledTemplate template = expressionManager.compileLogTemplate("this is #[payload], and #[vars.missing]!");
+    assertThat(template.evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT),
+               is(format("this is %s, and null!", TEST_PAYLOAD)));
+    assertThat(template.evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT),
+               is(expressionManager.parseLogTemplate(template.getTemplate(), testEvent(), TEST_CONNECTOR_LOCATION,
+                                                     NULL_BINDING_CONTEXT)));
+
+    assertThat(expressionManager.compileLogTemplate("this is #[mel:payload]")
+        .evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), is(format("this is %s", TEST_PAYLOAD)));
+    assertThat(expressionManager.compileLogTemplate("#[payload]")
+        .evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), is(TEST_PAYLOAD));
+    assertThat(expressionManager.compileLogTemplate("plain text")
+        .evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), is("plain text"));
+  }
+
+  @Test
+  @Description("Verifies that a compiled log template may be evaluated from within the evaluation of another one.")
+  public void compiledLogTemplateReentrant() throws MuleException {
+    CoreEvent event = testEvent();
+    CompiledTemplate inner = expressionManager.compileLogTemplate("inner #[payload]");
+    BindingContext bindingContext = builder()
+        .addBinding("inner", () -> new TypedValue<>(inner.evaluate(event, TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), STRING))
+        .build();
+
+    CompiledTemplate outer = expressionManager.compileLogTemplate("outer #[inner] #[payload]");
+    assertThat(outer.evaluate(event, TEST_CONNECTOR_LOCATION, bindingContext),
+               is(format("outer inner %s %s", TEST_PAYLOAD, TEST_PAYLOAD)));
+  }
+
+  @Test
+  @Description("Verifies that compiled templates give the same results as parsing them.")
+  public void compiledTemplate() throws MuleException {
+    assertThat(expressionManager.compileTemplate("this is #[mel:payload]")
+        .evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), is(format("this is %s", TEST_PAYLOAD)));
+    assertThat(expressionManager.compileTemplate("#['this is ' ++ payload]")
+        .evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), is(format("this is %s", TEST_PAYLOAD)));
+    assertThat(expressionManager.compileTemplate("this is a test")
+        .evaluate(testEvent(), TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT), is("this is a test"));
+  }
+
+  @Test
+  @Description("Verifies that compiled expressions give the same results as evaluating the expression string.")
+  public void compiledExpression() throws MuleException {
+    CoreEvent event = getEventBuilder().message(Message.of(asList(1, 2))).addVariable(MY_VAR, "value").build();
+
+    CompiledExpression compiled = expressionManager.compile("#[vars.myVar]");
+    assertThat(compiled.getExpression(), is("#[vars.myVar]"));
+    assertThat(compiled.evaluate(event, TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT).getValue(), is("value"));
+    assertThat(compiled.evaluate(STRING, event, TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT, false).getValue(),
+               is(expressionManager.evaluate("#[vars.myVar]", STRING, NULL_BINDING_CONTEXT, event).getValue()));
+
+    assertThat(expressionManager.compile("#[vars.myVar == 'value']").evaluateBoolean(event, TEST_CONNECTOR_LOCATION, false,
+                                                                                     false),
+               is(true));
+    assertThat(expressionManager.compile("#[vars.missing]").evaluateBoolean(event, TEST_CONNECTOR_LOCATION, true, false),
+               is(true));
+
+    Iterator<TypedValue<?>> split = expressionManager.compile("#[payload]").split(event, null, NULL_BINDING_CONTEXT);
+    assertThat(split.next().getValue(), is(1));
+    assertThat(split.next().getValue(), is(2));
+    assertThat(split.hasNext(), is(false));
+  }
+
+  @Test
+  @Description("Verifies that string expressions are compiled only once and reused from the cache.")
+  public void compiledExpressionsCached() throws MuleException {
+    DefaultExpressionManager defaultExpressionManager = (DefaultExpressionManager) expressionManager;
+    long size = defaultExpressionManager.getCompiledExpressionsCacheSize();
+    CacheStats stats = defaultExpressionManager.getCompiledExpressionsCacheStats();
+
+    CompiledExpression compiled = expressionManager.compile("#['cached']");
+    assertThat(expressionManager.compile("#['cached']"), is(sameInstance(compiled)));
+    assertThat(expressionManager.evaluate("#['cached']", testEvent()).getValue(), is("cached"));
+
+    assertThat(defaultExpressionManager.getCompiledExpressionsCacheSize(), is(size + 1));
+    CacheStats delta = defaultExpressionManager.getCompiledExpressionsCacheStats().minus(stats);
+    assertThat(delta.missCount(), is(1L));
+    assertThat(delta.hitCount(), is(2L));
+  }
+
   @Test
   public void isValid() {
     String expression = "2*2";
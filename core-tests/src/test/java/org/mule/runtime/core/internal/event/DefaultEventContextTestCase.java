@@ -12,6 +12,7 @@ import static java.util.Optional.of;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.component.ComponentIdentifier.buildFromStringRepresentation;
@@ -36,9 +37,12 @@ import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.DefaultLocationPart;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -151,6 +155,20 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     });
   }
 
+  @Test
+  @Description("EventContext consumers are signalled in the order they were registered, and consumers registered after completion are signalled right away.")
+  public void consumersOrder() throws Exception {
+    List<Integer> signalled = new ArrayList<>();
+    parent.onComplete((response, throwable) -> signalled.add(1));
+    parent.onComplete((response, throwable) -> signalled.add(2));
+    parent.onComplete((response, throwable) -> signalled.add(3));
+
+    parent.success(testEvent());
+    parent.onComplete((response, throwable) -> signalled.add(4));
+
+    assertThat(signalled, contains(1, 2, 3, 4));
+  }
+
   @Test
   @Description("EventContext response publisher completes with value of result. Also given response publisher completed and there there are no child contexts the completion publisher also completes.")
   public void successWithResult() throws Exception {
@@ -295,6 +313,45 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     }
   }
 
+  @Test
+  @Description("Parent EventContext completes and terminates once when many child contexts complete concurrently with its response.")
+  public void concurrentChildren() throws Exception {
+    final int childrenCount = 64;
+    List<BaseEventContext> children = new ArrayList<>();
+    for (int i = 0; i < childrenCount; ++i) {
+      children.add(child(parent, empty()));
+    }
+    AtomicInteger completions = new AtomicInteger();
+    AtomicInteger terminations = new AtomicInteger();
+    parent.onComplete((response, throwable) -> completions.incrementAndGet());
+    parent.onTerminated((response, throwable) -> terminations.incrementAndGet());
+
+    CoreEvent event = testEvent();
+    Scheduler testScheduler = muleContext.getSchedulerService().ioScheduler();
+    CountDownLatch latch = new CountDownLatch(childrenCount + 1);
+
+    try {
+      for (BaseEventContext child : children) {
+        testScheduler.submit(() -> {
+          child.success(event);
+          latch.countDown();
+        });
+      }
+      testScheduler.submit(() -> {
+        parent.success(event);
+        latch.countDown();
+      });
+      latch.await();
+
+      assertThat(parent.isTerminated(), is(true));
+      assertThat(completions.get(), is(1));
+      assertThat(terminations.get(), is(1));
+      assertParent(is(event), is(nullValue()), true, true);
+    } finally {
+      testScheduler.stop();
+    }
+  }
+
   @Test
   @Description("Parent EventContext only completes once response publisher completes with a value and all child and grandchild contexts are complete.")
   public void multipleLevelsGrandchildFirst() throws Exception {
@@ -34,6 +34,7 @@ public class InstanceLockGroupTestCase extends AbstractMuleTestCase {
   private String sharedKeyA = "A";
   private String sharedKeyB = "B";
   private InstanceLockGroup instanceLockGroup = new InstanceLockGroup(new SingleServerLockProvider());
+  private final InstanceLockGroup unfairLockGroup = new InstanceLockGroup(new SingleServerLockProvider(false));
   private InMemoryObjectStore objectStore = new InMemoryObjectStore();
   private LockProvider mockLockProvider;
 
@@ -47,6 +48,30 @@ public class InstanceLockGroupTestCase extends AbstractMuleTestCase {
     testHighConcurrency(true);
   }
 
+  @Test
+  public void testUnfairLockUnlock() throws Exception {
+    instanceLockGroup = unfairLockGroup;
+    testHighConcurrency(false);
+  }
+
+  @Test
+  public void testLocksRemovedWhenReleased() throws Exception {
+    testHighConcurrency(true);
+    assertThat(instanceLockGroup.getLocksCount(), is(0));
+  }
+
+  @Test
+  public void testLockRemovedWhenTryLockFails() throws Exception {
+    Thread owner = new Thread(() -> instanceLockGroup.lock(sharedKeyA));
+    owner.start();
+    owner.join();
+
+    assertThat(instanceLockGroup.tryLock(sharedKeyA), is(false));
+    assertThat(instanceLockGroup.tryLock(sharedKeyB, 10, TimeUnit.MILLISECONDS), is(true));
+    instanceLockGroup.unlock(sharedKeyB);
+    assertThat(instanceLockGroup.getLocksCount(), is(1));
+  }
+
   @Test
   public void testWhenUnlockThenDestroy() throws Exception {
     lockUnlockThenDestroy(1);
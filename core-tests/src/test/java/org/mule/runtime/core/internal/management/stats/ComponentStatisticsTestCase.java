@@ -8,6 +8,8 @@ package org.mule.runtime.core.internal.management.stats;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mule.runtime.core.api.management.stats.ComponentStatistics.LATENCY_HISTOGRAM_PROPERTY;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -150,4 +152,34 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     stats.addExecutionBranchTime(true, 100L, 100L);
     assertValues(stats, 2L, 200L, 100L, 100L, 100L);
   }
+
+  @Test
+  public void histogramDisabledByDefault() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionTime(100L);
+    assertThat(stats.getExecutionTimeHistogram(), nullValue());
+    assertThat(stats.getExecutionTimePercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void executionTimePercentiles() {
+    System.setProperty(LATENCY_HISTOGRAM_PROPERTY, "true");
+    try {
+      ComponentStatistics stats = new ComponentStatistics();
+      for (long i = 1; i <= 100; ++i) {
+        stats.addExecutionTime(i);
+      }
+      stats.addExecutionBranchTime(true, 500L, 500L);
+      stats.addCompleteExecutionTime(1000L);
+
+      assertThat(stats.getExecutionTimeHistogram().getSnapshot().getCount(), equalTo(101L));
+      assertThat(stats.getExecutionTimePercentile(50), equalTo(51L));
+      assertThat(stats.getExecutionTimePercentile(100), equalTo(1007L));
+
+      stats.clear();
+      assertThat(stats.getExecutionTimePercentile(50), equalTo(0L));
+    } finally {
+      System.clearProperty(LATENCY_HISTOGRAM_PROPERTY);
+    }
+  }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram.Snapshot;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.junit.Test;
+
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void empty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.getSnapshot().getCount(), equalTo(0L));
+    assertThat(histogram.getSnapshot().getMax(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void exactSmallValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 0; i < 10; ++i) {
+      histogram.record(i);
+    }
+    histogram.record(-5);
+
+    Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount(), equalTo(11L));
+    assertThat(snapshot.getValueAtPercentile(0), equalTo(0L));
+    assertThat(snapshot.getValueAtPercentile(50), equalTo(4L));
+    assertThat(snapshot.getMax(), equalTo(9L));
+  }
+
+  @Test
+  public void boundedRelativeError() {
+    for (long value : new long[] {32, 33, 1000, 123456, 987654321, Long.MAX_VALUE}) {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(value);
+
+      long reported = histogram.getValueAtPercentile(100);
+      assertThat(reported, greaterThanOrEqualTo(value));
+      assertThat(reported - value, lessThanOrEqualTo(value / 32));
+    }
+  }
+
+  @Test
+  public void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; ++i) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getValueAtPercentile(50), equalTo(503L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(991L));
+    assertThat(histogram.getValueAtPercentile(99.9), equalTo(1007L));
+  }
+
+  @Test
+  public void intervalSnapshots() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(10);
+    histogram.record(20);
+
+    assertThat(histogram.getIntervalSnapshot().getCount(), equalTo(2L));
+
+    histogram.record(30);
+    Snapshot interval = histogram.getIntervalSnapshot();
+    assertThat(interval.getCount(), equalTo(1L));
+    assertThat(interval.getMax(), equalTo(30L));
+    assertThat(histogram.getSnapshot().getCount(), equalTo(3L));
+
+    histogram.clear();
+    assertThat(histogram.getIntervalSnapshot().getCount(), equalTo(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPercentile() {
+    new LatencyHistogram().getValueAtPercentile(101);
+  }
+}
@@ -43,7 +43,6 @@ import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.processor.strategy.ProactorStreamProcessingStrategyFactory.ProactorStreamProcessingStrategy;
 import org.mule.tck.testmodels.mule.TestTransaction;
 
-import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.qameta.allure.Description;
@@ -214,7 +213,7 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
   }
 
   @Test
-  @Description("If IO pool is busy OVERLOAD error is thrown")
+  @Description("If IO pool is busy the event is dispatched once a slot is available")
   public void blockingRejectedExecution() throws Exception {
     Scheduler blockingSchedulerSpy = spy(blocking);
     Scheduler rejectingSchedulerSpy = spy(new RejectingScheduler(blockingSchedulerSpy));
@@ -232,8 +231,8 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
     flow.initialise();
     flow.start();
     processFlow(testEvent());
-    verify(rejectingSchedulerSpy, times(11)).submit(any(Callable.class));
-    verify(blockingSchedulerSpy, times(1)).submit(any(Callable.class));
+    verify(rejectingSchedulerSpy, times(11)).submit(any(Runnable.class));
+    verify(blockingSchedulerSpy, times(1)).submit(any(Runnable.class));
     assertThat(threads, hasSize(1));
     assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
     assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
@@ -242,7 +241,7 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
   }
 
   @Test
-  @Description("If CPU INTENSIVE pool is busy OVERLOAD error is thrown")
+  @Description("If CPU INTENSIVE pool is busy the event is dispatched once a slot is available")
   public void cpuIntensiveRejectedExecution() throws Exception {
     Scheduler cpuIntensiveSchedulerSpy = spy(cpuIntensive);
     Scheduler rejectingSchedulerSpy = spy(new RejectingScheduler(cpuIntensiveSchedulerSpy));
@@ -260,8 +259,8 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
     flow.initialise();
     flow.start();
     processFlow(testEvent());
-    verify(rejectingSchedulerSpy, times(11)).submit(any(Callable.class));
-    verify(cpuIntensiveSchedulerSpy, times(1)).submit(any(Callable.class));
+    verify(rejectingSchedulerSpy, times(11)).submit(any(Runnable.class));
+    verify(cpuIntensiveSchedulerSpy, times(1)).submit(any(Runnable.class));
     assertThat(threads, hasSize(1));
     assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(1l));
     assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.PROACTOR;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.internal.management.stats.DefaultFlowConstructStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+@Story(PROACTOR)
+public class SchedulerDispatcherTestCase extends AbstractMuleTestCase {
+
+  private static final int POOL_SIZE = 2;
+  private static final int MAX_CONCURRENCY = 8;
+  private static final long TIMEOUT_MILLIS = 5000;
+
+  private final Scheduler scheduler = mock(Scheduler.class);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private ThreadPoolExecutor pool;
+  private ScheduledExecutorService retryScheduler;
+  private SchedulerDispatcher dispatcher;
+
+  @Before
+  public void before() {
+    when(scheduler.getName()).thenReturn("busyScheduler");
+    pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 0, SECONDS, new SynchronousQueue<>());
+    retryScheduler = newSingleThreadScheduledExecutor();
+    dispatcher = new SchedulerDispatcher(scheduler, pool, retryScheduler, MAX_CONCURRENCY);
+  }
+
+  @After
+  public void after() {
+    release.countDown();
+    pool.shutdownNow();
+    retryScheduler.shutdownNow();
+  }
+
+  @Test
+  @Description("Tasks that don't fit in the scheduler wait in the dispatcher until a slot is freed instead of failing.")
+  public void busySchedulerQueuesTasks() throws Exception {
+    final int tasks = 50;
+    CountDownLatch completed = new CountDownLatch(tasks);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    for (int i = 0; i < tasks; ++i) {
+      dispatcher.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        completed.countDown();
+      });
+    }
+
+    assertThat(completed.await(TIMEOUT_MILLIS, MILLISECONDS), is(true));
+    assertThat(maxRunning.get(), lessThanOrEqualTo(POOL_SIZE));
+    assertThat(dispatcher.getRejections(), greaterThan(0L));
+    assertThat(dispatcher.getQueueDepth(), is(0));
+  }
+
+  @Test
+  @Description("When the scheduler is busy with tasks of other dispatchers, the dispatch is retried.")
+  public void schedulerBusyWithOtherTasks() throws Exception {
+    occupyPool();
+
+    CountDownLatch completed = new CountDownLatch(1);
+    dispatcher.execute(completed::countDown);
+    assertThat(dispatcher.getQueueDepth(), is(1));
+    assertThat(dispatcher.getRejections(), greaterThan(0L));
+
+    release.countDown();
+    assertThat(completed.await(TIMEOUT_MILLIS, MILLISECONDS), is(true));
+    assertThat(dispatcher.getQueueDepth(), is(0));
+  }
+
+  @Test
+  @Description("When the scheduler is busy and the retry can't be scheduled, the task runs in the calling thread.")
+  public void retryRejectedRunsInCaller() throws Exception {
+    occupyPool();
+    retryScheduler.shutdownNow();
+
+    AtomicInteger runs = new AtomicInteger();
+    dispatcher.execute(runs::incrementAndGet);
+
+    assertThat(runs.get(), is(1));
+    assertThat(dispatcher.getQueueDepth(), is(0));
+  }
+
+  @Test
+  @Description("Tasks waiting for a slot when the dispatcher is stopped run in the stopping thread.")
+  public void stopRunsQueuedTasks() throws Exception {
+    // retries never run, so the task stays queued until stopped
+    dispatcher = new SchedulerDispatcher(scheduler, pool, mock(ScheduledExecutorService.class), MAX_CONCURRENCY);
+    occupyPool();
+
+    AtomicInteger runs = new AtomicInteger();
+    dispatcher.execute(runs::incrementAndGet);
+    assertThat(dispatcher.getQueueDepth(), is(1));
+
+    dispatcher.stop();
+    assertThat(runs.get(), is(1));
+    assertThat(dispatcher.getQueueDepth(), is(0));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  @Description("Tasks are not queued once the dispatcher is stopped.")
+  public void stoppedDispatcher() {
+    dispatcher.stop();
+    dispatcher.execute(() -> {
+    });
+  }
+
+  @Test
+  @Description("The queue depth and the rejections are published to the flow statistics.")
+  public void statisticsPublished() throws Exception {
+    DefaultFlowConstructStatistics statistics = new DefaultFlowConstructStatistics("Flow", "test");
+    dispatcher.setStatistics(statistics);
+    occupyPool();
+
+    CountDownLatch completed = new CountDownLatch(1);
+    dispatcher.execute(completed::countDown);
+    assertThat(statistics.getQueuedDispatches(), is(1L));
+    assertThat(statistics.getDispatchRejections(), greaterThan(0L));
+
+    release.countDown();
+    assertThat(completed.await(TIMEOUT_MILLIS, MILLISECONDS), is(true));
+    assertThat(statistics.getQueuedDispatches(), is(0L));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  @Description("Tasks are not queued when the scheduler is already stopped.")
+  public void shutdownScheduler() {
+    when(scheduler.isShutdown()).thenReturn(true);
+    dispatcher.execute(() -> {
+    });
+  }
+
+  private void occupyPool() {
+    for (int i = 0; i < POOL_SIZE; ++i) {
+      pool.execute(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+  }
+
+  @Test
+  @Description("The concurrency limit is reduced based on the tasks in flight when the scheduler rejects a task.")
+  public void limitReducedOnRejection() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(MAX_CONCURRENCY);
+    limit.onRejection(0);
+    assertThat(limit.getLimit(), is(1));
+  }
+
+  @Test
+  @Description("The concurrency limit grows by one after a full window of tasks completes with stable latency.")
+  public void limitGrowsWithStableLatency() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(MAX_CONCURRENCY);
+    limit.onRejection(0);
+
+    limit.onSample(1000, 1);
+    assertThat(limit.getLimit(), is(2));
+    limit.onSample(1000, 2);
+    limit.onSample(1000, 2);
+    limit.onSample(1000, 2);
+    assertThat(limit.getLimit(), is(3));
+  }
+
+  @Test
+  @Description("The concurrency limit is reduced when latency degrades.")
+  public void limitReducedOnLatencyDegradation() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(MAX_CONCURRENCY);
+    for (int i = 0; i < MAX_CONCURRENCY; ++i) {
+      limit.onSample(1000, MAX_CONCURRENCY);
+    }
+    assertThat(limit.getLimit(), is(MAX_CONCURRENCY));
+
+    for (int i = 0; i < 20; ++i) {
+      limit.onSample(100000, MAX_CONCURRENCY);
+    }
+    assertThat(limit.getLimit(), lessThan(MAX_CONCURRENCY));
+  }
+}
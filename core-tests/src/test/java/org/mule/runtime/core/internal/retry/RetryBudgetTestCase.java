@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.retry.RetryBudget.RETRY_BUDGET_RATIO_PROPERTY;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RetryBudgetTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public SystemProperty retryBudgetRatio = new SystemProperty(RETRY_BUDGET_RATIO_PROPERTY, "0.5");
+
+  @Test
+  public void minRetries() {
+    RetryBudget budget = new RetryBudget(0.5, 2);
+
+    assertThat(budget.tryAcquireRetry(), is(true));
+    assertThat(budget.tryAcquireRetry(), is(true));
+    assertThat(budget.tryAcquireRetry(), is(false));
+  }
+
+  @Test
+  public void retriesRatio() {
+    RetryBudget budget = new RetryBudget(0.5, 0);
+    assertThat(budget.tryAcquireRetry(), is(false));
+
+    for (int i = 0; i < 4; ++i) {
+      budget.onRequest();
+    }
+
+    assertThat(budget.tryAcquireRetry(), is(true));
+    assertThat(budget.tryAcquireRetry(), is(true));
+    assertThat(budget.tryAcquireRetry(), is(false));
+  }
+
+  @Test
+  public void sharedByFlow() {
+    Object flow = new Object();
+
+    assertThat(RetryBudget.forFlow(flow), sameInstance(RetryBudget.forFlow(flow)));
+    assertThat(RetryBudget.forFlow(null), is(nullValue()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeRatio() {
+    new RetryBudget(-1, 0);
+  }
+}
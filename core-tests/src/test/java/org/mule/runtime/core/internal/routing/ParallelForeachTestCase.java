@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Thread.currentThread;
+import static java.lang.Thread.sleep;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
+import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_COUNTER_VARIABLE;
+import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_ROOT_MESSAGE_VARIABLE;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ParallelForeachStory.PARALLEL_FOR_EACH;
+import static reactor.core.Exceptions.unwrap;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.component.location.Location;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.runtime.core.privileged.routing.RoutingResult;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.reactivestreams.Publisher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(ROUTERS)
+@Story(PARALLEL_FOR_EACH)
+public class ParallelForeachTestCase extends AbstractMuleContextTestCase {
+
+  @Rule
+  public ExpectedException expectedException = none();
+
+  private final Flow flow = mock(Flow.class);
+  private final AtomicInteger pulledElements = new AtomicInteger();
+  private final Latch release = new Latch();
+  private Scheduler scheduler;
+
+  private ParallelForeach router = new ParallelForeach() {
+
+    @Override
+    protected Publisher<RoutingPair> getRoutingPairs(CoreEvent event) {
+      return from(super.getRoutingPairs(event)).doOnNext(pair -> pulledElements.incrementAndGet());
+    }
+  };
+
+  @Override
+  protected Map<String, Object> getStartUpRegistryObjects() {
+    when(componentLocator.find(Location.builder().globalName(APPLE_FLOW).build())).thenReturn(of(flow));
+    return singletonMap(REGISTRY_KEY, componentLocator);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    release.release();
+    router.dispose();
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+  }
+
+  @Test
+  @Description("A routing pair is created for each element of the collection, with the element as payload.")
+  public void routingPairs() throws Exception {
+    initialiseRouter(event -> event);
+
+    List<RoutingPair> routingPairs =
+        from(router.getRoutingPairs(CoreEvent.builder(testEvent()).message(Message.of(asList("a", "b", "c"))).build()))
+            .collectList().block();
+
+    assertThat(routingPairs, hasSize(3));
+    assertThat(routingPairs.stream().map(pair -> pair.getEvent().getMessage().getPayload().getValue()).collect(toList()),
+               contains("a", "b", "c"));
+  }
+
+  @Test
+  @Description("By default the result is a list with the message resulting from each element, in the order of the collection.")
+  public void defaultResult() throws Exception {
+    initialiseRouter(event -> CoreEvent.builder(event)
+        .message(Message.of(event.getMessage().getPayload().getValue() + "-processed")).build());
+
+    CoreEvent result = router.process(CoreEvent.builder(testEvent()).message(Message.of(asList("a", "b", "c"))).build());
+
+    List<Message> messages = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(messages.stream().map(message -> message.getPayload().getValue()).collect(toList()),
+               contains("a-processed", "b-processed", "c-processed"));
+  }
+
+  @Test
+  @Description("When ordering is disabled all results are still collected.")
+  public void unordered() throws Exception {
+    router.setOrdered(false);
+    initialiseRouter(event -> event);
+
+    CoreEvent result = router.process(CoreEvent.builder(testEvent()).message(Message.of(asList("a", "b", "c"))).build());
+
+    List<Message> messages = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(messages.stream().map(message -> message.getPayload().getValue()).collect(toList()),
+               containsInAnyOrder("a", "b", "c"));
+  }
+
+  @Test
+  @Description("Each element has the counter and rootMessage variables, which are restored in the result event.")
+  public void counterAndRootMessageVariables() throws Exception {
+    initialiseRouter(event -> CoreEvent.builder(event)
+        .message(Message.of(event.getVariables().get(DEFAULT_COUNTER_VARIABLE).getValue() + "-"
+            + ((Message) event.getVariables().get(DEFAULT_ROOT_MESSAGE_VARIABLE).getValue()).getPayload().getValue()))
+        .build());
+
+    CoreEvent result = router.process(CoreEvent.builder(testEvent()).message(Message.of(asList("a", "b")))
+        .addVariable(DEFAULT_COUNTER_VARIABLE, "outer").build());
+
+    List<Message> messages = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(messages.stream().map(message -> message.getPayload().getValue()).collect(toList()),
+               contains("1-[a, b]", "2-[a, b]"));
+    assertThat(result.getVariables().get(DEFAULT_COUNTER_VARIABLE).getValue(), is("outer"));
+    assertThat(result.getVariables().containsKey(DEFAULT_ROOT_MESSAGE_VARIABLE), is(false));
+  }
+
+  @Test
+  @Description("At most maxConcurrency elements are processed at the same time.")
+  public void maxConcurrency() throws Exception {
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    router.setMaxConcurrency(2);
+    useAsyncProcessingStrategy();
+    initialiseRouter(event -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        sleep(20);
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      } finally {
+        inFlight.decrementAndGet();
+      }
+      return event;
+    });
+
+    CoreEvent result =
+        router.process(CoreEvent.builder(testEvent()).message(Message.of(asList(1, 2, 3, 4, 5, 6, 7, 8))).build());
+
+    assertThat((List<Message>) result.getMessage().getPayload().getValue(), hasSize(8));
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(2));
+  }
+
+  @Test
+  @Description("Elements are pulled from the collection only as the elements being processed complete.")
+  public void elementsPulledLazily() throws Exception {
+    final AtomicInteger startedElements = new AtomicInteger();
+    router.setMaxConcurrency(2);
+    useAsyncProcessingStrategy();
+    initialiseRouter(event -> {
+      startedElements.incrementAndGet();
+      awaitRelease();
+      return event;
+    });
+
+    Future<CoreEvent> result = runAsync(CoreEvent.builder(testEvent()).message(Message.of(asList(1, 2, 3, 4, 5))).build());
+
+    new PollingProber(RECEIVE_TIMEOUT, 50).check(new JUnitLambdaProbe(() -> startedElements.get() == 2));
+    sleep(BLOCK_TIMEOUT);
+    assertThat(startedElements.get(), is(2));
+    assertThat(pulledElements.get(), is(2));
+
+    release.release();
+    assertThat((List<Message>) result.get(RECEIVE_TIMEOUT, MILLISECONDS).getMessage().getPayload().getValue(), hasSize(5));
+    assertThat(pulledElements.get(), is(5));
+  }
+
+  @Test
+  @Description("The timeout applies to each element, so a blocked element fails while the other elements complete.")
+  public void timeoutPerElement() throws Exception {
+    final AtomicInteger completedElements = new AtomicInteger();
+    router.setMaxConcurrency(3);
+    router.setTimeout(100);
+    useAsyncProcessingStrategy();
+    initialiseRouter(event -> {
+      if ("slow".equals(event.getMessage().getPayload().getValue())) {
+        awaitRelease();
+      } else {
+        completedElements.incrementAndGet();
+      }
+      return event;
+    });
+
+    try {
+      router.process(CoreEvent.builder(testEvent()).message(Message.of(asList("a", "slow", "c"))).build());
+      fail("The slow element should have timed out");
+    } catch (MessagingException e) {
+      Throwable cause = unwrap(e.getCause());
+      assertThat(cause, instanceOf(CompositeRoutingException.class));
+      RoutingResult routingResult =
+          (RoutingResult) ((CompositeRoutingException) cause).getErrorMessage().getPayload().getValue();
+      assertThat(routingResult.getFailures().size(), is(1));
+      assertThat(routingResult.getResults().size(), is(2));
+    }
+    assertThat(completedElements.get(), is(2));
+  }
+
+  @Test
+  @Description("The collection to iterate over can be obtained from an expression.")
+  public void collectionExpression() throws Exception {
+    router.setCollectionExpression("#[vars.elements]");
+    initialiseRouter(event -> event);
+
+    CoreEvent result = router.process(CoreEvent.builder(testEvent()).addVariable("elements", asList(1, 2)).build());
+
+    assertThat((List<Message>) result.getMessage().getPayload().getValue(), hasSize(2));
+  }
+
+  @Test
+  @Description("The router uses a fork-join strategy with concurrency and timeout configured via the router and delayErrors true.")
+  public void forkJoinStrategyConfiguration() throws Exception {
+    final int concurrency = 3;
+    final long timeout = 123;
+    ForkJoinStrategyFactory mockForkJoinStrategyFactory = mock(ForkJoinStrategyFactory.class);
+
+    router.setMaxConcurrency(concurrency);
+    router.setTimeout(timeout);
+    router.setForkJoinStrategyFactory(mockForkJoinStrategyFactory);
+    initialiseRouter(event -> event);
+
+    verify(mockForkJoinStrategyFactory).createForkJoinStrategy(any(ProcessingStrategy.class), eq(concurrency), eq(true),
+                                                               eq(timeout), any(Scheduler.class), any(ErrorType.class));
+  }
+
+  @Test
+  @Description("By default CollectListForkJoinStrategyFactory is used, with a bounded concurrency.")
+  public void defaults() throws Exception {
+    assertThat(router.getDefaultForkJoinStrategyFactory(), instanceOf(CollectListForkJoinStrategyFactory.class));
+    assertThat(router.getDefaultForkJoinStrategyFactory().getResultDataType(), equalTo(MULE_MESSAGE_LIST));
+    assertThat(router.getDefaultMaxConcurrency(), equalTo(ParallelForeach.DEFAULT_MAX_CONCURRENCY));
+  }
+
+  @Test
+  @Description("Maximum concurrency must be one or more.")
+  public void invalidMaxConcurrency() throws Exception {
+    expectedException.expect(IllegalArgumentException.class);
+    router.setMaxConcurrency(0);
+  }
+
+  @Test
+  @Description("Map payloads are not supported with the default collection expression.")
+  public void mapPayload() throws Exception {
+    initialiseRouter(event -> event);
+
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage(Foreach.MAP_NOT_SUPPORTED_MESSAGE);
+    router.process(CoreEvent.builder(testEvent()).message(Message.of(new HashMap<>())).build());
+  }
+
+  private void useAsyncProcessingStrategy() {
+    scheduler = muleContext.getSchedulerService().ioScheduler();
+    ProcessingStrategy processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class)))
+        .thenAnswer(invocation -> (ReactiveProcessor) publisher -> from(publisher)
+            .publishOn(fromExecutorService(scheduler)).transform(invocation.getArgumentAt(0, ReactiveProcessor.class)));
+    when(flow.getProcessingStrategy()).thenReturn(processingStrategy);
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+    }
+  }
+
+  private Future<CoreEvent> runAsync(CoreEvent event) {
+    CompletableFuture<CoreEvent> result = new CompletableFuture<>();
+    new Thread(() -> {
+      try {
+        result.complete(router.process(event));
+      } catch (Throwable t) {
+        result.completeExceptionally(t);
+      }
+    }).start();
+    return result;
+  }
+
+  private void initialiseRouter(Processor processor) throws Exception {
+    router.setMessageProcessors(asList(newChain(empty(), processor)));
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+  }
+
+}
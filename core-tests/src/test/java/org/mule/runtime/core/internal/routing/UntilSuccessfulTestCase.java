@@ -10,14 +10,20 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
 import static org.mockito.Mockito.mock;
 import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
 import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.management.stats.RetryStatistics.getBackoffDelayBucket;
 import static org.mule.runtime.core.api.transaction.TransactionCoordination.getInstance;
 import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
 import static org.mule.tck.MuleTestUtils.createAndRegisterFlow;
@@ -191,6 +197,44 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
     assertEquals(60 * 1000, untilSuccessful.getMillisBetweenRetries());
   }
 
+  @Test
+  public void testExponentialBackoff() throws Exception {
+    untilSuccessful.setBackoffMultiplier(2);
+    untilSuccessful.setMaxMillisBetweenRetries(5000L);
+    untilSuccessful.initialise();
+
+    assertEquals(1000, untilSuccessful.getBackoffDelay(0));
+    assertEquals(2000, untilSuccessful.getBackoffDelay(1));
+    assertEquals(4000, untilSuccessful.getBackoffDelay(2));
+    assertEquals(5000, untilSuccessful.getBackoffDelay(3));
+  }
+
+  @Test
+  public void testJitter() throws Exception {
+    untilSuccessful.setJitter(0.5);
+    untilSuccessful.initialise();
+
+    for (int i = 0; i < 100; ++i) {
+      assertThat(untilSuccessful.getBackoffDelay(0), allOf(greaterThanOrEqualTo(500L), lessThanOrEqualTo(1000L)));
+    }
+  }
+
+  @Test
+  public void testRetryStatistics() throws Exception {
+    assumeThat("Retries within a transaction are not scheduled", tx, is(false));
+    targetMessageProcessor.setNumberOfFailuresToSimulate(untilSuccessful.getMaxRetries());
+    untilSuccessful.setMillisBetweenRetries(10);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    untilSuccessful.process(eventBuilder(muleContext).message(of("ERROR")).build());
+
+    assertEquals(untilSuccessful.getMaxRetries(), untilSuccessful.getRetryStatistics().getRetries());
+    assertEquals(untilSuccessful.getMaxRetries(),
+                 untilSuccessful.getRetryStatistics().getBackoffDelayHistogram()[getBackoffDelayBucket(10)]);
+    assertEquals(0, untilSuccessful.getRetryStatistics().getExhausted());
+  }
+
   private void assertTargetEventReceived(CoreEvent request) throws MuleException {
     assertThat(targetMessageProcessor.getEventReceived(), not(nullValue()));
     assertLogicallyEqualEvents(request, targetMessageProcessor.getEventReceived());
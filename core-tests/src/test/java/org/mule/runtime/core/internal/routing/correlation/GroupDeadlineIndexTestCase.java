@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.correlation;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class GroupDeadlineIndexTestCase extends AbstractMuleTestCase {
+
+  private final GroupDeadlineIndex index = new GroupDeadlineIndex();
+
+  @Test
+  public void pollsOnlyExpiredGroupsInDeadlineOrder() {
+    index.add("late", 300);
+    index.add("early", 100);
+    index.add("middle", 200);
+
+    assertThat(index.pollExpired(250), contains("early", "middle"));
+    assertThat(index.size(), is(1));
+    assertThat(index.pollExpired(250), is(empty()));
+    assertThat(index.pollExpired(301), contains("late"));
+  }
+
+  @Test
+  public void deadlineIsNotExpiredUntilPassed() {
+    index.add("group", 100);
+
+    assertThat(index.pollExpired(100), is(empty()));
+    assertThat(index.pollExpired(101), contains("group"));
+  }
+
+  @Test
+  public void addingIndexedGroupKeepsFirstDeadline() {
+    index.add("group", 100);
+    index.add("group", 500);
+
+    assertThat(index.size(), is(1));
+    assertThat(index.pollExpired(101), contains("group"));
+  }
+
+  @Test
+  public void removedGroupIsNotPolled() {
+    index.add("group", 100);
+    index.add("other", 100);
+    index.remove("group");
+
+    assertThat(index.pollExpired(200), contains("other"));
+    assertThat(index.size(), is(0));
+  }
+
+  @Test
+  public void groupsWithSameDeadline() {
+    index.add("a", 100);
+    index.add("b", 100);
+
+    assertThat(index.pollExpired(200), contains("a", "b"));
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Thread.sleep;
+import static java.util.Arrays.asList;
+import static java.util.Optional.empty;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.api.rx.Exceptions.rxExceptionToMuleException;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.FORK_JOIN_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.COLLECT_FIRST_SUCCESSFUL;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.runtime.core.privileged.routing.RoutingResult;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import reactor.core.publisher.Flux;
+
+@Feature(FORK_JOIN_STRATEGIES)
+@Story(COLLECT_FIRST_SUCCESSFUL)
+public class CollectFirstSuccessfulForkJoinStrategyTestCase extends AbstractMuleContextTestCase {
+
+  @Rule
+  public ExpectedException expectedException = none();
+
+  private ProcessingStrategy processingStrategy;
+  private Scheduler scheduler;
+  private ErrorType timeoutErrorType;
+
+  @Before
+  public void setup() {
+    scheduler = muleContext.getSchedulerService().ioScheduler();
+    timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
+    processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class)))
+        .thenAnswer(invocation -> (ReactiveProcessor) publisher -> from(publisher)
+            .publishOn(fromExecutorService(scheduler)).transform(invocation.getArgumentAt(0, ReactiveProcessor.class)));
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  @Description("The result is emitted once the required routes succeed, without waiting for the slower ones, which are cancelled.")
+  public void firstSuccessful() throws Throwable {
+    AtomicBoolean slowRouteCompleted = new AtomicBoolean();
+    RoutingPair slowPair = createRoutingPair(event -> {
+      try {
+        sleep(5000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      slowRouteCompleted.set(true);
+      return CoreEvent.builder(event).message(of(1)).build();
+    });
+
+    CoreEvent result = invokeStrategyBlocking(new CollectFirstSuccessfulForkJoinStrategyFactory(2),
+                                              asList(slowPair, createRoutingPair(of(2)), createRoutingPair(of(3))));
+
+    assertResultPayloads(result, 2, 3);
+    assertThat(slowRouteCompleted.get(), is(false));
+  }
+
+  @Test
+  @Description("Failed routes are ignored as long as the required routes can still succeed.")
+  public void failuresIgnored() throws Throwable {
+    CoreEvent result = invokeStrategyBlocking(new CollectFirstSuccessfulForkJoinStrategyFactory(),
+                                              asList(createFailingRoutingPair(), createRoutingPair(of(2))));
+
+    assertResultPayloads(result, 2);
+  }
+
+  @Test
+  @Description("A CompositeRoutingException is thrown once so many routes failed that the required routes can't succeed.")
+  public void tooManyFailures() throws Throwable {
+    expectedException.expect(instanceOf(CompositeRoutingException.class));
+
+    try {
+      invokeStrategyBlocking(new CollectFirstSuccessfulForkJoinStrategyFactory(2),
+                             asList(createFailingRoutingPair(), createRoutingPair(of(2)), createFailingRoutingPair()));
+    } catch (CompositeRoutingException e) {
+      RoutingResult routingResult = (RoutingResult) e.getErrorMessage().getPayload().getValue();
+      assertThat(routingResult.getFailures().size(), is(2));
+      throw e;
+    }
+  }
+
+  @Test
+  @Description("Requiring more successful routes than there are routes is an error.")
+  public void notEnoughRoutes() throws Throwable {
+    expectedException.expect(MuleRuntimeException.class);
+    invokeStrategyBlocking(new CollectFirstSuccessfulForkJoinStrategyFactory(3),
+                           asList(createRoutingPair(of(1)), createRoutingPair(of(2))));
+  }
+
+  @Test
+  @Description("Routing pairs are pulled as routes complete, so the routes after the required successful ones are never started.")
+  public void remainingRoutesNotStarted() throws Throwable {
+    AtomicInteger providedPairs = new AtomicInteger();
+    Flux<RoutingPair> routingPairs = fromIterable(asList(createRoutingPair(of(1)), createRoutingPair(of(2)),
+                                                         createRoutingPair(of(3))))
+                                                             .doOnNext(pair -> providedPairs.incrementAndGet());
+
+    CoreEvent result = invokeStrategyBlocking(new CollectFirstSuccessfulForkJoinStrategyFactory(), routingPairs, 1);
+
+    assertResultPayloads(result, 1);
+    assertThat(providedPairs.get(), is(1));
+  }
+
+  @Test
+  @Description("The quorum strategy emits the result once a majority of the routes succeed.")
+  public void quorum() throws Throwable {
+    CollectQuorumForkJoinStrategyFactory factory = new CollectQuorumForkJoinStrategyFactory();
+    assertThat(factory.getRequiredSuccesses(3), is(2));
+    assertThat(factory.getRequiredSuccesses(4), is(3));
+
+    CoreEvent result = invokeStrategyBlocking(factory, asList(createFailingRoutingPair(), createRoutingPair(of(2)),
+                                                              createRoutingPair(of(3))));
+
+    assertResultPayloads(result, 2, 3);
+  }
+
+  private void assertResultPayloads(CoreEvent result, Object... payloads) {
+    List<Message> messages = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(messages.stream().map(message -> message.getPayload().getValue()).toArray(), containsInAnyOrder(payloads));
+  }
+
+  private CoreEvent invokeStrategyBlocking(AbstractForkJoinStrategyFactory factory, List<RoutingPair> routingPairs)
+      throws Throwable {
+    return invokeStrategyBlocking(factory, fromIterable(routingPairs), MAX_VALUE);
+  }
+
+  private CoreEvent invokeStrategyBlocking(AbstractForkJoinStrategyFactory factory, Flux<RoutingPair> routingPairs,
+                                           int maxConcurrency)
+      throws Throwable {
+    ForkJoinStrategy strategy =
+        factory.createForkJoinStrategy(processingStrategy, maxConcurrency, false, MAX_VALUE, scheduler, timeoutErrorType);
+    try {
+      return from(strategy.forkJoin(testEvent(), routingPairs)).block();
+    } catch (Throwable throwable) {
+      throw rxExceptionToMuleException(throwable);
+    }
+  }
+
+  private RoutingPair createRoutingPair(Message result) throws Exception {
+    return createRoutingPair(event -> CoreEvent.builder(event).message(result).build());
+  }
+
+  private RoutingPair createFailingRoutingPair() throws Exception {
+    return createRoutingPair(event -> {
+      throw new IllegalStateException();
+    });
+  }
+
+  private RoutingPair createRoutingPair(Processor processor) throws Exception {
+    MessageProcessorChain chain = newChain(empty(), processor);
+    chain.setMuleContext(muleContext);
+    return RoutingPair.of(testEvent(), chain);
+  }
+
+}
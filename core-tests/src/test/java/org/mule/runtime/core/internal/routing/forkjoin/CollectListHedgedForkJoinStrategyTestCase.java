@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Thread.sleep;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.COLLECT_LIST_HEDGED;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListHedgedForkJoinStrategyFactory.LatencyTracker;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Story;
+
+@Story(COLLECT_LIST_HEDGED)
+public class CollectListHedgedForkJoinStrategyTestCase extends AbstractForkJoinStrategyTestCase {
+
+  @Override
+  protected ForkJoinStrategy createStrategy(ProcessingStrategy processingStrategy, int concurrency, boolean delayErrors,
+                                            long timeout) {
+    return new CollectListHedgedForkJoinStrategyFactory().createForkJoinStrategy(processingStrategy, concurrency, delayErrors,
+                                                                                 timeout, scheduler, timeoutErrorType);
+  }
+
+  @Test
+  @Description("A route that doesn't complete before the hedge delay is processed again, and the first result is used.")
+  public void slowRouteHedged() throws Throwable {
+    strategy = new CollectListHedgedForkJoinStrategyFactory(50)
+        .createForkJoinStrategy(processingStrategy, MAX_VALUE, true, MAX_VALUE, scheduler, timeoutErrorType);
+
+    AtomicInteger invocations = new AtomicInteger();
+    Message hedgedResult = of(2);
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(), asList(createRoutingPair(event -> {
+      if (invocations.getAndIncrement() == 0) {
+        try {
+          sleep(5000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return CoreEvent.builder(event).message(of(1)).build();
+      }
+      return CoreEvent.builder(event).message(hedgedResult).build();
+    })));
+
+    assertThat((List<Message>) result.getMessage().getPayload().getValue(), contains(hedgedResult));
+    assertThat(invocations.get(), is(2));
+  }
+
+  @Test
+  @Description("The hedge delay is the 95th percentile of the latencies of previous routes once there are enough samples.")
+  public void hedgeDelayFromLatencies() {
+    CollectListHedgedForkJoinStrategyFactory factory = new CollectListHedgedForkJoinStrategyFactory(10);
+    assertThat(factory.getHedgeDelay(), is(10L));
+
+    LatencyTracker tracker = new LatencyTracker(100);
+    for (int i = 1; i <= 100; ++i) {
+      tracker.record(MILLISECONDS.toNanos(i));
+    }
+    assertThat(tracker.getSamples(), is(100));
+    assertThat(tracker.getPercentile(0.95), is(MILLISECONDS.toNanos(96)));
+
+    for (int i = 0; i < 100; ++i) {
+      tracker.record(MILLISECONDS.toNanos(1));
+    }
+    assertThat(tracker.getSamples(), is(100));
+    assertThat(tracker.getPercentile(0.95), is(MILLISECONDS.toNanos(1)));
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class ChunkedCursorStreamProviderTestCase extends CursorStreamProviderTestCase {
+
+  private static final int CHUNK_SIZE = 1024;
+
+  public ChunkedCursorStreamProviderTestCase(String name, int dataSize, int bufferSize, int maxBufferSize) {
+    super(name, dataSize, bufferSize, maxBufferSize);
+  }
+
+  @Override
+  protected CursorStreamProvider createStreamProvider(int bufferSize, int maxBufferSize, ByteArrayInputStream dataStream) {
+    InMemoryCursorStreamConfig config =
+        new InMemoryCursorStreamConfig(new DataSize(bufferSize, BYTE),
+                                       new DataSize(bufferSize / 2, BYTE),
+                                       new DataSize(maxBufferSize, BYTE));
+
+    return new InMemoryCursorStreamProvider(dataStream, config, bufferManager, true);
+  }
+
+  @Test
+  public void readFullyWithDirectChunks() throws Exception {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(Runtime.getRuntime().maxMemory());
+    SizeClassedByteBufferManager directBufferManager =
+        new SizeClassedByteBufferManager(memoryManager, SECONDS.toMillis(2), true);
+
+    String content = randomAlphabetic(CHUNK_SIZE * 10 + 7);
+    try {
+      CursorStreamProvider provider = chunkedProvider(content, 0, directBufferManager);
+      try (CursorStream cursor = provider.openCursor()) {
+        assertThat(IOUtils.toString(cursor), equalTo(content));
+        cursor.seek(CHUNK_SIZE - 3);
+        byte[] dest = new byte[CHUNK_SIZE * 2];
+        assertThat(cursor.read(dest, 0, dest.length), is(dest.length));
+        assertThat(toString(dest), equalTo(content.substring(CHUNK_SIZE - 3, CHUNK_SIZE * 3 - 3)));
+      } finally {
+        provider.releaseResources();
+      }
+    } finally {
+      directBufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void chunksReleasedOnClose() throws Exception {
+    CountingBufferManager countingBufferManager = new CountingBufferManager(bufferManager);
+    String content = randomAlphabetic(CHUNK_SIZE * 5);
+
+    CursorStreamProvider provider = chunkedProvider(content, 0, countingBufferManager);
+    try (CursorStream cursor = provider.openCursor()) {
+      assertThat(IOUtils.toString(cursor), equalTo(content));
+    }
+    assertThat(countingBufferManager.allocated.get() > 0, is(true));
+
+    provider.releaseResources();
+    assertThat(countingBufferManager.allocated.get(), is(0));
+  }
+
+  @Test(expected = StreamingBufferSizeExceededException.class)
+  public void maxBufferSizeExceeded() throws Exception {
+    String content = randomAlphabetic(CHUNK_SIZE * 5);
+
+    CursorStreamProvider provider = chunkedProvider(content, CHUNK_SIZE * 3, bufferManager);
+    try (CursorStream cursor = provider.openCursor()) {
+      IOUtils.toString(cursor);
+    } finally {
+      provider.releaseResources();
+    }
+  }
+
+  private CursorStreamProvider chunkedProvider(String content, int maxBufferSize, ByteBufferManager bufferManager) {
+    InMemoryCursorStreamConfig config = new InMemoryCursorStreamConfig(new DataSize(CHUNK_SIZE, BYTE),
+                                                                       new DataSize(CHUNK_SIZE, BYTE),
+                                                                       new DataSize(maxBufferSize, BYTE));
+
+    return new InMemoryCursorStreamProvider(new ByteArrayInputStream(content.getBytes()), config, bufferManager, true);
+  }
+
+  private static class CountingBufferManager implements ByteBufferManager {
+
+    private final ByteBufferManager delegate;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    private CountingBufferManager(ByteBufferManager delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public ByteBuffer allocate(int capacity) {
+      allocated.incrementAndGet();
+      return delegate.allocate(capacity);
+    }
+
+    @Override
+    public void deallocate(ByteBuffer byteBuffer) {
+      allocated.decrementAndGet();
+      delegate.deallocate(byteBuffer);
+    }
+  }
+}
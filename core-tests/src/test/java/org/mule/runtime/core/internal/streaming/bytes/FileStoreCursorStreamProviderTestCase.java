@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.apache.commons.lang3.SystemUtils.IS_OS_WINDOWS;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class FileStoreCursorStreamProviderTestCase extends CursorStreamProviderTestCase {
+
+  private static final int IN_MEMORY_SIZE = 100;
+  private static final int REGION_SIZE = 64;
+
+  private CursorStreamProvider fileStoreStreamProvider;
+
+  public FileStoreCursorStreamProviderTestCase(String name, int dataSize, int bufferSize, int maxBufferSize) {
+    super(name, dataSize, bufferSize, maxBufferSize);
+  }
+
+  @Override
+  protected CursorStreamProvider createStreamProvider(int bufferSize, int maxBufferSize, ByteArrayInputStream dataStream) {
+    fileStoreStreamProvider = new FileStoreCursorStreamProvider(dataStream,
+                                                                new FileStoreCursorStreamConfig(new DataSize(bufferSize, BYTE)),
+                                                                bufferManager);
+    return fileStoreStreamProvider;
+  }
+
+  @After
+  public void releaseFileStoreProvider() {
+    fileStoreStreamProvider.releaseResources();
+  }
+
+  @Test
+  public void readsAcrossMemoryAndFileRegions() throws Exception {
+    String content = randomAlphabetic(IN_MEMORY_SIZE + REGION_SIZE * 3 + 10);
+    FileStoreStreamBuffer buffer = createBuffer(content);
+    try {
+      assertThat(read(buffer, IN_MEMORY_SIZE - 5, 1000), equalTo(content.substring(IN_MEMORY_SIZE - 5, IN_MEMORY_SIZE)));
+      assertThat(read(buffer, IN_MEMORY_SIZE + REGION_SIZE - 4, 1000),
+                 equalTo(content.substring(IN_MEMORY_SIZE + REGION_SIZE - 4, IN_MEMORY_SIZE + REGION_SIZE)));
+      assertThat(read(buffer, content.length() - 3, 10), equalTo(content.substring(content.length() - 3)));
+      assertThat(buffer.get(content.length(), 10), is(nullValue()));
+
+      // already buffered data is still there after the stream has been fully consumed
+      assertThat(read(buffer, 0, 10), equalTo(content.substring(0, 10)));
+      assertThat(read(buffer, IN_MEMORY_SIZE + 1, 10), equalTo(content.substring(IN_MEMORY_SIZE + 1, IN_MEMORY_SIZE + 11)));
+    } finally {
+      buffer.close();
+    }
+  }
+
+  @Test
+  public void streamSmallerThanMemoryBufferDoesNotUseFile() throws Exception {
+    String content = randomAlphabetic(IN_MEMORY_SIZE / 2);
+    FileStoreStreamBuffer buffer = createBuffer(content);
+    try {
+      assertThat(read(buffer, 0, 1000), equalTo(content));
+      assertThat(buffer.get(content.length(), 10), is(nullValue()));
+    } finally {
+      buffer.close();
+    }
+  }
+
+  @Test
+  public void closeDeletesBufferFile() throws Exception {
+    // the regions are not unmapped on close, which prevents deleting the file on Windows
+    assumeThat(IS_OS_WINDOWS, is(false));
+    String content = randomAlphabetic(IN_MEMORY_SIZE + REGION_SIZE * 2);
+    FileStoreStreamBuffer buffer = createBuffer(content);
+    read(buffer, content.length() - 1, 1);
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile.exists(), is(true));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+    assertThat(buffer.getBufferFile(), is(nullValue()));
+  }
+
+  private FileStoreStreamBuffer createBuffer(String content) {
+    return new FileStoreStreamBuffer(new ByteArrayInputStream(content.getBytes()),
+                                     new FileStoreCursorStreamConfig(new DataSize(IN_MEMORY_SIZE, BYTE)),
+                                     bufferManager, REGION_SIZE);
+  }
+
+  private String read(FileStoreStreamBuffer buffer, long position, int length) throws Exception {
+    ByteBuffer read = buffer.get(position, length);
+    return toString(read);
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class SizeClassedByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+  private static final int SAME_CLASS_CAPACITY = 120;
+  private static final int OTHER_CLASS_CAPACITY = 1000;
+
+  private SizeClassedByteBufferManager bufferManager = new SizeClassedByteBufferManager();
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void pooling() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(newBuffer.array(), is(sameInstance(buffer.array())));
+  }
+
+  @Test
+  public void sameSizeClassSharesBuffers() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(SAME_CLASS_CAPACITY);
+    assertThat(newBuffer.array(), is(sameInstance(buffer.array())));
+    assertThat(newBuffer.capacity(), is(SAME_CLASS_CAPACITY));
+  }
+
+  @Test
+  public void differentSizeClasses() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer otherBuffer = bufferManager.allocate(OTHER_CLASS_CAPACITY);
+    assertThat(otherBuffer.array(), not(sameInstance(buffer.array())));
+  }
+
+  @Test
+  public void grow() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(newBuffer.array(), not(sameInstance(buffer.array())));
+  }
+
+  @Test
+  public void capacity() throws Exception {
+    assertCapacity(CAPACITY);
+    assertCapacity(OTHER_CLASS_CAPACITY);
+    assertCapacity(32 * 1024 * 1024);
+  }
+
+  @Test
+  public void directBuffers() throws Exception {
+    bufferManager = new SizeClassedByteBufferManager(mockMemoryManager(1024 * 1024), SECONDS.toMillis(2), true);
+
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.isDirect(), is(true));
+    assertThat(buffer.capacity(), is(CAPACITY));
+    bufferManager.deallocate(buffer);
+  }
+
+  @Test
+  public void disposeDiscardsThreadCache() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+    bufferManager.dispose();
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(newBuffer.array(), not(sameInstance(buffer.array())));
+    bufferManager.deallocate(newBuffer);
+
+    assertThat(bufferManager.allocate(CAPACITY).array(), not(sameInstance(newBuffer.array())));
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final long maxMemory = 512L;
+    final int bufferCapacity = 256;
+    final long waitTimeoutMillis = SECONDS.toMillis(2);
+
+    bufferManager = new SizeClassedByteBufferManager(mockMemoryManager(maxMemory), waitTimeoutMillis, false);
+
+    ByteBuffer buffer1 = bufferManager.allocate(bufferCapacity);
+    bufferManager.allocate(bufferCapacity);
+
+    Latch latch = new Latch();
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        latch.release();
+      } catch (Exception e) {
+        maxMemoryExhausted.set(e.getCause() instanceof MaxStreamingMemoryExceededException);
+      }
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis * 2, MILLISECONDS), is(false));
+    assertThat(maxMemoryExhausted.get(), is(true));
+
+    bufferManager.deallocate(buffer1);
+
+    Latch secondLatch = new Latch();
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        maxMemoryExhausted.set(false);
+      } finally {
+        secondLatch.release();
+      }
+    }).start();
+
+    assertThat(secondLatch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+    assertThat(maxMemoryExhausted.get(), is(false));
+  }
+
+  @Test
+  public void idleBuffersReleasedWhenMemoryIsExhausted() throws Exception {
+    bufferManager = new SizeClassedByteBufferManager(mockMemoryManager(512L), SECONDS.toMillis(2), false);
+
+    ByteBuffer buffer1 = bufferManager.allocate(256);
+    ByteBuffer buffer2 = bufferManager.allocate(256);
+    bufferManager.deallocate(buffer1);
+    bufferManager.deallocate(buffer2);
+
+    ByteBuffer bigBuffer = bufferManager.allocate(512);
+    assertThat(bigBuffer.capacity(), is(512));
+  }
+
+  private MemoryManager mockMemoryManager(long maxMemory) {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    // the streaming memory is half of the max memory
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory * 2);
+    return memoryManager;
+  }
+
+  private void assertCapacity(int capacity) {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    try {
+      assertThat(buffer.capacity(), is(capacity));
+      assertThat(buffer.position(), is(0));
+      assertThat(buffer.limit(), is(capacity));
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+}
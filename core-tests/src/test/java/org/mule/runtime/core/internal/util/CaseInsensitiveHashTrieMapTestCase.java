@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class CaseInsensitiveHashTrieMapTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY1 = "FOO";
+  private static final String KEY2 = "doo";
+
+  @Test
+  public void caseInsensitive() {
+    assertMapContents(createTestMap());
+  }
+
+  @Test
+  public void keysCaseSensitive() {
+    assertThat(createTestMap().keySet(), containsInAnyOrder(KEY1, KEY2));
+  }
+
+  @Test
+  public void replaceKeepsOriginalKey() {
+    Map<String, Object> map = createTestMap().with("foo", "BAZ");
+    assertThat(map.size(), is(2));
+    assertThat(map.get("Foo"), equalTo("BAZ"));
+    assertThat(map.keySet(), containsInAnyOrder(KEY1, KEY2));
+  }
+
+  @Test
+  public void withDoesNotModifyOriginal() {
+    CaseInsensitiveHashTrieMap<Object> original = createTestMap();
+    CaseInsensitiveHashTrieMap<Object> copy = original.with("new", "val");
+
+    assertMapContents(original);
+    assertThat(original.size(), is(2));
+    assertThat(original.containsKey("new"), is(false));
+
+    assertMapContents(copy);
+    assertThat(copy.size(), is(3));
+    assertThat(copy.get("NEW"), equalTo("val"));
+  }
+
+  @Test
+  public void withoutDoesNotModifyOriginal() {
+    CaseInsensitiveHashTrieMap<Object> original = createTestMap();
+    CaseInsensitiveHashTrieMap<Object> copy = original.without("foo");
+
+    assertMapContents(original);
+    assertThat(copy.size(), is(1));
+    assertThat(copy.get(KEY1), is(nullValue()));
+    assertThat(copy.get(KEY2), equalTo(3));
+  }
+
+  @Test
+  public void unchangedMapIsReused() {
+    CaseInsensitiveHashTrieMap<Object> original = createTestMap();
+    assertThat(original.without("missing"), is(sameInstance(original)));
+    assertThat(original.with("foo", original.get(KEY1)), is(sameInstance(original)));
+    assertThat(CaseInsensitiveHashTrieMap.copyOf(original), is(sameInstance(original)));
+  }
+
+  @Test
+  public void manyEntries() {
+    CaseInsensitiveHashTrieMap<Object> map = CaseInsensitiveHashTrieMap.empty();
+    for (int i = 0; i < 1000; ++i) {
+      map = map.with("key" + i, i);
+    }
+    assertThat(map.size(), is(1000));
+
+    for (int i = 0; i < 1000; i += 2) {
+      map = map.without("KEY" + i);
+    }
+    assertThat(map.size(), is(500));
+    for (int i = 0; i < 1000; ++i) {
+      if (i % 2 == 0) {
+        assertThat(map.containsKey("Key" + i), is(false));
+      } else {
+        assertThat(map.get("Key" + i), equalTo(i));
+      }
+    }
+    assertThat(map.entrySet().size(), is(500));
+    assertThat(map, equalTo(new HashMap<>(map)));
+  }
+
+  @Test
+  public void copyOfMergesKeysDifferingInCase() {
+    Map<String, Object> source = new LinkedHashMap<>();
+    source.put("Key", 1);
+    source.put("KEY", 2);
+
+    Map<String, Object> map = CaseInsensitiveHashTrieMap.copyOf(source);
+    assertThat(map.size(), is(1));
+    assertThat(map.keySet(), contains("Key"));
+    assertThat(map.get("key"), equalTo(2));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    createTestMap().put("new", "val");
+  }
+
+  @Test
+  public void serialize() {
+    assertMapContents(serializeAndDeserialize(createTestMap()));
+  }
+
+  @Test
+  public void serializeEmpty() {
+    Map<String, Object> map = serializeAndDeserialize(CaseInsensitiveHashTrieMap.empty());
+    assertThat(map.isEmpty(), is(true));
+  }
+
+  private Map<String, Object> serializeAndDeserialize(Map<String, Object> map) {
+    byte[] bytes = SerializationUtils.serialize((Serializable) map);
+    return (Map) SerializationUtils.deserialize(bytes);
+  }
+
+  private void assertMapContents(Map<String, Object> map) {
+    assertThat(map.get("FOO"), equalTo("BAR"));
+    assertThat(map.get("foo"), equalTo("BAR"));
+    assertThat(map.get("Foo"), equalTo("BAR"));
+
+    assertThat(map.get("DOO"), equalTo(3));
+    assertThat(map.get("doo"), equalTo(3));
+    assertThat(map.get("Doo"), equalTo(3));
+  }
+
+  private CaseInsensitiveHashTrieMap<Object> createTestMap() {
+    return CaseInsensitiveHashTrieMap.empty().with(KEY1, "BAR").with(KEY2, 3);
+  }
+}
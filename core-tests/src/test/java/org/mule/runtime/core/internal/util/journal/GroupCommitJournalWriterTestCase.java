@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.lang.Thread.currentThread;
+import static java.nio.file.Files.readAllBytes;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.BATCH;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.NONE;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class GroupCommitJournalWriterTestCase extends AbstractMuleTestCase {
+
+  private static final byte[] FIRST_ENTRY = "first".getBytes();
+  private static final byte[] SECOND_ENTRY = "second".getBytes();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private File journalFile;
+  private IOException writeFailure;
+  private IOException forceFailure;
+  private Thread writerThread;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    journalFile = new File(temporaryFolder.getRoot(), "journal");
+  }
+
+  @After
+  public void after() throws Exception {
+    schedulerService.stop();
+  }
+
+  @Test
+  public void writeFailureOnlyFailsItsEntries() throws Exception {
+    GroupCommitJournalWriter writer = createWriter(NONE, null);
+    IOException failure = new IOException("write failed");
+    writeFailure = failure;
+
+    assertFailed(writer, writer.append(FIRST_ENTRY), failure);
+    writer.awaitWritten(writer.append(SECOND_ENTRY));
+    writer.close();
+
+    assertThat(readAllBytes(journalFile.toPath()), equalTo(SECOND_ENTRY));
+  }
+
+  @Test
+  public void forceFailureDiscardsUnforcedEntries() throws Exception {
+    GroupCommitJournalWriter writer = createWriter(BATCH, null);
+    IOException failure = new IOException("force failed");
+    forceFailure = failure;
+
+    assertFailed(writer, writer.append(FIRST_ENTRY), failure);
+    writer.awaitWritten(writer.append(SECOND_ENTRY));
+    assertThat(writer.length(), is((long) SECOND_ENTRY.length));
+    writer.close();
+
+    assertThat(readAllBytes(journalFile.toPath()), equalTo(SECOND_ENTRY));
+  }
+
+  @Test
+  public void writesOnScheduler() throws Exception {
+    Scheduler scheduler = schedulerService.ioScheduler();
+    GroupCommitJournalWriter writer = createWriter(BATCH, scheduler);
+
+    writer.awaitWritten(writer.append(FIRST_ENTRY));
+    writer.close();
+    scheduler.stop();
+
+    assertThat(readAllBytes(journalFile.toPath()), equalTo(FIRST_ENTRY));
+    assertThat(writerThread, is(not(sameInstance(currentThread()))));
+  }
+
+  private void assertFailed(GroupCommitJournalWriter writer, long sequence, IOException expectedCause) {
+    try {
+      writer.awaitWritten(sequence);
+      fail("Entry should have failed");
+    } catch (MuleRuntimeException e) {
+      assertThat(e.getCause(), is(sameInstance(expectedCause)));
+    }
+  }
+
+  private GroupCommitJournalWriter createWriter(JournalSyncPolicy syncPolicy, Scheduler scheduler) {
+    return new GroupCommitJournalWriter(journalFile, syncPolicy, 1, scheduler) {
+
+      @Override
+      FileChannel openChannel() throws IOException {
+        return new FailingFileChannel(super.openChannel());
+      }
+    };
+  }
+
+  /**
+   * Fails the next write or force once the test sets the corresponding failure.
+   */
+  private class FailingFileChannel extends FileChannel {
+
+    private final FileChannel delegate;
+
+    private FailingFileChannel(FileChannel delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      writerThread = currentThread();
+      if (writeFailure != null) {
+        IOException failure = writeFailure;
+        writeFailure = null;
+        throw failure;
+      }
+      return delegate.write(srcs, offset, length);
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+      if (forceFailure != null) {
+        IOException failure = forceFailure;
+        forceFailure = null;
+        throw failure;
+      }
+      delegate.force(metaData);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      return delegate.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+      return delegate.read(dsts, offset, length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      return (int) write(new ByteBuffer[] {src}, 0, 1);
+    }
+
+    @Override
+    public long position() throws IOException {
+      return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+      delegate.position(newPosition);
+      return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+      return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+      delegate.truncate(size);
+      return this;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+      return delegate.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+      return delegate.transferFrom(src, position, count);
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+      return delegate.read(dst, position);
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+      return delegate.write(src, position);
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+      return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+      return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+      return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+      delegate.close();
+    }
+  }
+}
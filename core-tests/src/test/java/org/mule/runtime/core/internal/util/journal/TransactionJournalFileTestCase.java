@@ -10,13 +10,17 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.BATCH;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.INTERVAL;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
@@ -51,6 +55,60 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void concurrentLoggersWithBatchSync() throws Exception {
+    assertConcurrentLoggersAreWritten(BATCH);
+  }
+
+  @Test
+  public void concurrentLoggersWithIntervalSync() throws Exception {
+    assertConcurrentLoggersAreWritten(INTERVAL);
+  }
+
+  @Test
+  public void clearEmptiesFile() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(BATCH);
+    journal.logOperation(new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "Hello World!"));
+    assertThat(journal.fileLength() > 0, is(true));
+
+    journal.clear();
+    assertThat(journal.fileLength(), is(0L));
+    journal.logOperation(new LocalQueueTxJournalEntry(2, (byte) 6, "queue", "Hello World!"));
+    journal.close();
+
+    journal = openJournal(BATCH);
+    assertThat(journal.getLogEntries(1).isEmpty(), is(true));
+    assertThat(journal.getLogEntries(2).size(), equalTo(1));
+    journal.close();
+  }
+
+  private void assertConcurrentLoggersAreWritten(JournalSyncPolicy syncPolicy) throws InterruptedException {
+    final int loggers = 8;
+    final int entriesPerLogger = 20;
+    final TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(syncPolicy);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < loggers; i++) {
+      final int txId = i;
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < entriesPerLogger; j++) {
+          journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", "value" + j));
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    journal.close();
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> reopenedJournal = openJournal(syncPolicy);
+    for (int i = 0; i < loggers; i++) {
+      assertThat(reopenedJournal.getLogEntries(i).size(), equalTo(entriesPerLogger));
+    }
+    reopenedJournal.close();
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
@@ -58,4 +116,11 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
   }
 
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(JournalSyncPolicy syncPolicy) {
+    File journalFile = new File(temporaryFolder.getRoot(), "journal");
+    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, syncPolicy, 1);
+  }
+
 }
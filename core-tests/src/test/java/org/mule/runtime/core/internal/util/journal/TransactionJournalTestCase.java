@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.BATCH;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.NONE;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.SYNC_POLICY_PROPERTY;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.getSyncPolicy;
+import static org.mule.tck.MuleTestUtils.testWithSystemProperty;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class TransactionJournalTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void noSyncByDefault() {
+    assertThat(getSyncPolicy(), is(NONE));
+  }
+
+  @Test
+  public void syncPolicyFromSystemPropertyIgnoringCase() throws Exception {
+    testWithSystemProperty(SYNC_POLICY_PROPERTY, " batch ", () -> assertThat(getSyncPolicy(), is(BATCH)));
+  }
+
+  @Test
+  public void invalidSyncPolicyFallsBackToNone() throws Exception {
+    testWithSystemProperty(SYNC_POLICY_PROPERTY, "bacth", () -> assertThat(getSyncPolicy(), is(NONE)));
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.SYNC_POLICY_PROPERTY_KEY;
+import static org.mule.tck.MuleTestUtils.testWithSystemProperty;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedLogQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SMALL_SEGMENT_SIZE = 128;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @After
+  public void after() throws Exception {
+    schedulerService.stop();
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() {
+    String[] testNames = new String[] {"test-test", "test:/test", "test?test", "test:\\test", "test&test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      new SegmentedLogQueueStoreDelegate(testName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0).dispose();
+    }
+  }
+
+  @Test
+  public void recoversPendingItemsInOrder() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 10; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    queueStore.removeFirst();
+    queueStore.removeFirst();
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(8));
+    for (int i = 2; i < 10; i++) {
+      assertThat(queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    queueStore.close();
+  }
+
+  @Test
+  public void recoversUntakenItemsFirst() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add(createTestDataForIndex(2));
+    queueStore.add(createTestDataForIndex(3));
+    queueStore.addFirst(createTestDataForIndex(1));
+    queueStore.addFirst(createTestDataForIndex(0));
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    for (int i = 0; i < 4; i++) {
+      assertThat(queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    queueStore.close();
+  }
+
+  @Test
+  public void removedItemIsNotRecovered() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add(createTestDataForIndex(0));
+    queueStore.add(createTestDataForIndex(1));
+    queueStore.add(createTestDataForIndex(2));
+    queueStore.remove(createTestDataForIndex(1));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    assertThat(queueStore.removeFirst(), is(createTestDataForIndex(0)));
+    assertThat(queueStore.removeFirst(), is(createTestDataForIndex(2)));
+    queueStore.close();
+  }
+
+  @Test
+  public void removeRecoveredItem() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 3; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(true));
+    assertThat(queueStore.contains(createTestDataForIndex(3)), is(false));
+    queueStore.remove(createTestDataForIndex(1));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    assertThat(queueStore.getSize(), is(2));
+    queueStore.close();
+  }
+
+  @Test
+  public void syncOnEveryOperation() throws Exception {
+    testWithSystemProperty(SYNC_POLICY_PROPERTY_KEY, "always", () -> {
+      SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+      queueStore.add(createTestDataForIndex(0));
+      queueStore.add(createTestDataForIndex(1));
+      queueStore.removeFirst();
+
+      // opened without closing the previous one
+      SegmentedLogQueueStoreDelegate recovered = createTestQueueStore();
+      assertThat(recovered.getSize(), is(1));
+      assertThat(recovered.removeFirst(), is(createTestDataForIndex(1)));
+      recovered.close();
+      queueStore.close();
+    });
+  }
+
+  @Test
+  public void consumedSegmentsAreCompacted() throws Exception {
+    testWithSystemProperty(SEGMENT_SIZE_PROPERTY_KEY, String.valueOf(SMALL_SEGMENT_SIZE), () -> {
+      SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+      for (int i = 0; i < 50; i++) {
+        queueStore.add(createTestDataForIndex(i));
+      }
+      int segmentsBeforeConsuming = queueStore.getSegmentCount();
+      for (int i = 0; i < 49; i++) {
+        queueStore.removeFirst();
+      }
+      assertThat(queueStore.getSegmentCount(), lessThan(segmentsBeforeConsuming));
+      queueStore.close();
+
+      queueStore = createTestQueueStore();
+      assertThat(queueStore.getSize(), is(1));
+      assertThat(queueStore.removeFirst(), is(createTestDataForIndex(49)));
+      queueStore.close();
+    });
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add("item");
+
+    File logDirectory = SegmentedLogQueueStoreDelegate.getLogDirectoryForTesting(TEST_QUEUE_NAME,
+                                                                                 workingDirectory.getRoot().getAbsolutePath());
+    assertThat(logDirectory.exists(), is(true));
+
+    queueStore.dispose();
+    assertThat(logDirectory.exists(), is(false));
+  }
+
+  @Test
+  public void disposeAfterClose() {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add("item");
+    queueStore.close();
+
+    queueStore.dispose();
+    assertThat(SegmentedLogQueueStoreDelegate.getLogDirectoryForTesting(TEST_QUEUE_NAME,
+                                                                        workingDirectory.getRoot().getAbsolutePath())
+        .exists(), is(false));
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private SegmentedLogQueueStoreDelegate createTestQueueStore() {
+    return new SegmentedLogQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+  }
+}
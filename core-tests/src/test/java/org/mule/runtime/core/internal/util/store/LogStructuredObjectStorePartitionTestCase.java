@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.DATA_LOG_FILE;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.INDEX_CHECKPOINT_FILE;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParentFile().getPath());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @After
+  public void tearDown() throws ObjectStoreException {
+    partition.close();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+
+    assertThat(partition.contains(KEY), is(true));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+    assertThat(partition.remove(KEY), is(VALUE));
+    assertThat(partition.contains(KEY), is(false));
+    assertThat(partition.allKeys(), is(empty()));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void failsToStoreExistingKey() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    partition.store(KEY, VALUE);
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws ObjectStoreException {
+    final String nonExistentKey = "nonExistentKey";
+
+    try {
+      partition.retrieve(nonExistentKey);
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertTrue(e.getMessage().contains(nonExistentKey));
+    }
+  }
+
+  @Test
+  public void keySetMayBeStoredAgainAfterRemoval() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    partition.remove(KEY);
+    partition.store(KEY, "other");
+
+    assertThat(partition.retrieve(KEY), is("other"));
+  }
+
+  @Test
+  public void reopenReplaysLog() throws ObjectStoreException {
+    storeEntries(10);
+    partition.remove("key3");
+
+    LogStructuredObjectStorePartition<String> reopened = reopenWithoutClosing();
+
+    assertThat(reopened.allKeys().size(), is(9));
+    assertThat(reopened.contains("key3"), is(false));
+    assertThat(reopened.retrieve("key7"), is("value7"));
+  }
+
+  @Test
+  public void reopenFromCheckpoint() throws ObjectStoreException {
+    storeEntries(10);
+    partition.close();
+    assertThat(new File(objectStoreFolder.getRoot(), INDEX_CHECKPOINT_FILE).exists(), is(true));
+
+    partition.open();
+    partition.remove("key0");
+    partition.store("key10", "value10");
+
+    LogStructuredObjectStorePartition<String> reopened = reopenWithoutClosing();
+    assertThat(reopened.getPartitionName(), is("test"));
+    assertThat(reopened.allKeys().size(), is(10));
+    assertThat(reopened.contains("key0"), is(false));
+    assertThat(reopened.retrieve("key1"), is("value1"));
+    assertThat(reopened.retrieve("key10"), is("value10"));
+  }
+
+  @Test
+  public void discardsIncompleteRecordOnReopen() throws Exception {
+    storeEntries(2);
+    File dataLog = new File(objectStoreFolder.getRoot(), DATA_LOG_FILE);
+    try (RandomAccessFile file = new RandomAccessFile(dataLog, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    LogStructuredObjectStorePartition<String> reopened = reopenWithoutClosing();
+    assertThat(reopened.allKeys(), contains("key0"));
+
+    reopened.store("key1", "other");
+    assertThat(reopenWithoutClosing().retrieve("key1"), is("other"));
+  }
+
+  @Test
+  public void expireByMaxEntriesRemovesOldest() throws ObjectStoreException {
+    storeEntries(5);
+
+    partition.expire(UNBOUNDED, 2);
+
+    assertThat(partition.allKeys(), contains("key3", "key4"));
+    assertThat(reopenWithoutClosing().allKeys(), contains("key3", "key4"));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("old", VALUE);
+    Thread.sleep(50);
+    partition.store("new", VALUE);
+
+    partition.expire(40, UNBOUNDED);
+
+    assertThat(partition.allKeys(), contains("new"));
+  }
+
+  @Test
+  public void compactsLogWhenMostEntriesAreRemoved() throws ObjectStoreException {
+    String largeValue = largeValue();
+    for (int i = 0; i < 400; ++i) {
+      partition.store(KEY + i, largeValue);
+    }
+    File dataLog = new File(objectStoreFolder.getRoot(), DATA_LOG_FILE);
+    long fullLength = dataLog.length();
+    for (int i = 0; i < 390; ++i) {
+      partition.remove(KEY + i);
+    }
+
+    awaitCompaction(fullLength / 2);
+    assertThat(partition.allKeys().size(), is(10));
+    assertThat(partition.retrieve("key395"), is(largeValue));
+
+    LogStructuredObjectStorePartition<String> reopened = reopenWithoutClosing();
+    assertThat(reopened.allKeys().size(), is(10));
+    assertThat(reopened.retrieve("key399"), is(largeValue));
+  }
+
+  @Test
+  public void keepsChangesMadeWhileCompacting() throws ObjectStoreException {
+    String largeValue = largeValue();
+    for (int i = 0; i < 400; ++i) {
+      partition.store(KEY + i, largeValue);
+    }
+    File dataLog = new File(objectStoreFolder.getRoot(), DATA_LOG_FILE);
+    long fullLength = dataLog.length();
+    for (int i = 0; i < 300; ++i) {
+      partition.remove(KEY + i);
+    }
+    // most likely appended while the compaction is copying the live records
+    partition.store("late", VALUE);
+    partition.remove("key399");
+    partition.remove("key300");
+    partition.store("key300", "restored");
+
+    awaitCompaction(fullLength / 2);
+    assertThat(partition.allKeys().size(), is(100));
+    assertThat(partition.retrieve("late"), is(VALUE));
+    assertThat(partition.retrieve("key300"), is("restored"));
+    assertThat(partition.contains("key399"), is(false));
+    assertThat(partition.retrieve("key398"), is(largeValue));
+
+    LogStructuredObjectStorePartition<String> reopened = reopenWithoutClosing();
+    assertThat(reopened.allKeys().size(), is(100));
+    assertThat(reopened.retrieve("late"), is(VALUE));
+    assertThat(reopened.retrieve("key300"), is("restored"));
+    assertThat(reopened.contains("key399"), is(false));
+  }
+
+  @Test
+  public void clear() throws ObjectStoreException {
+    storeEntries(3);
+
+    partition.clear();
+
+    assertThat(partition.allKeys(), is(empty()));
+    assertThat(reopenWithoutClosing().allKeys(), is(empty()));
+  }
+
+  private String largeValue() {
+    StringBuilder largeValue = new StringBuilder();
+    for (int i = 0; i < 8 * 1024; ++i) {
+      largeValue.append('a');
+    }
+    return largeValue.toString();
+  }
+
+  private void awaitCompaction(long maxLength) {
+    File dataLog = new File(objectStoreFolder.getRoot(), DATA_LOG_FILE);
+    new PollingProber(10000, 50).check(new JUnitLambdaProbe(() -> {
+      // the housekeeping starts a new compaction if the removals went on after the previous one started
+      partition.expire(UNBOUNDED, UNBOUNDED);
+      assertThat(dataLog.length(), lessThan(maxLength));
+      return true;
+    }));
+  }
+
+  private void storeEntries(int count) throws ObjectStoreException {
+    for (int i = 0; i < count; ++i) {
+      partition.store(KEY + i, VALUE + i);
+    }
+  }
+
+  private LogStructuredObjectStorePartition<String> reopenWithoutClosing() throws ObjectStoreException {
+    LogStructuredObjectStorePartition<String> reopened =
+        new LogStructuredObjectStorePartition<>(muleContext, objectStoreFolder.getRoot());
+    reopened.open();
+    return reopened;
+  }
+}
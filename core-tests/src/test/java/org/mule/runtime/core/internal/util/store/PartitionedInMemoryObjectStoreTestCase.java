@@ -6,10 +6,13 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -88,5 +91,77 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void maxEntriesEvictsLeastRecentlyUsed() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.retrieve(TEST_KEY1, TEST_PARTITION);
+    store.expire(UNBOUNDED, 2, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY3, TEST_PARTITION), is(true));
+    assertThat(store.getEvictedEntriesCount(TEST_PARTITION), is(1L));
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(0L));
+  }
+
+  @Test
+  public void expireWithLongTtl() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(MINUTES.toMillis(10), UNBOUNDED, TEST_PARTITION);
+
+    currentNanoTime += MINUTES.toNanos(5);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.expire(MINUTES.toMillis(10), UNBOUNDED, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+
+    currentNanoTime += MINUTES.toNanos(5);
+    store.expire(MINUTES.toMillis(10), UNBOUNDED, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(true));
+
+    currentNanoTime += HOURS.toNanos(6);
+    store.expire(MINUTES.toMillis(10), UNBOUNDED, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(2L));
+  }
+
+  @Test
+  public void removedKeyIsNotExpired() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, UNBOUNDED, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime += MILLISECONDS.toNanos(1);
+    store.expire(1, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(1L));
+  }
+
+  @Test
+  public void changingTtlReschedulesEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(MINUTES.toMillis(10), UNBOUNDED, TEST_PARTITION);
 
+    currentNanoTime += MINUTES.toNanos(2);
+    store.expire(MINUTES.toMillis(1), UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void clearRemovesExpiryInformation() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, UNBOUNDED, TEST_PARTITION);
+    store.clear(TEST_PARTITION);
+
+    currentNanoTime += MILLISECONDS.toNanos(1);
+    store.expire(1, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(0L));
+  }
 }
@@ -10,8 +10,10 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -102,6 +104,22 @@ public class PartitionedPersistentObjectStoreTestCase extends AbstractMuleTestCa
     this.assertAllValuesExistsInPartitionAreUnique(OBJECT_KEY, OBJECT_BASE_VALUE);
   }
 
+  @Test
+  public void disposeLogStructuredPartition() throws Exception {
+    Scheduler compactionScheduler = mock(Scheduler.class);
+    when(mockMuleContext.getSchedulerService().ioScheduler()).thenReturn(compactionScheduler);
+    os.setLogStructuredPartitions(true);
+    String partitionName = getPartitionName(0);
+    os.open(partitionName);
+    os.store(OBJECT_KEY, OBJECT_BASE_VALUE, partitionName);
+
+    os.disposePartition(partitionName);
+    verify(compactionScheduler).stop();
+
+    os.open(partitionName);
+    assertThat(os.contains(OBJECT_KEY, partitionName), is(false));
+  }
+
   @Test
   public void allowsAnyPartitionName() throws Exception {
     os.open("asdfsadfsa#$%@#$@#$@$%$#&8******ASDFWER??!?!");
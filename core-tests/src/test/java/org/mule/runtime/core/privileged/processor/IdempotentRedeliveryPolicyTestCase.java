@@ -159,6 +159,8 @@ public class IdempotentRedeliveryPolicyTestCase extends AbstractMuleTestCase {
     irp.initialise();
     processUntilFailure();
     assertThat(count.get(), equalTo(MAX_REDELIVERY_COUNT + 1));
+    assertThat(irp.getRetryStatistics().getRetries(), equalTo((long) MAX_REDELIVERY_COUNT));
+    assertThat(irp.getRetryStatistics().getExhausted(), equalTo(1L));
   }
 
   @Test
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.privileged.util;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -282,6 +284,19 @@ public class TemplateParserTestCase extends AbstractMuleTestCase {
     assertTrue(tp.isValid("#[mel:foo:blah = '#[mel:foo]']"));
   }
 
+  @Test
+  public void muleParserShouldTokenizeTemplate() {
+    TemplateParser tp = TemplateParser.createMuleStyleParser();
+
+    assertEquals(asList("'Hello '", "{payload}", "', '", "{vars['name']}", "'!'"),
+                 tp.tokenize("Hello #[payload], #[vars['name']]!", literal -> "'" + literal + "'", token -> "{" + token + "}"));
+    assertEquals(asList("{payload}", "{#[mel:foo]}"),
+                 tp.tokenize("#[payload]#[#[mel:foo]]", literal -> "'" + literal + "'", token -> "{" + token + "}"));
+    assertEquals(singletonList("'no tokens'"),
+                 tp.tokenize("no tokens", literal -> "'" + literal + "'", token -> "{" + token + "}"));
+    assertTrue(tp.tokenize("", literal -> literal, token -> token).isEmpty());
+  }
+
   private Map<String, Object> buildMap() {
     Map<String, Object> props = new HashMap<String, Object>();
     props.put("prop1", "value1");
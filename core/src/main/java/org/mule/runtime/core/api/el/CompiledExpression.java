@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+
+import java.util.Iterator;
+
+/**
+ * Handle to an expression that has already been prepared for evaluation, so that whatever doesn't depend on the event it is
+ * evaluated against, such as resolving the expression language it is written in, is done only once.
+ * <p>
+ * Components should obtain handles for their static expressions through {@link ExpressionManager#compile(String)} when they are
+ * initialised, and evaluate the handle for each event. Handles are thread safe.
+ *
+ * @since 4.1
+ */
+public interface CompiledExpression {
+
+  /**
+   * @return the expression this was compiled from
+   */
+  String getExpression();
+
+  /**
+   * Evaluates the expression in the same way as {@link ExpressionManager#evaluate(String, CoreEvent, ComponentLocation,
+   * BindingContext)} does.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param context an expression binding context to consider
+   * @return the result of the expression plus its type
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   */
+  TypedValue<?> evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext context)
+      throws ExpressionRuntimeException;
+
+  /**
+   * Evaluates the expression in the same way as {@link ExpressionManager#evaluate(String, DataType, BindingContext, CoreEvent,
+   * ComponentLocation, boolean)} does.
+   *
+   * @param expectedOutputType the expected output type so that automatic conversion can be performed for the resulting value
+   *        type.
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param context an expression binding context to consider
+   * @param failOnNull indicates if should fail if the evaluation result is null.
+   * @return the result of the expression plus its type
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   */
+  TypedValue<?> evaluate(DataType expectedOutputType, CoreEvent event, ComponentLocation componentLocation,
+                         BindingContext context, boolean failOnNull)
+      throws ExpressionRuntimeException;
+
+  /**
+   * Evaluates the expression in the same way as {@link ExpressionManager#evaluateBoolean(String, CoreEvent, ComponentLocation,
+   * boolean, boolean)} does.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param nullReturnsTrue determines if true should be returned if the result of the evaluation is null
+   * @param nonBooleanReturnsTrue determines if true should returned if the result is not null but isn't recognised as a boolean
+   * @return the result of the evaluation as a boolean
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   */
+  boolean evaluateBoolean(CoreEvent event, ComponentLocation componentLocation, boolean nullReturnsTrue,
+                          boolean nonBooleanReturnsTrue)
+      throws ExpressionRuntimeException;
+
+  /**
+   * Splits the result of the expression in the same way as {@link ExpressionManager#split(String, CoreEvent, ComponentLocation,
+   * BindingContext)} does.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed, may be {@code null}
+   * @param context an expression binding context to consider
+   * @return an iterator over the parts the result was split into
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   */
+  Iterator<TypedValue<?>> split(CoreEvent event, ComponentLocation componentLocation, BindingContext context)
+      throws ExpressionRuntimeException;
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+
+/**
+ * A template featuring inner expressions that has already been split into its literal parts and its expressions, so it can be
+ * evaluated for many events without being parsed each time.
+ * <p>
+ * Instances are obtained through {@link ExtendedExpressionManager#compileTemplate(String)} or
+ * {@link ExtendedExpressionManager#compileLogTemplate(String)}, usually when initialising the component that owns the template.
+ *
+ * @since 4.1
+ */
+public interface CompiledTemplate {
+
+  /**
+   * @return the template this was compiled from
+   */
+  String getTemplate();
+
+  /**
+   * Evaluates the expressions of this template against the given event and returns the resulting string.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param bindingContext the bindings to consider
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating any of the expressions
+   */
+  String evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext)
+      throws ExpressionRuntimeException;
+
+}
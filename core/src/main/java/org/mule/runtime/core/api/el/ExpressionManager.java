@@ -218,4 +218,53 @@ public interface ExpressionManager extends MuleExpressionLanguage {
   String parseLogTemplate(String template, CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext)
       throws ExpressionRuntimeException;
 
+  /**
+   * Prepares an expression to be evaluated many times, resolving once whatever doesn't depend on the event it is evaluated
+   * against. Components should compile their static expressions when they are initialised and evaluate the returned handle for
+   * each event.
+   *
+   * <p>
+   * The default implementation doesn't compile anything, its handle evaluates the expression string through this manager.
+   *
+   * @param expression the EL expression to compile
+   * @return a handle to evaluate the expression with
+   * @since 4.1
+   */
+  default CompiledExpression compile(String expression) {
+    return new CompiledExpression() {
+
+      @Override
+      public String getExpression() {
+        return expression;
+      }
+
+      @Override
+      public TypedValue<?> evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext context) {
+        return ExpressionManager.this.evaluate(expression, event, componentLocation, context);
+      }
+
+      @Override
+      public TypedValue<?> evaluate(DataType expectedOutputType, CoreEvent event, ComponentLocation componentLocation,
+                                    BindingContext context, boolean failOnNull) {
+        return ExpressionManager.this.evaluate(expression, expectedOutputType, context, event, componentLocation, failOnNull);
+      }
+
+      @Override
+      public boolean evaluateBoolean(CoreEvent event, ComponentLocation componentLocation, boolean nullReturnsTrue,
+                                     boolean nonBooleanReturnsTrue) {
+        return ExpressionManager.this.evaluateBoolean(expression, event, componentLocation, nullReturnsTrue,
+                                                      nonBooleanReturnsTrue);
+      }
+
+      @Override
+      public Iterator<TypedValue<?>> split(CoreEvent event, ComponentLocation componentLocation, BindingContext context) {
+        if (componentLocation != null) {
+          return ExpressionManager.this.split(expression, event, componentLocation, context);
+        } else {
+          return ExpressionManager.this.split(expression, event, context);
+        }
+      }
+    };
+  }
+
 }
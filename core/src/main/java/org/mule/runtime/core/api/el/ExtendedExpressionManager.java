@@ -81,4 +81,57 @@ public interface ExtendedExpressionManager extends ExpressionManager {
   @Deprecated
   String parse(String expression, CoreEvent event, ComponentLocation componentLocation) throws ExpressionRuntimeException;
 
+  /**
+   * Compiles a template so that evaluating it yields the same result as calling
+   * {@link #parse(String, CoreEvent, ComponentLocation)} with it, without parsing it again for each event.
+   *
+   * <p>
+   * The default implementation doesn't compile anything, it just parses the template for each evaluation.
+   *
+   * @param template one or more expressions embedded in a literal string
+   * @return the compiled template
+   * @since 4.1
+   */
+  default CompiledTemplate compileTemplate(String template) {
+    return new CompiledTemplate() {
+
+      @Override
+      public String getTemplate() {
+        return template;
+      }
+
+      @Override
+      public String evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext) {
+        return parse(template, event, componentLocation);
+      }
+    };
+  }
+
+  /**
+   * Compiles a logging template so that evaluating it yields the same result as calling
+   * {@link #parseLogTemplate(String, CoreEvent, ComponentLocation, BindingContext)} with it, without parsing it again for each
+   * event.
+   *
+   * <p>
+   * The default implementation doesn't compile anything, it just parses the template for each evaluation.
+   *
+   * @param template the string template featuring inner expressions to compile
+   * @return the compiled template
+   * @since 4.1
+   */
+  default CompiledTemplate compileLogTemplate(String template) {
+    return new CompiledTemplate() {
+
+      @Override
+      public String getTemplate() {
+        return template;
+      }
+
+      @Override
+      public String evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext) {
+        return parseLogTemplate(template, event, componentLocation, bindingContext);
+      }
+    };
+  }
+
 }
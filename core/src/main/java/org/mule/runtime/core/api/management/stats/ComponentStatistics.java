@@ -6,17 +6,37 @@
  */
 package org.mule.runtime.core.api.management.stats;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.currentTimeMillis;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api.
+ * <p/>
+ * Execution times are recorded without locking, so recording them doesn't serialize the events processed concurrently. Each
+ * value is updated atomically, but the values are not updated together, so occasional errors in reported statistics should be
+ * expected, especially when the {@link #clear()} method is used.
+ * <p/>
+ * When the {@link #LATENCY_HISTOGRAM_PROPERTY} system property is set, a {@link LatencyHistogram} of the execution times is also
+ * kept, from which percentiles of the execution time can be obtained.
  */
 public class ComponentStatistics implements Statistics {
 
+  /**
+   * System property to enable the histograms of execution times.
+   *
+   * @since 4.1
+   */
+  public static final String LATENCY_HISTOGRAM_PROPERTY = SYSTEM_PROPERTY_PREFIX + "statistics.latencyHistogram";
+
   private static final Logger logger = LoggerFactory.getLogger(ComponentStatistics.class);
 
   /**
@@ -24,14 +44,14 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  private final AtomicLong minExecutionTime = new AtomicLong();
+  private final AtomicLong maxExecutionTime = new AtomicLong();
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  private final LatencyHistogram executionTimeHistogram;
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private final AtomicLong currentIntervalStartTime = new AtomicLong();
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -55,6 +75,7 @@ public class ComponentStatistics implements Statistics {
         logger.warn("Couldn't parse statIntervalTime: " + intervalTimeString + ". Disabled.");
       }
     }
+    executionTimeHistogram = getBoolean(LATENCY_HISTOGRAM_PROPERTY) ? new LatencyHistogram() : null;
   }
 
   /**
@@ -63,11 +84,13 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
+    if (executionTimeHistogram != null) {
+      executionTimeHistogram.clear();
+    }
   }
 
   /**
@@ -100,7 +123,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -109,7 +132,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -119,7 +142,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -131,7 +154,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -141,35 +164,22 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    checkInterval();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
+    } else if (executedEvent.sum() == 0) {
+      // The statistics were cleared since the first branch of this event
+      return;
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
-    }
+    totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+    updateMax(ProcessingTime.getEffectiveTime(total));
   }
 
   /**
@@ -179,11 +189,12 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
+      updateMin(effectiveTime);
+      if (executionTimeHistogram != null) {
+        executionTimeHistogram.record(effectiveTime);
       }
     }
   }
@@ -195,31 +206,45 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
+  public void addExecutionTime(long time) {
+    checkInterval();
 
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
+    long effectiveTime = ProcessingTime.getEffectiveTime(time);
+    executedEvent.increment();
+    totalExecTime.add(effectiveTime);
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    if (executionTimeHistogram != null) {
+      executionTimeHistogram.record(effectiveTime);
     }
+  }
 
-    executedEvent++;
+  private void updateMin(long time) {
+    long min;
+    do {
+      min = minExecutionTime.get();
+    } while ((min == 0 || time < min) && !minExecutionTime.compareAndSet(min, time));
+  }
 
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
+  private void updateMax(long time) {
+    long max;
+    do {
+      max = maxExecutionTime.get();
+    } while (time > max && !maxExecutionTime.compareAndSet(max, time));
+  }
 
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
-    }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
+  private void checkInterval() {
+    if (statIntervalTimeEnabled) {
+      long currentTime = currentTimeMillis();
+      currentIntervalStartTime.compareAndSet(0, currentTime);
+
+      long intervalStartTime = currentIntervalStartTime.get();
+      // Only the thread that starts the new interval clears the statistics
+      if ((currentTime - intervalStartTime) > intervalTime
+          && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
+        clear();
+      }
     }
-    averageExecutionTime = totalExecTime / executedEvent;
   }
 
   /**
@@ -228,7 +253,26 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * @param percentile the percentile to get, from {@code 0} to {@code 100}.
+   * @return the execution time below or equal to which the given percentile of the events were executed, or zero if the
+   *         histograms of execution times are not enabled or no events have been completed.
+   * @since 4.1
+   */
+  public long getExecutionTimePercentile(double percentile) {
+    return executionTimeHistogram == null ? 0 : executionTimeHistogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the histogram of the complete execution times, or {@code null} if the histograms of execution times are not enabled.
+   * @since 4.1
+   */
+  public LatencyHistogram getExecutionTimeHistogram() {
+    return executionTimeHistogram;
   }
 
 }
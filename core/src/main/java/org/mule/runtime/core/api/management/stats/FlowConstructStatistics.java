@@ -56,6 +56,48 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getMinProcessingTime();
 
+  /**
+   * @param percentile the percentile to get, from {@code 0} to {@code 100}.
+   * @return the time below or equal to which the given percentile of the events were processed, or zero if the histograms of
+   *         execution times are not enabled.
+   * @see ComponentStatistics#LATENCY_HISTOGRAM_PROPERTY
+   * @since 4.1
+   */
+  default long getProcessingTimePercentile(double percentile) {
+    return 0;
+  }
+
+  /**
+   * Indicates that the dispatch of an event to a busy scheduler was rejected, so the event was queued until a slot is freed.
+   *
+   * @since 4.1
+   */
+  default void incDispatchRejections() {}
+
+  /**
+   * Indicates that events started or stopped waiting for a slot of a busy scheduler.
+   *
+   * @param delta the number of events queued, or dequeued if negative
+   * @since 4.1
+   */
+  default void addQueuedDispatches(int delta) {}
+
+  /**
+   * @return the number of times the dispatch of an event was rejected because the scheduler was busy
+   * @since 4.1
+   */
+  default long getDispatchRejections() {
+    return 0;
+  }
+
+  /**
+   * @return the number of events currently waiting for a slot of a busy scheduler
+   * @since 4.1
+   */
+  default long getQueuedDispatches() {
+    return 0;
+  }
+
   /**
    * @return the time consumed to process all the current finalized events
    */
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies, from which percentiles can be obtained.
+ * <p>
+ * Values are counted in log-linear buckets: values up to {@code 31} have a bucket each, and every power of two above is split
+ * in {@code 32} buckets of the same width, so the value reported for a percentile is at most about 3% higher than the recorded
+ * one.
+ * <p>
+ * Recording a value is a single atomic increment. Snapshots are taken without stopping the threads that record values.
+ *
+ * @since 4.1
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = 3587413295026816224L;
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = SUB_BUCKETS * (Long.SIZE - SUB_BUCKET_BITS);
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final long[] intervalStartCounts = new long[BUCKETS];
+
+  /**
+   * Records a latency.
+   *
+   * @param value the latency to record. Negative values are recorded as {@code 0}.
+   */
+  public void record(long value) {
+    counts.incrementAndGet(getBucket(value));
+  }
+
+  /**
+   * @param percentile the percentile to get, from {@code 0} to {@code 100}.
+   * @return the value below or equal to which the given percentile of the recorded values are, or {@code 0} if no values were
+   *         recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    return getSnapshot().getValueAtPercentile(percentile);
+  }
+
+  /**
+   * @return the values recorded since this histogram was created or last cleared.
+   */
+  public Snapshot getSnapshot() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i) {
+      snapshot[i] = counts.get(i);
+    }
+    return new Snapshot(snapshot);
+  }
+
+  /**
+   * Values recorded concurrently with this call are either part of the returned interval or the next one.
+   *
+   * @return the values recorded since the previous call to this method, or since this histogram was created or last cleared.
+   */
+  public synchronized Snapshot getIntervalSnapshot() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i) {
+      long count = counts.get(i);
+      snapshot[i] = count - intervalStartCounts[i];
+      intervalStartCounts[i] = count;
+    }
+    return new Snapshot(snapshot);
+  }
+
+  /**
+   * Discards the recorded values. Values recorded concurrently with this call may be kept.
+   */
+  public synchronized void clear() {
+    for (int i = 0; i < BUCKETS; ++i) {
+      counts.set(i, 0);
+      intervalStartCounts[i] = 0;
+    }
+  }
+
+  static int getBucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) max(0, value);
+    }
+    int shift = Long.SIZE - 1 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return SUB_BUCKETS * shift + (int) (value >>> shift);
+  }
+
+  static long getHighestValueInBucket(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  /**
+   * Immutable copy of the values recorded by a {@link LatencyHistogram}.
+   */
+  public static final class Snapshot implements Serializable {
+
+    private static final long serialVersionUID = -6106946283416003717L;
+
+    private final long[] counts;
+    private final long count;
+
+    private Snapshot(long[] counts) {
+      this.counts = counts;
+      long count = 0;
+      for (long bucketCount : counts) {
+        count += bucketCount;
+      }
+      this.count = count;
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @return the highest recorded value, or {@code 0} if no values were recorded.
+     */
+    public long getMax() {
+      for (int i = counts.length - 1; i >= 0; --i) {
+        if (counts[i] > 0) {
+          return getHighestValueInBucket(i);
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * @param percentile the percentile to get, from {@code 0} to {@code 100}.
+     * @return the value below or equal to which the given percentile of the recorded values are, or {@code 0} if no values
+     *         were recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+      checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100.");
+      if (count == 0) {
+        return 0;
+      }
+
+      long target = max(1, (long) ceil(percentile / 100 * count));
+      long accumulated = 0;
+      for (int i = 0; i < counts.length; ++i) {
+        accumulated += counts[i];
+        if (accumulated >= target) {
+          return getHighestValueInBucket(i);
+        }
+      }
+      return getMax();
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a component that retries failed processing: how many retries were performed, how many times the retries were
+ * exhausted or rejected by a retry budget, and a histogram of the delays waited before each retry.
+ * <p>
+ * The histogram has power of two buckets: bucket {@code 0} counts delays of {@code 0} milliseconds and bucket {@code i} counts
+ * delays from {@code 2^(i-1)} up to {@code 2^i - 1} milliseconds. The last bucket counts every longer delay.
+ *
+ * @since 4.1
+ */
+public class RetryStatistics implements Statistics {
+
+  private static final long serialVersionUID = -2858120379456412017L;
+
+  public static final int BACKOFF_DELAY_BUCKETS = 24;
+
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder exhausted = new LongAdder();
+  private final LongAdder budgetRejections = new LongAdder();
+  private final AtomicLongArray backoffDelays = new AtomicLongArray(BACKOFF_DELAY_BUCKETS);
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Records a retry whose delay is not handled by the component, such as the redelivery of a message by its source.
+   */
+  public void incrementRetries() {
+    retries.increment();
+  }
+
+  /**
+   * Records a retry that is performed after waiting the given delay.
+   *
+   * @param delay the milliseconds waited before retrying.
+   */
+  public void incrementRetries(long delay) {
+    retries.increment();
+    backoffDelays.incrementAndGet(getBackoffDelayBucket(delay));
+  }
+
+  /**
+   * Records that the processing failed after all the retries were performed.
+   */
+  public void incrementExhausted() {
+    exhausted.increment();
+  }
+
+  /**
+   * Records a retry that was not performed because the retry budget was spent.
+   */
+  public void incrementBudgetRejections() {
+    budgetRejections.increment();
+  }
+
+  /**
+   * @return the number of retries performed.
+   */
+  public long getRetries() {
+    return retries.sum();
+  }
+
+  /**
+   * @return the number of times the processing failed after all the retries were performed.
+   */
+  public long getExhausted() {
+    return exhausted.sum();
+  }
+
+  /**
+   * @return the number of retries that were not performed because the retry budget was spent.
+   */
+  public long getBudgetRejections() {
+    return budgetRejections.sum();
+  }
+
+  /**
+   * @return the number of retries in each bucket of the backoff delay histogram.
+   */
+  public long[] getBackoffDelayHistogram() {
+    long[] histogram = new long[BACKOFF_DELAY_BUCKETS];
+    for (int i = 0; i < BACKOFF_DELAY_BUCKETS; ++i) {
+      histogram[i] = backoffDelays.get(i);
+    }
+    return histogram;
+  }
+
+  /**
+   * @param delay a delay in milliseconds.
+   * @return the bucket of the backoff delay histogram that counts the given delay.
+   */
+  public static int getBackoffDelayBucket(long delay) {
+    return delay <= 0 ? 0 : min(BACKOFF_DELAY_BUCKETS - 1, Long.SIZE - numberOfLeadingZeros(delay));
+  }
+
+  public void clear() {
+    retries.reset();
+    exhausted.reset();
+    budgetRejections.reset();
+    for (int i = 0; i < BACKOFF_DELAY_BUCKETS; ++i) {
+      backoffDelays.set(i, 0);
+    }
+  }
+}
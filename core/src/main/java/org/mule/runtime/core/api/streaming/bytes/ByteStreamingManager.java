@@ -24,6 +24,16 @@ public interface ByteStreamingManager {
    */
   CursorStreamProviderFactory getInMemoryCursorProviderFactory(InMemoryCursorStreamConfig config);
 
+  /**
+   * Creates a {@link CursorStreamProviderFactory} which buffers in memory up to
+   * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} and in a temporal file afterwards
+   *
+   * @param config the configuration for the produced {@link CursorStreamProvider} instances
+   * @return a new {@link CursorStreamProviderFactory}
+   * @since 4.1
+   */
+  CursorStreamProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config);
+
   /**
    * Creates a null object implementation of {@link CursorStreamProviderFactory}
    *
@@ -4,16 +4,17 @@
  * license, a copy of which has been included with this distribution in the
  * LICENSE.txt file.
  */
-package org.mule.runtime.core.internal.streaming.bytes;
+package org.mule.runtime.core.api.streaming.bytes;
 
 import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_BYTES_STREAMING_MAX_BUFFER_SIZE;
 import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.api.util.DataSize;
 
 /**
- * Configuration for a {@link InputStreamBuffer} which uses a local file for buffering
+ * Configuration for a {@link CursorStream} which uses memory and a local file for buffering
  *
- * @since 4.0
+ * @since 4.1
  */
 public final class FileStoreCursorStreamConfig {
 
@@ -6,9 +6,13 @@
  */
 package org.mule.runtime.core.api.streaming.bytes;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_CHUNKED_BUFFERS;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.core.internal.streaming.bytes.BufferedCursorStream;
+import org.mule.runtime.core.internal.streaming.bytes.ChunkedInMemoryStreamBuffer;
 import org.mule.runtime.core.internal.streaming.bytes.InMemoryStreamBuffer;
+import org.mule.runtime.core.internal.streaming.bytes.InputStreamBuffer;
 
 import java.io.InputStream;
 
@@ -20,7 +24,7 @@ import java.io.InputStream;
  */
 public class InMemoryCursorStreamProvider extends AbstractCursorStreamProvider {
 
-  private final InMemoryStreamBuffer buffer;
+  private final InputStreamBuffer buffer;
 
   /**
    * Creates a new instance
@@ -32,8 +36,26 @@ public class InMemoryCursorStreamProvider extends AbstractCursorStreamProvider {
   public InMemoryCursorStreamProvider(InputStream wrappedStream,
                                       InMemoryCursorStreamConfig config,
                                       ByteBufferManager bufferManager) {
+    this(wrappedStream, config, bufferManager, getBoolean(MULE_STREAMING_CHUNKED_BUFFERS));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param wrappedStream  the stream to buffer from
+   * @param config         the config of the generated buffer
+   * @param bufferManager  the {@link ByteBufferManager} that will be used to allocate all buffers
+   * @param chunkedBuffer  whether to use a {@link ChunkedInMemoryStreamBuffer}, which grows without copying the buffered data
+   * @since 4.1
+   */
+  public InMemoryCursorStreamProvider(InputStream wrappedStream,
+                                      InMemoryCursorStreamConfig config,
+                                      ByteBufferManager bufferManager,
+                                      boolean chunkedBuffer) {
     super(wrappedStream);
-    buffer = new InMemoryStreamBuffer(wrappedStream, config, bufferManager);
+    buffer = chunkedBuffer
+        ? new ChunkedInMemoryStreamBuffer(wrappedStream, config, bufferManager)
+        : new InMemoryStreamBuffer(wrappedStream, config, bufferManager);
   }
 
   /**
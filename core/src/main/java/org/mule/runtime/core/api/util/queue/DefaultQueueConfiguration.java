@@ -6,18 +6,56 @@
  */
 package org.mule.runtime.core.api.util.queue;
 
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.util.Arrays.asList;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.queue.PersistentQueueStoreType.DUAL_FILE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.slf4j.Logger;
+
 public class DefaultQueueConfiguration implements QueueConfiguration {
 
+  private static final Logger LOGGER = getLogger(DefaultQueueConfiguration.class);
+
+  /**
+   * System property to set the {@link PersistentQueueStoreType} used by persistent queues that don't specify one, including the
+   * queues opened to recover pending transactions on startup.
+   */
+  public static final String PERSISTENT_STORE_TYPE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "queue.persistentStoreType";
+
   private final boolean persistent;
   private final int capacity;
+  private final PersistentQueueStoreType persistentStoreType;
 
   public DefaultQueueConfiguration() {
     this(QueueConfiguration.MAXIMUM_CAPACITY, false);
   }
 
   public DefaultQueueConfiguration(int capacity, boolean isPersistent) {
+    this(capacity, isPersistent, isPersistent ? getDefaultPersistentStoreType() : DUAL_FILE);
+  }
+
+  public DefaultQueueConfiguration(int capacity, boolean isPersistent, PersistentQueueStoreType persistentStoreType) {
     this.capacity = capacity;
     this.persistent = isPersistent;
+    this.persistentStoreType = persistentStoreType;
+  }
+
+  private static PersistentQueueStoreType getDefaultPersistentStoreType() {
+    String storeType = getProperty(PERSISTENT_STORE_TYPE_PROPERTY);
+    if (storeType == null) {
+      return DUAL_FILE;
+    }
+    for (PersistentQueueStoreType type : PersistentQueueStoreType.values()) {
+      if (type.name().equalsIgnoreCase(storeType.trim())) {
+        return type;
+      }
+    }
+    LOGGER.warn(format("Invalid value '%s' for system property %s, valid values are %s. Using %s instead.", storeType,
+                       PERSISTENT_STORE_TYPE_PROPERTY, asList(PersistentQueueStoreType.values()), DUAL_FILE));
+    return DUAL_FILE;
   }
 
   @Override
@@ -30,9 +68,15 @@ public class DefaultQueueConfiguration implements QueueConfiguration {
     return capacity;
   }
 
+  @Override
+  public PersistentQueueStoreType getPersistentStoreType() {
+    return persistentStoreType;
+  }
+
   @Override
   public String toString() {
-    return String.format("DefaultQueueConfiguration{" + "persistent=%s, capacity=%s}", persistent, capacity);
+    return String.format("DefaultQueueConfiguration{" + "persistent=%s, capacity=%s, persistentStoreType=%s}", persistent,
+                         capacity, persistentStoreType);
   }
 
   @Override
@@ -43,6 +87,7 @@ public class DefaultQueueConfiguration implements QueueConfiguration {
     if (!obj.getClass().equals(this.getClass())) {
       return false;
     }
-    return persistent == ((DefaultQueueConfiguration) obj).persistent && capacity == ((DefaultQueueConfiguration) obj).capacity;
+    return persistent == ((DefaultQueueConfiguration) obj).persistent && capacity == ((DefaultQueueConfiguration) obj).capacity
+        && persistentStoreType == ((DefaultQueueConfiguration) obj).persistentStoreType;
   }
 }
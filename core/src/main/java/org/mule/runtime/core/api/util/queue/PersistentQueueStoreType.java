@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.util.queue;
+
+/**
+ * Storage layouts available for persistent queues.
+ *
+ * @since 4.1
+ */
+public enum PersistentQueueStoreType {
+
+  /**
+   * Two alternating random access files, each one holding the entries together with their removed flag.
+   */
+  DUAL_FILE,
+
+  /**
+   * Append-only memory-mapped segment files with a separate consumer offset file. Fully consumed segments are deleted in
+   * background.
+   */
+  SEGMENTED_LOG
+}
@@ -17,4 +17,12 @@ public interface QueueConfiguration {
 
   int getCapacity();
 
+  /**
+   * @return the storage layout to use for this queue when {@link #isPersistent()} is {@code true}.
+   * @since 4.1
+   */
+  default PersistentQueueStoreType getPersistentStoreType() {
+    return PersistentQueueStoreType.DUAL_FILE;
+  }
+
 }
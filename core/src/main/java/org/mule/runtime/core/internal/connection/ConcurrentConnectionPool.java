@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Double.parseDouble;
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.identityHashCode;
+import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.lang.ref.WeakReference;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.ObjectPool;
+import org.slf4j.Logger;
+
+/**
+ * {@link ObjectPool} of connections that doesn't synchronize borrowing and returning connections.
+ * <p>
+ * Each connection has an atomic state that borrowers reserve with a compare and set, so idle connections are found without
+ * locking. A thread first tries to reserve the connection it returned last, which is usually idle when the same thread borrows
+ * and returns connections repeatedly. Otherwise it takes one from a lock-free queue of idle connections, so neither borrowing
+ * nor returning scans the whole pool.
+ * <p>
+ * When the pool is exhausted, threads block on the queue of idle connections until one is returned, or until the slot of a
+ * destroyed connection is released so that they can create a new one. Returning threads never wait for them. The number of
+ * waiting threads is bounded by {@link #MAX_WAITERS_PROPERTY}.
+ * <p>
+ * A housekeeping task evicts connections idle for longer than {@link PoolingProfile#getMinEvictionMillis()} and, if
+ * {@link #LEAK_DETECTION_THRESHOLD_PROPERTY} is set, logs the stack trace of where connections that are held for longer than the
+ * threshold were borrowed. A sample of the connections reused from the pool are validated before being borrowed, according to
+ * {@link #VALIDATION_SAMPLE_RATE_PROPERTY}.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.1
+ */
+final class ConcurrentConnectionPool<C> extends BaseObjectPool<C> {
+
+  static final String MAX_WAITERS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.maxWaiters";
+  static final String VALIDATION_SAMPLE_RATE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.validationSampleRate";
+  static final String LEAK_DETECTION_THRESHOLD_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.leakDetectionThreshold";
+  static final int DEFAULT_MAX_WAITERS = 1000;
+
+  private static final Logger LOGGER = getLogger(ConcurrentConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int REMOVED = 2;
+
+  private final ConnectionProvider<C> connectionProvider;
+  private final int maxActive;
+  private final int maxIdle;
+  private final long maxWait;
+  private final int exhaustedAction;
+  private final long minEvictionMillis;
+  private final int maxWaiters;
+  private final double validationSampleRate;
+  private final long leakDetectionThreshold;
+
+  private final ConcurrentMap<ConnectionKey, PooledConnection<C>> connections = new ConcurrentHashMap<>();
+  private final LinkedTransferQueue<PooledConnection<C>> idleConnections = new LinkedTransferQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReturned = new ThreadLocal<>();
+  private final PooledConnection<C> slotReleased = new PooledConnection<>(null, REMOVED);
+  private final ScheduledFuture<?> housekeeping;
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to create and destroy connections
+   * @param poolingProfile the {@link PoolingProfile} which configures the pool
+   * @param scheduler the {@link Scheduler} in which housekeeping runs
+   */
+  ConcurrentConnectionPool(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile, Scheduler scheduler) {
+    this.connectionProvider = connectionProvider;
+    this.maxActive = poolingProfile.getMaxActive() < 0 ? MAX_VALUE : poolingProfile.getMaxActive();
+    this.maxIdle = poolingProfile.getMaxIdle() < 0 ? MAX_VALUE : poolingProfile.getMaxIdle();
+    this.maxWait = poolingProfile.getMaxWait();
+    this.exhaustedAction = poolingProfile.getExhaustedAction();
+    this.minEvictionMillis = poolingProfile.getMinEvictionMillis();
+    this.maxWaiters = getInteger(MAX_WAITERS_PROPERTY, DEFAULT_MAX_WAITERS);
+    this.validationSampleRate = parseDouble(getProperty(VALIDATION_SAMPLE_RATE_PROPERTY, "0"));
+    this.leakDetectionThreshold = getLong(LEAK_DETECTION_THRESHOLD_PROPERTY, 0L);
+
+    long housekeepingInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (housekeepingInterval <= 0 && leakDetectionThreshold > 0) {
+      housekeepingInterval = leakDetectionThreshold;
+    }
+    housekeeping = housekeepingInterval > 0
+        ? scheduler.scheduleAtFixedRate(this::housekeep, housekeepingInterval, housekeepingInterval, MILLISECONDS)
+        : null;
+  }
+
+  @Override
+  public C borrowObject() throws Exception {
+    assertOpen();
+    while (true) {
+      PooledConnection<C> connection = reserve();
+      if (connection.borrows++ == 0 || !shouldValidate() || isValid(connection)) {
+        if (leakDetectionThreshold > 0) {
+          connection.borrowedAt = currentTimeMillis();
+          connection.borrowStack = new Exception("Connection borrowed by thread " + Thread.currentThread().getName());
+        }
+        return connection.connection;
+      }
+      destroy(connection);
+    }
+  }
+
+  @Override
+  public void returnObject(C connection) throws Exception {
+    PooledConnection<C> pooled = find(connection);
+    if (pooled == null) {
+      connectionProvider.disconnect(connection);
+      return;
+    }
+    if (isClosed() || getNumIdle() >= maxIdle) {
+      destroy(pooled);
+      return;
+    }
+
+    pooled.lastUsed = currentTimeMillis();
+    pooled.borrowStack = null;
+    if (pooled.state.compareAndSet(IN_USE, IDLE)) {
+      active.decrementAndGet();
+      lastReturned.set(pooled.selfReference);
+      enqueueIdle(pooled);
+    }
+  }
+
+  @Override
+  public void invalidateObject(C connection) throws Exception {
+    PooledConnection<C> pooled = find(connection);
+    if (pooled != null) {
+      destroy(pooled);
+    } else {
+      connectionProvider.disconnect(connection);
+    }
+  }
+
+  @Override
+  public int getNumIdle() {
+    return connections.size() - active.get();
+  }
+
+  @Override
+  public int getNumActive() {
+    return active.get();
+  }
+
+  @Override
+  public void clear() {
+    connections.values().stream().filter(connection -> connection.state.compareAndSet(IDLE, REMOVED)).forEach(this::remove);
+  }
+
+  /**
+   * Closes the pool, destroying the idle connections. Connections that are in use are destroyed when returned.
+   */
+  @Override
+  public void close() throws Exception {
+    super.close();
+    if (housekeeping != null) {
+      housekeeping.cancel(false);
+    }
+    clear();
+    // wake up the threads waiting for a connection, so they find out the pool is closed
+    signalSlotReleased();
+  }
+
+  private PooledConnection<C> reserve() throws Exception {
+    WeakReference<PooledConnection<C>> reference = lastReturned.get();
+    if (reference != null) {
+      PooledConnection<C> connection = reference.get();
+      if (connection != null && reserve(connection)) {
+        return connection;
+      }
+    }
+
+    PooledConnection<C> connection = reserveIdle();
+    if (connection != null) {
+      return connection;
+    }
+    if (reserveSlot()) {
+      return create();
+    }
+    if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+      throw new NoSuchElementException("Pool exhausted");
+    } else if (exhaustedAction == WHEN_EXHAUSTED_GROW) {
+      size.incrementAndGet();
+      return create();
+    }
+    return await();
+  }
+
+  private PooledConnection<C> await() throws Exception {
+    if (waiters.incrementAndGet() > maxWaiters) {
+      waiters.decrementAndGet();
+      throw new NoSuchElementException("Pool exhausted and " + maxWaiters + " threads already waiting for a connection");
+    }
+    try {
+      final long deadline = maxWait > 0 ? nanoTime() + MILLISECONDS.toNanos(maxWait) : Long.MAX_VALUE;
+      do {
+        if (isClosed()) {
+          // let the next waiting thread find out as well
+          if (waiters.get() > 1) {
+            idleConnections.offer(slotReleased);
+          }
+          assertOpen();
+        }
+
+        // A connection may have been returned or destroyed before this thread was counted as a waiter
+        PooledConnection<C> connection = reserveIdle();
+        if (connection != null) {
+          return connection;
+        }
+        if (reserveSlot()) {
+          return create();
+        }
+
+        connection = idleConnections.poll(maxWait > 0 ? deadline - nanoTime() : Long.MAX_VALUE, NANOSECONDS);
+        if (connection != null && reserveQueued(connection)) {
+          return connection;
+        }
+      } while (nanoTime() < deadline);
+      throw new NoSuchElementException("Timeout waiting for idle connection");
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private PooledConnection<C> reserveIdle() {
+    boolean slotSignalTaken = false;
+    PooledConnection<C> connection;
+    while ((connection = idleConnections.poll()) != null) {
+      if (connection == slotReleased) {
+        slotSignalTaken = true;
+      } else if (reserveQueued(connection)) {
+        if (slotSignalTaken) {
+          // The released slot is still available, let a waiting thread know
+          signalSlotReleased();
+        }
+        return connection;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reserves a connection taken from the queue of idle connections. The queue may still hold connections that were reserved
+   * through {@link #lastReturned} or destroyed after being returned, which are discarded.
+   */
+  private boolean reserveQueued(PooledConnection<C> connection) {
+    if (connection == slotReleased) {
+      return false;
+    }
+    connection.queued.set(false);
+    return reserve(connection);
+  }
+
+  private boolean reserve(PooledConnection<C> connection) {
+    if (connection.state.compareAndSet(IDLE, IN_USE)) {
+      active.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private boolean reserveSlot() {
+    int current;
+    do {
+      current = size.get();
+      if (current >= maxActive) {
+        return false;
+      }
+    } while (!size.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private PooledConnection<C> create() throws Exception {
+    if (isClosed()) {
+      // the pool was closed after the slot was reserved
+      size.decrementAndGet();
+      assertOpen();
+    }
+
+    final C connection;
+    try {
+      connection = connectionProvider.connect();
+    } catch (Exception e) {
+      size.decrementAndGet();
+      signalSlotReleased();
+      throw e;
+    }
+
+    PooledConnection<C> pooled = new PooledConnection<>(connection, IN_USE);
+    active.incrementAndGet();
+    connections.put(pooled.key, pooled);
+    return pooled;
+  }
+
+  /**
+   * Adds the given connection to the queue of idle connections, unless it is still there. A thread waiting for a connection
+   * takes it right away.
+   */
+  private void enqueueIdle(PooledConnection<C> connection) {
+    if (connection.queued.compareAndSet(false, true)) {
+      idleConnections.offer(connection);
+    }
+  }
+
+  /**
+   * Lets a waiting thread know that it can create a new connection. Threads which start waiting afterwards find the released
+   * slot before blocking.
+   */
+  private void signalSlotReleased() {
+    if (waiters.get() > 0) {
+      idleConnections.offer(slotReleased);
+    }
+  }
+
+  private boolean shouldValidate() {
+    return validationSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < validationSampleRate;
+  }
+
+  private boolean isValid(PooledConnection<C> connection) {
+    try {
+      ConnectionValidationResult result = connectionProvider.validate(connection.connection);
+      return result != null && result.isValid();
+    } catch (Exception e) {
+      LOGGER.debug("Exception found validating pooled connection", e);
+      return false;
+    }
+  }
+
+  private PooledConnection<C> find(C connection) {
+    return connections.get(new ConnectionKey(connection));
+  }
+
+  private void destroy(PooledConnection<C> connection) {
+    int previousState = connection.state.getAndSet(REMOVED);
+    if (previousState == REMOVED) {
+      return;
+    }
+    if (previousState == IN_USE) {
+      active.decrementAndGet();
+    }
+    remove(connection);
+  }
+
+  private void remove(PooledConnection<C> connection) {
+    connections.remove(connection.key);
+    size.decrementAndGet();
+    try {
+      connectionProvider.disconnect(connection.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy pooled connection", e);
+    }
+    signalSlotReleased();
+  }
+
+  private void housekeep() {
+    final long now = currentTimeMillis();
+    for (PooledConnection<C> connection : connections.values()) {
+      if (minEvictionMillis > 0 && now - connection.lastUsed > minEvictionMillis
+          && connection.state.compareAndSet(IDLE, REMOVED)) {
+        remove(connection);
+      } else if (leakDetectionThreshold > 0 && connection.state.get() == IN_USE) {
+        Exception borrowStack = connection.borrowStack;
+        if (borrowStack != null && now - connection.borrowedAt > leakDetectionThreshold) {
+          // Only reported once per borrow
+          connection.borrowStack = null;
+          LOGGER.warn("Connection held for more than " + leakDetectionThreshold + " ms, it may have been leaked", borrowStack);
+        }
+      }
+    }
+  }
+
+  private static final class PooledConnection<C> {
+
+    private final C connection;
+    private final ConnectionKey key;
+    private final AtomicInteger state;
+    private final AtomicBoolean queued = new AtomicBoolean(false);
+    private final WeakReference<PooledConnection<C>> selfReference = new WeakReference<>(this);
+    private volatile long lastUsed = currentTimeMillis();
+    private volatile long borrowedAt;
+    private volatile Exception borrowStack;
+    private int borrows;
+
+    private PooledConnection(C connection, int state) {
+      this.connection = connection;
+      this.key = new ConnectionKey(connection);
+      this.state = new AtomicInteger(state);
+    }
+  }
+
+  /**
+   * Key of a connection in {@link #connections}. Connections are compared by identity, as they can't be assumed to implement
+   * {@link Object#equals(Object)} consistently.
+   */
+  private static final class ConnectionKey {
+
+    private final Object connection;
+
+    private ConnectionKey(Object connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ConnectionKey && ((ConnectionKey) obj).connection == connection;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(connection);
+    }
+  }
+}
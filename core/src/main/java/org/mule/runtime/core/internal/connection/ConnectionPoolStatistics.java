@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Gauges and borrow latencies of a pool of connections.
+ * <p>
+ * The borrow latency histogram has power of two buckets: bucket {@code 0} counts borrows that took less than a microsecond and
+ * bucket {@code i} counts borrows from {@code 2^(i-1)} up to {@code 2^i - 1} microseconds. The last bucket counts every longer
+ * borrow.
+ *
+ * @since 4.1
+ */
+public final class ConnectionPoolStatistics {
+
+  public static final int BORROW_LATENCY_BUCKETS = 32;
+
+  private final IntSupplier active;
+  private final IntSupplier idle;
+  private final IntSupplier pendingBorrows;
+  private final LongAdder borrows = new LongAdder();
+  private final AtomicLongArray borrowLatencies = new AtomicLongArray(BORROW_LATENCY_BUCKETS);
+
+  /**
+   * @param active supplies the number of connections currently borrowed.
+   * @param idle supplies the number of connections available in the pool.
+   * @param pendingBorrows supplies the number of threads borrowing a connection.
+   */
+  ConnectionPoolStatistics(IntSupplier active, IntSupplier idle, IntSupplier pendingBorrows) {
+    this.active = active;
+    this.idle = idle;
+    this.pendingBorrows = pendingBorrows;
+  }
+
+  void recordBorrow(long latencyNanos) {
+    borrows.increment();
+    borrowLatencies.incrementAndGet(getBorrowLatencyBucket(NANOSECONDS.toMicros(latencyNanos)));
+  }
+
+  /**
+   * @return the number of connections currently borrowed from the pool.
+   */
+  public int getActive() {
+    return active.getAsInt();
+  }
+
+  /**
+   * @return the number of connections available in the pool.
+   */
+  public int getIdle() {
+    return idle.getAsInt();
+  }
+
+  /**
+   * @return the number of threads currently borrowing a connection, including those waiting for one to be returned to an
+   *         exhausted pool.
+   */
+  public int getPendingBorrows() {
+    return pendingBorrows.getAsInt();
+  }
+
+  /**
+   * @return the number of connections borrowed from the pool.
+   */
+  public long getBorrows() {
+    return borrows.sum();
+  }
+
+  /**
+   * @return the number of borrows in each bucket of the borrow latency histogram.
+   */
+  public long[] getBorrowLatencyHistogram() {
+    long[] histogram = new long[BORROW_LATENCY_BUCKETS];
+    for (int i = 0; i < BORROW_LATENCY_BUCKETS; ++i) {
+      histogram[i] = borrowLatencies.get(i);
+    }
+    return histogram;
+  }
+
+  /**
+   * @param latencyMicros a borrow latency in microseconds.
+   * @return the bucket of the borrow latency histogram that counts the given latency.
+   */
+  public static int getBorrowLatencyBucket(long latencyMicros) {
+    return latencyMicros <= 0 ? 0 : min(BORROW_LATENCY_BUCKETS - 1, Long.SIZE - numberOfLeadingZeros(latencyMicros));
+  }
+}
@@ -6,7 +6,11 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.nanoTime;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
@@ -14,9 +18,11 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
@@ -24,15 +30,23 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p>
+ * The pool is a commons-pool {@link GenericObjectPool}, unless the {@link #CONCURRENT_POOL_PROPERTY} system property is set, in
+ * which case a {@link ConcurrentConnectionPool} is used.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
  */
 final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
 
+  static final String CONCURRENT_POOL_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.concurrent";
+
   private final PoolingProfile poolingProfile;
-  private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
+  private final AtomicInteger borrowing = new AtomicInteger();
+  private Scheduler housekeepingScheduler;
+  private final ObjectPool<C> pool;
+  private final ConnectionPoolStatistics statistics;
 
   /**
    * Creates a new instance
@@ -48,6 +62,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
     pool = createPool();
+    statistics = new ConnectionPoolStatistics(pool::getNumActive, pool::getNumIdle, borrowing::get);
   }
 
   /**
@@ -70,7 +85,15 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private C borrowConnection() throws Exception {
-    C connection = pool.borrowObject();
+    final long start = nanoTime();
+    C connection;
+    borrowing.incrementAndGet();
+    try {
+      connection = pool.borrowObject();
+    } finally {
+      borrowing.decrementAndGet();
+    }
+    statistics.recordBorrow(nanoTime() - start);
     try {
       poolingListener.onBorrow(connection);
     } catch (Exception e) {
@@ -93,10 +116,19 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
       pool.close();
     } catch (Exception e) {
       throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    } finally {
+      if (housekeepingScheduler != null) {
+        housekeepingScheduler.stop();
+      }
     }
   }
 
   private ObjectPool<C> createPool() {
+    if (getBoolean(CONCURRENT_POOL_PROPERTY)) {
+      housekeepingScheduler = muleContext.getSchedulerService().ioScheduler();
+      return new ConcurrentConnectionPool<>(connectionProvider, poolingProfile, housekeepingScheduler);
+    }
+
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -113,6 +145,13 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return poolingProfile;
   }
 
+  /**
+   * @return the gauges and borrow latencies of the {@link #pool}
+   */
+  public ConnectionPoolStatistics getPoolStatistics() {
+    return statistics;
+  }
+
   private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
 
     @Override
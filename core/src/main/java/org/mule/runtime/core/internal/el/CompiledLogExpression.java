@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+
+/**
+ * A logging expression prepared by an {@link ExpressionLanguageAdaptor} to be evaluated many times.
+ *
+ * @since 4.1
+ */
+@FunctionalInterface
+public interface CompiledLogExpression {
+
+  /**
+   * Evaluates the expression in the same way as
+   * {@link ExpressionLanguageAdaptor#evaluateLogExpression(String, CoreEvent, ComponentLocation, BindingContext)} does.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param bindingContext the bindings to consider
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   */
+  TypedValue<?> evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext)
+      throws ExpressionRuntimeException;
+}
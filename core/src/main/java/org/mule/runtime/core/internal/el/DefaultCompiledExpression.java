@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.metadata.DataType.BOOLEAN;
+import static org.mule.runtime.core.api.util.StreamingUtils.updateTypedValueForStreaming;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+
+import java.util.Iterator;
+
+/**
+ * {@link CompiledExpression} created by the {@link DefaultExpressionManager}, bound to the expression language adaptor that was
+ * resolved for the expression when compiling it.
+ *
+ * @since 4.1
+ */
+final class DefaultCompiledExpression implements CompiledExpression {
+
+  private final DefaultExpressionManager expressionManager;
+  private final StreamingManager streamingManager;
+  private final ExtendedExpressionLanguageAdaptor expressionLanguage;
+  private final String expression;
+
+  DefaultCompiledExpression(DefaultExpressionManager expressionManager, StreamingManager streamingManager,
+                            ExtendedExpressionLanguageAdaptor expressionLanguage, String expression) {
+    this.expressionManager = expressionManager;
+    this.streamingManager = streamingManager;
+    this.expressionLanguage = expressionLanguage;
+    this.expression = expression;
+  }
+
+  @Override
+  public String getExpression() {
+    return expression;
+  }
+
+  @Override
+  public TypedValue<?> evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext context) {
+    return evaluate(event, event != null ? CoreEvent.builder(event) : null, componentLocation, context);
+  }
+
+  TypedValue evaluate(CoreEvent event, CoreEvent.Builder eventBuilder, ComponentLocation componentLocation,
+                      BindingContext context) {
+    return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, event, eventBuilder, componentLocation, context),
+                                        event, streamingManager);
+  }
+
+  @Override
+  public TypedValue<?> evaluate(DataType expectedOutputType, CoreEvent event, ComponentLocation componentLocation,
+                                BindingContext context, boolean failOnNull) {
+    return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, expectedOutputType, event, componentLocation,
+                                                                    context, failOnNull),
+                                        event, streamingManager);
+  }
+
+  @Override
+  public boolean evaluateBoolean(CoreEvent event, ComponentLocation componentLocation, boolean nullReturnsTrue,
+                                 boolean nonBooleanReturnsTrue) {
+    return expressionManager.resolveBoolean(evaluate(BOOLEAN, event, componentLocation, NULL_BINDING_CONTEXT, false).getValue(),
+                                            nullReturnsTrue, nonBooleanReturnsTrue, expression);
+  }
+
+  @Override
+  public Iterator<TypedValue<?>> split(CoreEvent event, ComponentLocation componentLocation, BindingContext context) {
+    if (componentLocation != null) {
+      return expressionLanguage.split(expression, event, componentLocation, context);
+    } else {
+      return expressionLanguage.split(expression, event, context);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledExpression[" + expression + "]";
+  }
+}
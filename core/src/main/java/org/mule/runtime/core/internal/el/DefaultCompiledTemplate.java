@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static java.lang.ThreadLocal.withInitial;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.core.api.el.CompiledTemplate;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.util.List;
+
+/**
+ * {@link CompiledTemplate} made of a sequence of {@link TemplateSegment segments}, the results of which are concatenated.
+ * <p>
+ * To avoid allocating a new buffer for each evaluation, results are appended to a {@link StringBuilder} reused by all the
+ * templates evaluated in the same thread. A template evaluated while another one is being evaluated in the same thread, as when
+ * an expression logs something, uses a buffer of its own.
+ *
+ * @since 4.1
+ */
+final class DefaultCompiledTemplate implements CompiledTemplate {
+
+  /**
+   * Buffers that grow above this capacity are not kept for reuse, so a single large result doesn't stay in memory.
+   */
+  static final int MAX_REUSED_BUFFER_CAPACITY = 8 * 1024;
+
+  private static final ThreadLocal<ReusableBuffer> BUFFER = withInitial(ReusableBuffer::new);
+
+  private final String template;
+  private final TemplateSegment[] segments;
+
+  DefaultCompiledTemplate(String template, List<TemplateSegment> segments) {
+    this.template = template;
+    this.segments = segments.toArray(new TemplateSegment[segments.size()]);
+  }
+
+  /**
+   * Creates a segment for a literal part of a template.
+   *
+   * @param literal the literal text
+   * @return a segment that always resolves to {@code literal}
+   */
+  static TemplateSegment literal(String literal) {
+    return (event, componentLocation, bindingContext) -> literal;
+  }
+
+  @Override
+  public String getTemplate() {
+    return template;
+  }
+
+  @Override
+  public String evaluate(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext) {
+    if (segments.length == 0) {
+      return "";
+    } else if (segments.length == 1) {
+      return segments[0].resolve(event, componentLocation, bindingContext);
+    }
+
+    final ReusableBuffer buffer = BUFFER.get();
+    if (buffer.inUse) {
+      return append(new StringBuilder(), event, componentLocation, bindingContext).toString();
+    }
+
+    buffer.inUse = true;
+    try {
+      return append(buffer.builder, event, componentLocation, bindingContext).toString();
+    } finally {
+      buffer.release();
+    }
+  }
+
+  private StringBuilder append(StringBuilder builder, CoreEvent event, ComponentLocation componentLocation,
+                               BindingContext bindingContext) {
+    for (TemplateSegment segment : segments) {
+      builder.append(segment.resolve(event, componentLocation, bindingContext));
+    }
+    return builder;
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledTemplate[" + template + "]";
+  }
+
+  /**
+   * A part of a template, either literal or an expression.
+   */
+  @FunctionalInterface
+  interface TemplateSegment {
+
+    /**
+     * @param event the current event being processed
+     * @param componentLocation the location of the component where the event is being processed
+     * @param bindingContext the bindings to consider
+     * @return the text this segment resolves to for the given event
+     */
+    String resolve(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext);
+  }
+
+  private static final class ReusableBuffer {
+
+    private StringBuilder builder = new StringBuilder();
+    private boolean inUse;
+
+    private void release() {
+      if (builder.capacity() > MAX_REUSED_BUFFER_CAPACITY) {
+        builder = new StringBuilder();
+      } else {
+        builder.setLength(0);
+      }
+      inUse = false;
+    }
+  }
+}
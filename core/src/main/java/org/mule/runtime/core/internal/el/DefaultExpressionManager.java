@@ -6,7 +6,11 @@
  */
 package org.mule.runtime.core.internal.el;
 
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static java.util.Collections.singletonList;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.ValidationResult.failure;
 import static org.mule.runtime.api.el.ValidationResult.success;
@@ -14,8 +18,9 @@ import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.metadata.DataType.STRING;
 import static org.mule.runtime.core.api.config.MuleProperties.COMPATIBILITY_PLUGIN_INSTALLED;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_EXPRESSION_LANGUAGE;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.util.ClassUtils.isInstance;
-import static org.mule.runtime.core.api.util.StreamingUtils.updateTypedValueForStreaming;
+import static org.mule.runtime.core.internal.el.DefaultCompiledTemplate.literal;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.artifact.Registry;
@@ -24,12 +29,15 @@ import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.el.DefaultValidationResult;
 import org.mule.runtime.api.el.ExpressionExecutionException;
 import org.mule.runtime.api.el.ValidationResult;
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.event.CoreEvent.Builder;
@@ -37,6 +45,7 @@ import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistries;
+import org.mule.runtime.core.internal.el.DefaultCompiledTemplate.TemplateSegment;
 import org.mule.runtime.core.internal.el.dataweave.DataWeaveExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.el.mvel.MVELExpressionLanguage;
 import org.mule.runtime.core.internal.util.OneTimeWarning;
@@ -51,6 +60,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 public class DefaultExpressionManager implements ExtendedExpressionManager, Initialisable {
 
   public static final String DW_PREFIX = "dw";
@@ -59,6 +73,13 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   public static final int DW_PREFIX_LENGTH = (DW_PREFIX + PREFIX_EXPR_SEPARATOR).length();
   private static final Logger LOGGER = getLogger(DefaultExpressionManager.class);
 
+  /**
+   * System property to set the maximum number of compiled expressions cached for evaluating plain string expressions.
+   */
+  public static final String COMPILED_EXPRESSIONS_CACHE_SIZE_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "expression.compiledExpressionsCacheSize";
+  private static final int DEFAULT_COMPILED_EXPRESSIONS_CACHE_SIZE = 1000;
+
   private final OneTimeWarning parseWarning = new OneTimeWarning(LOGGER,
                                                                  "Expression parsing is deprecated, regular expressions should be used instead.");
 
@@ -73,6 +94,19 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   private final TemplateParser parser = TemplateParser.createMuleStyleParser();
   private boolean melDefault;
 
+  // Backs the evaluation of plain string expressions, so the language of each one is resolved only once
+  private final LoadingCache<String, DefaultCompiledExpression> compiledExpressions = newBuilder()
+      .maximumSize(getInteger(COMPILED_EXPRESSIONS_CACHE_SIZE_PROPERTY, DEFAULT_COMPILED_EXPRESSIONS_CACHE_SIZE))
+      .recordStats()
+      .build(new CacheLoader<String, DefaultCompiledExpression>() {
+
+        @Override
+        public DefaultCompiledExpression load(String expression) {
+          return new DefaultCompiledExpression(DefaultExpressionManager.this, streamingManager,
+                                               expressionLanguage.selectExpressionLanguage(expression), expression);
+        }
+      });
+
   @Override
   public void initialise() throws InitialisationException {
     if (!initialized.getAndSet(true)) {
@@ -143,8 +177,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   private TypedValue evaluate(String expression, CoreEvent event, CoreEvent.Builder eventBuilder,
                               ComponentLocation componentLocation,
                               BindingContext context) {
-    return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, event, eventBuilder, componentLocation, context),
-                                        event, streamingManager);
+    return compileCached(expression).evaluate(event, eventBuilder, componentLocation, context);
   }
 
   @Override
@@ -171,9 +204,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   public TypedValue evaluate(String expression, DataType outputType, BindingContext context, CoreEvent event,
                              ComponentLocation componentLocation, boolean failOnNull)
       throws ExpressionRuntimeException {
-    return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, outputType, event, componentLocation, context,
-                                                                    failOnNull),
-                                        event, streamingManager);
+    return compileCached(expression).evaluate(outputType, event, componentLocation, context, failOnNull);
   }
 
   private TypedValue transform(TypedValue target, DataType sourceType, DataType outputType) throws TransformerException {
@@ -204,9 +235,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
                                  boolean nullReturnsTrue,
                                  boolean nonBooleanReturnsTrue)
       throws ExpressionRuntimeException {
-    return resolveBoolean(evaluate(expression, DataType.BOOLEAN, NULL_BINDING_CONTEXT, event, componentLocation, false)
-        .getValue(), nullReturnsTrue,
-                          nonBooleanReturnsTrue, expression);
+    return compileCached(expression).evaluateBoolean(event, componentLocation, nullReturnsTrue, nonBooleanReturnsTrue);
   }
 
   protected boolean resolveBoolean(Object result, boolean nullReturnsTrue, boolean nonBooleanReturnsTrue, String expression) {
@@ -234,20 +263,12 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   @Override
   public String parse(String expression, CoreEvent event, ComponentLocation componentLocation)
       throws ExpressionRuntimeException {
-    Builder eventBuilder = CoreEvent.builder(event);
-
-    if ((!hasDwExpression(expression) && !hasMelExpression(expression) && melDefault) || hasMelExpression(expression)) {
+    if (isMelTemplate(expression)) {
       parseWarning.warn();
+      Builder eventBuilder = CoreEvent.builder(event);
       return parser.parse(token -> melParseEvaluation(event, componentLocation, eventBuilder, token), expression);
     } else if (isExpression(expression)) {
-      TypedValue evaluation = evaluate(expression, event, eventBuilder, componentLocation);
-      try {
-        return (String) transform(evaluation, evaluation.getDataType(), STRING).getValue();
-      } catch (TransformerException e) {
-        throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.", evaluation.getDataType(),
-                                                                        STRING)),
-                                             e);
-      }
+      return evaluateAsString(expression, event, componentLocation, NULL_BINDING_CONTEXT);
     } else {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(format("No expression marker found in expression '%s'. Parsing as plain String.", expression));
@@ -256,17 +277,47 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     }
   }
 
+  @Override
+  public CompiledTemplate compileTemplate(String template) {
+    final TemplateSegment segment;
+    if (isMelTemplate(template)) {
+      segment = (event, componentLocation, bindingContext) -> parse(template, event, componentLocation);
+    } else if (isExpression(template)) {
+      final CompiledExpression expression = compile(template);
+      segment = (event, componentLocation, bindingContext) -> asString(expression.evaluate(event, componentLocation,
+                                                                                          bindingContext));
+    } else {
+      segment = literal(template);
+    }
+    return new DefaultCompiledTemplate(template, singletonList(segment));
+  }
+
+  private String evaluateAsString(String expression, CoreEvent event, ComponentLocation componentLocation,
+                                  BindingContext bindingContext) {
+    return asString(evaluate(expression, event, CoreEvent.builder(event), componentLocation, bindingContext));
+  }
+
+  private String asString(TypedValue evaluation) {
+    try {
+      return (String) transform(evaluation, evaluation.getDataType(), STRING).getValue();
+    } catch (TransformerException e) {
+      throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.", evaluation.getDataType(),
+                                                                      STRING)),
+                                           e);
+    }
+  }
+
   @Override
   public Iterator<TypedValue<?>> split(String expression, CoreEvent event, ComponentLocation componentLocation,
                                        BindingContext bindingContext)
       throws ExpressionRuntimeException {
-    return expressionLanguage.split(expression, event, componentLocation, bindingContext);
+    return compileCached(expression).split(event, componentLocation, bindingContext);
   }
 
   @Override
   public Iterator<TypedValue<?>> split(String expression, CoreEvent event, BindingContext bindingContext)
       throws ExpressionRuntimeException {
-    return expressionLanguage.split(expression, event, bindingContext);
+    return compileCached(expression).split(event, null, bindingContext);
   }
 
   @Override
@@ -274,28 +325,51 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
                                  BindingContext bindingContext)
       throws ExpressionRuntimeException {
 
-    if ((!hasDwExpression(template) && !hasMelExpression(template) && melDefault) || hasMelExpression(template)) {
+    if (isMelTemplate(template)) {
       Builder eventBuilder = CoreEvent.builder(event);
       return parser.parse(token -> melParseEvaluation(event, componentLocation, eventBuilder, token), template);
     } else {
-      return parser.parse(token -> {
-        TypedValue<?> evaluation = expressionLanguage.evaluateLogExpression(token, event, componentLocation, bindingContext);
-        if (evaluation.getValue() instanceof Message) {
-          evaluation = ((Message) evaluation.getValue()).getPayload();
-        }
-        try {
-          return transform(evaluation, evaluation.getDataType(), STRING).getValue();
-        } catch (TransformerException e) {
-          throw new ExpressionRuntimeException(
-                                               createStaticMessage(format("Failed to transform %s to %s.",
-                                                                          evaluation.getDataType(),
-                                                                          STRING)),
-                                               e);
-        }
-      }, template);
+      return parser.parse(token -> logValue(expressionLanguage.evaluateLogExpression(token, event, componentLocation,
+                                                                                       bindingContext)),
+                          template);
+    }
+  }
+
+  @Override
+  public CompiledTemplate compileLogTemplate(String template) {
+    if (isMelTemplate(template)) {
+      TemplateSegment segment = (event, componentLocation, bindingContext) -> parseLogTemplate(template, event, componentLocation,
+                                                                                             bindingContext);
+      return new DefaultCompiledTemplate(template, singletonList(segment));
+    } else {
+      return new DefaultCompiledTemplate(template, parser.tokenize(template, DefaultCompiledTemplate::literal,
+                                                                   this::compileLogExpression));
+    }
+  }
+
+  private TemplateSegment compileLogExpression(String expression) {
+    CompiledLogExpression compiled = expressionLanguage.compileLogExpression(expression);
+    return (event, componentLocation, bindingContext) -> valueOf(logValue(compiled.evaluate(event, componentLocation,
+                                                                                            bindingContext)));
+  }
+
+  private Object logValue(TypedValue<?> evaluation) {
+    if (evaluation.getValue() instanceof Message) {
+      evaluation = ((Message) evaluation.getValue()).getPayload();
+    }
+    try {
+      return transform(evaluation, evaluation.getDataType(), STRING).getValue();
+    } catch (TransformerException e) {
+      throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.", evaluation.getDataType(),
+                                                                      STRING)),
+                                           e);
     }
   }
 
+  private boolean isMelTemplate(String template) {
+    return (!hasDwExpression(template) && !hasMelExpression(template) && melDefault) || hasMelExpression(template);
+  }
+
   private Object melParseEvaluation(CoreEvent event, ComponentLocation componentLocation, Builder eventBuilder, String token) {
     Object result = evaluate(token, event, eventBuilder, componentLocation).getValue();
     if (result instanceof Message) {
@@ -305,6 +379,38 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     }
   }
 
+  @Override
+  public CompiledExpression compile(String expression) {
+    return compileCached(expression);
+  }
+
+  private DefaultCompiledExpression compileCached(String expression) {
+    try {
+      return compiledExpressions.getUnchecked(expression);
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else {
+        throw new MuleRuntimeException(e.getCause());
+      }
+    }
+  }
+
+  /**
+   * @return the number of compiled expressions currently cached
+   */
+  long getCompiledExpressionsCacheSize() {
+    return compiledExpressions.size();
+  }
+
+  /**
+   * @return the hit, miss and eviction counts of the cache of compiled expressions used to evaluate string expressions
+   * @since 4.1
+   */
+  public CacheStats getCompiledExpressionsCacheStats() {
+    return compiledExpressions.stats();
+  }
+
   @Override
   public boolean isExpression(String expression) {
     return expression.contains(DEFAULT_EXPRESSION_PREFIX);
@@ -354,7 +460,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
 
   @Override
   public Iterator<TypedValue<?>> split(String expression, BindingContext context) {
-    return expressionLanguage.split(expression, null, context);
+    return compileCached(expression).split(null, null, context);
   }
 
   /**
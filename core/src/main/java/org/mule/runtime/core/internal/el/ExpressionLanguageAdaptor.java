@@ -104,6 +104,19 @@ public interface ExpressionLanguageAdaptor {
                                       BindingContext bindingContext)
       throws ExpressionRuntimeException;
 
+  /**
+   * Prepares a logging expression to be evaluated many times, resolving only once whatever doesn't depend on the event it is
+   * evaluated against.
+   *
+   * @param expression the EL expression
+   * @return a {@link CompiledLogExpression} equivalent to calling
+   *         {@link #evaluateLogExpression(String, CoreEvent, ComponentLocation, BindingContext)} with {@code expression}
+   */
+  default CompiledLogExpression compileLogExpression(String expression) {
+    return (event, componentLocation, bindingContext) -> evaluateLogExpression(expression, event, componentLocation,
+                                                                               bindingContext);
+  }
+
   /**
    * Verifies whether an expression is valid or not syntactically.
    *
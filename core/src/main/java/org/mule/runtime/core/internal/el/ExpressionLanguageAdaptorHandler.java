@@ -106,6 +106,11 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     return selectExpressionLanguage(expression).evaluateLogExpression(expression, event, componentLocation, bindingContext);
   }
 
+  @Override
+  public CompiledLogExpression compileLogExpression(String expression) {
+    return selectExpressionLanguage(expression).compileLogExpression(expression);
+  }
+
   @Override
   public ValidationResult validate(String expression) {
     return selectExpressionLanguage(expression).validate(expression);
@@ -146,7 +151,13 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     return selectExpressionLanguage(expression).split(expression, event, bindingContext);
   }
 
-  private ExtendedExpressionLanguageAdaptor selectExpressionLanguage(String expression) {
+  /**
+   * Resolves the expression language to use for the given expression, based on its prefix.
+   *
+   * @param expression the expression to resolve the language for
+   * @return the adaptor of the expression language the expression is written in
+   */
+  ExtendedExpressionLanguageAdaptor selectExpressionLanguage(String expression) {
     final String languagePrefix = getLanguagePrefix(expression);
     if (isEmpty(languagePrefix)) {
       if (melDefault) {
@@ -34,6 +34,7 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.internal.el.CompiledLogExpression;
 import org.mule.runtime.core.internal.el.ExtendedExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.el.context.MuleInstanceContext;
 import org.mule.runtime.core.internal.el.context.ServerContext;
@@ -146,6 +147,21 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
                                                     bindingContextBuilderFor(componentLocation, event, bindingContext).build());
   }
 
+  @Override
+  public CompiledLogExpression compileLogExpression(String expression) {
+    final String sanitized;
+    try {
+      sanitized = sanitize(expression);
+    } catch (RuntimeException e) {
+      // Keep failing when evaluating, as it happens when the expression is not compiled
+      return (event, componentLocation, bindingContext) -> evaluateLogExpression(expression, event, componentLocation,
+                                                                                 bindingContext);
+    }
+
+    return (event, componentLocation, bindingContext) -> expressionExecutor
+        .evaluateLogExpression(sanitized, bindingContextBuilderFor(componentLocation, event, bindingContext).build());
+  }
+
   @Override
   public ValidationResult validate(String expression) {
     return expressionExecutor.validate(sanitize(expression));
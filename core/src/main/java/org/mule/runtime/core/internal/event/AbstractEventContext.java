@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.event;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
 import static org.mule.runtime.core.api.functional.Either.left;
 import static org.mule.runtime.core.api.functional.Either.right;
 import static reactor.core.publisher.Mono.empty;
@@ -25,12 +26,10 @@ import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -39,6 +38,11 @@ import reactor.core.publisher.MonoSink;
 
 /**
  * Base class for implementations of {@link BaseEventContext}
+ * <p>
+ * State transitions are done with compare and set operations instead of locks, so only the thread that performs a transition
+ * signals its callbacks. The callbacks of each transition are kept in an immutable stack that is only allocated when a second
+ * callback is registered, the first one being referenced directly. Once a transition happens its stack is replaced by a marker,
+ * so callbacks registered afterwards are signalled right away.
  *
  * @since 4.0
  */
@@ -52,14 +56,28 @@ abstract class AbstractEventContext implements BaseEventContext {
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventContext.class);
   private static final FlowExceptionHandler NULL_EXCEPTION_HANDLER = NullExceptionHandler.getInstance();
 
-  private transient final List<BaseEventContext> childContexts = new ArrayList<>();
+  private static final Object SIGNALLED = new Object();
+
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> STATE_UPDATER =
+      newUpdater(AbstractEventContext.class, "state");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Either> RESULT_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Either.class, "result");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, ChildContexts> CHILD_CONTEXTS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, ChildContexts.class, "childContexts");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Object> ON_RESPONSE_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Object.class, "onResponseConsumers");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Object> ON_COMPLETION_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Object.class, "onCompletionConsumers");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Object> ON_TERMINATED_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Object.class, "onTerminatedConsumers");
+
   private transient final FlowExceptionHandler exceptionHandler;
   private transient final CompletableFuture externalCompletion;
-  private transient final List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList = new ArrayList<>();
-  private transient final List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList = new ArrayList<>();
-  private transient final List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList = new ArrayList<>();
 
-  private ReadWriteLock childContextsReadWriteLock = new ReentrantReadWriteLock();
+  private transient volatile ChildContexts childContexts;
+  private transient volatile Object onResponseConsumers;
+  private transient volatile Object onCompletionConsumers;
+  private transient volatile Object onTerminatedConsumers;
 
   private volatile int state = STATE_READY;
   private volatile Either<Throwable, CoreEvent> result;
@@ -87,12 +105,10 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   void addChildContext(BaseEventContext childContext) {
-    childContextsReadWriteLock.writeLock().lock();
-    try {
-      childContexts.add(childContext);
-    } finally {
-      childContextsReadWriteLock.writeLock().unlock();
-    }
+    ChildContexts current;
+    do {
+      current = childContexts;
+    } while (!CHILD_CONTEXTS_UPDATER.compareAndSet(this, current, new ChildContexts(childContext, current)));
   }
 
   /**
@@ -164,47 +180,96 @@ abstract class AbstractEventContext implements BaseEventContext {
     }
   }
 
-  private synchronized void responseDone(Either<Throwable, CoreEvent> result) {
-    this.result = result;
+  private void responseDone(Either<Throwable, CoreEvent> result) {
+    if (!RESULT_UPDATER.compareAndSet(this, null, result)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(this + " response was already completed, ignoring.");
+      }
+      return;
+    }
     state = STATE_RESPONSE;
     tryComplete();
-    onResponseConsumerList.stream().forEach(consumer -> signalConsumerSilently(consumer));
+    signalConsumers(ON_RESPONSE_UPDATER);
   }
 
   protected void tryComplete() {
-    boolean allChildrenComplete;
-
-    childContextsReadWriteLock.readLock().lock();
-    try {
-      allChildrenComplete = childContexts.stream().allMatch(context -> context.isComplete());
-    } finally {
-      childContextsReadWriteLock.readLock().unlock();
+    // The state is checked first so that children completing before the response don't iterate over their siblings
+    if (state != STATE_RESPONSE || !allChildrenComplete()) {
+      return;
     }
-
-    synchronized (this) {
-      if (state == STATE_RESPONSE && allChildrenComplete) {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug(this + " completed.");
+    if (STATE_UPDATER.compareAndSet(this, STATE_RESPONSE, STATE_COMPLETE)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(this + " completed.");
+      }
+      signalConsumers(ON_COMPLETION_UPDATER);
+      getParentContext().ifPresent(context -> {
+        if (context instanceof AbstractEventContext) {
+          ((AbstractEventContext) context).tryComplete();
         }
-        this.state = STATE_COMPLETE;
-        onCompletionConsumerList.forEach(consumer -> signalConsumerSilently(consumer));
-        getParentContext().ifPresent(context -> {
-          if (context instanceof AbstractEventContext) {
-            ((AbstractEventContext) context).tryComplete();
-          }
-        });
-        tryTerminate();
+      });
+      tryTerminate();
+    }
+  }
+
+  private boolean allChildrenComplete() {
+    for (ChildContexts child = childContexts; child != null; child = child.next) {
+      if (!child.context.isComplete()) {
+        return false;
       }
     }
+    return true;
   }
 
-  protected synchronized void tryTerminate() {
-    if (this.state == STATE_COMPLETE && (externalCompletion == null || externalCompletion.isDone())) {
+  protected void tryTerminate() {
+    if ((externalCompletion == null || externalCompletion.isDone())
+        && STATE_UPDATER.compareAndSet(this, STATE_COMPLETE, STATE_TERMINATED)) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(this + " terminated.");
       }
-      this.state = STATE_TERMINATED;
-      onTerminatedConsumerList.forEach(consumer -> signalConsumerSilently(consumer));
+      signalConsumers(ON_TERMINATED_UPDATER);
+    }
+  }
+
+  /**
+   * Registers a consumer to be signalled once the given transition happens, or signals it right away if it already did.
+   */
+  private void addConsumer(AtomicReferenceFieldUpdater<AbstractEventContext, Object> consumersUpdater,
+                           BiConsumer<CoreEvent, Throwable> consumer) {
+    requireNonNull(consumer);
+    Object current;
+    do {
+      current = consumersUpdater.get(this);
+      if (current == SIGNALLED) {
+        signalConsumerSilently(consumer);
+        return;
+      }
+    } while (!consumersUpdater.compareAndSet(this, current,
+                                            current == null ? consumer : new Consumers(consumer, current)));
+  }
+
+  /**
+   * Signals the consumers registered for a transition, in the order they were registered.
+   */
+  private void signalConsumers(AtomicReferenceFieldUpdater<AbstractEventContext, Object> consumersUpdater) {
+    Object consumers = consumersUpdater.getAndSet(this, SIGNALLED);
+    if (consumers == null || consumers == SIGNALLED) {
+      return;
+    }
+    if (!(consumers instanceof Consumers)) {
+      signalConsumerSilently((BiConsumer<CoreEvent, Throwable>) consumers);
+      return;
+    }
+
+    // Reverse the stack so consumers are signalled in the order they were registered
+    Object reversed = null;
+    Object current = consumers;
+    while (current instanceof Consumers) {
+      reversed = new Consumers(((Consumers) current).consumer, reversed);
+      current = ((Consumers) current).next;
+    }
+    signalConsumerSilently((BiConsumer<CoreEvent, Throwable>) current);
+    for (Consumers node = (Consumers) reversed; node != null; node = (Consumers) node.next) {
+      signalConsumerSilently(node.consumer);
     }
   }
 
@@ -242,27 +307,18 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   @Override
-  public synchronized void onTerminated(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_TERMINATED) {
-      signalConsumerSilently(consumer);
-    }
-    onTerminatedConsumerList.add(requireNonNull(consumer));
+  public void onTerminated(BiConsumer<CoreEvent, Throwable> consumer) {
+    addConsumer(ON_TERMINATED_UPDATER, consumer);
   }
 
   @Override
-  public synchronized void onComplete(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_COMPLETE) {
-      signalConsumerSilently(consumer);
-    }
-    onCompletionConsumerList.add(requireNonNull(consumer));
+  public void onComplete(BiConsumer<CoreEvent, Throwable> consumer) {
+    addConsumer(ON_COMPLETION_UPDATER, consumer);
   }
 
   @Override
-  public synchronized void onResponse(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_RESPONSE) {
-      signalConsumerSilently(consumer);
-    }
-    onResponseConsumerList.add(requireNonNull(consumer));
+  public void onResponse(BiConsumer<CoreEvent, Throwable> consumer) {
+    addConsumer(ON_RESPONSE_UPDATER, consumer);
   }
 
   @Override
@@ -271,13 +327,7 @@ abstract class AbstractEventContext implements BaseEventContext {
       if (isResponseDone()) {
         signalPublisherSink(sink);
       } else {
-        synchronized (this) {
-          if (isResponseDone()) {
-            signalPublisherSink(sink);
-          } else {
-            onResponse((event, throwable) -> signalPublisherSink(sink));
-          }
-        }
+        onResponse((event, throwable) -> signalPublisherSink(sink));
       }
     });
   }
@@ -291,18 +341,43 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   public void forEachChild(Consumer<BaseEventContext> childConsumer) {
-    childContextsReadWriteLock.readLock().lock();
-    try {
-      for (BaseEventContext context : childContexts) {
-        if (!context.isTerminated()) {
-          childConsumer.accept(context);
-          if (context instanceof AbstractEventContext) {
-            ((AbstractEventContext) context).forEachChild(childConsumer);
-          }
+    for (ChildContexts child = childContexts; child != null; child = child.next) {
+      BaseEventContext context = child.context;
+      if (!context.isTerminated()) {
+        childConsumer.accept(context);
+        if (context instanceof AbstractEventContext) {
+          ((AbstractEventContext) context).forEachChild(childConsumer);
         }
       }
-    } finally {
-      childContextsReadWriteLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Immutable stack of the child contexts, most recent first.
+   */
+  private static final class ChildContexts {
+
+    private final BaseEventContext context;
+    private final ChildContexts next;
+
+    private ChildContexts(BaseEventContext context, ChildContexts next) {
+      this.context = context;
+      this.next = next;
+    }
+  }
+
+  /**
+   * Immutable stack of the consumers of a transition, most recent first. The oldest consumer is referenced directly by the
+   * last element.
+   */
+  private static final class Consumers {
+
+    private final BiConsumer<CoreEvent, Throwable> consumer;
+    private final Object next;
+
+    private Consumers(BiConsumer<CoreEvent, Throwable> consumer, Object next) {
+      this.consumer = consumer;
+      this.next = next;
     }
   }
 
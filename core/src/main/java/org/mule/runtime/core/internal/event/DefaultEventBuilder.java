@@ -34,10 +34,10 @@ import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.transformer.MessageTransformerException;
-import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 import org.mule.runtime.core.internal.message.DefaultMessageBuilder;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.CaseInsensitiveHashTrieMap;
 import org.mule.runtime.core.privileged.connector.DefaultReplyToHandler;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -62,7 +62,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private BaseEventContext context;
   private Message message;
-  private Map<String, TypedValue<?>> flowVariables = new HashMap<>();
+  private CaseInsensitiveHashTrieMap<TypedValue<?>> flowVariables = CaseInsensitiveHashTrieMap.empty();
   private Map<String, Object> internalParameters = new HashMap<>(4);
   private Error error;
   private Optional<GroupCorrelation> groupCorrelation = empty();
@@ -93,7 +93,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.flowVariables.putAll(event.getVariables());
+    this.flowVariables = CaseInsensitiveHashTrieMap.copyOf(event.getVariables());
     this.internalParameters.putAll(event.getInternalParameters());
   }
 
@@ -113,13 +113,14 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    copyFromTo(flowVariables, this.flowVariables);
+    this.flowVariables = toVariables(flowVariables);
+    this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value) {
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.with(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
 
@@ -127,14 +128,16 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    flowVariables = flowVariables.with(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder removeVariable(String key) {
-    this.modified = flowVariables.remove(key) != null || modified;
+    CaseInsensitiveHashTrieMap<TypedValue<?>> updated = flowVariables.without(key);
+    this.modified = updated != flowVariables || modified;
+    this.flowVariables = updated;
     return this;
   }
 
@@ -231,11 +234,28 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     }
   }
 
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
-    source.forEach((s, o) -> target
+  /**
+   * The variables of another event are reused as they are, since they are immutable and their values are already
+   * {@link TypedValue}s. Otherwise the values are wrapped as needed.
+   */
+  private CaseInsensitiveHashTrieMap<TypedValue<?>> toVariables(Map<String, ?> source) {
+    if (source instanceof CaseInsensitiveHashTrieMap && allTypedValues(source)) {
+      return (CaseInsensitiveHashTrieMap<TypedValue<?>>) source;
+    }
+
+    Map<String, TypedValue<?>> typedValues = new HashMap<>();
+    source.forEach((s, o) -> typedValues
         .put(s, o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o))));
-    this.modified = true;
+    return CaseInsensitiveHashTrieMap.copyOf(typedValues);
+  }
+
+  private boolean allTypedValues(Map<String, ?> source) {
+    for (Object value : source.values()) {
+      if (!(value instanceof TypedValue)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -265,14 +285,15 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private final boolean notificationsEnabled;
 
-    private final CaseInsensitiveHashMap<String, TypedValue<?>> variables;
+    private final CaseInsensitiveHashTrieMap<TypedValue<?>> variables;
     private final Map<String, ?> internalParameters;
 
     private final String legacyCorrelationId;
     private final Error error;
 
     // Use this constructor from the builder
-    private InternalEventImplementation(BaseEventContext context, Message message, Map<String, TypedValue<?>> variables,
+    private InternalEventImplementation(BaseEventContext context, Message message,
+                                        CaseInsensitiveHashTrieMap<TypedValue<?>> variables,
                                         Map<String, ?> internalParameters, MuleSession session, SecurityContext securityContext,
                                         Object replyToDestination, ReplyToHandler replyToHandler,
                                         Optional<GroupCorrelation> groupCorrelation, Error error,
@@ -281,7 +302,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       this.session = session;
       this.securityContext = securityContext;
       this.message = message;
-      this.variables = new CaseInsensitiveHashMap<>(variables);
+      this.variables = variables;
       this.internalParameters = internalParameters;
 
       this.replyToHandler = replyToHandler;
@@ -442,9 +463,14 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       this.message = message;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned map is immutable, and shares its structure with the variables of the events built from this one.
+     */
     @Override
     public Map<String, TypedValue<?>> getVariables() {
-      return unmodifiableMap(variables);
+      return variables;
     }
 
     @Override
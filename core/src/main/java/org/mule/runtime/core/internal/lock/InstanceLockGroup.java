@@ -6,77 +6,51 @@
  */
 package org.mule.runtime.core.internal.lock;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 
 /**
  * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * Locks are kept in a concurrent map along with the number of threads holding or waiting for them, so operations over different
+ * lock ids don't contend with each other. A lock is removed from the map once no thread holds or waits for it. As the count is
+ * only updated atomically with the mapping, a lock can't be removed while another thread is about to use it.
  */
 public class InstanceLockGroup implements LockGroup {
 
-  private Map<String, LockEntry> locks;
-  private Object lockAccessMonitor = new Object();
-  private LockProvider lockProvider;
+  private final Map<String, LockEntry> locks = new ConcurrentHashMap<>();
+  private final LockProvider lockProvider;
 
   public InstanceLockGroup(LockProvider lockProvider) {
     this.lockProvider = lockProvider;
-    this.locks = new HashMap<>();
   }
 
   @Override
   public void lock(String lockId) {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
-      }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
-    lockEntry.getLock().lock();
+    acquireEntry(lockId).getLock().lock();
   }
 
   @Override
-  public void unlock(String key) {
-    synchronized (lockAccessMonitor) {
-      LockEntry lockEntry = locks.get(key);
-      if (lockEntry != null) {
-        lockEntry.decrementLockCount();
-        if (!lockEntry.hasPendingLocks()) {
-          locks.remove(key);
-        }
-        lockEntry.getLock().unlock();
-      }
-      lockAccessMonitor.notifyAll();
+  public void unlock(String lockId) {
+    LockEntry lockEntry = locks.get(lockId);
+    if (lockEntry != null) {
+      lockEntry.getLock().unlock();
+      releaseEntry(lockId, lockEntry);
     }
   }
 
   @Override
   public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
-      }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
-    boolean lockAcquired = lockEntry.getLock().tryLock(timeout, timeUnit);
-    if (!lockAcquired) {
-      synchronized (lockAccessMonitor) {
-        lockEntry.decrementLockCount();
-        if (!lockEntry.hasPendingLocks()) {
-          locks.remove(lockId);
-        }
+    LockEntry lockEntry = acquireEntry(lockId);
+    boolean lockAcquired = false;
+    try {
+      lockAcquired = lockEntry.getLock().tryLock(timeout, timeUnit);
+    } finally {
+      if (!lockAcquired) {
+        releaseEntry(lockId, lockEntry);
       }
     }
     return lockAcquired;
@@ -84,43 +58,52 @@ public class InstanceLockGroup implements LockGroup {
 
   @Override
   public boolean tryLock(String lockId) {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
-      }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
+    LockEntry lockEntry = acquireEntry(lockId);
     boolean lockAcquired = lockEntry.getLock().tryLock();
     if (!lockAcquired) {
-      synchronized (lockAccessMonitor) {
-        lockEntry.decrementLockCount();
-        if (!lockEntry.hasPendingLocks()) {
-          locks.remove(lockId);
-        }
-      }
+      releaseEntry(lockId, lockEntry);
     }
     return lockAcquired;
   }
 
   @Override
   public void lockInterruptibly(String lockId) throws InterruptedException {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
+    LockEntry lockEntry = acquireEntry(lockId);
+    boolean lockAcquired = false;
+    try {
+      lockEntry.getLock().lockInterruptibly();
+      lockAcquired = true;
+    } finally {
+      if (!lockAcquired) {
+        releaseEntry(lockId, lockEntry);
       }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
     }
-    lockEntry.getLock().lockInterruptibly();
+  }
+
+  /**
+   * Obtains the entry for the given lock id, creating it if there isn't one, and counts the calling thread as using it.
+   */
+  private LockEntry acquireEntry(String lockId) {
+    return locks.compute(lockId, (id, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(id));
+      }
+      lockEntry.incrementLockCount();
+      return lockEntry;
+    });
+  }
+
+  /**
+   * Stops counting the calling thread as using the entry, removing it if no other thread uses it.
+   */
+  private void releaseEntry(String lockId, LockEntry lockEntry) {
+    locks.computeIfPresent(lockId, (id, current) -> {
+      if (current != lockEntry) {
+        return current;
+      }
+      lockEntry.decrementLockCount();
+      return lockEntry.hasPendingLocks() ? lockEntry : null;
+    });
   }
 
   public static class LockEntry {
@@ -151,8 +134,13 @@ public class InstanceLockGroup implements LockGroup {
 
   @Override
   public void dispose() {
-    synchronized (lockAccessMonitor) {
-      locks.clear();
-    }
+    locks.clear();
+  }
+
+  /**
+   * @return the number of locks currently held or waited for.
+   */
+  int getLocksCount() {
+    return locks.size();
   }
 }
@@ -24,7 +24,7 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
   private LockProvider lockProvider;
 
   @Override
-  public synchronized Lock createLock(String lockId) {
+  public Lock createLock(String lockId) {
     return new LockAdapter(lockId, lockGroup);
   }
 
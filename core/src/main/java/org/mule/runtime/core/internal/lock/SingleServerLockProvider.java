@@ -6,17 +6,39 @@
  */
 package org.mule.runtime.core.internal.lock;
 
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.System.getProperty;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@link LockProvider} implementation for applications running in a single mule server
+ * <p>
+ * Locks are fair by default, granting access to the longest-waiting thread. Unfair locks, which have a higher throughput under
+ * contention, may be used by setting the {@link #FAIR_LOCKS_PROPERTY} system property to {@code false}.
  */
 public class SingleServerLockProvider implements LockProvider {
 
+  public static final String FAIR_LOCKS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "lock.fair";
+
+  private final boolean fair;
+
+  public SingleServerLockProvider() {
+    this(parseBoolean(getProperty(FAIR_LOCKS_PROPERTY, "true")));
+  }
+
+  /**
+   * @param fair whether the created locks use a fair ordering policy.
+   */
+  public SingleServerLockProvider(boolean fair) {
+    this.fair = fair;
+  }
+
   @Override
   public Lock createLock(String lockId) {
-    return new ReentrantLock(true);
+    return new ReentrantLock(fair);
   }
 
 }
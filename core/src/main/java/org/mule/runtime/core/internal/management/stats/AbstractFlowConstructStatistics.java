@@ -8,7 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Statistics common to flows and services
@@ -19,9 +19,9 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
 
   protected final String flowConstructType;
   protected String name;
-  protected boolean enabled = false;
+  protected volatile boolean enabled = false;
   private long samplePeriod = 0;
-  protected final AtomicLong receivedEvents = new AtomicLong(0);
+  protected final LongAdder receivedEvents = new LongAdder();
 
   public AbstractFlowConstructStatistics(String flowConstructType, String name) {
     this.name = name;
@@ -52,17 +52,17 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
   }
 
   public synchronized void clear() {
-    receivedEvents.set(0);
+    receivedEvents.reset();
     samplePeriod = System.currentTimeMillis();
   }
 
 
   public void incReceivedEvents() {
-    receivedEvents.addAndGet(1);
+    receivedEvents.increment();
   }
 
   public long getTotalEventsReceived() {
-    return receivedEvents.get();
+    return receivedEvents.sum();
   }
 
   public String getFlowConstructType() {
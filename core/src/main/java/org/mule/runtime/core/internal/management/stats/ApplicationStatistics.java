@@ -108,6 +108,28 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return total;
   }
 
+  @Override
+  public long getDispatchRejections() {
+    long total = 0;
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (!(stats instanceof ApplicationStatistics)) {
+        total += stats.getDispatchRejections();
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public long getQueuedDispatches() {
+    long total = 0;
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (!(stats instanceof ApplicationStatistics)) {
+        total += stats.getQueuedDispatches();
+      }
+    }
+    return total;
+  }
+
   @Override
   public long getTotalEventsReceived() {
     long total = 0;
@@ -8,13 +8,15 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatistics {
 
   private static final long serialVersionUID = 5337576392583767442L;
-  private final AtomicLong executionError = new AtomicLong(0);
-  private final AtomicLong fatalError = new AtomicLong(0);
+  private final LongAdder executionError = new LongAdder();
+  private final LongAdder fatalError = new LongAdder();
+  private final LongAdder dispatchRejections = new LongAdder();
+  private final LongAdder queuedDispatches = new LongAdder();
   protected final ComponentStatistics flowStatistics = new ComponentStatistics();
 
   public DefaultFlowConstructStatistics(String flowConstructType, String name) {
@@ -35,12 +37,12 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
 
   @Override
   public void incExecutionError() {
-    executionError.addAndGet(1);
+    executionError.increment();
   }
 
   @Override
   public void incFatalError() {
-    fatalError.addAndGet(1);
+    fatalError.increment();
   }
 
   /**
@@ -56,8 +58,10 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
   public synchronized void clear() {
     super.clear();
 
-    executionError.set(0);
-    fatalError.set(0);
+    executionError.reset();
+    fatalError.reset();
+    // queued dispatches is a gauge, not reset
+    dispatchRejections.reset();
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
@@ -98,14 +102,39 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return flowStatistics.getExecutionTimePercentile(percentile);
+  }
+
+  @Override
+  public void incDispatchRejections() {
+    dispatchRejections.increment();
+  }
+
+  @Override
+  public void addQueuedDispatches(int delta) {
+    queuedDispatches.add(delta);
+  }
+
+  @Override
+  public long getDispatchRejections() {
+    return dispatchRejections.sum();
+  }
+
+  @Override
+  public long getQueuedDispatches() {
+    return queuedDispatches.sum();
+  }
+
   @Override
   public long getExecutionErrors() {
-    return executionError.get();
+    return executionError.sum();
   }
 
   @Override
   public long getFatalErrors() {
-    return fatalError.get();
+    return fatalError.sum();
   }
 
 }
@@ -14,6 +14,7 @@ import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
@@ -39,11 +40,15 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
 
   protected MuleContext muleContext;
   ExtendedExpressionManager expressionManager;
+  private CompiledTemplate compiledMessage;
 
   @Override
   public void initialise() throws InitialisationException {
     initLogger();
     expressionManager = muleContext.getExpressionManager();
+    if (!StringUtils.isEmpty(message)) {
+      compiledMessage = expressionManager.compileLogTemplate(message);
+    }
   }
 
   protected void initLogger() {
@@ -71,7 +76,9 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
       } else {
         LogLevel logLevel = LogLevel.valueOf(level);
         if (LogLevel.valueOf(level).isEnabled(logger)) {
-          logLevel.log(logger, expressionManager.parseLogTemplate(message, event, getLocation(), NULL_BINDING_CONTEXT));
+          logLevel.log(logger, compiledMessage != null
+              ? compiledMessage.evaluate(event, getLocation(), NULL_BINDING_CONTEXT)
+              : expressionManager.parseLogTemplate(message, event, getLocation(), NULL_BINDING_CONTEXT));
         }
       }
     }
@@ -91,6 +98,7 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
 
   public void setMessage(String message) {
     this.message = message;
+    this.compiledMessage = null;
   }
 
   public void setCategory(String category) {
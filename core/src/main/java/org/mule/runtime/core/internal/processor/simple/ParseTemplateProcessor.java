@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.internal.processor.simple;
 
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.core.privileged.processor.simple.SimpleMessageProcessor;
@@ -23,6 +25,7 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
   private String target;
   private String location;
   private String targetValue;
+  private CompiledTemplate compiledTemplate;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -33,6 +36,9 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
     if (location != null) {
       loadContentFromLocation();
     }
+    if (content != null) {
+      compiledTemplate = muleContext.getExpressionManager().compileTemplate(content);
+    }
   }
 
   private void loadContentFromLocation() throws InitialisationException {
@@ -60,7 +66,9 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
   @Override
   public CoreEvent process(CoreEvent event) {
     evaluateCorrectArguments();
-    Object result = muleContext.getExpressionManager().parse(content, event, null);
+    Object result = compiledTemplate != null
+        ? compiledTemplate.evaluate(event, null, NULL_BINDING_CONTEXT)
+        : muleContext.getExpressionManager().parse(content, event, null);
     Message resultMessage = Message.builder(event.getMessage()).value(result).nullAttributesValue().build();
     if (target == null) {
       return CoreEvent.builder(event).message(resultMessage).build();
@@ -80,6 +88,7 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
 
   public void setContent(String content) {
     this.content = content;
+    this.compiledTemplate = null;
   }
 
   public void setTarget(String target) {
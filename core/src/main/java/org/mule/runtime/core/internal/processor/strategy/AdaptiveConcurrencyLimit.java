@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Concurrency limit that adapts to the observed latency of the dispatched tasks and to the rejections of the scheduler they are
+ * dispatched to, following an additive increase/multiplicative decrease (AIMD) policy.
+ * <p/>
+ * The limit grows by one each time a full window of tasks (as many as the current limit) completes with a latency in line with
+ * the long term average. It is reduced proportionally to the number of tasks in flight when the short term average latency
+ * exceeds the long term one by {@link #LATENCY_TOLERANCE}, or when the scheduler rejects a task. At most one reduction is applied
+ * per window, so a single degradation doesn't collapse the limit.
+ *
+ * @since 4.1
+ */
+final class AdaptiveConcurrencyLimit {
+
+  static final double LATENCY_TOLERANCE = 2.0;
+  static final double LATENCY_BACKOFF_RATIO = 0.9;
+  static final double REJECTION_BACKOFF_RATIO = 0.5;
+
+  private static final double SHORT_TERM_WEIGHT = 0.1;
+  private static final double LONG_TERM_WEIGHT = 0.01;
+
+  private final int maxLimit;
+  private double limit;
+  private volatile int currentLimit;
+
+  private double shortTermLatency = -1;
+  private double longTermLatency = -1;
+  private int samplesSinceDecrease = 0;
+
+  /**
+   * Creates a new limit, initially set to its maximum value.
+   *
+   * @param maxLimit the value the limit will never go above
+   */
+  AdaptiveConcurrencyLimit(int maxLimit) {
+    this.maxLimit = maxLimit;
+    this.limit = maxLimit;
+    this.currentLimit = maxLimit;
+  }
+
+  /**
+   * @return the current maximum number of tasks that may be in flight at the same time
+   */
+  int getLimit() {
+    return currentLimit;
+  }
+
+  /**
+   * Accounts for the completion of a task.
+   *
+   * @param latencyNanos how long the task took to complete
+   * @param inFlight     the number of tasks that were in flight when the task completed, including itself
+   */
+  synchronized void onSample(long latencyNanos, int inFlight) {
+    if (longTermLatency < 0) {
+      shortTermLatency = latencyNanos;
+      longTermLatency = latencyNanos;
+    } else {
+      shortTermLatency += (latencyNanos - shortTermLatency) * SHORT_TERM_WEIGHT;
+      longTermLatency += (latencyNanos - longTermLatency) * LONG_TERM_WEIGHT;
+    }
+
+    ++samplesSinceDecrease;
+    if (shortTermLatency > longTermLatency * LATENCY_TOLERANCE) {
+      decrease(inFlight, LATENCY_BACKOFF_RATIO);
+    } else {
+      update(limit + 1 / limit);
+    }
+  }
+
+  /**
+   * Accounts for a task rejected by the scheduler.
+   *
+   * @param inFlight the number of tasks in flight when the rejection happened
+   */
+  synchronized void onRejection(int inFlight) {
+    ++samplesSinceDecrease;
+    decrease(inFlight, REJECTION_BACKOFF_RATIO);
+  }
+
+  private void decrease(int inFlight, double ratio) {
+    if (samplesSinceDecrease >= currentLimit || inFlight == 0) {
+      samplesSinceDecrease = 0;
+      update(min(limit, inFlight) * ratio);
+    }
+  }
+
+  private void update(double newLimit) {
+    limit = max(1, min(maxLimit, newLimit));
+    currentLimit = (int) limit;
+  }
+}
@@ -6,25 +6,26 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
-import static java.time.Duration.ofMillis;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Flux.just;
-import static reactor.core.publisher.Mono.delay;
 import static reactor.core.scheduler.Schedulers.fromExecutorService;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.api.processor.Sink;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.api.scheduler.SchedulerService;
 
-import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -37,6 +38,11 @@ import org.slf4j.Logger;
  * {@link ProcessingType#BLOCKING} processors differently and schedules there execution on dedicated
  * {@link SchedulerService#cpuIntensiveScheduler()} and {@link SchedulerService#ioScheduler()} ()} schedulers.
  * <p/>
+ * Events are dispatched to those shared schedulers through a {@link SchedulerDispatcher} per scheduler, which adapts the number of
+ * events in flight to the observed latency and, when the scheduler is busy, queues the events and resumes dispatching them as soon
+ * as a slot is freed. The number of queued events and of rejected dispatches are published to the
+ * {@link FlowConstructStatistics} of the flow.
+ * <p/>
  * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
  *
  * @since 4.0
@@ -82,12 +88,13 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
   static class ProactorStreamProcessingStrategy extends ReactorStreamProcessingStrategy {
 
     private static Logger LOGGER = getLogger(ProactorStreamProcessingStrategy.class);
-    private static int SCHEDULER_BUSY_RETRY_INTERVAL_MS = 10;
 
     private Supplier<Scheduler> blockingSchedulerSupplier;
     private Supplier<Scheduler> cpuIntensiveSchedulerSupplier;
     private Scheduler blockingScheduler;
     private Scheduler cpuIntensiveScheduler;
+    private SchedulerDispatcher blockingDispatcher;
+    private SchedulerDispatcher cpuIntensiveDispatcher;
 
     public ProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
                                             int bufferSize,
@@ -109,10 +116,28 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       super.start();
       this.blockingScheduler = blockingSchedulerSupplier.get();
       this.cpuIntensiveScheduler = cpuIntensiveSchedulerSupplier.get();
+      this.blockingDispatcher = createDispatcher(blockingScheduler);
+      this.cpuIntensiveDispatcher = createDispatcher(cpuIntensiveScheduler);
+    }
+
+    private SchedulerDispatcher createDispatcher(Scheduler scheduler) {
+      return new SchedulerDispatcher(scheduler, decorateScheduler(scheduler), getCpuLightScheduler(), maxConcurrency);
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor function) {
+      FlowConstructStatistics statistics = flowConstruct.getStatistics();
+      if (blockingDispatcher != null) {
+        blockingDispatcher.setStatistics(statistics);
+        cpuIntensiveDispatcher.setStatistics(statistics);
+      }
+      return super.createSink(flowConstruct, function);
     }
 
     @Override
     public void stop() throws MuleException {
+      stopDispatcher(blockingDispatcher);
+      stopDispatcher(cpuIntensiveDispatcher);
       if (blockingScheduler != null) {
         blockingScheduler.stop();
       }
@@ -122,31 +147,69 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       super.stop();
     }
 
+    private void stopDispatcher(SchedulerDispatcher dispatcher) {
+      if (dispatcher == null) {
+        return;
+      }
+      if (dispatcher.getQueueDepth() > 0 && LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Stopping with {} events still waiting to be dispatched, running them in the stopping thread",
+                     dispatcher.getQueueDepth());
+      }
+      dispatcher.stop();
+    }
+
     @Override
     public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
       if (processor.getProcessingType() == BLOCKING && maxConcurrency > subscribers) {
-        return proactor(processor, blockingScheduler);
+        return proactor(processor, blockingDispatcher);
       } else if (processor.getProcessingType() == CPU_INTENSIVE && maxConcurrency > subscribers) {
-        return proactor(processor, cpuIntensiveScheduler);
+        return proactor(processor, cpuIntensiveDispatcher);
       } else {
         return super.onProcessor(processor);
       }
     }
 
-    private ReactiveProcessor proactor(ReactiveProcessor processor, Scheduler scheduler) {
+    private ReactiveProcessor proactor(ReactiveProcessor processor, SchedulerDispatcher dispatcher) {
       return publisher -> from(publisher)
           .flatMap(event -> just(event).transform(processor)
               .publishOn(fromExecutorService(decorateScheduler(getCpuLightScheduler())))
-              .subscribeOn(fromExecutorService(decorateScheduler(scheduler)))
-              .doOnError(RejectedExecutionException.class, throwable -> LOGGER.trace("Shared scheduler " + scheduler.getName()
-                  + " is busy.  Scheduling of the current event will be retried after " + SCHEDULER_BUSY_RETRY_INTERVAL_MS
-                  + "ms."))
-              .retryWhen(errors -> errors
-                  .flatMap(error -> delay(ofMillis(SCHEDULER_BUSY_RETRY_INTERVAL_MS),
-                                          fromExecutorService(getCpuLightScheduler())))),
+              .subscribeOn(fromExecutorService(getDispatchExecutor(dispatcher))),
                    maxConcurrency);
     }
 
+    /**
+     * Provides the {@link ExecutorService} through which the event being processed by the current thread is dispatched.
+     *
+     * @param dispatcher the dispatcher for the scheduler corresponding to the processor
+     * @return the executor to use for the current event
+     */
+    protected ExecutorService getDispatchExecutor(SchedulerDispatcher dispatcher) {
+      return dispatcher;
+    }
+
+    /**
+     * @return the number of events waiting for a slot of the {@link ProcessingType#BLOCKING} or
+     *         {@link ProcessingType#CPU_INTENSIVE} schedulers.
+     */
+    int getQueueDepth() {
+      return blockingDispatcher.getQueueDepth() + cpuIntensiveDispatcher.getQueueDepth();
+    }
+
+    /**
+     * @return the number of times the dispatch of an event was rejected because the {@link ProcessingType#BLOCKING} or
+     *         {@link ProcessingType#CPU_INTENSIVE} scheduler was busy.
+     */
+    long getRejections() {
+      return blockingDispatcher.getRejections() + cpuIntensiveDispatcher.getRejections();
+    }
+
+    SchedulerDispatcher getBlockingDispatcher() {
+      return blockingDispatcher;
+    }
+
+    SchedulerDispatcher getCpuIntensiveDispatcher() {
+      return cpuIntensiveDispatcher;
+    }
   }
 
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link ExecutorService} that dispatches tasks to a shared {@link Scheduler} without ever having more than an
+ * {@link AdaptiveConcurrencyLimit adaptive number} of them in flight, queueing the rest.
+ * <p/>
+ * Instead of failing when the scheduler is busy, rejected tasks are kept at the head of the queue and dispatched as soon as one of
+ * the tasks in flight completes, which is the signal that a slot of the scheduler was freed. Only when a task is rejected while
+ * none of the tasks of this dispatcher are in flight, and so no completion will come, is the dispatch retried after a short delay,
+ * which is doubled on each consecutive rejection up to {@link #MAX_RETRY_DELAY_MS}. If that retry can't be scheduled, or the
+ * dispatcher is {@link #stop() stopped}, the queued tasks are run in the calling thread instead, so they are never left waiting
+ * for a dispatch that will not happen.
+ * <p/>
+ * The queue depth and the number of rejections are kept as metrics of the dispatcher, and also published to the
+ * {@link FlowConstructStatistics} of the flow, if set.
+ *
+ * @since 4.1
+ */
+final class SchedulerDispatcher extends AbstractExecutorService {
+
+  private static final Logger LOGGER = getLogger(SchedulerDispatcher.class);
+
+  static final long MAX_RETRY_DELAY_MS = 10;
+
+  private final Scheduler scheduler;
+  private final ExecutorService delegate;
+  private final ScheduledExecutorService retryScheduler;
+  private final AdaptiveConcurrencyLimit limit;
+
+  private final ConcurrentLinkedDeque<Runnable> pending = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicBoolean retryScheduled = new AtomicBoolean();
+  private final LongAdder rejections = new LongAdder();
+  private volatile long retryDelay = 1;
+  private volatile boolean stopped = false;
+  private volatile FlowConstructStatistics statistics;
+
+  /**
+   * Creates a new dispatcher.
+   *
+   * @param scheduler      the scheduler the tasks are dispatched to
+   * @param delegate       the {@link ExecutorService} actually used to submit tasks to {@code scheduler}. May be the scheduler
+   *                       itself or a decorator of it.
+   * @param retryScheduler the scheduler used to retry a dispatch when the scheduler is busy and no completion is expected
+   * @param maxConcurrency the maximum value of the concurrency limit
+   */
+  SchedulerDispatcher(Scheduler scheduler, ExecutorService delegate, ScheduledExecutorService retryScheduler,
+                      int maxConcurrency) {
+    this.scheduler = scheduler;
+    this.delegate = delegate;
+    this.retryScheduler = retryScheduler;
+    this.limit = new AdaptiveConcurrencyLimit(maxConcurrency);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (stopped || scheduler.isShutdown()) {
+      throw new RejectedExecutionException("Scheduler " + scheduler.getName() + " is shutdown");
+    }
+
+    pending.offer(command);
+    onQueued(1);
+    drain();
+  }
+
+  private void onQueued(int delta) {
+    queued.addAndGet(delta);
+    final FlowConstructStatistics statistics = this.statistics;
+    if (statistics != null) {
+      statistics.addQueuedDispatches(delta);
+    }
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    do {
+      while (inFlight.get() < limit.getLimit()) {
+        Runnable task = pending.poll();
+        if (task == null) {
+          break;
+        }
+
+        inFlight.incrementAndGet();
+        // dequeued before submitting, as the task may complete before submit returns
+        onQueued(-1);
+        try {
+          delegate.submit(new DispatchedTask(task));
+          retryDelay = 1;
+        } catch (RejectedExecutionException e) {
+          onRejected(task);
+          break;
+        }
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void onRejected(Runnable task) {
+    int remainingInFlight = inFlight.decrementAndGet();
+    pending.offerFirst(task);
+    onQueued(1);
+    rejections.increment();
+    final FlowConstructStatistics statistics = this.statistics;
+    if (statistics != null) {
+      statistics.incDispatchRejections();
+    }
+    limit.onRejection(remainingInFlight);
+
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Shared scheduler {} is busy, dispatch will resume when a slot is available. Concurrency limit is now {}.",
+                   scheduler.getName(), limit.getLimit());
+    }
+
+    if (stopped || scheduler.isShutdown()) {
+      // No slot will be freed, don't leave the task waiting
+      runPending();
+    } else if (remainingInFlight == 0 && retryScheduled.compareAndSet(false, true)) {
+      long delay = retryDelay;
+      retryDelay = min(delay * 2, MAX_RETRY_DELAY_MS);
+      try {
+        retryScheduler.schedule(() -> {
+          retryScheduled.set(false);
+          drain();
+        }, delay, MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        // The runtime is stopping, so no retry nor completion would dispatch the queued tasks
+        retryScheduled.set(false);
+        runPending();
+      }
+    }
+  }
+
+  /**
+   * Runs the queued tasks in the calling thread, including any task queued while doing so.
+   */
+  private void runPending() {
+    Runnable task;
+    while ((task = pending.poll()) != null) {
+      onQueued(-1);
+      try {
+        task.run();
+      } catch (Throwable t) {
+        LOGGER.error("Error running task queued for scheduler " + scheduler.getName(), t);
+      }
+    }
+  }
+
+  private void onCompleted(long latencyNanos) {
+    limit.onSample(latencyNanos, inFlight.getAndDecrement());
+    drain();
+  }
+
+  /**
+   * Stops accepting tasks and runs the ones still waiting for a slot in the calling thread, as the scheduler is about to be
+   * stopped.
+   */
+  void stop() {
+    stopped = true;
+    runPending();
+  }
+
+  /**
+   * Sets the statistics to publish the queue depth and the number of rejections to. Must be set before any task is executed.
+   *
+   * @param statistics the statistics of the flow this dispatcher processes events for
+   */
+  void setStatistics(FlowConstructStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * @return the number of tasks waiting for a slot to be dispatched
+   */
+  int getQueueDepth() {
+    return queued.get();
+  }
+
+  /**
+   * @return the number of tasks dispatched to the scheduler that have not completed yet
+   */
+  int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * @return the number of times the scheduler rejected a task because it was busy
+   */
+  long getRejections() {
+    return rejections.sum();
+  }
+
+  /**
+   * @return the current concurrency limit
+   */
+  int getConcurrencyLimit() {
+    return limit.getLimit();
+  }
+
+  /**
+   * The lifecycle of the scheduler is not managed by this dispatcher, so shutting it down has no effect.
+   */
+  @Override
+  public void shutdown() {
+    // Nothing to do
+  }
+
+  /**
+   * The lifecycle of the scheduler is not managed by this dispatcher, so shutting it down has no effect.
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    return emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return scheduler.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return scheduler.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return scheduler.awaitTermination(timeout, unit);
+  }
+
+  private final class DispatchedTask implements Runnable {
+
+    private final Runnable task;
+
+    private DispatchedTask(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      final long start = nanoTime();
+      try {
+        task.run();
+      } finally {
+        onCompleted(nanoTime() - start);
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
@@ -77,6 +78,8 @@ class TransactionAwareProactorStreamProcessingStrategyFactory extends ReactorStr
   static class TransactionAwareProactorStreamProcessingStrategy extends
       ProactorStreamProcessingStrategyFactory.ProactorStreamProcessingStrategy {
 
+    private static final ExecutorService DIRECT_EXECUTOR = newDirectExecutorService();
+
     TransactionAwareProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
                                                      int bufferSize,
                                                      int subscriberCount,
@@ -109,6 +112,15 @@ class TransactionAwareProactorStreamProcessingStrategyFactory extends ReactorStr
     protected ExecutorService decorateScheduler(Scheduler scheduler) {
       return new ConditionalExecutorServiceDecorator(scheduler, cuurentScheduler -> isTransactionActive());
     }
+
+    /**
+     * An event processed within a transaction must not wait in the dispatcher queue, since it would then be processed out of the
+     * thread holding the transaction.
+     */
+    @Override
+    protected ExecutorService getDispatchExecutor(SchedulerDispatcher dispatcher) {
+      return isTransactionActive() ? DIRECT_EXECUTOR : dispatcher;
+    }
   }
 
 }
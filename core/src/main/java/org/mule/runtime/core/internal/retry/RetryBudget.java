@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static java.lang.Double.parseDouble;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.synchronizedMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the retries performed within a flow to a ratio of the requests it processes, so a failing downstream system doesn't get
+ * its load multiplied by the retries.
+ * <p>
+ * Requests and retries are counted in windows of one second. A retry is allowed while the retries of the current window are less
+ * than {@code minRetriesPerSecond} plus {@code retryRatio} times the requests of the window.
+ * <p>
+ * Budgets are shared by all the components of a flow that retry, and are only enforced when the
+ * {@link #RETRY_BUDGET_RATIO_PROPERTY} system property is set.
+ *
+ * @since 4.1
+ */
+public final class RetryBudget {
+
+  public static final String RETRY_BUDGET_RATIO_PROPERTY = SYSTEM_PROPERTY_PREFIX + "retry.budget.ratio";
+  public static final String RETRY_BUDGET_MIN_RETRIES_PER_SECOND_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "retry.budget.minRetriesPerSecond";
+  public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+
+  private static final long WINDOW_NANOS = SECONDS.toNanos(1);
+  private static final Map<Object, RetryBudget> FLOW_BUDGETS = synchronizedMap(new WeakHashMap<>());
+
+  private final double retryRatio;
+  private final int minRetriesPerSecond;
+  private final AtomicReference<Window> window = new AtomicReference<>(new Window(nanoTime()));
+
+  /**
+   * @param retryRatio the ratio of the requests that may be retried.
+   * @param minRetriesPerSecond the retries allowed every second regardless of the requests.
+   * @throws IllegalArgumentException if any value is less than zero.
+   */
+  public RetryBudget(double retryRatio, int minRetriesPerSecond) {
+    checkArgument(retryRatio >= 0, "Retry ratio must be zero or more.");
+    checkArgument(minRetriesPerSecond >= 0, "Minimum retries per second must be zero or more.");
+    this.retryRatio = retryRatio;
+    this.minRetriesPerSecond = minRetriesPerSecond;
+  }
+
+  /**
+   * Obtains the retry budget shared by the components of a flow.
+   *
+   * @param flow the root container of the retrying components.
+   * @return the budget of the flow, or {@code null} if retry budgets are not enabled.
+   */
+  public static RetryBudget forFlow(Object flow) {
+    final String ratio = getProperty(RETRY_BUDGET_RATIO_PROPERTY);
+    if (ratio == null || flow == null) {
+      return null;
+    }
+    return FLOW_BUDGETS.computeIfAbsent(flow, f -> new RetryBudget(parseDouble(ratio),
+                                                                   getInteger(RETRY_BUDGET_MIN_RETRIES_PER_SECOND_PROPERTY,
+                                                                              DEFAULT_MIN_RETRIES_PER_SECOND)));
+  }
+
+  /**
+   * Records a request processed for the first time, which adds to the retries allowed.
+   */
+  public void onRequest() {
+    currentWindow().requests.increment();
+  }
+
+  /**
+   * Spends a retry from the budget, if there is any left.
+   *
+   * @return {@code true} if the retry may be performed, {@code false} otherwise.
+   */
+  public boolean tryAcquireRetry() {
+    final Window current = currentWindow();
+    final long allowed = minRetriesPerSecond + (long) (current.requests.sum() * retryRatio);
+    int retries;
+    do {
+      retries = current.retries.get();
+      if (retries >= allowed) {
+        return false;
+      }
+    } while (!current.retries.compareAndSet(retries, retries + 1));
+    return true;
+  }
+
+  private Window currentWindow() {
+    final Window current = window.get();
+    final long now = nanoTime();
+    if (now - current.start < WINDOW_NANOS) {
+      return current;
+    }
+    // If another thread rolled the window, use that one
+    window.compareAndSet(current, new Window(now));
+    return window.get();
+  }
+
+  private static final class Window {
+
+    private final long start;
+    private final LongAdder requests = new LongAdder();
+    private final AtomicInteger retries = new AtomicInteger();
+
+    private Window(long start) {
+      this.start = start;
+    }
+  }
+}
@@ -21,6 +21,7 @@ import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.ErrorType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
@@ -62,6 +63,7 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   private ExtendedExpressionManager expressionManager;
   private String target;
   private String targetValue = "#[payload]";
+  private CompiledExpression compiledTargetValue;
 
   @Override
   public CoreEvent process(CoreEvent event) throws MuleException {
@@ -73,6 +75,7 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     return from(publisher)
         .doOnNext(onEvent())
         .flatMap(event -> from(forkJoinStrategy.forkJoin(event, getRoutingPairs(event)))
+            .map(result -> onResult(event, result))
             .map(result -> {
               if (target != null) {
                 TypedValue targetValue = getTargetValue(result);
@@ -97,6 +100,17 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     };
   }
 
+  /**
+   * Template method to adapt the event resulting from the {@link ForkJoinStrategy} before it is propagated.
+   *
+   * @param event the incoming event in the route.
+   * @param result the event resulting from the {@link ForkJoinStrategy}.
+   * @return the event to propagate.
+   */
+  protected CoreEvent onResult(CoreEvent event, CoreEvent result) {
+    return result;
+  }
+
   /**
    * Returns a list of {@link RoutingPair}'s to be processed by the {@link ForkJoinStrategy}.
    * 
@@ -112,6 +126,7 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
         .map(flow -> flow.getProcessingStrategy())
         .orElse(DIRECT_PROCESSING_STRATEGY_INSTANCE);
     expressionManager = muleContext.getExpressionManager();
+    compiledTargetValue = expressionManager.compile(targetValue);
     timeoutScheduler = schedulerService.cpuLightScheduler();
     timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
@@ -161,7 +176,7 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
    * @throws IllegalArgumentException if the value is zero or less.
    */
   public void setMaxConcurrency(int maxConcurrency) {
-    checkArgument(timeout > 0, "Maximum concurrency must be one or more.");
+    checkArgument(maxConcurrency > 0, "Maximum concurrency must be one or more.");
     this.maxConcurrency = maxConcurrency;
   }
 
@@ -207,7 +222,7 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   protected abstract ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory();
 
   private TypedValue getTargetValue(CoreEvent event) {
-    return muleContext.getExpressionManager().evaluate(targetValue, getTargetBindingContext(event.getMessage()));
+    return compiledTargetValue.evaluate(null, null, getTargetBindingContext(event.getMessage()));
   }
 
 }
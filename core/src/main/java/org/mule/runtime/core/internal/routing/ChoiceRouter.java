@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
@@ -26,10 +27,16 @@ public class ChoiceRouter extends AbstractSelectiveRouter {
 
   private ExpressionManager expressionManager;
 
+  @Override
+  public void initialise() throws InitialisationException {
+    super.initialise();
+    getConditionalMessageProcessors().forEach(cmp -> cmp.getCompiledExpression(expressionManager));
+  }
+
   @Override
   protected Optional<Processor> selectProcessor(CoreEvent event) {
     return getConditionalMessageProcessors().stream()
-        .filter(cmp -> expressionManager.evaluateBoolean(cmp.getExpression(), event, getLocation(), false, true))
+        .filter(cmp -> cmp.getCompiledExpression(expressionManager).evaluateBoolean(event, getLocation(), false, true))
         .findFirst()
         .map(cmp -> cmp.getMessageProcessor());
   }
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.routing;
 
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 
@@ -23,7 +24,7 @@ public class ExpressionSplittingStrategy implements SplittingStrategy<CoreEvent,
 
   public static final String DEFAULT_SPLIT_EXPRESSION = "#[payload]";
   private final String expression;
-  private final ExpressionManager expressionManager;
+  private final CompiledExpression compiledExpression;
 
   /**
    * Creates a new {@link ExpressionSplittingStrategy}
@@ -32,8 +33,8 @@ public class ExpressionSplittingStrategy implements SplittingStrategy<CoreEvent,
    * @param expression the expression to use to split and get a collection of items
    */
   public ExpressionSplittingStrategy(ExpressionManager expressionManager, String expression) {
-    this.expressionManager = expressionManager;
     this.expression = expression;
+    this.compiledExpression = expressionManager.compile(expression);
   }
 
   /**
@@ -47,7 +48,7 @@ public class ExpressionSplittingStrategy implements SplittingStrategy<CoreEvent,
 
   @Override
   public Iterator<TypedValue<?>> split(CoreEvent event) {
-    Iterator<TypedValue<?>> result = expressionManager.split(expression, event, NULL_BINDING_CONTEXT);
+    Iterator<TypedValue<?>> result = compiledExpression.split(event, null, NULL_BINDING_CONTEXT);
     return result != null ? result : Collections.<TypedValue<?>>emptyList().iterator();
   }
 
@@ -20,6 +20,8 @@ import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.processor.Processor;
 
 import org.slf4j.Logger;
@@ -35,6 +37,7 @@ public class MessageProcessorExpressionPair extends AbstractComponent
 
   private final String expression;
   private final Processor messageProcessor;
+  private volatile CompiledHandle compiledHandle;
 
   private MuleContext muleContext;
 
@@ -53,6 +56,23 @@ public class MessageProcessorExpressionPair extends AbstractComponent
     return messageProcessor;
   }
 
+  /**
+   * Compiles the expression of this pair with the given {@code expressionManager} the first time it is called, returning the
+   * same handle afterwards as long as the same {@code expressionManager} is used.
+   *
+   * @param expressionManager the expression manager to compile the expression with
+   * @return the compiled expression
+   */
+  public CompiledExpression getCompiledExpression(ExpressionManager expressionManager) {
+    CompiledHandle handle = compiledHandle;
+    if (handle == null || handle.expressionManager != expressionManager) {
+      // concurrent callers may compile the expression more than once, but they all end up with an equivalent handle
+      handle = new CompiledHandle(expressionManager, expressionManager.compile(expression));
+      compiledHandle = handle;
+    }
+    return handle.compiledExpression;
+  }
+
   @Override
   public String toString() {
     return reflectionToString(this, SHORT_PREFIX_STYLE);
@@ -89,4 +109,14 @@ public class MessageProcessorExpressionPair extends AbstractComponent
     disposeIfNeeded(messageProcessor, LOGGER);
   }
 
+  private static final class CompiledHandle {
+
+    private final ExpressionManager expressionManager;
+    private final CompiledExpression compiledExpression;
+
+    private CompiledHandle(ExpressionManager expressionManager, CompiledExpression compiledExpression) {
+      this.expressionManager = expressionManager;
+      this.compiledExpression = compiledExpression;
+    }
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.Collections.singletonList;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
+import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_COUNTER_VARIABLE;
+import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_ROOT_MESSAGE_VARIABLE;
+import static org.mule.runtime.core.internal.routing.Foreach.MAP_NOT_SUPPORTED_MESSAGE;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static reactor.core.publisher.Flux.fromIterable;
+
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.outbound.EventBuilderConfigurer;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * The {@code parallel-foreach} {@link Processor} splits a collection in the same way {@link Foreach} does, but processes the
+ * elements in parallel, each one in a new event, and collects the results.
+ * <p>
+ * Elements are taken from the split iterator lazily, as routes complete, so at most {@code maxConcurrency} of them are being
+ * processed at any time and the collection is never materialized in memory. Unless a different {@link ForkJoinStrategyFactory}
+ * is configured the result is a list with the {@link Message} resulting from each element, in the same order as the elements
+ * were split unless {@link #setOrdered(boolean) ordering} is disabled.
+ * <p>
+ * As in {@link Foreach}, the event of each element has the {@code counter} variable with the position of the element, starting
+ * at one, and the {@code rootMessage} variable with the message the router was invoked with. Both variables are restored to
+ * their previous values in the result event.
+ *
+ * @since 4.1
+ */
+public class ParallelForeach extends AbstractForkJoinRouter {
+
+  /**
+   * Maximum number of elements processed at the same time when not configured, matching the default size of the CPU-light pool.
+   */
+  static final int DEFAULT_MAX_CONCURRENCY = getRuntime().availableProcessors() * 2;
+
+  private List<Processor> messageProcessors;
+  private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
+  private boolean ordered = true;
+  private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
+  private MessageProcessorChain nestedChain;
+
+  @Override
+  public void initialise() throws InitialisationException {
+    nestedChain = newChain(getProcessingStrategy(locator, getRootContainerLocation()), messageProcessors);
+    splittingStrategy = new ExpressionSplittingStrategy(muleContext.getExpressionManager(), collectionExpression);
+    super.initialise();
+  }
+
+  @Override
+  protected Consumer<CoreEvent> onEvent() {
+    return event -> {
+      if (collectionExpression.equals(DEFAULT_SPLIT_EXPRESSION)
+          && Map.class.isAssignableFrom(event.getMessage().getPayload().getDataType().getType())) {
+        throw new IllegalArgumentException(MAP_NOT_SUPPORTED_MESSAGE);
+      }
+    };
+  }
+
+  @Override
+  protected Publisher<RoutingPair> getRoutingPairs(CoreEvent event) {
+    final AtomicInteger count = new AtomicInteger();
+    return fromIterable(() -> splittingStrategy.split(event)).map(typedValue -> {
+      CoreEvent.Builder partEventBuilder = builder(event);
+      if (typedValue.getValue() instanceof EventBuilderConfigurer) {
+        // Support EventBuilderConfigurer currently used by Batch Module
+        ((EventBuilderConfigurer) typedValue.getValue()).configure(partEventBuilder);
+      } else if (typedValue.getValue() instanceof Message) {
+        // If value is a Message then use it directly conserving attributes and properties.
+        partEventBuilder.message((Message) typedValue.getValue());
+      } else {
+        // Otherwise create a new message
+        partEventBuilder.message(Message.builder().payload(typedValue).build());
+      }
+      partEventBuilder.addVariable(DEFAULT_ROOT_MESSAGE_VARIABLE, event.getMessage())
+          .addVariable(DEFAULT_COUNTER_VARIABLE, count.incrementAndGet());
+      return of(partEventBuilder.build(), nestedChain);
+    });
+  }
+
+  @Override
+  protected CoreEvent onResult(CoreEvent event, CoreEvent result) {
+    CoreEvent.Builder resultBuilder = builder(result);
+    restoreVariable(event, resultBuilder, DEFAULT_ROOT_MESSAGE_VARIABLE);
+    restoreVariable(event, resultBuilder, DEFAULT_COUNTER_VARIABLE);
+    return resultBuilder.build();
+  }
+
+  private void restoreVariable(CoreEvent event, CoreEvent.Builder resultBuilder, String name) {
+    TypedValue<?> previousValue = event.getVariables().get(name);
+    if (previousValue != null) {
+      resultBuilder.addVariable(name, previousValue.getValue(), previousValue.getDataType());
+    } else {
+      resultBuilder.removeVariable(name);
+    }
+  }
+
+  @Override
+  protected List<MessageProcessorChain> getOwnedObjects() {
+    return singletonList(nestedChain);
+  }
+
+  public void setMessageProcessors(List<Processor> messageProcessors) {
+    this.messageProcessors = messageProcessors;
+  }
+
+  /**
+   * @param collectionExpression the expression that returns the collection to iterate over. Defaults to the payload.
+   */
+  public void setCollectionExpression(String collectionExpression) {
+    this.collectionExpression = collectionExpression;
+  }
+
+  /**
+   * Defines whether the results of the default {@link ForkJoinStrategyFactory} are collected in the order elements were split
+   * or in the order they complete. Has no effect when a fork-join strategy is configured.
+   *
+   * @param ordered {@code true} to keep the order of the elements. Defaults to {@code true}.
+   */
+  public void setOrdered(boolean ordered) {
+    this.ordered = ordered;
+  }
+
+  @Override
+  protected boolean isDelayErrors() {
+    return true;
+  }
+
+  @Override
+  protected int getDefaultMaxConcurrency() {
+    return DEFAULT_MAX_CONCURRENCY;
+  }
+
+  @Override
+  protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
+    return new CollectListForkJoinStrategyFactory(ordered);
+  }
+
+}
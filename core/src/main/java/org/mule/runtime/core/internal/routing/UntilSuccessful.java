@@ -6,9 +6,16 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.time.Duration.ofMillis;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
+import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
 import static org.mule.runtime.core.api.util.ExceptionUtils.getMessagingExceptionCause;
 import static org.mule.runtime.core.internal.component.ComponentUtils.getFromAnnotatedObject;
 import static org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory.DIRECT_PROCESSING_STRATEGY_INSTANCE;
@@ -17,12 +24,18 @@ import static org.mule.runtime.core.privileged.processor.MessageProcessors.newCh
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
 import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.delay;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
 import org.mule.runtime.api.component.location.ConfigurationComponentLocator;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.management.stats.RetryStatistics;
 import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
@@ -30,21 +43,29 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.retry.RetryBudget;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import javax.inject.Inject;
 
 import org.reactivestreams.Publisher;
+
 import reactor.core.publisher.Mono;
 
 /**
  * UntilSuccessful attempts to route a message to the message processor it contains. Routing is considered successful if no
  * exception has been raised and, optionally, if the response matches an expression.
+ * <p>
+ * Retries are scheduled on a timer instead of blocking the processing thread, except within a transaction, where the retry has
+ * to happen in the thread the transaction is bound to. The delay between retries may grow exponentially and be randomized to
+ * avoid retries of many events failing at the same time from being synchronized. The retries of a flow may be limited by a
+ * {@link RetryBudget}.
  */
 public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
@@ -52,16 +73,23 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
       "'until-successful' retries exhausted. Last exception message was: %s";
   private static final long DEFAULT_MILLIS_BETWEEN_RETRIES = 60 * 1000;
   private static final int DEFAULT_RETRIES = 5;
+  private static final double DEFAULT_BACKOFF_MULTIPLIER = 1;
 
   @Inject
   private ConfigurationComponentLocator componentLocator;
 
   private int maxRetries = DEFAULT_RETRIES;
   private Long millisBetweenRetries = DEFAULT_MILLIS_BETWEEN_RETRIES;
+  private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+  private Long maxMillisBetweenRetries;
+  private double jitter;
   private MessageProcessorChain nestedChain;
   private Predicate<CoreEvent> shouldRetry;
   private SimpleRetryPolicyTemplate policyTemplate;
   private Scheduler timer;
+  private reactor.core.scheduler.Scheduler reactorTimer;
+  private RetryBudget retryBudget;
+  private final RetryStatistics retryStatistics = new RetryStatistics();
   private ProcessingStrategy processingStrategy;
   private List<Processor> processors;
 
@@ -74,6 +102,7 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     this.nestedChain = newChain(getProcessingStrategy(locator, getRootContainerLocation()), processors);
     super.initialise();
     timer = muleContext.getSchedulerService().cpuLightScheduler();
+    reactorTimer = fromExecutorService(timer);
     policyTemplate =
         new SimpleRetryPolicyTemplate(millisBetweenRetries, maxRetries);
     shouldRetry = event -> event.getError().isPresent();
@@ -83,6 +112,7 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     } else {
       processingStrategy = DIRECT_PROCESSING_STRATEGY_INSTANCE;
     }
+    retryBudget = RetryBudget.forFlow(rootContainer);
   }
 
   @Override
@@ -98,12 +128,59 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
-    return from(publisher)
-        .flatMap(event -> Mono.from(processWithChildContext(event,
-                                                            scheduleRoute(p -> Mono.from(p).transform(nestedChain)),
-                                                            ofNullable(getLocation())))
-            .transform(p -> policyTemplate.applyPolicy(p, getRetryPredicate(), e -> {
-            }, getThrowableFunction(event))));
+    return from(publisher).flatMap(event -> {
+      if (isTransactionActive()) {
+        return processRoute(event).transform(p -> policyTemplate.applyPolicy(p, getRetryPredicate(),
+                                                                             e -> retryStatistics.incrementExhausted(),
+                                                                             getThrowableFunction(event)));
+      }
+      if (retryBudget != null) {
+        retryBudget.onRequest();
+      }
+      final RetryState state = new RetryState();
+      return defer(() -> processRoute(event)).retryWhen(errors -> errors.concatMap(e -> scheduleRetry(unwrap(e), event, state)));
+    });
+  }
+
+  private Mono<CoreEvent> processRoute(CoreEvent event) {
+    return Mono.from(processWithChildContext(event, scheduleRoute(p -> Mono.from(p).transform(nestedChain)),
+                                             ofNullable(getLocation())));
+  }
+
+  /**
+   * Decides whether a failed attempt is retried, emitting after the backoff delay if it is or failing otherwise.
+   */
+  private Mono<Long> scheduleRetry(Throwable e, CoreEvent event, RetryState state) {
+    if (!getRetryPredicate().test(e)) {
+      return error(getThrowableFunction(event).apply(e));
+    }
+    if (maxRetries != RETRY_COUNT_FOREVER && state.attempts >= maxRetries) {
+      retryStatistics.incrementExhausted();
+      return error(getThrowableFunction(event).apply(e));
+    }
+    if (retryBudget != null && !retryBudget.tryAcquireRetry()) {
+      retryStatistics.incrementBudgetRejections();
+      return error(getThrowableFunction(event).apply(e));
+    }
+
+    final long backoffDelay = getBackoffDelay(state.attempts++);
+    retryStatistics.incrementRetries(backoffDelay);
+    return delay(ofMillis(backoffDelay), reactorTimer);
+  }
+
+  /**
+   * @param attempt the number of retries already performed.
+   * @return the milliseconds to wait before the next retry.
+   */
+  long getBackoffDelay(int attempt) {
+    double backoffDelay = millisBetweenRetries * pow(backoffMultiplier, attempt);
+    if (maxMillisBetweenRetries != null) {
+      backoffDelay = min(backoffDelay, maxMillisBetweenRetries);
+    }
+    if (jitter > 0) {
+      backoffDelay -= backoffDelay * jitter * ThreadLocalRandom.current().nextDouble();
+    }
+    return (long) min(backoffDelay, Long.MAX_VALUE);
   }
 
   private Predicate<Throwable> getRetryPredicate() {
@@ -154,6 +231,61 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     this.millisBetweenRetries = millisBetweenRetries;
   }
 
+  /**
+   * @return the factor by which the delay between retries is multiplied after each retry. Default value is 1.
+   */
+  public double getBackoffMultiplier() {
+    return backoffMultiplier;
+  }
+
+  /**
+   * @param backoffMultiplier the factor by which the delay between retries is multiplied after each retry. Default value is 1,
+   *        for a fixed delay.
+   * @throws IllegalArgumentException if the value is less than 1.
+   */
+  public void setBackoffMultiplier(double backoffMultiplier) {
+    checkArgument(backoffMultiplier >= 1, "Backoff multiplier must be 1 or more.");
+    this.backoffMultiplier = backoffMultiplier;
+  }
+
+  /**
+   * @return the maximum number of milliseconds between retries, or {@code null} if not limited.
+   */
+  public Long getMaxMillisBetweenRetries() {
+    return maxMillisBetweenRetries;
+  }
+
+  /**
+   * @param maxMillisBetweenRetries the maximum number of milliseconds between retries when the delay grows exponentially.
+   */
+  public void setMaxMillisBetweenRetries(Long maxMillisBetweenRetries) {
+    this.maxMillisBetweenRetries = maxMillisBetweenRetries;
+  }
+
+  /**
+   * @return the fraction of the delay between retries that is randomized. Default value is 0.
+   */
+  public double getJitter() {
+    return jitter;
+  }
+
+  /**
+   * @param jitter the fraction of the delay between retries that is randomized, from 0 to 1. Each delay is reduced by a random
+   *        amount up to this fraction of it. Default value is 0.
+   * @throws IllegalArgumentException if the value is not between 0 and 1.
+   */
+  public void setJitter(double jitter) {
+    checkArgument(jitter >= 0 && jitter <= 1, "Jitter must be between 0 and 1.");
+    this.jitter = jitter;
+  }
+
+  /**
+   * @return the statistics of the retries performed by this scope.
+   */
+  public RetryStatistics getRetryStatistics() {
+    return retryStatistics;
+  }
+
   /**
    * Configure the nested {@link Processor}'s that error handling and transactional behaviour should be applied to.
    *
@@ -167,5 +299,13 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   protected List<Object> getOwnedObjects() {
     return singletonList(nestedChain);
   }
+
+  /**
+   * Retry state of an event being processed, kept along with its processing instead of in an object store.
+   */
+  private static final class RetryState {
+
+    private int attempts;
+  }
 }
 
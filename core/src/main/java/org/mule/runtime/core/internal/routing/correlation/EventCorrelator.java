@@ -54,6 +54,14 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Groups the events received by a correlation router and hands back the aggregated event once a group is complete.
+ * <p/>
+ * The groups are kept in the given {@link PartitionableObjectStore}. Access to a group is serialized with a lock picked by the
+ * group id from a fixed set of stripes, so events of different groups are processed concurrently. Groups that are not complete
+ * are indexed by the time they expire, so the periodic expiry only looks at the groups that are due and goes through the whole
+ * store every {@link #FULL_EXPIRY_SCAN_INTERVAL} milliseconds, to find the groups that were not created through this instance.
+ */
 public class EventCorrelator implements Startable, Stoppable {
 
   /**
@@ -65,11 +73,17 @@ public class EventCorrelator implements Startable, Stoppable {
 
   private static final long DELAY_TIME = 10;
 
-  protected final Object groupsLock = new Object();
+  static final long FULL_EXPIRY_SCAN_INTERVAL = 1000;
+
+  private static final int GROUP_LOCK_STRIPES = 64;
 
-  // @GuardedBy groupsLock
+  private final Object[] groupLocks = new Object[GROUP_LOCK_STRIPES];
+
+  // @GuardedBy the lock of each group
   protected ObjectStore<Long> processedGroups = null;
 
+  private final GroupDeadlineIndex deadlineIndex = new GroupDeadlineIndex();
+
   private long timeout = -1; // undefined
 
   private boolean failOnTimeout = true;
@@ -118,6 +132,10 @@ public class EventCorrelator implements Startable, Stoppable {
     this.correlatorStore = correlatorStore;
     this.storePrefix = storePrefix;
     this.processedGroups = processedGroups;
+
+    for (int i = 0; i < groupLocks.length; ++i) {
+      groupLocks[i] = new Object();
+    }
   }
 
   public void forceGroupExpiry(String groupId) throws MuleException {
@@ -186,7 +204,7 @@ public class EventCorrelator implements Startable, Stoppable {
       }
 
       // ensure that only one thread at a time evaluates this EventGroup
-      synchronized (groupsLock) {
+      synchronized (getGroupLock(groupId)) {
         if (logger.isDebugEnabled()) {
           logger.debug("Adding event to aggregator group: " + groupId);
         }
@@ -224,6 +242,7 @@ public class EventCorrelator implements Startable, Stoppable {
 
           return returnEvent;
         } else {
+          indexGroupDeadline(group);
           return null;
         }
       }
@@ -258,7 +277,8 @@ public class EventCorrelator implements Startable, Stoppable {
 
   protected void removeEventGroup(EventGroup group) throws ObjectStoreException {
     final Object groupId = group.getGroupId();
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(groupId)) {
+      deadlineIndex.remove((String) groupId);
       if (!isGroupAlreadyProcessed(groupId)) {
         correlatorStore.remove((String) groupId, getEventGroupsPartitionKey());
         addProcessedGroup(groupId);
@@ -267,17 +287,35 @@ public class EventCorrelator implements Startable, Stoppable {
   }
 
   protected void addProcessedGroup(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(id)) {
       processedGroups.store((String) id, currentTimeMillis());
     }
   }
 
   protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(id)) {
       return processedGroups.contains((String) id);
     }
   }
 
+  /**
+   * @return the lock that guards the access to the group with the given id
+   */
+  private Object getGroupLock(Object groupId) {
+    int hash = groupId.hashCode();
+    return groupLocks[(hash ^ (hash >>> 16)) & (GROUP_LOCK_STRIPES - 1)];
+  }
+
+  private void indexGroupDeadline(EventGroup group) {
+    if (timeout != 0) {
+      deadlineIndex.add((String) group.getGroupId(), group.getCreated() + timeout);
+    }
+  }
+
+  private boolean isExpired(EventGroup group, long now) {
+    return group.getCreated() + getTimeout() < now;
+  }
+
   public boolean isFailOnTimeout() {
     return failOnTimeout;
   }
@@ -374,6 +412,7 @@ public class EventCorrelator implements Startable, Stoppable {
   private final class ExpiringGroupMonitoringRunnable implements Runnable, Expirable, Disposable {
 
     private ExpiryMonitor expiryMonitor;
+    private long nextFullScan = 0;
 
     public ExpiringGroupMonitoringRunnable() {
       this.expiryMonitor = new ExpiryMonitor(name, MINUTES.toMillis(1), muleContext, true);
@@ -408,14 +447,16 @@ public class EventCorrelator implements Startable, Stoppable {
         return;
       }
 
+      final long now = currentTimeMillis();
       List<EventGroup> expired = new ArrayList<>(1);
       try {
-        for (String o : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
-          EventGroup group = getEventGroup(o);
-          // group may have been removed by another thread right after eventGroups.allKeys()
-          if (group != null && group.getCreated() + getTimeout() < currentTimeMillis()) {
-            expired.add(group);
-          }
+        if (now >= nextFullScan) {
+          nextFullScan = now + FULL_EXPIRY_SCAN_INTERVAL;
+          // also looks for the groups not in the index, like the ones recovered from a persistent store or created in another
+          // node of a cluster
+          collectExpired((List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey()), now, expired);
+        } else {
+          collectExpired(deadlineIndex.pollExpired(now), now, expired);
         }
       } catch (ObjectStoreException e) {
         logger.warn("expiry failed dues to ObjectStoreException " + e);
@@ -431,6 +472,24 @@ public class EventCorrelator implements Startable, Stoppable {
       }
     }
 
+    private void collectExpired(List<String> groupIds, long now, List<EventGroup> expired) throws ObjectStoreException {
+      for (String groupId : groupIds) {
+        EventGroup group = getEventGroup(groupId);
+        // group may have been removed by another thread right after it was listed
+        if (group != null) {
+          if (isExpired(group, now)) {
+            expired.add(group);
+          } else {
+            synchronized (getGroupLock(groupId)) {
+              if (!isGroupAlreadyProcessed(groupId)) {
+                indexGroupDeadline(group);
+              }
+            }
+          }
+        }
+      }
+    }
+
     @Override
     public void dispose() {
       if (expiryMonitor != null) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.correlation;
+
+import static java.util.Comparator.comparing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of the event groups of an {@link EventCorrelator} sorted by the time they expire, so finding the expired ones doesn't
+ * require going through every group in the store.
+ * <p/>
+ * This class is thread safe. Adding and removing the same group concurrently must be avoided by the caller.
+ *
+ * @since 4.1
+ */
+class GroupDeadlineIndex {
+
+  private static final Comparator<Deadline> DEADLINE_COMPARATOR =
+      comparing((Deadline deadline) -> deadline.deadline).thenComparing(deadline -> deadline.groupId);
+
+  private final ConcurrentMap<String, Deadline> deadlines = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListSet<Deadline> sortedDeadlines = new ConcurrentSkipListSet<>(DEADLINE_COMPARATOR);
+
+  /**
+   * Indexes the given group, unless it's already indexed.
+   *
+   * @param groupId  the id of the group
+   * @param deadline the time after which the group is expired
+   */
+  void add(String groupId, long deadline) {
+    if (deadlines.containsKey(groupId)) {
+      return;
+    }
+
+    Deadline entry = new Deadline(groupId, deadline);
+    if (deadlines.putIfAbsent(groupId, entry) == null) {
+      sortedDeadlines.add(entry);
+    }
+  }
+
+  /**
+   * Removes the given group from the index, if it was indexed.
+   *
+   * @param groupId the id of the group
+   */
+  void remove(String groupId) {
+    Deadline entry = deadlines.remove(groupId);
+    if (entry != null) {
+      sortedDeadlines.remove(entry);
+    }
+  }
+
+  /**
+   * Removes from the index the groups whose deadline is before the given time.
+   *
+   * @param now the current time
+   * @return the ids of the removed groups, earliest deadline first
+   */
+  List<String> pollExpired(long now) {
+    List<String> expired = new ArrayList<>();
+    for (Deadline entry : sortedDeadlines) {
+      if (entry.deadline >= now) {
+        break;
+      }
+      if (sortedDeadlines.remove(entry) && deadlines.remove(entry.groupId, entry)) {
+        expired.add(entry.groupId);
+      }
+    }
+    return expired;
+  }
+
+  int size() {
+    return deadlines.size();
+  }
+
+  private static final class Deadline {
+
+    private final String groupId;
+    private final long deadline;
+
+    private Deadline(String groupId, long deadline) {
+      this.groupId = groupId;
+      this.deadline = deadline;
+    }
+  }
+}
@@ -12,6 +12,7 @@ import static java.util.Optional.empty;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedConsumer;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChildContext;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
 import static reactor.core.Exceptions.propagate;
 import static reactor.core.publisher.Flux.from;
@@ -46,10 +47,12 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
 import org.mule.runtime.core.privileged.routing.RoutingResult;
 
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -68,29 +71,93 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   public static final String TIMEOUT_EXCEPTION_DESCRIPTION = "Route Timeout";
   public static final String TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX = "Timeout while processing route/part:";
 
+  private final boolean ordered;
+
+  /**
+   * Creates a strategy factory that collects results in the same order the routing pairs were provided.
+   */
+  public AbstractForkJoinStrategyFactory() {
+    this(true);
+  }
+
+  /**
+   * Creates a strategy factory.
+   *
+   * @param ordered whether results are collected in the same order the routing pairs were provided, or in the order the routes
+   *        complete. Not preserving the order avoids holding results of completed routes while a previous one is still in
+   *        progress.
+   */
+  public AbstractForkJoinStrategyFactory(boolean ordered) {
+    this.ordered = ordered;
+  }
+
   @Override
   public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
     reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    final Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor =
+        decorateRouteProcessor(processRoutePair(processingStrategy, maxConcurrency, isDelayErrors(delayErrors), timeout,
+                                                reactorTimeoutScheduler, timeoutErrorType),
+                               reactorTimeoutScheduler);
     return (original, routingPairs) -> {
       final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
-      return from(routingPairs)
-          .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
-                                              timeoutErrorType),
-                             maxConcurrency)
-          .collectList()
-          .doOnNext(list -> {
-            if (list.stream().anyMatch(event -> event.getError().isPresent())) {
-              throw propagate(createCompositeRoutingException(list));
-            }
-          })
+      return joinRoutes(from(routingPairs).map(addSequence(count)), routeProcessor, maxConcurrency)
           .doOnNext(mergeVariables(original, resultBuilder))
           .map(createResultEvent(original, resultBuilder));
     };
   }
 
+  /**
+   * Template method that processes the routing pairs and collects the results to aggregate. By default all routes are processed
+   * and, if any of them failed, a {@link CompositeRoutingException} is propagated.
+   *
+   * @param routingPairs the routing pairs to process, with their sequence already set
+   * @param routeProcessor the function that processes each routing pair
+   * @param maxConcurrency maximum number of routing pairs to be processed in parallel
+   * @return the result events to aggregate
+   */
+  protected Mono<List<CoreEvent>> joinRoutes(Flux<RoutingPair> routingPairs,
+                                             Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor,
+                                             int maxConcurrency) {
+    return routingPairs
+        .transform(pairs -> ordered ? pairs.flatMapSequential(routeProcessor, maxConcurrency)
+            : pairs.flatMap(routeProcessor, maxConcurrency))
+        .collectList()
+        .doOnNext(list -> {
+          if (list.stream().anyMatch(event -> event.getError().isPresent())) {
+            throw propagate(createCompositeRoutingException(list));
+          }
+        });
+  }
+
+  /**
+   * Template method that allows implementations to change how each routing pair is processed, for instance to process it more
+   * than once.
+   * <p>
+   * The publisher returned by {@code routeProcessor} for a routing pair may be cancelled, in which case processing of the route
+   * is cancelled too.
+   *
+   * @param routeProcessor the function that processes a routing pair
+   * @param scheduler scheduler that may be used to delay processing
+   * @return the function to use to process each routing pair
+   */
+  protected Function<RoutingPair, Publisher<? extends CoreEvent>> decorateRouteProcessor(
+      Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor, reactor.core.scheduler.Scheduler scheduler) {
+    return routeProcessor;
+  }
+
+  /**
+   * Template method that allows implementations to override if errors in routes are delayed, in which case the result of a
+   * failed route is an event with the error, instead of an error signal.
+   *
+   * @param delayErrors the value configured by the router
+   * @return whether errors in routes are delayed
+   */
+  protected boolean isDelayErrors(boolean delayErrors) {
+    return delayErrors;
+  }
+
   /**
    * Template method to be implemented by implementations that defines how the list of result {@link CoreEvent}'s should be
    * aggregated into a result {@link CoreEvent}
@@ -117,10 +184,14 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
       ReactiveProcessor route = publisher -> from(publisher)
           .transform(pair.getRoute())
           .timeout(ofMillis(timeout), onTimeout(processingStrategy, delayErrors, timeoutErrorType, pair), timeoutScheduler);
+      BaseEventContext childContext = newChildContext(pair.getEvent(), empty());
       return from(processWithChildContext(pair.getEvent(),
-                                          applyProcessingStrategy(processingStrategy, route, maxConcurrency), empty()))
+                                          applyProcessingStrategy(processingStrategy, route, maxConcurrency), childContext))
                                               .onErrorResume(MessagingException.class,
-                                                             me -> delayErrors ? just(me.getEvent()) : error(me));
+                                                             me -> delayErrors ? just(me.getEvent()) : error(me))
+                                              // A cancelled route won't produce a result, so its context is completed for the
+                                              // parent context to be able to complete.
+                                              .doOnCancel(() -> childContext.success());
     };
   }
 
@@ -151,7 +222,13 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         .build();
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
+  /**
+   * Creates the exception to propagate when some of the routes failed.
+   *
+   * @param results the results of the routes, with either a message or an error
+   * @return the exception with the successful and failed results
+   */
+  protected CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
 
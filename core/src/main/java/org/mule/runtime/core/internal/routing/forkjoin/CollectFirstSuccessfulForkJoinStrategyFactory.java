@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.fromCallable;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ForkJoinStrategy} that:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency}, pulling routing pairs only as routes
+ * complete.
+ * <li>Emits a result event as soon as the required number of routes complete successfully, cancelling the routes that are still
+ * in progress and not starting the remaining ones.
+ * <li>Merges variables of the successful routes using a last-wins strategy.
+ * <li>Collects the successful results into a result {@link CoreEvent} with a {@link List<org.mule.runtime.api.message.Message>}
+ * payload, in the order the routes completed.
+ * <li>Propagates a composite exception as soon as so many routes failed that the required number of successful routes can't be
+ * reached.
+ * </ul>
+ */
+public class CollectFirstSuccessfulForkJoinStrategyFactory extends AbstractForkJoinStrategyFactory {
+
+  static final String REQUIRED_ROUTES_MESSAGE =
+      "%d routes are required to complete successfully but only %d routes were provided";
+
+  private final int count;
+
+  /**
+   * Creates a strategy that completes with the first route that succeeds.
+   */
+  public CollectFirstSuccessfulForkJoinStrategyFactory() {
+    this(1);
+  }
+
+  /**
+   * @param count the number of routes that must complete successfully.
+   * @throws IllegalArgumentException if the value is zero or less.
+   */
+  public CollectFirstSuccessfulForkJoinStrategyFactory(int count) {
+    checkArgument(count > 0, "The number of successful routes must be one or more.");
+    this.count = count;
+  }
+
+  /**
+   * Template method that allows implementations to define how many routes must complete successfully.
+   *
+   * @param routes the number of routes being processed
+   * @return the number of routes that must complete successfully.
+   */
+  protected int getRequiredSuccesses(int routes) {
+    return count;
+  }
+
+  /**
+   * Template method that allows implementations to define whether {@link #getRequiredSuccesses(int)} depends on the number of
+   * routes. If it does, the result can't be emitted until all the routing pairs have been provided.
+   *
+   * @return whether the number of routes that must complete successfully depends on the number of routes.
+   */
+  protected boolean isRequiredSuccessesDependentOnRoutes() {
+    return false;
+  }
+
+  @Override
+  protected boolean isDelayErrors(boolean delayErrors) {
+    // Failed routes must not cancel the others, as they may still succeed
+    return true;
+  }
+
+  @Override
+  protected Mono<List<CoreEvent>> joinRoutes(Flux<RoutingPair> routingPairs,
+                                             Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor,
+                                             int maxConcurrency) {
+    return defer(() -> {
+      // Routing pairs are pulled as routes complete, so the number of routes is only known once all of them were provided
+      final AtomicInteger routes = new AtomicInteger();
+      final AtomicBoolean allRoutesProvided = new AtomicBoolean();
+      final List<CoreEvent> results = new ArrayList<>();
+      final List<CoreEvent> successes = new ArrayList<>();
+      return routingPairs
+          .doOnNext(pair -> routes.incrementAndGet())
+          .doOnComplete(() -> {
+            final int required = getRequiredSuccesses(routes.get());
+            if (required > routes.get()) {
+              throw new MuleRuntimeException(createStaticMessage(format(REQUIRED_ROUTES_MESSAGE, required, routes.get())));
+            }
+            allRoutesProvided.set(true);
+          })
+          .flatMap(routeProcessor, maxConcurrency)
+          .<CoreEvent>handle((result, sink) -> {
+            results.add(result);
+            if (!result.getError().isPresent()) {
+              successes.add(result);
+            }
+
+            if (allRoutesProvided.get()) {
+              final int required = getRequiredSuccesses(routes.get());
+              if (successes.size() >= required) {
+                // Cancels the routes still in progress
+                sink.complete();
+              } else if (results.size() - successes.size() > routes.get() - required) {
+                sink.error(createCompositeRoutingException(results));
+              }
+            } else if (!isRequiredSuccessesDependentOnRoutes() && successes.size() == getRequiredSuccesses(routes.get())) {
+              // Cancels the routes still in progress and the routing pairs not provided yet
+              sink.complete();
+            }
+          })
+          .then(fromCallable(() -> {
+            final int required = getRequiredSuccesses(routes.get());
+            if (successes.size() < required) {
+              throw createCompositeRoutingException(results);
+            }
+            return successes.subList(0, required);
+          }));
+    });
+  }
+
+  @Override
+  protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
+                                                                   CoreEvent.Builder resultBuilder) {
+    return list -> resultBuilder.message(of(list.stream().map(event -> event.getMessage()).collect(toList()))).build();
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return MULE_MESSAGE_LIST;
+  }
+}
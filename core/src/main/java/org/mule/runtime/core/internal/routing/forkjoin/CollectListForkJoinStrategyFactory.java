@@ -30,6 +30,17 @@ import java.util.function.Function;
  */
 public class CollectListForkJoinStrategyFactory extends AbstractForkJoinStrategyFactory {
 
+  public CollectListForkJoinStrategyFactory() {
+    super();
+  }
+
+  /**
+   * @param ordered whether the result list keeps the order of the routing pairs, or has results in the order routes complete.
+   */
+  public CollectListForkJoinStrategyFactory(boolean ordered) {
+    super(ordered);
+  }
+
   @Override
   protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                    CoreEvent.Builder resultBuilder) {
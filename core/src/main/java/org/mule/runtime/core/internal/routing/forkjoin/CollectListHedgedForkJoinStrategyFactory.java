@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.delay;
+import static reactor.core.publisher.Mono.first;
+import static reactor.core.publisher.Mono.from;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * {@link ForkJoinStrategy} that behaves as {@link CollectListForkJoinStrategyFactory}, but hedges each route: if a route hasn't
+ * completed after a delay, the same route is processed again and the result of whichever completes first is used, cancelling
+ * the other one.
+ * <p>
+ * The delay is the 95th percentile of the time it took routes processed by this strategy to complete, so only the slowest
+ * routes are hedged. Until enough routes completed to calculate it, the configured initial delay is used.
+ * <p>
+ * As routes may be processed twice, this strategy must only be used with idempotent routes.
+ */
+public class CollectListHedgedForkJoinStrategyFactory extends CollectListForkJoinStrategyFactory {
+
+  public static final long DEFAULT_INITIAL_HEDGE_DELAY = 1000;
+
+  static final double HEDGE_PERCENTILE = 0.95;
+  static final int LATENCY_SAMPLES = 128;
+  static final int MIN_LATENCY_SAMPLES = 20;
+
+  private final long initialHedgeDelay;
+  private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_SAMPLES);
+
+  public CollectListHedgedForkJoinStrategyFactory() {
+    this(DEFAULT_INITIAL_HEDGE_DELAY);
+  }
+
+  /**
+   * @param initialHedgeDelay delay in milliseconds after which routes are hedged until there are enough samples to calculate it.
+   * @throws IllegalArgumentException if the value is less than zero.
+   */
+  public CollectListHedgedForkJoinStrategyFactory(long initialHedgeDelay) {
+    checkArgument(initialHedgeDelay >= 0, "Initial hedge delay must be zero or more.");
+    this.initialHedgeDelay = initialHedgeDelay;
+  }
+
+  @Override
+  protected Function<RoutingPair, Publisher<? extends CoreEvent>> decorateRouteProcessor(
+      Function<RoutingPair, Publisher<? extends CoreEvent>> routeProcessor, Scheduler scheduler) {
+    return pair -> defer(() -> {
+      final long start = nanoTime();
+      return first(from(routeProcessor.apply(pair)),
+                   delay(ofMillis(getHedgeDelay()), scheduler).then(defer(() -> from(routeProcessor.apply(pair)))))
+                       .doOnNext(result -> latencyTracker.record(nanoTime() - start));
+    });
+  }
+
+  /**
+   * @return the delay in milliseconds after which a route that hasn't completed is hedged.
+   */
+  long getHedgeDelay() {
+    return latencyTracker.getSamples() < MIN_LATENCY_SAMPLES ? initialHedgeDelay
+        : NANOSECONDS.toMillis(latencyTracker.getPercentile(HEDGE_PERCENTILE));
+  }
+
+  /**
+   * Keeps the latest latencies in a ring buffer to calculate percentiles from.
+   */
+  static final class LatencyTracker {
+
+    private final long[] latencies;
+    private long recorded;
+
+    LatencyTracker(int size) {
+      this.latencies = new long[size];
+    }
+
+    synchronized void record(long latency) {
+      latencies[(int) (recorded++ % latencies.length)] = latency;
+    }
+
+    synchronized int getSamples() {
+      return (int) min(recorded, latencies.length);
+    }
+
+    long getPercentile(double percentile) {
+      final long[] samples;
+      synchronized (this) {
+        samples = copyOf(latencies, getSamples());
+      }
+      sort(samples);
+      return samples[min(samples.length - 1, (int) (samples.length * percentile))];
+    }
+  }
+}
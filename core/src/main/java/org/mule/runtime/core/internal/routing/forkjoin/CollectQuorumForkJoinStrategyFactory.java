@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+
+/**
+ * {@link ForkJoinStrategy} that behaves as {@link CollectFirstSuccessfulForkJoinStrategyFactory}, emitting a result event as soon
+ * as a majority of the routes complete successfully.
+ */
+public class CollectQuorumForkJoinStrategyFactory extends CollectFirstSuccessfulForkJoinStrategyFactory {
+
+  @Override
+  protected int getRequiredSuccesses(int routes) {
+    return routes / 2 + 1;
+  }
+
+  @Override
+  protected boolean isRequiredSuccessesDependentOnRoutes() {
+    return true;
+  }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel used to find the entries of an in memory store whose deadline has passed.
+ * <p/>
+ * Time is split in ticks of one millisecond. The first level has a slot for each of the next {@link #WHEEL_SIZE} ticks, and
+ * each of the following levels has slots spanning {@link #WHEEL_SIZE} times the ticks of the previous one. Nodes are linked into
+ * the slot of the lowest level that covers their deadline and cascade to the lower levels as time advances, so scheduling and
+ * unscheduling are O(1) and advancing only visits the nodes that expire plus the ones being cascaded.
+ * <p/>
+ * This class is not thread safe, access must be guarded by the owner.
+ *
+ * @since 4.1
+ */
+class ExpiryTimingWheel<N extends ExpiryTimingWheel.Node> {
+
+  private static final long TICK_NANOS = MILLISECONDS.toNanos(1);
+  private static final int WHEEL_BITS = 6;
+  static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+  /**
+   * With 1 ms ticks, 4 levels span about 4.6 hours. Nodes further away are parked on the last level and rescheduled when
+   * cascaded.
+   */
+  private static final int LEVELS = 4;
+
+  private final Node[][] slots = new Node[LEVELS][WHEEL_SIZE];
+  /**
+   * The last tick whose slot has been completely expired.
+   */
+  private long currentTick;
+  private int size;
+
+  /**
+   * @param nowNanos the current time, in the same time base as the deadlines to schedule
+   */
+  ExpiryTimingWheel(long nowNanos) {
+    for (Node[] level : slots) {
+      for (int i = 0; i < WHEEL_SIZE; ++i) {
+        level[i] = Node.newSentinel();
+      }
+    }
+    currentTick = floorDiv(nowNanos, TICK_NANOS) - 1;
+  }
+
+  /**
+   * Links the given node so it's handed back by {@link #expire(long, Consumer)} once its deadline is reached.
+   *
+   * @param node a node not currently scheduled, with its {@link Node#deadlineNanos} set
+   */
+  void schedule(N node) {
+    long nextTick = currentTick + 1;
+    long deadlineTick = floorDiv(node.deadlineNanos, TICK_NANOS);
+    long delta = deadlineTick - nextTick;
+
+    Node slot;
+    if (delta < WHEEL_SIZE) {
+      slot = slots[0][(int) ((delta < 0 ? nextTick : deadlineTick) & WHEEL_MASK)];
+    } else {
+      int level = 1;
+      while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+        level++;
+      }
+      if (delta >= 1L << (WHEEL_BITS * LEVELS)) {
+        deadlineTick = nextTick + (1L << (WHEEL_BITS * LEVELS)) - 1;
+      }
+      slot = slots[level][(int) ((deadlineTick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+    }
+    link(slot, node);
+    size++;
+  }
+
+  /**
+   * Unlinks the given node, so it's not expired.
+   *
+   * @param node a scheduled node
+   */
+  void unschedule(N node) {
+    if (node.isScheduled()) {
+      unlink(node);
+      size--;
+    }
+  }
+
+  /**
+   * Advances the wheel up to the given time, unlinking every node whose deadline is not after it.
+   *
+   * @param nowNanos the current time
+   * @param onExpired called for each expired node, after it has been unlinked
+   */
+  void expire(long nowNanos, Consumer<N> onExpired) {
+    long nowTick = floorDiv(nowNanos, TICK_NANOS);
+    if (size == 0) {
+      currentTick = max(currentTick, nowTick - 1);
+      return;
+    }
+
+    for (long tick = currentTick + 1; tick <= nowTick; ++tick) {
+      currentTick = tick - 1;
+      cascade(tick);
+      Node slot = slots[0][(int) (tick & WHEEL_MASK)];
+      Node node = slot.next;
+      while (node != slot) {
+        Node next = node.next;
+        // the slot of the current tick may hold nodes due later within this same millisecond
+        if (tick < nowTick || node.deadlineNanos <= nowNanos) {
+          unlink(node);
+          size--;
+          onExpired.accept((N) node);
+        }
+        node = next;
+      }
+    }
+    currentTick = max(currentTick, nowTick - 1);
+  }
+
+  /**
+   * Removes every scheduled node.
+   */
+  void clear() {
+    for (Node[] level : slots) {
+      for (Node slot : level) {
+        Node node = slot.next;
+        while (node != slot) {
+          Node next = node.next;
+          node.next = null;
+          node.prev = null;
+          node = next;
+        }
+        slot.next = slot;
+        slot.prev = slot;
+      }
+    }
+    size = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Moves the nodes of the higher level slots that start at the given tick to the lower levels, highest level first so nodes may
+   * go down more than one level. Must be called with {@link #currentTick} right before the given tick.
+   */
+  private void cascade(long tick) {
+    for (int level = LEVELS - 1; level > 0; --level) {
+      if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+        continue;
+      }
+      Node slot = slots[level][(int) ((tick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+      Node node = slot.next;
+      slot.next = slot;
+      slot.prev = slot;
+      while (node != slot) {
+        Node next = node.next;
+        node.next = null;
+        node.prev = null;
+        size--;
+        schedule((N) node);
+        node = next;
+      }
+    }
+  }
+
+  private static void link(Node slot, Node node) {
+    node.prev = slot.prev;
+    node.next = slot;
+    slot.prev.next = node;
+    slot.prev = node;
+  }
+
+  private static void unlink(Node node) {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.next = null;
+    node.prev = null;
+  }
+
+  /**
+   * Element that can be scheduled in an {@link ExpiryTimingWheel}. Also used as the sentinel of each slot.
+   */
+  static class Node {
+
+    private Node prev;
+    private Node next;
+    long deadlineNanos;
+
+    private static Node newSentinel() {
+      Node sentinel = new Node();
+      sentinel.prev = sentinel;
+      sentinel.next = sentinel;
+      return sentinel;
+    }
+
+    boolean isScheduled() {
+      return next != null;
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A partition of a {@link PartitionedInMemoryObjectStore}.
+ * <p/>
+ * Values are kept in a concurrent map, so lookups don't lock. Each entry is also linked into an {@link ExpiryTimingWheel} by its
+ * expiration deadline and into a recency list used to evict the least recently used entries when the partition exceeds its max
+ * entries. Both structures are only modified holding a lock, which is just tried when recording an access to an entry: if it's
+ * busy the access is not recorded, so the eviction order is an approximation of LRU in favor of not blocking readers.
+ * <p/>
+ * The entry TTL is only known when {@link #expire(long, long, int)} is called. It's then remembered to schedule the entries
+ * stored afterwards, and every entry is rescheduled if it changes.
+ *
+ * @since 4.1
+ */
+class InMemoryPartition<T extends Serializable> {
+
+  private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Sentinel of the recency list, {@code recency.after} is the least recently used entry.
+   */
+  private final Entry<T> recency = new Entry<>(null, null, 0);
+
+  private ExpiryTimingWheel<Entry<T>> expiryWheel;
+  private long entryTTL = UNBOUNDED;
+
+  private final AtomicLong expiredEntries = new AtomicLong();
+  private final AtomicLong evictedEntries = new AtomicLong();
+
+  InMemoryPartition() {
+    recency.before = recency;
+    recency.after = recency;
+  }
+
+  boolean contains(String key) {
+    return entries.containsKey(key);
+  }
+
+  /**
+   * @return the value for the given key, or {@code null} if there's none
+   */
+  T get(String key) {
+    Entry<T> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (lock.tryLock()) {
+      try {
+        if (entry.after != null) {
+          unlinkRecency(entry);
+          linkRecency(entry);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return entry.value;
+  }
+
+  /**
+   * @return true if the value was stored, false if there was already a value for the key
+   */
+  boolean putIfAbsent(String key, T value, long nowNanos) {
+    Entry<T> entry = new Entry<>(key, value, nowNanos);
+    lock.lock();
+    try {
+      if (entries.putIfAbsent(key, entry) != null) {
+        return false;
+      }
+      linkRecency(entry);
+      if (expiryWheel != null) {
+        entry.deadlineNanos = nowNanos + MILLISECONDS.toNanos(entryTTL);
+        expiryWheel.schedule(entry);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the removed value, or {@code null} if there was no value for the key
+   */
+  T remove(String key) {
+    lock.lock();
+    try {
+      Entry<T> entry = entries.remove(key);
+      if (entry == null) {
+        return null;
+      }
+      unindex(entry);
+      return entry.value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  List<String> keys() {
+    return new ArrayList<>(entries.keySet());
+  }
+
+  Map<String, T> values() {
+    Map<String, T> values = new LinkedHashMap<>();
+    for (Entry<T> entry : entries.values()) {
+      values.put(entry.key, entry.value);
+    }
+    return values;
+  }
+
+  void clear() {
+    lock.lock();
+    try {
+      entries.clear();
+      if (expiryWheel != null) {
+        expiryWheel.clear();
+      }
+      Entry<T> entry = recency.after;
+      while (entry != recency) {
+        Entry<T> next = entry.after;
+        entry.before = null;
+        entry.after = null;
+        entry = next;
+      }
+      recency.before = recency;
+      recency.after = recency;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Evicts the least recently used entries in excess of {@code maxEntries} and removes the entries stored more than
+   * {@code entryTTL} milliseconds ago.
+   *
+   * @return the number of entries removed
+   */
+  int expire(long nowNanos, long entryTTL, int maxEntries) {
+    lock.lock();
+    try {
+      int removed = 0;
+      if (maxEntries != UNBOUNDED) {
+        while (entries.size() > maxEntries && recency.after != recency) {
+          Entry<T> eldest = recency.after;
+          entries.remove(eldest.key, eldest);
+          unindex(eldest);
+          removed++;
+        }
+        evictedEntries.addAndGet(removed);
+      }
+
+      if (entryTTL != this.entryTTL) {
+        rescheduleAll(nowNanos, entryTTL);
+      }
+      if (expiryWheel != null) {
+        int[] expired = new int[1];
+        expiryWheel.expire(nowNanos, entry -> {
+          entries.remove(entry.key, entry);
+          unlinkRecency(entry);
+          expired[0]++;
+        });
+        expiredEntries.addAndGet(expired[0]);
+        removed += expired[0];
+      }
+      return removed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long getExpiredEntries() {
+    return expiredEntries.get();
+  }
+
+  long getEvictedEntries() {
+    return evictedEntries.get();
+  }
+
+  private void rescheduleAll(long nowNanos, long entryTTL) {
+    this.entryTTL = entryTTL;
+    if (expiryWheel != null) {
+      expiryWheel.clear();
+    }
+    if (entryTTL == UNBOUNDED) {
+      expiryWheel = null;
+      return;
+    }
+    expiryWheel = new ExpiryTimingWheel<>(nowNanos);
+    long ttlNanos = MILLISECONDS.toNanos(entryTTL);
+    for (Entry<T> entry = recency.after; entry != recency; entry = entry.after) {
+      entry.deadlineNanos = entry.storedNanos + ttlNanos;
+      expiryWheel.schedule(entry);
+    }
+  }
+
+  private void unindex(Entry<T> entry) {
+    unlinkRecency(entry);
+    if (expiryWheel != null) {
+      expiryWheel.unschedule(entry);
+    }
+  }
+
+  private void linkRecency(Entry<T> entry) {
+    entry.before = recency.before;
+    entry.after = recency;
+    recency.before.after = entry;
+    recency.before = entry;
+  }
+
+  private void unlinkRecency(Entry<T> entry) {
+    entry.before.after = entry.after;
+    entry.after.before = entry.before;
+    entry.before = null;
+    entry.after = null;
+  }
+
+  private static final class Entry<T> extends ExpiryTimingWheel.Node {
+
+    private final String key;
+    private final T value;
+    private final long storedNanos;
+
+    private Entry<T> before;
+    private Entry<T> after;
+
+    private Entry(String key, T value, long storedNanos) {
+      this.key = key;
+      this.value = value;
+      this.storedNanos = storedNanos;
+    }
+  }
+}
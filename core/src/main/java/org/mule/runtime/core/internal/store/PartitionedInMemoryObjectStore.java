@@ -6,8 +6,6 @@
  */
 package org.mule.runtime.core.internal.store;
 
-import static java.util.concurrent.TimeUnit.NANOSECONDS;
-import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -16,12 +14,9 @@ import org.mule.runtime.core.api.component.InternalComponent;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
@@ -32,8 +27,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
-  private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, InMemoryPartition<T>> partitions = new ConcurrentHashMap<>();
 
   @Override
   public boolean isPersistent() {
@@ -43,7 +37,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   @Override
   protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
     if (partitions.containsKey(partitionName)) {
-      return partitions.get(partitionName).containsKey(key);
+      return partitions.get(partitionName).contains(key);
     } else {
       return false;
     }
@@ -51,11 +45,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
-    T oldValue = getPartition(partitionName).putIfAbsent(key, value);
-    if (oldValue != null) {
+    if (!getPartition(partitionName).putIfAbsent(key, value, getCurrentNanoTime())) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
   }
 
   @Override
@@ -73,27 +65,17 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     if (removedValue == null) {
       throw new ObjectDoesNotExistException();
     }
-
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
-      }
-    }
-
     return removedValue;
   }
 
   @Override
   public List<String> allKeys(String partitionName) throws ObjectStoreException {
-    return new ArrayList<>(getPartition(partitionName).keySet());
+    return getPartition(partitionName).keys();
   }
 
   @Override
   public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
-    return new LinkedHashMap<>(getPartition(partitionName));
+    return getPartition(partitionName).values();
   }
 
   @Override
@@ -106,23 +88,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return new ArrayList<>(partitions.keySet());
   }
 
-  private ConcurrentMap<String, T> getPartition(String partitionName) {
-    ConcurrentMap<String, T> partition = partitions.get(partitionName);
-    if (partition == null) {
-      partition = new ConcurrentHashMap<>();
-      ConcurrentMap<String, T> previous = partitions.putIfAbsent(partitionName, partition);
-      if (previous != null) {
-        partition = previous;
-      }
-    }
-    return partition;
-  }
-
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
+  private InMemoryPartition<T> getPartition(String partitionName) {
+    InMemoryPartition<T> partition = partitions.get(partitionName);
     if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
+      partition = new InMemoryPartition<>();
+      InMemoryPartition<T> previous = partitions.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -147,86 +117,40 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
-    final long now = getCurrentNanoTime();
-    int expiredEntries = 0;
-    ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
-    ConcurrentMap<String, T> partition = getPartition(partitionName);
-
-    trimToMaxSize(store, maxEntries, partition);
-
-    if (entryTTL == UNBOUNDED) {
-      return;
-    }
-
-    while ((oldestEntry = store.peek()) != null) {
-      if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
-      } else {
-        break;
-      }
-    }
+    int expiredEntries = getPartition(partitionName).expire(getCurrentNanoTime(), entryTTL, maxEntries);
 
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Expired " + expiredEntries + " old entries");
+      LOGGER.debug("Expired " + expiredEntries + " entries");
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
-    if (maxEntries == UNBOUNDED) {
-      return;
-    }
-
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
-    if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
-      }
+  /**
+   * @param partitionName the name of a partition
+   * @return the number of entries of the partition removed because their TTL elapsed
+   */
+  public long getExpiredEntriesCount(String partitionName) {
+    InMemoryPartition<T> partition = partitions.get(partitionName);
+    return partition == null ? 0 : partition.getExpiredEntries();
+  }
 
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Expired " + excess + " excess entries");
-      }
-    }
+  /**
+   * @param partitionName the name of a partition
+   * @return the number of entries of the partition evicted because the partition exceeded its max entries
+   */
+  public long getEvictedEntriesCount(String partitionName) {
+    InMemoryPartition<T> partition = partitions.get(partitionName);
+    return partition == null ? 0 : partition.getEvictedEntries();
   }
 
   @Override
   public void disposePartition(String partitionName) throws ObjectStoreException {
-    Map partition = partitions.remove(partitionName);
+    InMemoryPartition<T> partition = partitions.remove(partitionName);
     if (partition != null) {
       partition.clear();
     }
-
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
-    if (entries != null) {
-      entries.clear();
-    }
   }
 
   protected long getCurrentNanoTime() {
     return System.nanoTime();
   }
-
-  private static class ExpiryEntry {
-
-    private final long time;
-    private final Serializable key;
-
-    public ExpiryEntry(long time, Serializable key) {
-      this.time = time;
-      this.key = key;
-    }
-
-    public long getTime() {
-      return time;
-    }
-
-    public Serializable getKey() {
-      return key;
-    }
-  }
 }
@@ -6,9 +6,14 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructuredPartition;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
+import org.mule.runtime.api.store.ExpirableObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
@@ -17,6 +22,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -35,9 +41,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  /**
+   * System property to make new partitions use a {@link LogStructuredObjectStorePartition} instead of a
+   * {@link PersistentObjectStorePartition}. Existing partitions are always opened with the layout they were created with.
+   */
+  public static final String LOG_STRUCTURED_PARTITIONS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructuredPartitions";
+
   private MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
+  private Map<String, ExpirableObjectStore<T>> partitionsByName = new HashMap<>();
+  private boolean logStructuredPartitions = getBoolean(LOG_STRUCTURED_PARTITIONS_PROPERTY);
   private boolean initialized = false;
 
   public PartitionedPersistentObjectStore() {
@@ -74,13 +87,31 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   }
 
   @Override
-  public void close(String partitionName) throws ObjectStoreException {}
+  public void close(String partitionName) throws ObjectStoreException {
+    ExpirableObjectStore<T> partition = partitionsByName.get(partitionName);
+    if (partition instanceof LogStructuredObjectStorePartition) {
+      // checkpoints the index so the partition is reopened without replaying its log
+      partition.close();
+    }
+  }
+
+  /**
+   * @param logStructuredPartitions whether new partitions should be created as {@link LogStructuredObjectStorePartition}s.
+   *        Defaults to the value of {@link #LOG_STRUCTURED_PARTITIONS_PROPERTY}.
+   */
+  public void setLogStructuredPartitions(boolean logStructuredPartitions) {
+    this.logStructuredPartitions = logStructuredPartitions;
+  }
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
-    persistentObjectStorePartition.open();
-    partitionsByName.put(partitionName, persistentObjectStorePartition);
+    ExpirableObjectStore<T> partition;
+    if (logStructuredPartitions) {
+      partition = new LogStructuredObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    } else {
+      partition = new PersistentObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    }
+    partition.open();
+    partitionsByName.put(partitionName, partition);
   }
 
   private File getNewPartitionDirectory() {
@@ -127,7 +158,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).clear();
   }
 
-  private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
+  private ExpirableObjectStore<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
     if (!partitionsByName.containsKey(partitionName)) {
       throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
     }
@@ -182,10 +213,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
-        persistentObjectStorePartition.open();
-        partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        if (isLogStructuredPartition(partitionDirectory)) {
+          LogStructuredObjectStorePartition<T> partition =
+              new LogStructuredObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        } else {
+          PersistentObjectStorePartition<T> partition = new PersistentObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        }
       } catch (Exception e) {
         LOGGER.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
       }
@@ -202,9 +239,25 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
   }
 
+  /**
+   * Closes the given partition, which stops its background compaction and releases its files if it's a
+   * {@link LogStructuredObjectStorePartition}, and deletes its directory. It has to be opened again to be used afterwards.
+   */
   @Override
-  public void disposePartition(String partitionName) throws ObjectStoreException {
-    clear(partitionName);
+  public synchronized void disposePartition(String partitionName) throws ObjectStoreException {
+    ExpirableObjectStore<T> partition = getPartitionObjectStore(partitionName);
+    partitionsByName.remove(partitionName);
+    try {
+      partition.close();
+    } finally {
+      File partitionDirectory = partition instanceof LogStructuredObjectStorePartition
+          ? ((LogStructuredObjectStorePartition<T>) partition).getPartitionDirectory()
+          : ((PersistentObjectStorePartition<T>) partition).getPartitionDirectory();
+      if (!deleteQuietly(partitionDirectory)) {
+        LOGGER.warn("Could not delete directory " + partitionDirectory.getAbsolutePath() + " of disposed partition "
+            + partitionName);
+      }
+    }
   }
 
   @Override
@@ -8,7 +8,6 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
 import static java.nio.channels.Channels.newChannel;
 import static org.mule.runtime.api.util.Preconditions.checkState;
 import org.mule.runtime.api.util.LazyValue;
@@ -170,18 +169,24 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected abstract boolean canDoSoftCopy();
 
   private ByteBuffer softCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    final ByteBuffer b = buffer.get();
-    return ByteBuffer.wrap(b.array(), offset, min(length, b.limit() - offset)).slice();
+    return region(position, length).slice();
   }
 
   private ByteBuffer hardCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    final ByteBuffer bf = buffer.get();
-    length = min(length, bf.limit() - offset);
-
-    byte[] b = new byte[length];
-    arraycopy(bf.array(), offset, b, 0, length);
+    final ByteBuffer region = region(position, length);
+    byte[] b = new byte[region.remaining()];
+    region.get(b);
     return ByteBuffer.wrap(b);
   }
+
+  /**
+   * Works on a duplicate of the buffer rather than on its backing array, since direct buffers don't have one.
+   */
+  private ByteBuffer region(long position, int length) {
+    final int offset = toIntExact(position);
+    final ByteBuffer b = buffer.get().duplicate();
+    b.limit(offset + min(length, b.limit() - offset));
+    b.position(offset);
+    return b;
+  }
 }
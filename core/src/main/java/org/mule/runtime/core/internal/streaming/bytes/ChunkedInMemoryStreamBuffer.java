@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the buffered information in memory, split in chunks.
+ * <p>
+ * Unlike {@link InMemoryStreamBuffer}, this buffer never copies the already buffered data when it needs to grow. The first
+ * chunk has the configured initial buffer size and each expansion appends a new chunk of the configured buffer size increment,
+ * up to the configured max buffer size. Since chunks never move, the data returned by {@link #get(long, int)} is a view over
+ * the chunk holding the requested position, which may contain less information than requested when it reaches the end of the
+ * chunk.
+ * <p>
+ * Chunks are obtained from and released to the {@link ByteBufferManager}, and only accessed through the {@link ByteBuffer} API,
+ * so they may be direct buffers if the manager provides them.
+ *
+ * @since 4.1
+ */
+public class ChunkedInMemoryStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final int STREAM_FINISHED_PROBE = 10;
+
+  private final int initialBufferSize;
+  private final int bufferSizeIncrement;
+  private final int maxBufferSize;
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  private long capacity = 0;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the chunks
+   */
+  public ChunkedInMemoryStreamBuffer(InputStream stream, InMemoryCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager, config.getInitialBufferSize().toBytes());
+
+    this.initialBufferSize = config.getInitialBufferSize().toBytes();
+    this.bufferSizeIncrement = config.getBufferSizeIncrement() != null
+        ? config.getBufferSizeIncrement().toBytes()
+        : 0;
+
+    this.maxBufferSize = config.getMaxBufferSize().toBytes();
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return withReadLock(releaser -> {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null || isStreamFullyConsumed()) {
+        return presentRead;
+      }
+
+      releaser.release();
+      return withWriteLock(() -> {
+        ByteBuffer refetch = getFromCurrentData(position, length);
+        while (refetch == null && !isStreamFullyConsumed()) {
+          try {
+            consumeForwardData();
+          } catch (IOException e) {
+            throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+          }
+          refetch = getFromCurrentData(position, length);
+        }
+
+        return refetch;
+      });
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    final int chunkIndex = chunkIndex(position);
+    final int offset = toIntExact(position - chunkStart(chunkIndex));
+    final ByteBuffer chunk = chunks.get(chunkIndex);
+    final int available = min(length, chunk.position() - offset);
+
+    ByteBuffer view = chunk.duplicate();
+    view.limit(offset + available);
+    view.position(offset);
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   * Reads into the last chunk, or into a new one if it's full.
+   *
+   * @throws StreamingBufferSizeExceededException if the last chunk is full and a new one would exceed the max buffer size
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+    if (chunk != null && chunk.hasRemaining()) {
+      return consumeInto(chunk);
+    }
+
+    final int chunkSize = chunk == null ? initialBufferSize : bufferSizeIncrement;
+    if (chunk != null && !canBeExpanded()) {
+      return probeStreamFinished();
+    }
+
+    ByteBuffer newChunk = bufferManager.allocate(chunkSize);
+    newChunk.limit(chunkSize);
+    final int read;
+    try {
+      read = consumeStream(newChunk);
+    } catch (IOException | RuntimeException e) {
+      deallocate(newChunk);
+      throw e;
+    }
+
+    if (read > 0) {
+      chunks.add(newChunk);
+      capacity += chunkSize;
+      bufferTip += read;
+    } else {
+      deallocate(newChunk);
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  private int consumeInto(ByteBuffer chunk) throws IOException {
+    final int read = consumeStream(chunk);
+    if (read > 0) {
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  /**
+   * Checks if the stream has more data when the buffer can't grow anymore.
+   *
+   * @throws StreamingBufferSizeExceededException if the stream has more data
+   */
+  private int probeStreamFinished() throws IOException {
+    ByteBuffer probe = bufferManager.allocate(STREAM_FINISHED_PROBE);
+    try {
+      final int read = consumeStream(probe);
+      if (read > 0) {
+        throw new StreamingBufferSizeExceededException(maxBufferSize);
+      }
+
+      streamFullyConsumed();
+      return read;
+    } finally {
+      deallocate(probe);
+    }
+  }
+
+  private int chunkIndex(long position) {
+    if (position < initialBufferSize) {
+      return 0;
+    }
+
+    return 1 + toIntExact((position - initialBufferSize) / bufferSizeIncrement);
+  }
+
+  private long chunkStart(int chunkIndex) {
+    if (chunkIndex == 0) {
+      return 0;
+    }
+
+    return initialBufferSize + (long) (chunkIndex - 1) * bufferSizeIncrement;
+  }
+
+  private boolean canBeExpanded() {
+    if (bufferSizeIncrement <= 0) {
+      return false;
+    } else if (maxBufferSize == 0) {
+      return true;
+    }
+
+    return capacity + bufferSizeIncrement <= maxBufferSize;
+  }
+
+  /**
+   * Releases all the chunks
+   */
+  @Override
+  public void doClose() {
+    chunks.forEach(this::deallocate);
+    chunks.clear();
+  }
+
+  /**
+   * Chunks are never reallocated, so the returned data can always be a view over them
+   */
+  @Override
+  protected boolean canDoSoftCopy() {
+    return true;
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.util.LazyValue;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first bytes of the stream in memory and spills the
+ * rest to a temporal file.
+ * <p>
+ * The amount of data held in memory is given by {@link FileStoreCursorStreamConfig#getMaxInMemorySize()}. The remainder is
+ * written to a file created through {@link org.mule.runtime.core.internal.streaming.TempBufferFileUtils}, which is memory
+ * mapped in regions of fixed size as the stream is consumed. The stream is read straight into those regions, and the data
+ * returned by {@link #get(long, int)} is a view over the memory buffer or the region holding the requested position, so
+ * concurrent cursors read the spilled data without copying it and without holding it in the heap.
+ * <p>
+ * The regions are not unmapped explicitly when the buffer is closed, since views over them may still be referenced by the
+ * cursors. They are released once those views are garbage collected, and the file is deleted on a best effort basis.
+ *
+ * @since 4.1
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final Logger LOGGER = getLogger(FileStoreStreamBuffer.class);
+
+  static final int DEFAULT_REGION_SIZE = 8 * 1024 * 1024;
+
+  private final int maxInMemorySize;
+  private final int regionSize;
+  private final List<MappedByteBuffer> regions = new ArrayList<>();
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the memory buffer
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    this(stream, config, bufferManager, DEFAULT_REGION_SIZE);
+  }
+
+  FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager,
+                        int regionSize) {
+    super(stream, bufferManager, config.getMaxInMemorySize().toBytes());
+    this.maxInMemorySize = config.getMaxInMemorySize().toBytes();
+    this.regionSize = regionSize;
+
+    buffer = new LazyValue<>(() -> {
+      ByteBuffer b = bufferManager.allocate(maxInMemorySize);
+      b.limit(maxInMemorySize);
+      return b;
+    });
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return withReadLock(releaser -> {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null || isStreamFullyConsumed()) {
+        return presentRead;
+      }
+
+      releaser.release();
+      return withWriteLock(() -> {
+        ByteBuffer refetch = getFromCurrentData(position, length);
+        while (refetch == null && !isStreamFullyConsumed()) {
+          try {
+            consumeForwardData();
+          } catch (IOException e) {
+            throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+          }
+          refetch = getFromCurrentData(position, length);
+        }
+
+        return refetch;
+      });
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    final ByteBuffer source;
+    final int offset;
+    if (position < maxInMemorySize) {
+      source = buffer.get();
+      offset = toIntExact(position);
+    } else {
+      final long filePosition = position - maxInMemorySize;
+      source = regions.get(toIntExact(filePosition / regionSize));
+      offset = (int) (filePosition % regionSize);
+    }
+
+    ByteBuffer view = source.duplicate();
+    view.limit(offset + min(length, source.position() - offset));
+    view.position(offset);
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   * Reads into the memory buffer while it has capacity, and into the last mapped region of the file afterwards.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    final int read = consumeStream(bufferTip < maxInMemorySize ? buffer.get() : writableRegion());
+    if (read > 0) {
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  private ByteBuffer writableRegion() throws IOException {
+    if (!regions.isEmpty()) {
+      MappedByteBuffer region = regions.get(regions.size() - 1);
+      if (region.hasRemaining()) {
+        return region;
+      }
+    }
+
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream-buffer");
+      fileChannel = new RandomAccessFile(bufferFile, "rw").getChannel();
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Stream exceeded {} bytes in memory, buffering the rest in file {}", maxInMemorySize,
+                     bufferFile.getAbsolutePath());
+      }
+    }
+
+    MappedByteBuffer region = fileChannel.map(READ_WRITE, (long) regions.size() * regionSize, regionSize);
+    regions.add(region);
+    return region;
+  }
+
+  /**
+   * Drops the file regions, and closes and deletes the buffer file, if one was created
+   */
+  @Override
+  public void doClose() {
+    regions.clear();
+    if (fileChannel != null) {
+      closeSafely(fileChannel::close);
+      fileChannel = null;
+    }
+
+    if (bufferFile != null) {
+      if (!bufferFile.delete()) {
+        // some platforms don't allow deleting the file while its regions are still mapped
+        bufferFile.deleteOnExit();
+      }
+      bufferFile = null;
+    }
+  }
+
+  File getBufferFile() {
+    return bufferFile;
+  }
+
+  /**
+   * Neither the memory buffer nor the mapped regions are ever reallocated, so the returned data can always be a view over them
+   */
+  @Override
+  protected boolean canDoSoftCopy() {
+    return true;
+  }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ByteBufferManager} implementation which pools buffers in power of two size classes without locking on the allocation
+ * and deallocation paths.
+ * <p>
+ * Each request is served from the smallest size class that fits it, through a view which has exactly the requested capacity.
+ * Released buffers go first to a small cache owned by the releasing thread and then to a lock-free free list of their size
+ * class. Buffers in a thread cache can't be reclaimed by other threads, so thread caches are not fed once half of the streaming
+ * memory is in use. Requests bigger than the largest size class are allocated and released without pooling.
+ * <p>
+ * Just like {@link PoolingByteBufferManager}, every buffer created by this manager, either in use or pooled, is accounted
+ * against the max streaming memory. When that limit is reached, idle pooled buffers are released to make room and, if that's not
+ * enough, {@link #allocate(int)} blocks until memory is deallocated. If it's blocked by more than {@link #waitTimeoutMillis}
+ * milliseconds, then a {@link MaxStreamingMemoryExceededException} is thrown. Only waiting for memory takes a lock.
+ * <p>
+ * Buffers may optionally be direct (off-heap). They are accounted against the same memory limit.
+ *
+ * @since 4.1
+ */
+public class SizeClassedByteBufferManager implements ByteBufferManager, Disposable {
+
+  private static final int MIN_CLASS_SHIFT = 6;
+  private static final int MAX_CLASS_SHIFT = 24;
+  private static final int MAX_POOLED_CAPACITY = 1 << MAX_CLASS_SHIFT;
+
+  private static final int MAX_GLOBAL_IDLE = max(4, Runtime.getRuntime().availableProcessors() * 2);
+  private static final int THREAD_CACHE_SLOTS = 4;
+  private static final int THREAD_CACHE_MAX_BYTES = 256 * 1024;
+
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final long maxStreamingMemory;
+  private final long threadCacheMemoryThreshold;
+  private final long waitTimeoutMillis;
+  private final boolean direct;
+
+  private final SizeClass[] sizeClasses = new SizeClass[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+  private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+  private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Direct views don't expose the buffer they were sliced from, so it's tracked here.
+   */
+  private final ConcurrentMap<BufferIdentity, ByteBuffer> directViews = new ConcurrentHashMap<>();
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition memoryReleased = lock.newCondition();
+  private final AtomicInteger waiters = new AtomicInteger(0);
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance of heap buffers which allows the pool to grow up to 50% of the runtime's max memory and has a wait
+   * timeout of 10 seconds. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   */
+  public SizeClassedByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, false);
+  }
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of calling {@link MemoryManager#getMaxMemory()} on the given
+   * {@code memoryManager}, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   * @param direct            whether to allocate direct buffers instead of heap ones
+   */
+  public SizeClassedByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis, boolean direct) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    threadCacheMemoryThreshold = maxStreamingMemory / 2;
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.direct = direct;
+    for (int i = 0; i < sizeClasses.length; ++i) {
+      sizeClasses[i] = new SizeClass(1 << (i + MIN_CLASS_SHIFT));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    try {
+      if (capacity > MAX_POOLED_CAPACITY) {
+        reserveMemory(capacity);
+        return newBuffer(capacity);
+      }
+
+      int classIndex = classIndexFor(capacity);
+      ByteBuffer buffer = threadCache.get().poll(classIndex);
+      if (buffer == null) {
+        buffer = sizeClasses[classIndex].poll();
+      }
+      if (buffer == null) {
+        reserveMemory(sizeClasses[classIndex].bufferCapacity);
+        buffer = newBuffer(sizeClasses[classIndex].bufferCapacity);
+      }
+      return viewOf(buffer, capacity);
+    } catch (Exception e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not allocate byte buffer. " + e.getMessage()), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    ByteBuffer buffer;
+    if (byteBuffer.isDirect()) {
+      buffer = directViews.remove(new BufferIdentity(byteBuffer));
+      if (buffer == null) {
+        releaseMemory(byteBuffer.capacity());
+        return;
+      }
+    } else {
+      int arrayLength = byteBuffer.array().length;
+      if (arrayLength > MAX_POOLED_CAPACITY || arrayLength != classCapacityFor(arrayLength)) {
+        releaseMemory(arrayLength);
+        return;
+      }
+      buffer = ByteBuffer.wrap(byteBuffer.array());
+    }
+
+    int classIndex = classIndexFor(buffer.capacity());
+    if (disposed || !offerToThreadCache(classIndex, buffer) && !sizeClasses[classIndex].offer(buffer)) {
+      releaseMemory(buffer.capacity());
+    } else {
+      signalWaiters();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.releaseIdle(Integer.MAX_VALUE);
+    }
+    ThreadCache cache;
+    while ((cache = threadCaches.poll()) != null) {
+      releaseMemory(cache.discard());
+    }
+    threadCache.remove();
+    directViews.clear();
+  }
+
+  private boolean offerToThreadCache(int classIndex, ByteBuffer buffer) {
+    return streamingMemory.get() <= threadCacheMemoryThreshold && waiters.get() == 0
+        && threadCache.get().offer(classIndex, buffer);
+  }
+
+  private static int classIndexFor(int capacity) {
+    return numberOfTrailingZeros(classCapacityFor(capacity)) - MIN_CLASS_SHIFT;
+  }
+
+  private static int classCapacityFor(int capacity) {
+    if (capacity <= 1 << MIN_CLASS_SHIFT) {
+      return 1 << MIN_CLASS_SHIFT;
+    }
+    int highestBit = highestOneBit(capacity);
+    return highestBit == capacity ? capacity : highestBit << 1;
+  }
+
+  private ByteBuffer newBuffer(int capacity) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  private ByteBuffer viewOf(ByteBuffer buffer, int capacity) {
+    buffer.clear().limit(capacity);
+    ByteBuffer view = buffer.slice();
+    if (direct) {
+      directViews.put(new BufferIdentity(view), buffer);
+    }
+    return view;
+  }
+
+  /**
+   * Accounts the given amount of memory, first releasing idle buffers and then waiting for memory to be deallocated if the limit
+   * was reached.
+   */
+  private void reserveMemory(int capacity) throws InterruptedException {
+    if (tryReserveMemory(capacity) || releaseIdleBuffers(capacity) && tryReserveMemory(capacity)) {
+      return;
+    }
+
+    final long deadline = nanoTime() + MILLISECONDS.toNanos(waitTimeoutMillis);
+    lock.lock();
+    waiters.incrementAndGet();
+    try {
+      while (!tryReserveMemory(capacity) && !(releaseIdleBuffers(capacity) && tryReserveMemory(capacity))) {
+        long remaining = deadline - nanoTime();
+        if (remaining <= 0) {
+          throw new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                                   "Max streaming memory limit of %d bytes was exceeded",
+                                                                                   maxStreamingMemory)));
+        }
+        memoryReleased.awaitNanos(remaining);
+      }
+    } finally {
+      waiters.decrementAndGet();
+      lock.unlock();
+    }
+  }
+
+  private boolean tryReserveMemory(int capacity) {
+    long current;
+    do {
+      current = streamingMemory.get();
+      if (current + capacity > maxStreamingMemory) {
+        return false;
+      }
+    } while (!streamingMemory.compareAndSet(current, current + capacity));
+    return true;
+  }
+
+  private void releaseMemory(int capacity) {
+    streamingMemory.addAndGet(-capacity);
+    signalWaiters();
+  }
+
+  private void signalWaiters() {
+    if (waiters.get() > 0) {
+      lock.lock();
+      try {
+        memoryReleased.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Releases idle buffers from the free lists, and from the caches of threads that are no longer alive, until at least
+   * {@code capacity} bytes are released.
+   *
+   * @return whether any memory was released
+   */
+  private boolean releaseIdleBuffers(int capacity) {
+    long released = 0;
+    for (int i = sizeClasses.length - 1; i >= 0 && released < capacity; --i) {
+      released += sizeClasses[i].releaseIdle(capacity - released);
+    }
+
+    Iterator<ThreadCache> caches = threadCaches.iterator();
+    while (caches.hasNext() && released < capacity) {
+      ThreadCache cache = caches.next();
+      Thread owner = cache.owner.get();
+      if (owner == null || !owner.isAlive()) {
+        caches.remove();
+        int discarded = cache.discard();
+        streamingMemory.addAndGet(-discarded);
+        released += discarded;
+      }
+    }
+    return released > 0;
+  }
+
+  private ThreadCache newThreadCache() {
+    ThreadCache cache = new ThreadCache(Thread.currentThread(), sizeClasses.length);
+    threadCaches.add(cache);
+    if (disposed && threadCaches.remove(cache)) {
+      cache.discard();
+    }
+    return cache;
+  }
+
+  /**
+   * The idle buffers of a given capacity, shared by all threads.
+   */
+  private class SizeClass {
+
+    private final int bufferCapacity;
+    private final Queue<ByteBuffer> freeList = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idle = new AtomicInteger(0);
+
+    private SizeClass(int bufferCapacity) {
+      this.bufferCapacity = bufferCapacity;
+    }
+
+    private ByteBuffer poll() {
+      ByteBuffer buffer = freeList.poll();
+      if (buffer != null) {
+        idle.decrementAndGet();
+      }
+      return buffer;
+    }
+
+    private boolean offer(ByteBuffer buffer) {
+      if (idle.incrementAndGet() > MAX_GLOBAL_IDLE) {
+        idle.decrementAndGet();
+        return false;
+      }
+      freeList.offer(buffer);
+      return true;
+    }
+
+    private long releaseIdle(long bytes) {
+      long released = 0;
+      while (released < bytes && poll() != null) {
+        streamingMemory.addAndGet(-bufferCapacity);
+        released += bufferCapacity;
+      }
+      return released;
+    }
+  }
+
+  /**
+   * A few idle buffers of the smaller size classes. It's only used by the thread that owns it, until it's discarded because that
+   * thread is no longer alive or the manager is disposed.
+   * <p>
+   * It doesn't reference the manager, so a thread that outlives the manager doesn't keep it from being collected.
+   */
+  private static final class ThreadCache {
+
+    private final WeakReference<Thread> owner;
+    private final ByteBuffer[][] buffers;
+    private final int[] counts;
+    private int cachedBytes = 0;
+    private boolean discarded = false;
+
+    private ThreadCache(Thread owner, int sizeClasses) {
+      this.owner = new WeakReference<>(owner);
+      buffers = new ByteBuffer[sizeClasses][];
+      counts = new int[sizeClasses];
+    }
+
+    private synchronized ByteBuffer poll(int classIndex) {
+      if (counts[classIndex] == 0) {
+        return null;
+      }
+      ByteBuffer buffer = buffers[classIndex][--counts[classIndex]];
+      buffers[classIndex][counts[classIndex]] = null;
+      cachedBytes -= buffer.capacity();
+      return buffer;
+    }
+
+    private synchronized boolean offer(int classIndex, ByteBuffer buffer) {
+      if (discarded || counts[classIndex] == THREAD_CACHE_SLOTS || cachedBytes + buffer.capacity() > THREAD_CACHE_MAX_BYTES) {
+        return false;
+      }
+      if (buffers[classIndex] == null) {
+        buffers[classIndex] = new ByteBuffer[THREAD_CACHE_SLOTS];
+      }
+      buffers[classIndex][counts[classIndex]++] = buffer;
+      cachedBytes += buffer.capacity();
+      return true;
+    }
+
+    /**
+     * Drops the cached buffers and stops accepting new ones.
+     *
+     * @return the amount of bytes that were cached
+     */
+    private synchronized int discard() {
+      int released = cachedBytes;
+      discarded = true;
+      for (int i = 0; i < buffers.length; ++i) {
+        buffers[i] = null;
+        counts[i] = 0;
+      }
+      cachedBytes = 0;
+      return released;
+    }
+  }
+
+  /**
+   * Key for a buffer based on its identity, since {@link ByteBuffer#equals(Object)} depends on its contents.
+   */
+  private static final class BufferIdentity {
+
+    private final ByteBuffer buffer;
+
+    private BufferIdentity(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof BufferIdentity && ((BufferIdentity) obj).buffer == buffer;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(buffer);
+    }
+  }
+}
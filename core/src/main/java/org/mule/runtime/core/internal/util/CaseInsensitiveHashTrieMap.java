@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable {@link Map} with {@link String} keys that are compared ignoring case, like in {@link CaseInsensitiveHashMap}.
+ * <p/>
+ * Instead of modifying the map, {@link #with(String, Object)} and {@link #without(String)} return a new map that shares all of
+ * its structure with this one except the path to the changed entry. The entries are kept in a hash array mapped trie, so those
+ * operations and lookups take a logarithmic time with base 32, without copying the whole map.
+ * <p/>
+ * The key of an entry keeps the case it was first added with. The mutation methods of the {@link Map} interface throw
+ * {@link UnsupportedOperationException}.
+ * <p/>
+ * This implementation is thread-safe.
+ *
+ * @param <V> the type of the values
+ * @since 4.1
+ */
+public final class CaseInsensitiveHashTrieMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = 6339584587547203346L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final CaseInsensitiveHashTrieMap EMPTY = new CaseInsensitiveHashTrieMap(null, 0);
+
+  /**
+   * Either {@code null}, a {@link Leaf}, a {@link Collision} or a {@link Branch}.
+   */
+  private transient Object root;
+  private transient int size;
+  private transient Set<Entry<String, V>> entrySet;
+
+  private CaseInsensitiveHashTrieMap(Object root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * @return an empty map
+   */
+  public static <V> CaseInsensitiveHashTrieMap<V> empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a map with the entries of the given one. If it has keys that differ only in case, the key of the first one and the
+   * value of the last one are kept.
+   *
+   * @param map the map to copy
+   * @return a map with the same entries as {@code map}
+   */
+  public static <V> CaseInsensitiveHashTrieMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof CaseInsensitiveHashTrieMap) {
+      return (CaseInsensitiveHashTrieMap<V>) map;
+    }
+    if (map.isEmpty()) {
+      return empty();
+    }
+
+    Leaf[] leaves = new Leaf[map.size()];
+    int i = 0;
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      leaves[i++] = new Leaf(entry.getKey(), entry.getValue());
+    }
+    int[] size = new int[1];
+    return new CaseInsensitiveHashTrieMap<>(build(leaves, leaves.length, 0, size), size[0]);
+  }
+
+  /**
+   * Returns a map with the given entry added, or replacing the value of the entry with the same key ignoring case.
+   *
+   * @param key   the key of the entry
+   * @param value the value of the entry
+   * @return the updated map, or this map if it already has that value for the key
+   */
+  public CaseInsensitiveHashTrieMap<V> with(String key, V value) {
+    Leaf leaf = new Leaf(key, value);
+    Object newRoot = put(root, leaf, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new CaseInsensitiveHashTrieMap<>(newRoot, find(root, key, leaf.hash) == null ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map without the entry for the given key, compared ignoring case.
+   *
+   * @param key the key of the entry to remove
+   * @return the updated map, or this map if it has no entry for the key
+   */
+  public CaseInsensitiveHashTrieMap<V> without(String key) {
+    Object newRoot = remove(root, key, foldedHash(key), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new CaseInsensitiveHashTrieMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && find(root, (String) key, foldedHash((String) key)) != null;
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Leaf leaf = find(root, (String) key, foldedHash((String) key));
+    return leaf == null ? null : (V) leaf.value;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    forEach(root, action);
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  /**
+   * Computes a hash of the key consistent with {@link String#equalsIgnoreCase(String)}, without creating a lower case copy of
+   * it.
+   */
+  private static int foldedHash(String key) {
+    int h = 0;
+    for (int i = 0; i < key.length(); ++i) {
+      h = 31 * h + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static int fragment(int hash, int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  private static Leaf find(Object node, String key, int hash) {
+    int shift = 0;
+    while (node instanceof Branch) {
+      Branch branch = (Branch) node;
+      int bit = 1 << fragment(hash, shift);
+      if ((branch.bitmap & bit) == 0) {
+        return null;
+      }
+      node = branch.children[bitCount(branch.bitmap & (bit - 1))];
+      shift += BITS;
+    }
+
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      return leaf.matches(key, hash) ? leaf : null;
+    } else if (node instanceof Collision) {
+      Collision collision = (Collision) node;
+      int index = collision.hash == hash ? collision.indexOf(key) : -1;
+      return index == -1 ? null : collision.leaves[index];
+    }
+    return null;
+  }
+
+  private static Object put(Object node, Leaf leaf, int shift) {
+    if (node == null) {
+      return leaf;
+    } else if (node instanceof Leaf) {
+      Leaf existing = (Leaf) node;
+      if (existing.matches(leaf.key, leaf.hash)) {
+        return existing.value == leaf.value ? existing : new Leaf(existing.key, leaf.value, leaf.hash);
+      }
+      return merge(existing, existing.hash, leaf, leaf.hash, shift);
+    } else if (node instanceof Collision) {
+      Collision collision = (Collision) node;
+      if (collision.hash == leaf.hash) {
+        return collision.with(leaf);
+      }
+      return merge(collision, collision.hash, leaf, leaf.hash, shift);
+    }
+
+    Branch branch = (Branch) node;
+    int bit = 1 << fragment(leaf.hash, shift);
+    int index = bitCount(branch.bitmap & (bit - 1));
+    if ((branch.bitmap & bit) == 0) {
+      Object[] children = new Object[branch.children.length + 1];
+      arraycopy(branch.children, 0, children, 0, index);
+      children[index] = leaf;
+      arraycopy(branch.children, index, children, index + 1, branch.children.length - index);
+      return new Branch(branch.bitmap | bit, children);
+    }
+
+    Object child = branch.children[index];
+    Object newChild = put(child, leaf, shift + BITS);
+    return newChild == child ? branch : branch.replace(index, newChild);
+  }
+
+  /**
+   * Creates the branches needed to hold two nodes that are not branches and have different hashes, or a collision if they are
+   * leaves with the same hash.
+   */
+  private static Object merge(Object node1, int hash1, Object node2, int hash2, int shift) {
+    if (hash1 == hash2) {
+      return new Collision(hash1, new Leaf[] {(Leaf) node1, (Leaf) node2});
+    }
+
+    int fragment1 = fragment(hash1, shift);
+    int fragment2 = fragment(hash2, shift);
+    if (fragment1 == fragment2) {
+      return new Branch(1 << fragment1, new Object[] {merge(node1, hash1, node2, hash2, shift + BITS)});
+    } else if (fragment1 < fragment2) {
+      return new Branch((1 << fragment1) | (1 << fragment2), new Object[] {node1, node2});
+    } else {
+      return new Branch((1 << fragment1) | (1 << fragment2), new Object[] {node2, node1});
+    }
+  }
+
+  private static Object remove(Object node, String key, int hash, int shift) {
+    if (node == null) {
+      return null;
+    } else if (node instanceof Leaf) {
+      return ((Leaf) node).matches(key, hash) ? null : node;
+    } else if (node instanceof Collision) {
+      Collision collision = (Collision) node;
+      return collision.hash == hash ? collision.without(key) : collision;
+    }
+
+    Branch branch = (Branch) node;
+    int bit = 1 << fragment(hash, shift);
+    if ((branch.bitmap & bit) == 0) {
+      return branch;
+    }
+
+    int index = bitCount(branch.bitmap & (bit - 1));
+    Object child = branch.children[index];
+    Object newChild = remove(child, key, hash, shift + BITS);
+    if (newChild == child) {
+      return branch;
+    } else if (newChild != null) {
+      // a branch with a single entry is replaced by the entry itself, which is reachable from any level by its hash
+      return branch.children.length == 1 && !(newChild instanceof Branch) ? newChild : branch.replace(index, newChild);
+    } else if (branch.children.length == 1) {
+      return null;
+    } else if (branch.children.length == 2 && !(branch.children[1 - index] instanceof Branch)) {
+      return branch.children[1 - index];
+    }
+
+    Object[] children = new Object[branch.children.length - 1];
+    arraycopy(branch.children, 0, children, 0, index);
+    arraycopy(branch.children, index + 1, children, index, children.length - index);
+    return new Branch(branch.bitmap & ~bit, children);
+  }
+
+  /**
+   * Builds a trie from scratch, grouping the leaves by the fragment of their hash at each level instead of adding them one by
+   * one.
+   */
+  private static Object build(Leaf[] leaves, int count, int shift, int[] size) {
+    if (count == 1) {
+      size[0]++;
+      return leaves[0];
+    }
+
+    boolean sameHash = true;
+    for (int i = 1; i < count && sameHash; ++i) {
+      sameHash = leaves[i].hash == leaves[0].hash;
+    }
+    if (sameHash) {
+      Object node = leaves[0];
+      for (int i = 1; i < count; ++i) {
+        node = put(node, leaves[i], shift);
+      }
+      size[0] += node instanceof Leaf ? 1 : ((Collision) node).leaves.length;
+      return node;
+    }
+
+    int[] counts = new int[MASK + 1];
+    for (int i = 0; i < count; ++i) {
+      counts[fragment(leaves[i].hash, shift)]++;
+    }
+
+    int bitmap = 0;
+    int[] offsets = new int[MASK + 1];
+    int offset = 0;
+    for (int fragment = 0; fragment <= MASK; ++fragment) {
+      if (counts[fragment] > 0) {
+        bitmap |= 1 << fragment;
+        offsets[fragment] = offset;
+        offset += counts[fragment];
+      }
+    }
+
+    Leaf[] grouped = new Leaf[count];
+    int[] positions = offsets.clone();
+    for (int i = 0; i < count; ++i) {
+      grouped[positions[fragment(leaves[i].hash, shift)]++] = leaves[i];
+    }
+
+    Object[] children = new Object[bitCount(bitmap)];
+    int childIndex = 0;
+    for (int fragment = 0; fragment <= MASK; ++fragment) {
+      if (counts[fragment] > 0) {
+        Leaf[] group = new Leaf[counts[fragment]];
+        arraycopy(grouped, offsets[fragment], group, 0, counts[fragment]);
+        children[childIndex++] = build(group, group.length, shift + BITS, size);
+      }
+    }
+
+    return children.length == 1 && !(children[0] instanceof Branch) ? children[0] : new Branch(bitmap, children);
+  }
+
+  private static <V> void forEach(Object node, BiConsumer<? super String, ? super V> action) {
+    if (node instanceof Leaf) {
+      action.accept(((Leaf) node).key, (V) ((Leaf) node).value);
+    } else if (node instanceof Collision) {
+      for (Leaf leaf : ((Collision) node).leaves) {
+        action.accept(leaf.key, (V) leaf.value);
+      }
+    } else if (node instanceof Branch) {
+      for (Object child : ((Branch) node).children) {
+        forEach(child, action);
+      }
+    }
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size);
+    for (Entry<String, V> entry : entrySet()) {
+      out.writeObject(entry.getKey());
+      out.writeObject(entry.getValue());
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int entries = in.readInt();
+    for (int i = 0; i < entries; ++i) {
+      Leaf leaf = new Leaf((String) in.readObject(), in.readObject());
+      root = put(root, leaf, 0);
+    }
+    size = entries;
+  }
+
+  private Object readResolve() {
+    return size == 0 ? EMPTY : this;
+  }
+
+  private static final class Leaf implements Entry<String, Object> {
+
+    private final String key;
+    private final Object value;
+    private final int hash;
+
+    private Leaf(String key, Object value) {
+      this(key, value, foldedHash(key));
+    }
+
+    private Leaf(String key, Object value, int hash) {
+      this.key = key;
+      this.value = value;
+      this.hash = hash;
+    }
+
+    private boolean matches(String otherKey, int otherHash) {
+      return hash == otherHash && key.equalsIgnoreCase(otherKey);
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public Object getValue() {
+      return value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> other = (Entry<?, ?>) obj;
+      return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  /**
+   * Leaves whose keys are different but have the same hash.
+   */
+  private static final class Collision {
+
+    private final int hash;
+    private final Leaf[] leaves;
+
+    private Collision(int hash, Leaf[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < leaves.length; ++i) {
+        if (leaves[i].key.equalsIgnoreCase(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private Object with(Leaf leaf) {
+      int index = indexOf(leaf.key);
+      if (index == -1) {
+        Leaf[] newLeaves = new Leaf[leaves.length + 1];
+        arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+        newLeaves[leaves.length] = leaf;
+        return new Collision(hash, newLeaves);
+      } else if (leaves[index].value == leaf.value) {
+        return this;
+      }
+
+      Leaf[] newLeaves = leaves.clone();
+      newLeaves[index] = new Leaf(leaves[index].key, leaf.value, hash);
+      return new Collision(hash, newLeaves);
+    }
+
+    private Object without(String key) {
+      int index = indexOf(key);
+      if (index == -1) {
+        return this;
+      } else if (leaves.length == 2) {
+        return leaves[1 - index];
+      }
+
+      Leaf[] newLeaves = new Leaf[leaves.length - 1];
+      arraycopy(leaves, 0, newLeaves, 0, index);
+      arraycopy(leaves, index + 1, newLeaves, index, newLeaves.length - index);
+      return new Collision(hash, newLeaves);
+    }
+  }
+
+  private static final class Branch {
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private Branch(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    private Branch replace(int index, Object child) {
+      Object[] newChildren = children.clone();
+      newChildren[index] = child;
+      return new Branch(bitmap, newChildren);
+    }
+  }
+
+  private static final class EntryIterator<V> implements Iterator<Entry<String, V>> {
+
+    // the root, one level per fragment of the hash and a collision
+    private final Object[][] arrays = new Object[2 + (Integer.SIZE + BITS - 1) / BITS][];
+    private final int[] indexes = new int[arrays.length];
+    private int depth = -1;
+    private Leaf next;
+
+    private EntryIterator(Object root) {
+      if (root != null) {
+        push(new Object[] {root});
+        advance();
+      }
+    }
+
+    private void push(Object[] array) {
+      arrays[++depth] = array;
+      indexes[depth] = 0;
+    }
+
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        if (indexes[depth] == arrays[depth].length) {
+          depth--;
+          continue;
+        }
+
+        Object node = arrays[depth][indexes[depth]++];
+        if (node instanceof Leaf) {
+          next = (Leaf) node;
+          return;
+        } else if (node instanceof Collision) {
+          push(((Collision) node).leaves);
+        } else {
+          push(((Branch) node).children);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf current = next;
+      advance();
+      return (Entry) current;
+    }
+  }
+}
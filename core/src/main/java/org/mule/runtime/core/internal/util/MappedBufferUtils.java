@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import org.slf4j.Logger;
+
+/**
+ * Utilities for memory mapped files
+ *
+ * @since 4.1
+ */
+public class MappedBufferUtils {
+
+  private static final Logger LOGGER = getLogger(MappedBufferUtils.class);
+
+  private static final Unmapper UNMAPPER = createUnmapper();
+
+  private MappedBufferUtils() {}
+
+  /**
+   * Releases the mapped region of the given {@code buffer} right away instead of waiting for the buffer to be garbage
+   * collected, so the mapped file can be deleted and its memory is given back.
+   * <p>
+   * On Java 8 this is done through the cleaner of the buffer, and on later versions through {@code sun.misc.Unsafe}. If neither
+   * is available, this method does nothing and the region is released once the buffer is garbage collected.
+   * <p>
+   * The {@code buffer} and any view created from it must not be accessed after this method is called.
+   *
+   * @param buffer a {@link MappedByteBuffer}
+   */
+  public static void unmap(MappedByteBuffer buffer) {
+    if (buffer == null || UNMAPPER == null) {
+      return;
+    }
+    try {
+      UNMAPPER.unmap(buffer);
+    } catch (Exception e) {
+      // the mapped region is released once the buffer is garbage collected
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Could not unmap buffer", e);
+      }
+    }
+  }
+
+  private static Unmapper createUnmapper() {
+    try {
+      // Java 9 and later
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (Exception e) {
+      // Java 8
+    }
+
+    try {
+      Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleanMethod.invoke(cleaner);
+        }
+      };
+    } catch (Exception e) {
+      LOGGER.warn("Mapped buffers can't be unmapped explicitly on this JVM, they will be unmapped once garbage collected");
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Could not find a way to unmap buffers", e);
+      }
+      return null;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Unmapper {
+
+    void unmap(MappedByteBuffer buffer) throws Exception;
+  }
+}
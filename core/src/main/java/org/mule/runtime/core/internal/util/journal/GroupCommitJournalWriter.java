@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.INTERVAL;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.NONE;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes serialized journal entries to a file using group commit.
+ * <p/>
+ * Threads logging entries just add them to a pending batch and get a sequence number back. A task on the given {@link Scheduler}
+ * takes the whole pending batch at once, writes it with one gathering write and, depending on the {@link JournalSyncPolicy},
+ * forces it to the storage device. The task is only submitted when entries are added and no other task is writing, and runs
+ * until there's nothing left to write. Loggers waiting through {@link #awaitWritten(long)} are released once the batch holding
+ * their entry is written (and forced if required), so the cost of each write and force is shared by every entry logged while
+ * the previous batch was being written.
+ * <p/>
+ * If writing or forcing a batch fails, only the loggers of the entries that didn't make it to the file fail. The file is
+ * truncated back to the last entry known to be written, and reopened if needed, so the following batches can still be written.
+ *
+ * @since 4.1
+ */
+class GroupCommitJournalWriter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitJournalWriter.class);
+
+  private final File journalFile;
+  private final JournalSyncPolicy syncPolicy;
+  private final long syncIntervalNanos;
+  private final Scheduler scheduler;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition batchWritten = lock.newCondition();
+
+  /**
+   * Guards the file channel, so the writing task and the threads clearing or closing the file don't interleave.
+   */
+  private final Object ioLock = new Object();
+
+  private List<ByteBuffer> pending = new ArrayList<>();
+  private long appendedSequence = 0;
+  private long writtenSequence = 0;
+  private long durableSequence = 0;
+  private long lastSyncNanos = nanoTime();
+  private final List<FailedBatch> failedBatches = new ArrayList<>();
+  private boolean writing = false;
+  private boolean closed = false;
+  private boolean stopped = false;
+
+  private FileChannel channel;
+  private long writtenLength;
+  private long durableLength;
+
+  /**
+   * @param journalFile file to append the entries to. Will be created if it doesn't exist.
+   * @param syncPolicy when to force the written entries to the storage device
+   * @param syncIntervalMillis minimum time between forces when using {@link JournalSyncPolicy#INTERVAL}
+   * @param scheduler the scheduler to write the batches on. If {@code null}, batches are written by the thread that logs the
+   *        first entry of each batch, and {@link JournalSyncPolicy#INTERVAL} forces every batch.
+   */
+  GroupCommitJournalWriter(File journalFile, JournalSyncPolicy syncPolicy, long syncIntervalMillis, Scheduler scheduler) {
+    this.journalFile = journalFile;
+    this.syncPolicy = syncPolicy;
+    this.syncIntervalNanos = scheduler != null ? MILLISECONDS.toNanos(syncIntervalMillis) : 0;
+    this.scheduler = scheduler;
+    try {
+      channel = openChannel();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    writtenLength = journalFile.length();
+    durableLength = writtenLength;
+  }
+
+  /**
+   * Opens the journal file for appending. Called again to reopen it after a failed write.
+   */
+  FileChannel openChannel() throws IOException {
+    return FileChannel.open(journalFile.toPath(), CREATE, WRITE, APPEND);
+  }
+
+  /**
+   * Adds a serialized entry to the batch to be written next.
+   *
+   * @param serializedEntry the entry bytes
+   * @return the sequence number of the entry, to be used with {@link #awaitWritten(long)}
+   */
+  long append(byte[] serializedEntry) {
+    long sequence;
+    boolean startWriting = false;
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException(format("Journal file %s is closed", journalFile.getAbsolutePath()));
+      }
+      pending.add(ByteBuffer.wrap(serializedEntry));
+      sequence = ++appendedSequence;
+      if (!writing) {
+        writing = true;
+        startWriting = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (startWriting && !submitWrite(0)) {
+      writePending();
+    }
+    return sequence;
+  }
+
+  /**
+   * @return whether the write was submitted to the scheduler. If not, the caller has to write the pending entries itself.
+   */
+  private boolean submitWrite(long delayNanos) {
+    if (scheduler == null) {
+      return false;
+    }
+    try {
+      if (delayNanos > 0) {
+        scheduler.schedule(this::writePending, delayNanos, NANOSECONDS);
+      } else {
+        scheduler.execute(this::writePending);
+      }
+      return true;
+    } catch (RejectedExecutionException e) {
+      // the scheduler is being stopped
+      return false;
+    }
+  }
+
+  /**
+   * Blocks until the entry with the given sequence number is written and, if required by the {@link JournalSyncPolicy}, forced
+   * to the storage device.
+   *
+   * @param sequence the value returned by {@link #append(byte[])}
+   * @throws MuleRuntimeException if the batch holding the entry couldn't be written
+   */
+  void awaitWritten(long sequence) {
+    lock.lock();
+    try {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          // checked first, as the batches written after a failed one move the durable sequence past it
+          FailedBatch failedBatch = failedBatchOf(sequence);
+          if (failedBatch != null) {
+            throw new MuleRuntimeException(failedBatch.cause);
+          }
+          if (durableSequence >= sequence || stopped) {
+            return;
+          }
+          try {
+            batchWritten.await();
+          } catch (InterruptedException e) {
+            // the entry has to make it to the file anyway, keep waiting and restore the flag afterwards.
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the failed batch holding the given entry, forgetting it once every entry of the batch was awaited. Must be called
+   * holding {@link #lock}.
+   */
+  private FailedBatch failedBatchOf(long sequence) {
+    for (Iterator<FailedBatch> iterator = failedBatches.iterator(); iterator.hasNext();) {
+      FailedBatch failedBatch = iterator.next();
+      if (sequence >= failedBatch.firstSequence && sequence <= failedBatch.lastSequence) {
+        if (--failedBatch.pendingLoggers == 0) {
+          iterator.remove();
+        }
+        return failedBatch;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Writes batches until there are no pending entries. With {@link JournalSyncPolicy#INTERVAL}, schedules itself again for when
+   * the written entries have to be forced.
+   */
+  private void writePending() {
+    while (true) {
+      synchronized (ioLock) {
+        // the batch is taken holding the ioLock so it can't be reordered with a flush done by truncate or close.
+        List<ByteBuffer> batch;
+        long batchSequence;
+        boolean forceRequired = false;
+        lock.lock();
+        try {
+          if (closed) {
+            writing = false;
+            return;
+          }
+          if (pending.isEmpty()) {
+            if (writtenSequence == durableSequence) {
+              writing = false;
+              return;
+            }
+            // only INTERVAL leaves written entries to be forced later
+            long syncDelayNanos = syncIntervalNanos - (nanoTime() - lastSyncNanos);
+            if (syncDelayNanos > 0 && submitWrite(syncDelayNanos)) {
+              // keeps the writing flag, so new entries wait for this task to write them along with the force
+              return;
+            }
+            forceRequired = true;
+          }
+          batch = pending;
+          batchSequence = appendedSequence;
+          pending = new ArrayList<>(batch.size());
+        } finally {
+          lock.unlock();
+        }
+        write(batch, batchSequence, forceRequired);
+      }
+    }
+  }
+
+  /**
+   * Writes the given batch and publishes its sequence as written, forcing it first when the policy requires. Must be called
+   * holding {@link #ioLock}.
+   *
+   * @param forceRequired whether to force regardless of the time since the last force, unless the policy is
+   *        {@link JournalSyncPolicy#NONE}
+   */
+  private void write(List<ByteBuffer> batch, long batchSequence, boolean forceRequired) {
+    try {
+      if (channel == null) {
+        // the previous failure couldn't reopen it
+        reopenChannel(writtenLength);
+      }
+      if (!batch.isEmpty()) {
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[batch.size()]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+          remaining += buffer.remaining();
+        }
+        long batchLength = remaining;
+        while (remaining > 0) {
+          remaining -= channel.write(buffers);
+        }
+        writtenLength += batchLength;
+      }
+    } catch (IOException e) {
+      fail(writtenSequence + 1, batchSequence, writtenLength, e);
+      return;
+    }
+
+    boolean synced = false;
+    if (syncPolicy != NONE && (forceRequired || syncPolicy != INTERVAL || nanoTime() - lastSyncNanos >= syncIntervalNanos)) {
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        fail(durableSequence + 1, batchSequence, durableLength, e);
+        return;
+      }
+      synced = true;
+    }
+
+    lock.lock();
+    try {
+      writtenSequence = batchSequence;
+      if (syncPolicy == NONE || synced) {
+        durableSequence = batchSequence;
+        durableLength = writtenLength;
+        lastSyncNanos = nanoTime();
+        batchWritten.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Fails the loggers of the given entries and discards whatever part of them made it to the file. Must be called holding
+   * {@link #ioLock}.
+   *
+   * @param validLength the length of the file holding just the entries before {@code firstSequence}
+   */
+  private void fail(long firstSequence, long lastSequence, long validLength, IOException cause) {
+    LOGGER.error(format("Error writing to transaction journal file %s, failing its last %d entries",
+                        journalFile.getAbsolutePath(), lastSequence - firstSequence + 1),
+                 cause);
+    resetChannel(validLength);
+
+    lock.lock();
+    try {
+      if (lastSequence >= firstSequence) {
+        failedBatches.add(new FailedBatch(firstSequence, lastSequence, cause));
+      }
+      if (durableSequence >= firstSequence - 1) {
+        durableSequence = lastSequence;
+      }
+      writtenSequence = lastSequence;
+      batchWritten.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void resetChannel(long validLength) {
+    writtenLength = validLength;
+    durableLength = min(durableLength, validLength);
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // reopened next
+    }
+    channel = null;
+    try {
+      reopenChannel(validLength);
+    } catch (IOException e) {
+      LOGGER.warn(format("Could not reopen transaction journal file %s, will retry on the next write: %s",
+                         journalFile.getAbsolutePath(), e.getMessage()));
+    }
+  }
+
+  private void reopenChannel(long validLength) throws IOException {
+    FileChannel reopened = openChannel();
+    try {
+      reopened.truncate(validLength);
+    } catch (IOException e) {
+      reopened.close();
+      throw e;
+    }
+    channel = reopened;
+  }
+
+  /**
+   * Synchronously writes every pending entry, forcing it if the policy requires, and releases the threads waiting for them.
+   * Must be called holding {@link #ioLock}.
+   */
+  private void flush() {
+    List<ByteBuffer> batch;
+    long batchSequence;
+    lock.lock();
+    try {
+      batch = pending;
+      batchSequence = appendedSequence;
+      pending = new ArrayList<>();
+    } finally {
+      lock.unlock();
+    }
+    write(batch, batchSequence, true);
+  }
+
+  /**
+   * Writes every pending entry and then empties the journal file.
+   */
+  void truncate() {
+    synchronized (ioLock) {
+      flush();
+      try {
+        if (channel == null) {
+          reopenChannel(0);
+        } else {
+          channel.truncate(0);
+        }
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+      writtenLength = 0;
+      durableLength = 0;
+    }
+  }
+
+  /**
+   * @return the number of bytes written to the journal file
+   */
+  long length() {
+    synchronized (ioLock) {
+      return writtenLength;
+    }
+  }
+
+  /**
+   * Writes every pending entry, stops writing and closes the journal file.
+   */
+  void close() {
+    synchronized (ioLock) {
+      lock.lock();
+      try {
+        closed = true;
+      } finally {
+        lock.unlock();
+      }
+      flush();
+      lock.lock();
+      try {
+        stopped = true;
+        batchWritten.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      if (channel == null) {
+        return;
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.warn(e.getMessage());
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Error closing transaction journal file", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Entries which couldn't be written, kept until each of their loggers is notified.
+   */
+  private static final class FailedBatch {
+
+    private final long firstSequence;
+    private final long lastSequence;
+    private final IOException cause;
+    private long pendingLoggers;
+
+    private FailedBatch(long firstSequence, long lastSequence, IOException cause) {
+      this.firstSequence = firstSequence;
+      this.lastSequence = lastSequence;
+      this.cause = cause;
+      this.pendingLoggers = lastSequence - firstSequence + 1;
+    }
+  }
+}
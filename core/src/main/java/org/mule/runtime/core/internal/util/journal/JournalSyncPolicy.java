@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+/**
+ * Defines when the entries written to a journal file are forced to the storage device, and therefore when the threads that
+ * logged them are released.
+ *
+ * @since 4.1
+ */
+public enum JournalSyncPolicy {
+
+  /**
+   * Entries are handed to the operating system once per batch but never forced to the storage device. Loggers are released as
+   * soon as their batch is written.
+   */
+  NONE,
+
+  /**
+   * Each batch is forced to the storage device after being written. Loggers are released once their batch is forced.
+   */
+  BATCH,
+
+  /**
+   * Batches are written as they arrive but forced to the storage device at most once per configured interval. Loggers are
+   * released once a force covering their entries is done.
+   */
+  INTERVAL
+}
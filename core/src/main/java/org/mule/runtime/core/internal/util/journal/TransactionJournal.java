@@ -6,6 +6,16 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Long.getLong;
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.util.Arrays.asList;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.journal.JournalSyncPolicy.NONE;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournalFile.serialize;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -25,18 +35,34 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * Entries are serialized and waited for outside of the journal lock, so concurrent transactions only contend on the in memory
+ * bookkeeping while the journal files group their writes.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  /**
+   * System property to set the {@link JournalSyncPolicy} of the transaction journals. Defaults to {@link JournalSyncPolicy#NONE}.
+   */
+  public static final String SYNC_POLICY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "journal.syncPolicy";
+
+  /**
+   * System property to set the minimum time in milliseconds between forces when using {@link JournalSyncPolicy#INTERVAL}.
+   */
+  public static final String SYNC_INTERVAL_PROPERTY = SYSTEM_PROPERTY_PREFIX + "journal.syncIntervalMillis";
+
+  private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 10;
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer<T, K> journalEntrySerializer;
 
   /**
    * Log file in which we are currently writing new entries.
@@ -57,11 +83,63 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   private Long clearFileMinimumSizeInBytes;
 
+  /**
+   * Scheduler shared by the journal files to write their entries, {@code null} if they are written by the logging threads.
+   */
+  private final Scheduler writerScheduler;
+
   /**
    * @param logFilesDirectory directory used to store the journal files.
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         (SchedulerService) null);
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param schedulerService the service to obtain the scheduler that writes the entries from. If {@code null}, entries are
+   *        written by the logging threads.
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            SchedulerService schedulerService) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         getSyncPolicy(),
+         getLong(SYNC_INTERVAL_PROPERTY, DEFAULT_SYNC_INTERVAL_MILLIS), schedulerService);
+  }
+
+  /**
+   * @return the {@link JournalSyncPolicy} set through {@link #SYNC_POLICY_PROPERTY} ignoring case, or
+   *         {@link JournalSyncPolicy#NONE} if it's not set or invalid
+   */
+  static JournalSyncPolicy getSyncPolicy() {
+    String syncPolicy = getProperty(SYNC_POLICY_PROPERTY);
+    if (syncPolicy == null) {
+      return NONE;
+    }
+    for (JournalSyncPolicy policy : JournalSyncPolicy.values()) {
+      if (policy.name().equalsIgnoreCase(syncPolicy.trim())) {
+        return policy;
+      }
+    }
+    LoggerFactory.getLogger(TransactionJournal.class)
+        .warn(format("Invalid value '%s' for system property %s, valid values are %s. Using %s instead.", syncPolicy,
+                     SYNC_POLICY_PROPERTY, asList(JournalSyncPolicy.values()), NONE));
+    return NONE;
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param syncPolicy when to force the written entries to the storage device
+   * @param syncIntervalMillis minimum time between forces when using {@link JournalSyncPolicy#INTERVAL}
+   * @param schedulerService the service to obtain the scheduler that writes the entries from. If {@code null}, entries are
+   *        written by the logging threads.
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            JournalSyncPolicy syncPolicy, long syncIntervalMillis, SchedulerService schedulerService) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,11 +150,15 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    this.writerScheduler = schedulerService != null ? schedulerService.ioScheduler() : null;
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, syncPolicy, syncIntervalMillis,
+                                                     writerScheduler);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, syncPolicy, syncIntervalMillis,
+                                                        writerScheduler);
     this.transactionCompletePredicate = transactionCompletePredicate;
+    this.journalEntrySerializer = journalEntrySerializer;
 
   }
 
@@ -92,9 +174,15 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = serialize(journalEntrySerializer, (K) journalEntry);
+    TransactionJournalFile<T, K> logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.logOperation((K) journalEntry, serializedEntry);
+    }
+    logFile.awaitWritten(sequence);
   }
 
   /**
@@ -104,12 +192,18 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = serialize(journalEntrySerializer, (K) journalEntry);
+    TransactionJournalFile<T, K> logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.logOperation((K) journalEntry, serializedEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    logFile.awaitWritten(sequence);
   }
 
   /**
@@ -137,9 +231,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
   /**
    * Release the resources used by the transaction journal
    */
-  public synchronized void close() {
-    currentLogFile.close();
-    notCurrentLogFile.close();
+  public void close() {
+    synchronized (this) {
+      currentLogFile.close();
+      notCurrentLogFile.close();
+    }
+    if (writerScheduler != null) {
+      writerScheduler.stop();
+    }
   }
 
   /**
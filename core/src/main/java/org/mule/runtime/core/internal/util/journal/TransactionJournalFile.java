@@ -7,29 +7,32 @@
 package org.mule.runtime.core.internal.util.journal;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Manages a transaction journal file.
+ * <p/>
+ * Entries are written through a {@link GroupCommitJournalWriter}, so concurrent loggers share the cost of writing and forcing
+ * the file according to the configured {@link JournalSyncPolicy}.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -50,7 +53,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private final GroupCommitJournalWriter writer;
   private int journalOperations = 0;
 
   /**
@@ -61,24 +64,98 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, JournalSyncPolicy.NONE,
+         0);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param syncPolicy when to force the written entries to the storage device
+   * @param syncIntervalMillis minimum time between forces when using {@link JournalSyncPolicy#INTERVAL}
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                JournalSyncPolicy syncPolicy, long syncIntervalMillis) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, syncPolicy,
+         syncIntervalMillis, null);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param syncPolicy when to force the written entries to the storage device
+   * @param syncIntervalMillis minimum time between forces when using {@link JournalSyncPolicy#INTERVAL}
+   * @param writerScheduler the scheduler to write the entries on. If {@code null}, they are written by the logging threads.
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                JournalSyncPolicy syncPolicy, long syncIntervalMillis, Scheduler writerScheduler) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
-    if (journalFile.exists()) {
+    boolean existingJournal = journalFile.exists();
+    // loading the entries may clear the file, so the writer has to be ready before.
+    this.writer = new GroupCommitJournalWriter(journalFile, syncPolicy, syncIntervalMillis, writerScheduler);
+    if (existingJournal) {
       loadAllEntries(transactionCompletePredicate);
     }
-    createLogOutputStream();
   }
 
   /**
-   * Adds a journal entry for an operation done over a transactional resource
+   * Adds a journal entry for an operation done over a transactional resource, waiting until it is written.
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    awaitWritten(logOperation(journalEntry, serialize(journalEntrySerializer, journalEntry)));
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource without waiting for it to be written.
+   *
+   * @param journalEntry operation details
+   * @param serializedEntry the journal entry as returned by {@link #serialize(JournalEntrySerializer, JournalEntry)}
+   * @return the sequence number to pass to {@link #awaitWritten(long)}
+   */
+  public synchronized long logOperation(K journalEntry, byte[] serializedEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+    return writer.append(serializedEntry);
+  }
+
+  /**
+   * Serializes a journal entry. Doesn't access any journal state, so it may be called without holding any lock.
+   *
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param journalEntry operation details
+   * @return the journal entry bytes as written to the file
+   */
+  public static <T, K extends JournalEntry<T>> byte[] serialize(JournalEntrySerializer<T, K> journalEntrySerializer,
+                                                                K journalEntry) {
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(serializedEntry);
+    journalEntrySerializer.serialize(journalEntry, dataOutputStream);
+    try {
+      dataOutputStream.flush();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    return serializedEntry.toByteArray();
+  }
+
+  /**
+   * Blocks until the entry logged with the given sequence number is written to the journal file, and forced to the storage
+   * device if the {@link JournalSyncPolicy} requires it.
+   *
+   * @param sequence the value returned by {@link #logOperation(JournalEntry, byte[])}
+   */
+  public void awaitWritten(long sequence) {
+    writer.awaitWritten(sequence);
   }
 
   /**
@@ -120,14 +197,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
-    try {
-      logFileOutputStream.close();
-    } catch (IOException e) {
-      logger.warn(e.getMessage());
-      if (logger.isDebugEnabled()) {
-        logger.debug("Error closing transaction journal file", e);
-      }
-    }
+    writer.close();
   }
 
   /**
@@ -156,25 +226,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
     entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
-  }
-
-  private void createLogOutputStream() {
-    if (!journalFile.exists()) {
-      try {
-        journalFile.createNewFile();
-      } catch (IOException e) {
-        throw new MuleRuntimeException(e);
-      }
-    }
-    try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
-    } catch (FileNotFoundException e) {
-      throw new MuleRuntimeException(e);
-    }
+    writer.truncate();
   }
 
   /**
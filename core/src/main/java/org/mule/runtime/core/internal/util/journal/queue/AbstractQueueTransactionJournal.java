@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.internal.util.journal.JournalEntry;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 import org.mule.runtime.core.internal.util.journal.TransactionCompletePredicate;
@@ -35,6 +37,15 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
 
   public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
                                          Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, journalEntrySerializer, maximumFileSizeInMegabytes, null);
+  }
+
+  /**
+   * @param schedulerService the service to obtain the scheduler that writes the journal entries from. If {@code null}, entries
+   *        are written by the logging threads.
+   */
+  public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
+                                         Integer maximumFileSizeInMegabytes, SchedulerService schedulerService) {
     checkArgument(maximumFileSizeInMegabytes == null || maximumFileSizeInMegabytes > 0,
                   "Maximum tx log file size needs to be greater than zero");
     this.logFile = new TransactionJournal(logFilesDirectory, new TransactionCompletePredicate() {
@@ -44,7 +55,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         AbstractQueueTxJournalEntry abstractQueueTxJournalEntry = (AbstractQueueTxJournalEntry) journalEntry;
         return abstractQueueTxJournalEntry.isCommit() || abstractQueueTxJournalEntry.isRollback();
       }
-    }, journalEntrySerializer, maximumFileSizeInMegabytes);
+    }, journalEntrySerializer, maximumFileSizeInMegabytes, schedulerService);
   }
 
   public void logAdd(T txId, QueueStore queue, Serializable value) {
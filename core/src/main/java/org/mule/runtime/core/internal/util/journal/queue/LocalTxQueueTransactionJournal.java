@@ -20,11 +20,13 @@ import java.io.Serializable;
 public class LocalTxQueueTransactionJournal extends AbstractQueueTransactionJournal<Integer, LocalQueueTxJournalEntry> {
 
   public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext, int maximumFileSizeInMegabytes) {
-    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes);
+    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes,
+          muleContext.getSchedulerService());
   }
 
   public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
-    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), null);
+    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), null,
+          muleContext.getSchedulerService());
   }
 
   public static JournalEntrySerializer<Integer, LocalQueueTxJournalEntry> createLocalTxQueueJournalEntrySerializer(final MuleContext muleContext) {
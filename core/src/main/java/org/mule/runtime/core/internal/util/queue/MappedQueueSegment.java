@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.internal.util.MappedBufferUtils.unmap;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * A fixed size, append-only, memory-mapped file holding part of the records of a {@link SegmentedLogQueueStoreDelegate}.
+ * <p/>
+ * Each record is laid out as {@code [length:int][status:byte][flags:byte][data:length bytes]}. The length is written last so a
+ * partially written record is never visible after a crash, and a zero length marks the end of the written data since mapped
+ * files are zero filled.
+ * <p/>
+ * This class is not thread safe, access must be guarded by the owning delegate.
+ */
+class MappedQueueSegment {
+
+  static final String SEGMENT_FILE_SUFFIX = ".seg";
+
+  static final int RECORD_HEADER_SIZE = 6;
+
+  static final byte LIVE = 0;
+  static final byte CONSUMED = 1;
+
+  /**
+   * Flag for records added through {@code addFirst}, which have to be placed ahead of the rest when the queue is recovered.
+   */
+  static final byte FLAG_HEAD = 1;
+
+  private static final int STATUS_OFFSET = 4;
+  private static final int FLAGS_OFFSET = 5;
+
+  private final long id;
+  private final File file;
+  private final MappedByteBuffer buffer;
+  private int writePosition;
+  private int liveRecords;
+  private boolean dirty;
+
+  /**
+   * Opens or creates the segment with the given id.
+   *
+   * @param directory directory where the segment files live
+   * @param id the sequence number of the segment within the log
+   * @param size the size to map, only used when the file is new or smaller
+   */
+  MappedQueueSegment(File directory, long id, int size) {
+    this.id = id;
+    this.file = new File(directory, fileNameFor(id));
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      // The mapping remains valid after the channel is closed.
+      int mappedSize = (int) Math.max(size, randomAccessFile.length());
+      buffer = randomAccessFile.getChannel().map(READ_WRITE, 0, mappedSize);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  static String fileNameFor(long id) {
+    return format("%020d%s", id, SEGMENT_FILE_SUFFIX);
+  }
+
+  static boolean isSegmentFile(File file) {
+    return file.getName().endsWith(SEGMENT_FILE_SUFFIX);
+  }
+
+  static long idOf(File file) {
+    String name = file.getName();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_SUFFIX.length()));
+  }
+
+  /**
+   * @return the sequence number of this segment within the log
+   */
+  long getId() {
+    return id;
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  int getWritePosition() {
+    return writePosition;
+  }
+
+  int getLiveRecords() {
+    return liveRecords;
+  }
+
+  /**
+   * @param dataLength the length of the data to append
+   * @return true if a record with that data length fits in the remaining space of this segment
+   */
+  boolean hasRoomFor(int dataLength) {
+    return buffer.capacity() - writePosition >= RECORD_HEADER_SIZE + dataLength;
+  }
+
+  /**
+   * Appends a record at the end of this segment.
+   *
+   * @param data the data to write
+   * @param flags the record flags
+   * @return the position of the new record
+   */
+  int append(byte[] data, byte flags) {
+    int position = writePosition;
+    ByteBuffer target = buffer.duplicate();
+    target.position(position + STATUS_OFFSET);
+    target.put(LIVE);
+    target.put(flags);
+    target.put(data);
+    buffer.putInt(position, data.length);
+    writePosition = position + RECORD_HEADER_SIZE + data.length;
+    liveRecords++;
+    dirty = true;
+    return position;
+  }
+
+  /**
+   * @param position position of a record
+   * @return the data held by the record
+   */
+  byte[] read(int position) {
+    byte[] data = new byte[buffer.getInt(position)];
+    ByteBuffer source = buffer.duplicate();
+    source.position(position + RECORD_HEADER_SIZE);
+    source.get(data);
+    return data;
+  }
+
+  /**
+   * Flags the record at the given position as no longer part of the queue.
+   *
+   * @param position position of a record
+   */
+  void markConsumed(int position) {
+    if (buffer.get(position + STATUS_OFFSET) == LIVE) {
+      buffer.put(position + STATUS_OFFSET, CONSUMED);
+      liveRecords--;
+      dirty = true;
+    }
+  }
+
+  boolean isLive(int position) {
+    return buffer.get(position + STATUS_OFFSET) == LIVE;
+  }
+
+  boolean isHead(int position) {
+    return (buffer.get(position + FLAGS_OFFSET) & FLAG_HEAD) != 0;
+  }
+
+  /**
+   * @param position position of a record
+   * @return the position of the record that follows
+   */
+  int next(int position) {
+    return position + RECORD_HEADER_SIZE + buffer.getInt(position);
+  }
+
+  /**
+   * @param position a position within this segment
+   * @return true if there's a complete record stored at that position
+   */
+  boolean hasRecordAt(int position) {
+    return position <= buffer.capacity() - RECORD_HEADER_SIZE && buffer.getInt(position) > 0
+        && position + RECORD_HEADER_SIZE + buffer.getInt(position) <= buffer.capacity();
+  }
+
+  /**
+   * Walks the records from the beginning of the segment to find where new records have to be appended and how many of them are
+   * live. Used when opening an existing segment.
+   */
+  void recover() {
+    int position = 0;
+    liveRecords = 0;
+    while (hasRecordAt(position)) {
+      if (isLive(position)) {
+        liveRecords++;
+      }
+      position = next(position);
+    }
+    writePosition = position;
+  }
+
+  /**
+   * Writes the changes on the mapped region to the storage device, if there are changes since the last time.
+   */
+  void force() {
+    if (dirty) {
+      buffer.force();
+      dirty = false;
+    }
+  }
+
+  /**
+   * Releases the mapped region and deletes the segment file. The segment must not be used afterwards.
+   */
+  void delete() {
+    unmap(buffer);
+    deleteQuietly(file);
+  }
+
+  @Override
+  public String toString() {
+    return format("MappedQueueSegment{file=%s, writePosition=%s, liveRecords=%s}", file.getName(), writePosition, liveRecords);
+  }
+}
@@ -0,0 +1,559 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.regex.Pattern.compile;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.internal.util.MappedBufferUtils.unmap;
+import static org.mule.runtime.core.internal.util.queue.MappedQueueSegment.FLAG_HEAD;
+import static org.mule.runtime.core.internal.util.queue.MappedQueueSegment.RECORD_HEADER_SIZE;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.SyncPolicy.ALWAYS;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.SyncPolicy.PERIODIC;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that stores the queue data in an append-only log split in
+ * memory-mapped segment files.
+ * <p/>
+ * Entries are only ever appended to the last segment, and consuming an entry just flags it in place and moves a consumer
+ * offset kept in a separate mapped file, so neither operation seeks nor issues a system call per entry. The positions of the
+ * entries still in the queue are kept in memory along with the hash code of their values, so {@link #contains(Serializable)}
+ * and {@link #remove(Serializable)} only deserialize the entries whose hash code matches the one of the given value. The hash
+ * code of the entries recovered from the files is calculated the first time they are compared. Segments left behind the
+ * consumer offset have no live entries and are deleted in background.
+ * <p/>
+ * Changes are written to the storage device according to the {@link SyncPolicy} set through {@link #SYNC_POLICY_PROPERTY_KEY},
+ * and always when the queue is closed.
+ * <p/>
+ * Entries returned to the front of the queue through {@link #untake(Serializable)} are appended flagged as head entries, and
+ * are placed ahead of the rest, most recent first, when the queue is recovered.
+ *
+ * @since 4.1
+ */
+public class SegmentedLogQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+  /**
+   * System property to set the {@link SyncPolicy} of the queues. Defaults to {@link SyncPolicy#PERIODIC}.
+   * <p/>
+   * Note that the dual file store syncs every write, so the default policy is less durable than it: up to
+   * {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds of changes can be lost if the machine crashes. Use {@link SyncPolicy#ALWAYS}
+   * for the same durability as the dual file store.
+   */
+  public static final String SYNC_POLICY_PROPERTY_KEY = "mule.queue.syncPolicy";
+  /**
+   * System property to set the milliseconds between syncs when using {@link SyncPolicy#PERIODIC}. Defaults to 1000.
+   */
+  public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.syncInterval";
+  private static final int FOUR_MEGABYTES = 4 * 1024 * 1024;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String QUEUE_LOG_SUFFIX = "-log";
+  private static final String CONSUMER_OFFSET_FILE = "consumer.offset";
+  private static final int CONSUMER_OFFSET_SIZE = 12;
+  private static final Pattern SAFE_DIRECTORY_NAME = compile("[\\w.\\-]+");
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final ObjectSerializer serializer;
+  private final String queueName;
+  private final int segmentSize = getInteger(SEGMENT_SIZE_PROPERTY_KEY, FOUR_MEGABYTES);
+  private final SyncPolicy syncPolicy;
+  private final File logDirectory;
+  private final List<MappedQueueSegment> segments = new ArrayList<>();
+  private final Deque<RecordPointer> index = new ArrayDeque<>();
+  private MappedByteBuffer consumerOffset;
+  private int consumerSegmentIndex;
+  private int consumerPosition;
+  private boolean consumerOffsetDirty;
+  private Scheduler scheduler;
+
+  /**
+   * How the changes to the queue are written to the storage device.
+   *
+   * @since 4.1
+   */
+  public enum SyncPolicy {
+
+    /**
+     * Changes are synced before each operation on the queue returns. Nothing is lost if the machine crashes, but every
+     * operation waits for the storage device. This is as durable as the dual file store.
+     */
+    ALWAYS,
+
+    /**
+     * Changes are synced in background every {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds, so at most that time of changes
+     * can be lost if the machine crashes.
+     */
+    PERIODIC,
+
+    /**
+     * Changes are left for the operating system to write. They survive the process crashing but not the machine.
+     */
+    NONE
+  }
+
+  public SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    super(capacity);
+    this.queueName = queueName;
+    this.serializer = muleContext.getObjectSerializer();
+    this.logDirectory = createLogDirectory(new File(workingDirectory, QUEUE_STORE_DIRECTORY), queueName + QUEUE_LOG_SUFFIX);
+    open();
+
+    SchedulerService schedulerService = muleContext.getSchedulerService();
+    SyncPolicy syncPolicy = getSyncPolicy();
+    if (schedulerService != null) {
+      scheduler = schedulerService.ioScheduler();
+      if (syncPolicy == PERIODIC) {
+        long syncInterval = getInteger(SYNC_INTERVAL_PROPERTY_KEY, 1000);
+        scheduler.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, MILLISECONDS);
+      }
+    } else if (syncPolicy == PERIODIC) {
+      logger.warn(format("There is no scheduler to sync queue %s periodically, syncing on every operation instead", queueName));
+      syncPolicy = ALWAYS;
+    }
+    this.syncPolicy = syncPolicy;
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  private static SyncPolicy getSyncPolicy() {
+    String syncPolicy = getProperty(SYNC_POLICY_PROPERTY_KEY);
+    if (syncPolicy == null) {
+      return PERIODIC;
+    }
+    for (SyncPolicy policy : SyncPolicy.values()) {
+      if (policy.name().equalsIgnoreCase(syncPolicy.trim())) {
+        return policy;
+      }
+    }
+    LoggerFactory.getLogger(SegmentedLogQueueStoreDelegate.class)
+        .warn(format("Invalid value '%s' for system property %s, valid values are %s. Using %s instead.", syncPolicy,
+                     SYNC_POLICY_PROPERTY_KEY, asList(SyncPolicy.values()), PERIODIC));
+    return PERIODIC;
+  }
+
+  private static File createLogDirectory(File queuesDirectory, String directoryName) {
+    File directory = logDirectoryFor(queuesDirectory, directoryName);
+    if (!directory.exists()) {
+      Preconditions.checkState(directory.mkdirs(), "Could not create queue log directory " + directory.getAbsolutePath());
+    }
+    return directory;
+  }
+
+  private static File logDirectoryFor(File queuesDirectory, String directoryName) {
+    if (SAFE_DIRECTORY_NAME.matcher(directoryName).matches()) {
+      return new File(queuesDirectory, directoryName);
+    }
+    // if the name has characters the file system may not support, or that would create nested directories, use a hex
+    // representation of the name.
+    return new File(queuesDirectory, new BigInteger(directoryName.getBytes(UTF_8)).toString(16));
+  }
+
+  /**
+   * @return the directory holding the segment and consumer offset files of the given queue
+   */
+  public static File getLogDirectoryForTesting(String queueName, String workingDirectory) {
+    return logDirectoryFor(new File(workingDirectory, QUEUE_STORE_DIRECTORY), queueName + QUEUE_LOG_SUFFIX);
+  }
+
+  // only for testing.
+  int getSegmentCount() {
+    synchronized (this) {
+      return segments.size();
+    }
+  }
+
+  private void open() {
+    try (RandomAccessFile offsetFile = new RandomAccessFile(new File(logDirectory, CONSUMER_OFFSET_FILE), "rw")) {
+      consumerOffset = offsetFile.getChannel().map(READ_WRITE, 0, CONSUMER_OFFSET_SIZE);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    long offsetSegmentId = consumerOffset.getLong(0);
+    int offsetPosition = consumerOffset.getInt(8);
+
+    File[] segmentFiles = logDirectory.listFiles(MappedQueueSegment::isSegmentFile);
+    List<Long> segmentIds = new ArrayList<>();
+    if (segmentFiles != null) {
+      for (File segmentFile : segmentFiles) {
+        segmentIds.add(MappedQueueSegment.idOf(segmentFile));
+      }
+    }
+    segmentIds.sort(null);
+
+    for (Long segmentId : segmentIds) {
+      MappedQueueSegment segment = new MappedQueueSegment(logDirectory, segmentId, segmentSize);
+      if (segmentId < offsetSegmentId) {
+        // Compaction didn't get to delete it before shutdown.
+        segment.delete();
+      } else {
+        segment.recover();
+        segments.add(segment);
+      }
+    }
+    if (segments.isEmpty()) {
+      segments.add(new MappedQueueSegment(logDirectory, offsetSegmentId, segmentSize));
+      offsetPosition = 0;
+    } else if (segments.get(0).getId() != offsetSegmentId) {
+      // The offset file is only a hint, start from the first available segment if it doesn't match.
+      offsetPosition = 0;
+    }
+    consumerSegmentIndex = 0;
+    consumerPosition = offsetPosition;
+    rebuildIndex();
+  }
+
+  private void rebuildIndex() {
+    List<RecordPointer> headRecords = new ArrayList<>();
+    for (int i = consumerSegmentIndex; i < segments.size(); i++) {
+      MappedQueueSegment segment = segments.get(i);
+      int position = i == consumerSegmentIndex ? consumerPosition : 0;
+      while (segment.hasRecordAt(position)) {
+        if (segment.isLive(position)) {
+          RecordPointer pointer = new RecordPointer(segment, position);
+          if (segment.isHead(position)) {
+            headRecords.add(pointer);
+          } else {
+            index.addLast(pointer);
+          }
+        }
+        position = segment.next(position);
+      }
+    }
+    // each addFirst places its item ahead of the previous ones, so the last appended head record goes first
+    for (RecordPointer headRecord : headRecords) {
+      index.addFirst(headRecord);
+    }
+  }
+
+  @Override
+  protected void addFirst(Serializable item) throws InterruptedException {
+    index.addFirst(append(item, FLAG_HEAD));
+  }
+
+  @Override
+  protected void add(Serializable item) {
+    index.addLast(append(item, (byte) 0));
+  }
+
+  private RecordPointer append(Serializable item, byte flags) {
+    byte[] data = serializer.getInternalProtocol().serialize(item);
+    MappedQueueSegment writeSegment = segments.get(segments.size() - 1);
+    if (!writeSegment.hasRoomFor(data.length)) {
+      writeSegment = new MappedQueueSegment(logDirectory, writeSegment.getId() + 1,
+                                            Math.max(segmentSize, RECORD_HEADER_SIZE + data.length));
+      segments.add(writeSegment);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Queue " + queueName + " rolled to segment " + writeSegment.getFile().getName());
+      }
+    }
+    RecordPointer pointer = new RecordPointer(writeSegment, writeSegment.append(data, flags));
+    pointer.setValueHash(Objects.hashCode(item));
+    if (syncPolicy == ALWAYS) {
+      writeSegment.force();
+    }
+    return pointer;
+  }
+
+  @Override
+  protected Serializable removeFirst() throws InterruptedException {
+    RecordPointer pointer = index.pollFirst();
+    if (pointer == null) {
+      return null;
+    }
+    Serializable value = deserialize(pointer.read());
+    consume(pointer);
+    return value;
+  }
+
+  @Override
+  protected Serializable getFirst() throws InterruptedException {
+    RecordPointer pointer = index.peekFirst();
+    return pointer == null ? null : deserialize(pointer.read());
+  }
+
+  private void consume(RecordPointer pointer) {
+    pointer.segment.markConsumed(pointer.position);
+    if (syncPolicy == ALWAYS) {
+      // before advancing the offset, which may hand the segment over for deletion
+      pointer.segment.force();
+    }
+    advanceConsumerOffset();
+  }
+
+  /**
+   * Moves the consumer offset past every consumed record and hands the segments left behind to the compaction thread.
+   */
+  private void advanceConsumerOffset() {
+    MappedQueueSegment segment = segments.get(consumerSegmentIndex);
+    int position = consumerPosition;
+    while (true) {
+      if (segment.hasRecordAt(position)) {
+        if (segment.isLive(position)) {
+          break;
+        }
+        position = segment.next(position);
+      } else if (consumerSegmentIndex < segments.size() - 1) {
+        consumerSegmentIndex++;
+        segment = segments.get(consumerSegmentIndex);
+        position = 0;
+      } else {
+        break;
+      }
+    }
+    consumerPosition = position;
+    consumerOffset.putLong(0, segment.getId());
+    consumerOffset.putInt(8, position);
+    consumerOffsetDirty = true;
+    if (syncPolicy == ALWAYS) {
+      forceConsumerOffset();
+    }
+
+    if (consumerSegmentIndex > 0) {
+      List<MappedQueueSegment> consumedSegments = new ArrayList<>(segments.subList(0, consumerSegmentIndex));
+      segments.subList(0, consumerSegmentIndex).clear();
+      consumerSegmentIndex = 0;
+      compact(consumedSegments);
+    }
+  }
+
+  private void compact(List<MappedQueueSegment> consumedSegments) {
+    Runnable deletion = () -> {
+      for (MappedQueueSegment consumedSegment : consumedSegments) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Deleting consumed segment " + consumedSegment.getFile().getAbsolutePath());
+        }
+        consumedSegment.delete();
+      }
+    };
+
+    if (scheduler != null) {
+      try {
+        scheduler.execute(deletion);
+        return;
+      } catch (RejectedExecutionException e) {
+        // the scheduler is being stopped, delete them in the calling thread
+      }
+    }
+    deletion.run();
+  }
+
+  private void forceConsumerOffset() {
+    if (consumerOffsetDirty) {
+      consumerOffset.force();
+      consumerOffsetDirty = false;
+    }
+  }
+
+  /**
+   * Writes the changes made since the last sync to the storage device.
+   */
+  private synchronized void sync() {
+    if (consumerOffset == null) {
+      // disposed
+      return;
+    }
+    for (MappedQueueSegment segment : segments) {
+      segment.force();
+    }
+    forceConsumerOffset();
+  }
+
+  @Override
+  protected int size() {
+    return index.size();
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return index.isEmpty();
+  }
+
+  @Override
+  protected void doClear() {
+    for (RecordPointer pointer : index) {
+      pointer.segment.markConsumed(pointer.position);
+    }
+    index.clear();
+    if (syncPolicy == ALWAYS) {
+      for (MappedQueueSegment segment : segments) {
+        segment.force();
+      }
+    }
+    advanceConsumerOffset();
+  }
+
+  @Override
+  protected boolean doAddAll(Collection<? extends Serializable> items) {
+    for (Serializable item : items) {
+      add(item);
+    }
+    return true;
+  }
+
+  public synchronized Collection<Serializable> allElements() {
+    List<Serializable> elements = new LinkedList<>();
+    for (RecordPointer pointer : index) {
+      try {
+        elements.add(deserialize(pointer.read()));
+      } catch (Exception e) {
+        logger.warn("Failure trying to deserialize value " + e.getMessage());
+        if (logger.isDebugEnabled()) {
+          logger.debug("Failure trying to deserialize value", e);
+        }
+      }
+    }
+    return elements;
+  }
+
+  private Serializable deserialize(byte[] valuesAsBytes) {
+    return serializer.getInternalProtocol().deserialize(valuesAsBytes);
+  }
+
+  @Override
+  public synchronized void remove(Serializable value) {
+    int valueHash = Objects.hashCode(value);
+    Iterator<RecordPointer> iterator = index.iterator();
+    while (iterator.hasNext()) {
+      RecordPointer pointer = iterator.next();
+      if (holds(pointer, value, valueHash)) {
+        iterator.remove();
+        consume(pointer);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    int valueHash = Objects.hashCode(value);
+    for (RecordPointer pointer : index) {
+      if (holds(pointer, value, valueHash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean holds(RecordPointer pointer, Serializable value, int valueHash) {
+    if (!pointer.hasValueHash()) {
+      pointer.setValueHash(Objects.hashCode(deserialize(pointer.read())));
+    }
+    return pointer.valueHash == valueHash && Objects.equals(deserialize(pointer.read()), value);
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (consumerOffset == null) {
+        return;
+      }
+      for (MappedQueueSegment segment : segments) {
+        segment.force();
+      }
+      consumerOffset.force();
+      consumerOffsetDirty = false;
+    }
+    stopScheduler();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    synchronized (this) {
+      index.clear();
+      // the segments have to be unmapped before deleting their files
+      for (MappedQueueSegment segment : segments) {
+        segment.delete();
+      }
+      segments.clear();
+      unmap(consumerOffset);
+      consumerOffset = null;
+      deleteQuietly(logDirectory);
+    }
+    stopScheduler();
+  }
+
+  /**
+   * Stops the scheduler without holding the lock of this delegate, which a sync may be waiting for.
+   */
+  private void stopScheduler() {
+    Scheduler scheduler;
+    synchronized (this) {
+      scheduler = this.scheduler;
+      this.scheduler = null;
+    }
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+  }
+
+  /**
+   * Location of a live record within the log.
+   */
+  private static final class RecordPointer {
+
+    private final MappedQueueSegment segment;
+    private final int position;
+    private int valueHash;
+    private boolean valueHashSet;
+
+    private RecordPointer(MappedQueueSegment segment, int position) {
+      this.segment = segment;
+      this.position = position;
+    }
+
+    private byte[] read() {
+      return segment.read(position);
+    }
+
+    private boolean hasValueHash() {
+      return valueHashSet;
+    }
+
+    private void setValueHash(int valueHash) {
+      this.valueHash = valueHash;
+      this.valueHashSet = true;
+    }
+  }
+}
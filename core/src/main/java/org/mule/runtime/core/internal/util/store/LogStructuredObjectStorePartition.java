@@ -0,0 +1,815 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ExpirableObjectStore;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent partition that keeps all its entries in a single append-only data log instead of one file per key.
+ * <p/>
+ * Each store appends a record with the key and the serialized value, and each removal appends a tombstone. An in memory index
+ * keeps, for each live key, where its value is within the log and when it was stored, so retrievals read just the value bytes
+ * and {@link #expire(long, int)} only visits the entries that actually expire, oldest first.
+ * <p/>
+ * The index is checkpointed to a separate file on {@link #close()}, after compactions and once enough data was appended since
+ * the last checkpoint. Reopening the partition loads the checkpoint and only replays the records appended after it. Once the
+ * space taken by removed entries exceeds the space of the live ones, the log is compacted in the background by rewriting the
+ * live records into a new log. The write lock is only taken at the end, to copy the records appended in the meantime and
+ * replace the current log with the new one.
+ *
+ * @since 4.1
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends TemplateObjectStore<T>
+    implements ExpirableObjectStore<T> {
+
+  static final String DATA_LOG_FILE = "data.log";
+  static final String INDEX_CHECKPOINT_FILE = "index.ckpt";
+  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  private static final String COMPACTION_SUFFIX = ".compact";
+  private static final String CHECKPOINT_TEMP_SUFFIX = ".tmp";
+
+  private static final byte PUT = 0;
+  private static final byte TOMBSTONE = 1;
+
+  /**
+   * {@code [recordLength:int][crc:int][type:byte][timestamp:long][keyLength:int]}, followed by the key and value bytes.
+   * {@code recordLength} counts every byte after itself, and {@code crc} every byte after itself.
+   */
+  private static final int RECORD_HEADER_SIZE = 21;
+  private static final int CHECKSUMMED_OFFSET = 8;
+
+  private static final int CHECKPOINT_MAGIC = 0x4D4C5343;
+  private static final long MINIMUM_COMPACTION_SIZE = 1024 * 1024;
+  private static final long CHECKPOINT_EVERY_BYTES = 4 * 1024 * 1024;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredObjectStorePartition.class);
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final File partitionDirectory;
+  private String partitionName;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  /**
+   * Live keys in the order they were stored, which is also their timestamp order since keys can't be overwritten.
+   */
+  private final LinkedHashMap<String, IndexEntry> index = new LinkedHashMap<>();
+
+  private FileChannel dataLog;
+  private long logLength;
+  private long liveBytes;
+  private long checkpointedLength;
+
+  private Scheduler compactionScheduler;
+  private boolean compacting;
+  /**
+   * Changes each time the log is truncated or closed, so a compaction started before that is discarded.
+   */
+  private int generation;
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.partitionDirectory = partitionDirectory;
+    this.partitionName = readPartitionFileName(partitionDirectory);
+  }
+
+  /**
+   * @param partitionDirectory a partition directory
+   * @return true if the partition stored in the given directory uses the log structured layout
+   */
+  public static boolean isLogStructuredPartition(File partitionDirectory) {
+    return new File(partitionDirectory, DATA_LOG_FILE).exists();
+  }
+
+  private static String readPartitionFileName(File partitionDirectory) throws ObjectStoreNotAvailableException {
+    File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+    try {
+      return readFileToString(partitionDescriptorFile);
+    } catch (IOException e) {
+      throw new ObjectStoreNotAvailableException(e);
+    }
+  }
+
+  @Override
+  public void open() throws ObjectStoreException {
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (dataLog != null) {
+        return;
+      }
+      if (!partitionDirectory.exists() && !partitionDirectory.mkdirs()) {
+        throw new ObjectStoreException(new MuleRuntimeException(failedToCreate("object store directory "
+            + partitionDirectory.getAbsolutePath())));
+      }
+      createOrRetrievePartitionDescriptorFile();
+      dataLog = FileChannel.open(new File(partitionDirectory, DATA_LOG_FILE).toPath(), CREATE, READ, WRITE);
+      loadIndex();
+      SchedulerService schedulerService = muleContext.getSchedulerService();
+      if (schedulerService != null) {
+        compactionScheduler = schedulerService.ioScheduler();
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                partitionDirectory.getAbsolutePath())),
+                                     e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    Scheduler scheduler;
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (dataLog != null) {
+        writeCheckpoint();
+        dataLog.close();
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      dataLog = null;
+      index.clear();
+      ++generation;
+      scheduler = compactionScheduler;
+      compactionScheduler = null;
+      writeLock.unlock();
+    }
+
+    // stopped without the lock, so a running compaction can acquire it and find that the log was closed
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+  }
+
+  private void assureOpen() throws ObjectStoreException {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      if (dataLog != null) {
+        return;
+      }
+    } finally {
+      readLock.unlock();
+    }
+    open();
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureOpen();
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return unmodifiableList(new ArrayList<>(index.keySet()));
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureOpen();
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return index.containsKey(key);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureOpen();
+    // serialize before taking the lock, only the append has to be exclusive
+    byte[] valueBytes = serializer.getInternalProtocol().serialize(value);
+    byte[] keyBytes = key.getBytes(UTF_8);
+    ByteBuffer record = createRecord(PUT, System.currentTimeMillis(), keyBytes, valueBytes);
+
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      index.put(key, append(record, keyBytes.length, valueBytes.length));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureOpen();
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      return load(entry);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureOpen();
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      Map<String, T> values = new LinkedHashMap<>(index.size());
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        values.put(entry.getKey(), load(entry.getValue()));
+      }
+      return values;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureOpen();
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      T value = load(entry);
+      removeEntry(key, entry);
+      compactIfNeeded();
+      return value;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    assureOpen();
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      index.clear();
+      dataLog.truncate(0);
+      logLength = 0;
+      liveBytes = 0;
+      checkpointedLength = 0;
+      ++generation;
+      deleteQuietly(new File(partitionDirectory, INDEX_CHECKPOINT_FILE));
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureOpen();
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      Iterator<Map.Entry<String, IndexEntry>> entries = index.entrySet().iterator();
+      if (maxEntries != UNBOUNDED) {
+        int excess = index.size() - maxEntries;
+        for (int i = 0; i < excess; i++) {
+          Map.Entry<String, IndexEntry> entry = entries.next();
+          appendTombstone(entry.getKey(), entry.getValue());
+          entries.remove();
+        }
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = System.currentTimeMillis();
+        while (entries.hasNext()) {
+          Map.Entry<String, IndexEntry> entry = entries.next();
+          if ((now - entry.getValue().timestamp) >= entryTTL) {
+            appendTombstone(entry.getKey(), entry.getValue());
+            entries.remove();
+          } else {
+            break;
+          }
+        }
+      }
+
+      // expire is called periodically by the store monitor, so it is also the place for the housekeeping.
+      if (!compactIfNeeded() && !compacting && logLength - checkpointedLength >= CHECKPOINT_EVERY_BYTES) {
+        writeCheckpoint();
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  public File getPartitionDirectory() {
+    return partitionDirectory;
+  }
+
+  private T load(IndexEntry entry) throws ObjectStoreException {
+    try {
+      ByteBuffer valueBuffer = ByteBuffer.allocate(entry.valueLength);
+      readFully(dataLog, valueBuffer, entry.valueOffset);
+      T value = serializer.getInternalProtocol().deserialize(valueBuffer.array());
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private void removeEntry(String key, IndexEntry entry) throws ObjectStoreException {
+    appendTombstone(key, entry);
+    index.remove(key);
+  }
+
+  private void appendTombstone(String key, IndexEntry entry) throws ObjectStoreException {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    append(createRecord(TOMBSTONE, System.currentTimeMillis(), keyBytes, new byte[0]), keyBytes.length, 0);
+    liveBytes -= entry.recordSize();
+  }
+
+  private static ByteBuffer createRecord(byte type, long timestamp, byte[] keyBytes, byte[] valueBytes) {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length);
+    record.putInt(record.capacity() - 4);
+    record.putInt(0);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(keyBytes.length);
+    record.put(keyBytes);
+    record.put(valueBytes);
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), CHECKSUMMED_OFFSET, record.capacity() - CHECKSUMMED_OFFSET);
+    record.putInt(4, (int) crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  /**
+   * Appends the given record at the end of the log. Must be called holding the write lock.
+   *
+   * @return the index entry pointing to the appended record
+   */
+  private IndexEntry append(ByteBuffer record, int keyLength, int valueLength) throws ObjectStoreException {
+    long recordOffset = logLength;
+    try {
+      long position = recordOffset;
+      while (record.hasRemaining()) {
+        position += dataLog.write(record, position);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    logLength = recordOffset + record.capacity();
+    IndexEntry entry = new IndexEntry(recordOffset + RECORD_HEADER_SIZE + keyLength, valueLength, keyLength,
+                                      record.getLong(9));
+    if (record.get(8) == PUT) {
+      liveBytes += entry.recordSize();
+    }
+    return entry;
+  }
+
+  /**
+   * Compacts the log if the space taken by removed entries is larger than the live data. The compaction runs in the background
+   * unless there's no scheduler available. Must be called holding the write lock.
+   *
+   * @return true if a compaction was started
+   */
+  private boolean compactIfNeeded() throws ObjectStoreException {
+    if (compacting || logLength < MINIMUM_COMPACTION_SIZE || logLength - liveBytes <= liveBytes) {
+      return false;
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Compacting partition %s, log size: %d bytes, live data: %d bytes", partitionName, logLength,
+                          liveBytes));
+    }
+
+    final Map<String, IndexEntry> liveEntries = new LinkedHashMap<>(index);
+    final long sourceLength = logLength;
+    final int sourceGeneration = generation;
+    if (compactionScheduler != null) {
+      compacting = true;
+      try {
+        compactionScheduler.submit(() -> compactInBackground(liveEntries, sourceLength, sourceGeneration));
+        return true;
+      } catch (RejectedExecutionException e) {
+        // the scheduler is being stopped, compact in the calling thread
+        compacting = false;
+      }
+    }
+
+    CompactedLog compacted = null;
+    try {
+      compacted = copyLiveRecords(liveEntries, sourceLength);
+      replaceLog(compacted);
+      return true;
+    } catch (IOException e) {
+      discard(compacted);
+      throw new ObjectStoreException(createStaticMessage("Could not compact ObjectStore " + partitionName), e);
+    }
+  }
+
+  private void compactInBackground(Map<String, IndexEntry> liveEntries, long sourceLength, int sourceGeneration) {
+    CompactedLog compacted = null;
+    try {
+      compacted = copyLiveRecords(liveEntries, sourceLength);
+
+      Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        if (generation == sourceGeneration) {
+          replaceLog(compacted);
+          compacted = null;
+        }
+      } finally {
+        compacting = false;
+        writeLock.unlock();
+      }
+    } catch (Exception e) {
+      LOGGER.warn(format("Could not compact the data log of partition %s", partitionName), e);
+      if (compacted == null) {
+        // the copy failed, so the flag wasn't reset along with the swap
+        resetCompacting();
+      }
+    } finally {
+      discard(compacted);
+    }
+  }
+
+  private void resetCompacting() {
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      compacting = false;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Writes the records of the given entries into a new log. Doesn't need the lock, since appended records are never modified
+   * and the log is read through its own channel.
+   */
+  private CompactedLog copyLiveRecords(Map<String, IndexEntry> liveEntries, long sourceLength) throws IOException {
+    File compactedFile = new File(partitionDirectory, DATA_LOG_FILE + COMPACTION_SUFFIX);
+    CompactedLog compacted = new CompactedLog(compactedFile, sourceLength);
+    try (FileChannel source = FileChannel.open(new File(partitionDirectory, DATA_LOG_FILE).toPath(), READ)) {
+      compacted.channel.truncate(0);
+      for (IndexEntry indexEntry : liveEntries.values()) {
+        ByteBuffer record = ByteBuffer.allocate(indexEntry.recordSize());
+        readFully(source, record, indexEntry.recordOffset());
+        record.flip();
+        long recordOffset = compacted.length;
+        while (record.hasRemaining()) {
+          compacted.length += compacted.channel.write(record, compacted.length);
+        }
+        compacted.movedEntries.put(indexEntry, indexEntry.movedTo(recordOffset));
+      }
+    } catch (IOException | RuntimeException e) {
+      discard(compacted);
+      throw e;
+    }
+    return compacted;
+  }
+
+  /**
+   * Appends the records written after the compaction started to the compacted log, and replaces the current log with it. Must
+   * be called holding the write lock.
+   */
+  private void replaceLog(CompactedLog compacted) throws IOException {
+    long tailLength = logLength - compacted.sourceLength;
+    compacted.channel.position(compacted.length);
+    long transferred = 0;
+    while (transferred < tailLength) {
+      transferred += dataLog.transferTo(compacted.sourceLength + transferred, tailLength - transferred, compacted.channel);
+    }
+
+    long shift = compacted.length - compacted.sourceLength;
+    LinkedHashMap<String, IndexEntry> compactedIndex = new LinkedHashMap<>(index.size());
+    for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+      IndexEntry indexEntry = entry.getValue();
+      IndexEntry moved = compacted.movedEntries.get(indexEntry);
+      // entries which are not in the compacted records were appended after the compaction started
+      compactedIndex.put(entry.getKey(), moved != null ? moved : indexEntry.movedTo(indexEntry.recordOffset() + shift));
+    }
+    compacted.channel.force(false);
+    compacted.channel.close();
+
+    File logFile = new File(partitionDirectory, DATA_LOG_FILE);
+    dataLog.close();
+    Files.move(compacted.file.toPath(), logFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    forceDirectory();
+    dataLog = FileChannel.open(logFile.toPath(), CREATE, READ, WRITE);
+    index.clear();
+    index.putAll(compactedIndex);
+    logLength = compacted.length + tailLength;
+    // liveBytes doesn't change, the live records are the same
+    writeCheckpoint();
+  }
+
+  private void discard(CompactedLog compacted) {
+    if (compacted == null) {
+      return;
+    }
+    try {
+      compacted.channel.close();
+    } catch (IOException e) {
+      // nothing to do
+    }
+    deleteQuietly(compacted.file);
+  }
+
+  /**
+   * Writes the index along with the log length it covers, so reopening only needs to replay what comes after.
+   */
+  private void writeCheckpoint() throws IOException {
+    File checkpointFile = new File(partitionDirectory, INDEX_CHECKPOINT_FILE);
+    File tempFile = new File(partitionDirectory, INDEX_CHECKPOINT_FILE + CHECKPOINT_TEMP_SUFFIX);
+    try (FileOutputStream fileOut = new FileOutputStream(tempFile);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+      out.writeInt(CHECKPOINT_MAGIC);
+      out.writeLong(logLength);
+      out.writeInt(index.size());
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        byte[] keyBytes = entry.getKey().getBytes(UTF_8);
+        IndexEntry indexEntry = entry.getValue();
+        out.writeInt(keyBytes.length);
+        out.write(keyBytes);
+        out.writeLong(indexEntry.valueOffset);
+        out.writeInt(indexEntry.valueLength);
+        out.writeLong(indexEntry.timestamp);
+      }
+      out.flush();
+      fileOut.getChannel().force(true);
+    }
+    dataLog.force(false);
+    Files.move(tempFile.toPath(), checkpointFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    forceDirectory();
+    checkpointedLength = logLength;
+  }
+
+  /**
+   * Makes the renames within the partition directory durable.
+   */
+  private void forceDirectory() {
+    try (FileChannel directory = FileChannel.open(partitionDirectory.toPath(), READ)) {
+      directory.force(true);
+    } catch (IOException e) {
+      // not every platform allows opening or syncing a directory, the rename is still atomic
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Could not sync directory of partition %s", partitionName), e);
+      }
+    }
+  }
+
+  private void loadIndex() throws IOException {
+    index.clear();
+    liveBytes = 0;
+    long replayFrom = readCheckpoint();
+    logLength = replay(replayFrom);
+    if (logLength < dataLog.size()) {
+      LOGGER.warn(format("Discarding %d bytes of incomplete records at the end of the data log of partition %s",
+                         dataLog.size() - logLength, partitionName));
+      dataLog.truncate(logLength);
+    }
+  }
+
+  /**
+   * @return the log position covered by the checkpoint, or 0 if there's no usable checkpoint
+   */
+  private long readCheckpoint() throws IOException {
+    File checkpointFile = new File(partitionDirectory, INDEX_CHECKPOINT_FILE);
+    if (!checkpointFile.exists()) {
+      return 0;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+      if (in.readInt() != CHECKPOINT_MAGIC) {
+        return discardCheckpoint();
+      }
+      long coveredLength = in.readLong();
+      if (coveredLength > dataLog.size()) {
+        return discardCheckpoint();
+      }
+      int entries = in.readInt();
+      for (int i = 0; i < entries; i++) {
+        byte[] keyBytes = new byte[in.readInt()];
+        in.readFully(keyBytes);
+        IndexEntry entry = new IndexEntry(in.readLong(), in.readInt(), keyBytes.length, in.readLong());
+        index.put(new String(keyBytes, UTF_8), entry);
+        liveBytes += entry.recordSize();
+      }
+      checkpointedLength = coveredLength;
+      return coveredLength;
+    } catch (IOException e) {
+      LOGGER.warn(format("Could not read index checkpoint of partition %s, rebuilding it from the data log", partitionName));
+      return discardCheckpoint();
+    }
+  }
+
+  private long discardCheckpoint() {
+    index.clear();
+    liveBytes = 0;
+    checkpointedLength = 0;
+    return 0;
+  }
+
+  /**
+   * Applies the records found from the given position to the index.
+   *
+   * @return the position after the last complete record
+   */
+  private long replay(long position) throws IOException {
+    long size = dataLog.size();
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    while (position + RECORD_HEADER_SIZE <= size) {
+      header.clear();
+      readFully(dataLog, header, position);
+      int recordLength = header.getInt(0);
+      int keyLength = header.getInt(17);
+      if (recordLength < RECORD_HEADER_SIZE - 4 || keyLength < 0 || position + 4 + recordLength > size
+          || keyLength > recordLength - (RECORD_HEADER_SIZE - 4)) {
+        break;
+      }
+      ByteBuffer record = ByteBuffer.allocate(4 + recordLength);
+      readFully(dataLog, record, position);
+      CRC32 crc = new CRC32();
+      crc.update(record.array(), CHECKSUMMED_OFFSET, record.capacity() - CHECKSUMMED_OFFSET);
+      if ((int) crc.getValue() != record.getInt(4)) {
+        break;
+      }
+
+      String key = new String(record.array(), RECORD_HEADER_SIZE, keyLength, UTF_8);
+      IndexEntry previous = index.remove(key);
+      if (previous != null) {
+        liveBytes -= previous.recordSize();
+      }
+      if (record.get(8) == PUT) {
+        IndexEntry entry = new IndexEntry(position + RECORD_HEADER_SIZE + keyLength,
+                                          record.capacity() - RECORD_HEADER_SIZE - keyLength, keyLength, record.getLong(9));
+        index.put(key, entry);
+        liveBytes += entry.recordSize();
+      }
+      position += record.capacity();
+    }
+    return position;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException("Unexpected end of data log");
+      }
+    }
+  }
+
+  private void createOrRetrievePartitionDescriptorFile() throws IOException {
+    File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+    if (partitionDescriptorFile.exists()) {
+      this.partitionName = readFileToString(partitionDescriptorFile);
+      return;
+    }
+    try (FileWriter fileWriter = new FileWriter(partitionDescriptorFile.getAbsolutePath(), false)) {
+      fileWriter.write(partitionName);
+      fileWriter.flush();
+    }
+  }
+
+  /**
+   * A new log being written by a compaction, along with where the live entries were moved to.
+   */
+  private static final class CompactedLog {
+
+    private final File file;
+    private final FileChannel channel;
+    private final long sourceLength;
+    private final Map<IndexEntry, IndexEntry> movedEntries = new IdentityHashMap<>();
+    private long length;
+
+    private CompactedLog(File file, long sourceLength) throws IOException {
+      this.file = file;
+      this.sourceLength = sourceLength;
+      this.channel = FileChannel.open(file.toPath(), CREATE, WRITE);
+    }
+  }
+
+  /**
+   * Location and metadata of the value of a live key within the data log.
+   */
+  private static final class IndexEntry {
+
+    private final long valueOffset;
+    private final int valueLength;
+    private final int keyLength;
+    private final long timestamp;
+
+    private IndexEntry(long valueOffset, int valueLength, int keyLength, long timestamp) {
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.keyLength = keyLength;
+      this.timestamp = timestamp;
+    }
+
+    private long recordOffset() {
+      return valueOffset - keyLength - RECORD_HEADER_SIZE;
+    }
+
+    private int recordSize() {
+      return RECORD_HEADER_SIZE + keyLength + valueLength;
+    }
+
+    private IndexEntry movedTo(long recordOffset) {
+      return new IndexEntry(recordOffset + RECORD_HEADER_SIZE + keyLength, valueLength, keyLength, timestamp);
+    }
+  }
+}
@@ -33,6 +33,7 @@ import org.mule.runtime.api.store.ObjectStoreSettings;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.api.management.stats.RetryStatistics;
 import org.mule.runtime.core.internal.event.DefaultEventContext;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.util.MessagingExceptionResolver;
@@ -78,6 +79,7 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
   private ObjectStore<RedeliveryCounter> store;
   private ObjectStore<RedeliveryCounter> privateStore;
   private String idrId;
+  private final RetryStatistics retryStatistics = new RetryStatistics();
 
   /**
    * Holds information about the redelivery failures.
@@ -193,28 +195,33 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
     lock.lock();
     try {
 
+      // The counter can't be modified by others while the lock is held, so it is only retrieved once
       RedeliveryCounter counter = findCounter(messageId);
       if (exceptionSeen.isPresent()) {
-        throw new MessageRedeliveredException(messageId, counter.counter.get(), maxRedeliveryCount, exceptionSeen.get());
+        throw new MessageRedeliveredException(messageId, counter != null ? counter.counter.get() : 0, maxRedeliveryCount,
+                                              exceptionSeen.get());
       } else if (counter != null && counter.counter.get() > maxRedeliveryCount) {
+        retryStatistics.incrementExhausted();
         throw new MessageRedeliveredException(messageId, counter.errors, counter.counter.get(), maxRedeliveryCount);
       }
+      if (counter != null) {
+        retryStatistics.incrementRetries();
+      }
 
       try {
         CoreEvent returnEvent = processNext(CoreEvent
             .builder(DefaultEventContext.child((BaseEventContext) event.getContext(), empty()), event).build());
-        counter = findCounter(messageId);
         if (counter != null) {
           resetCounter(messageId);
         }
         return returnEvent;
       } catch (Exception ex) {
         if (ex instanceof MessagingException) {
-          incrementCounter(messageId, (MessagingException) ex);
+          incrementCounter(messageId, counter, (MessagingException) ex);
           throw ex;
         } else {
           MessagingException me = createMessagingException(event, ex, this);
-          incrementCounter(messageId, me);
+          incrementCounter(messageId, counter, me);
           throw ex;
         }
       }
@@ -231,8 +238,8 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
   }
 
   private void resetCounter(String messageId) throws ObjectStoreException {
+    // A missing counter is equivalent to a counter with no redeliveries
     store.remove(messageId);
-    store.store(messageId, new RedeliveryCounter());
   }
 
   public RedeliveryCounter findCounter(String messageId) throws ObjectStoreException {
@@ -243,8 +250,8 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
     return null;
   }
 
-  private RedeliveryCounter incrementCounter(String messageId, MessagingException ex) throws ObjectStoreException {
-    RedeliveryCounter counter = findCounter(messageId);
+  private RedeliveryCounter incrementCounter(String messageId, RedeliveryCounter counter, MessagingException ex)
+      throws ObjectStoreException {
     if (counter == null) {
       counter = new RedeliveryCounter();
     } else {
@@ -260,6 +267,13 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
     return (String) expressionManager.evaluate(idExpression, STRING, NULL_BINDING_CONTEXT, event).getValue();
   }
 
+  /**
+   * @return the statistics of the redeliveries handled by this policy.
+   */
+  public RetryStatistics getRetryStatistics() {
+    return retryStatistics;
+  }
+
   public boolean isUseSecureHash() {
     return useSecureHash;
   }
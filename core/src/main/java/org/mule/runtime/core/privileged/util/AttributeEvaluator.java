@@ -17,6 +17,8 @@ import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_
 
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 
@@ -38,6 +40,8 @@ public class AttributeEvaluator {
       asList(Object.class, InputStream.class, Iterator.class, Serializable.class);
 
   private String attributeValue;
+  private final AttributeType attributeType;
+  private final DataType expectedDataType;
   private ExtendedExpressionManager expressionManager;
   private Function<CoreEvent, TypedValue> expressionResolver;
 
@@ -61,10 +65,12 @@ public class AttributeEvaluator {
    */
   public AttributeEvaluator(String attributeValue, DataType expectedDataType) {
     this.attributeValue = sanitize(attributeValue);
+    this.attributeType = resolveAttributeType();
+    this.expectedDataType = expectedDataType;
 
-    switch (resolveAttributeType()) {
+    switch (attributeType) {
       case EXPRESSION:
-        if (!(expectedDataType == null || BLACK_LIST_TYPES.contains(expectedDataType.getType()))) {
+        if (isCoerced()) {
           expressionResolver =
               event -> expressionManager.evaluate(this.attributeValue, expectedDataType, NULL_BINDING_CONTEXT, event);
         } else {
@@ -84,6 +90,40 @@ public class AttributeEvaluator {
     return this;
   }
 
+  /**
+   * Initializes this evaluator compiling the expression or template in the attribute value, so that it is not parsed again each
+   * time it is resolved.
+   *
+   * @param expressionManager the expression manager to compile the attribute value with
+   * @return this evaluator
+   * @since 4.1
+   */
+  public AttributeEvaluator compile(final ExtendedExpressionManager expressionManager) {
+    initialize(expressionManager);
+
+    switch (attributeType) {
+      case EXPRESSION:
+        final CompiledExpression compiledExpression = expressionManager.compile(attributeValue);
+        if (isCoerced()) {
+          expressionResolver = event -> compiledExpression.evaluate(expectedDataType, event, null, NULL_BINDING_CONTEXT, false);
+        } else {
+          expressionResolver = event -> compiledExpression.evaluate(event, null, NULL_BINDING_CONTEXT);
+        }
+        break;
+      case PARSE_EXPRESSION:
+        final CompiledTemplate compiledTemplate = expressionManager.compileTemplate(attributeValue);
+        expressionResolver = event -> new TypedValue<>(compiledTemplate.evaluate(event, null, NULL_BINDING_CONTEXT), STRING);
+        break;
+      case STATIC_VALUE:
+        // Nothing to compile
+    }
+    return this;
+  }
+
+  private boolean isCoerced() {
+    return !(expectedDataType == null || BLACK_LIST_TYPES.contains(expectedDataType.getType()));
+  }
+
   private String sanitize(String attributeValue) {
     if (attributeValue != null) {
       attributeValue = attributeValue.trim().replaceAll("\r", "").replaceAll("\t", "");
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -144,6 +145,37 @@ public final class TemplateParser {
     return result;
   }
 
+  /**
+   * Splits a template into its literal parts and its place holders, in the order they appear, so that it can be resolved many
+   * times without matching it again.
+   *
+   * @param template the string containing the template place holders i.e. My name is ${name}
+   * @param literalMapper maps each literal part of the template
+   * @param tokenMapper maps the name of each place holder of the template
+   * @param <T> the type of the segments the template is split into
+   * @return the mapped segments of the template
+   */
+  public <T> List<T> tokenize(String template, Function<String, T> literalMapper, Function<String, T> tokenMapper) {
+    List<T> segments = new ArrayList<>();
+    Matcher m = pattern.matcher(template);
+    int literalStart = 0;
+
+    while (m.find()) {
+      if (m.start() > literalStart) {
+        segments.add(literalMapper.apply(template.substring(literalStart, m.start())));
+      }
+
+      String match = m.group();
+      segments.add(tokenMapper.apply(match.substring(pre, match.length() - post)));
+      literalStart = m.end();
+    }
+
+    if (literalStart < template.length()) {
+      segments.add(literalMapper.apply(template.substring(literalStart)));
+    }
+    return segments;
+  }
+
   private String replaceDollarSign(String valueString) {
     if (valueString.indexOf('$') != -1) {
       valueString = valueString.replace("$", "\\$");
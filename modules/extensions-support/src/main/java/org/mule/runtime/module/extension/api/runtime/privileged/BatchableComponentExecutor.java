@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.api.runtime.privileged;
+
+import org.mule.runtime.api.meta.model.ComponentModel;
+import org.mule.runtime.extension.api.runtime.operation.ComponentExecutor;
+import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
+
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * A {@link ComponentExecutor} which can execute many invocations of its component at once, for example through the bulk API
+ * of the system the component connects to.
+ * <p>
+ * When batching is enabled, concurrent executions of the component which use the same configuration are collected and passed
+ * together to {@link #execute(List)}. Each execution has gone through the interceptors of the component and has its own
+ * connection, if the component requires one, so implementations are free to use any of them.
+ * <p>
+ * Executions within a transaction are never batched, and are performed through {@link #execute(ExecutionContext)}.
+ *
+ * @param <M> the generic type of the executed {@link ComponentModel}
+ * @since 4.1
+ */
+public interface BatchableComponentExecutor<M extends ComponentModel> extends ComponentExecutor<M> {
+
+  /**
+   * Executes the component once for each of the given {@code executionContexts}.
+   * <p>
+   * If the returned {@link Publisher} fails, all the executions in the batch fail with the same error.
+   * <p>
+   * Batches are dispatched on IO threads, so implementations may block while performing them.
+   *
+   * @param executionContexts the contexts of the executions to perform, with at most {@link #getMaxBatchSize()} elements
+   * @return a {@link Publisher} of a {@link List} with the result of each execution, in the same order as the
+   *         {@code executionContexts}
+   */
+  Publisher<List<Object>> execute(List<ExecutionContext<M>> executionContexts);
+
+  /**
+   * @return the maximum number of executions to pass to {@link #execute(List)} at once
+   */
+  default int getMaxBatchSize() {
+    return 100;
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static java.lang.Integer.getInteger;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
@@ -15,6 +16,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext.from;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.connection.ConnectionProvider;
@@ -39,9 +41,17 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -56,6 +66,12 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * The cache holds up to {@link #MAX_CACHED_INSTANCES_PROPERTY} instances. When it is full, the least recently used instances
+ * are evicted, and are handed to the expiration monitor for disposal through {@link #getExpired()} once they have no in-flight
+ * operations and the {@link ExpirationPolicy} considers them expired. The cache statistics are logged on each expiration check
+ * when debug logging is enabled. Concurrent evaluations with the same result wait for a single instance to be created, while instances for
+ * different results are created in parallel.
  *
  * @since 4.0.0
  */
@@ -64,12 +80,28 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   private static final Logger LOGGER = getLogger(DynamicConfigurationProvider.class);
 
+  /**
+   * System property to set the maximum number of instances cached by each dynamic configuration. Defaults to
+   * {@link #DEFAULT_MAX_CACHED_INSTANCES}.
+   *
+   * @since 4.1
+   */
+  public static final String MAX_CACHED_INSTANCES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extension.dynamicConfig.maxInstances";
+
+  /**
+   * Default value for {@link #MAX_CACHED_INSTANCES_PROPERTY}.
+   *
+   * @since 4.1
+   */
+  public static final int DEFAULT_MAX_CACHED_INSTANCES = 10000;
+
   private final ConfigurationInstanceFactory configurationInstanceFactory;
   private final ResolverSet resolverSet;
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
+  private final Cache<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache;
+  private final Queue<ConfigurationInstance> evicted = new ConcurrentLinkedQueue<>();
   private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
   private final Lock cacheReadLock = cacheLock.readLock();
   private final Lock cacheWriteLock = cacheLock.writeLock();
@@ -97,6 +129,15 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     this.resolverSet = resolverSet;
     this.connectionProviderResolver = connectionProviderResolver;
     this.expirationPolicy = expirationPolicy;
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(getInteger(MAX_CACHED_INSTANCES_PROPERTY, DEFAULT_MAX_CACHED_INSTANCES))
+        .recordStats()
+        .<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance>removalListener(notification -> {
+          if (notification.wasEvicted()) {
+            evicted.add(notification.getValue());
+          }
+        })
+        .build();
   }
 
   /**
@@ -121,33 +162,21 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
                                                  CoreEvent event)
       throws Exception {
-    ConfigurationInstance configuration;
+    // the read lock only excludes the expiration sweep, so that an instance being handed out is not disposed meanwhile
     cacheReadLock.lock();
     try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
-        return configuration;
-      }
-    } finally {
-      cacheReadLock.unlock();
-    }
-
-    cacheWriteLock.lock();
-    try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult, event);
-        cache.put(resolverSetResult, configuration);
-      }
-
-      // accounting here for the same reasons as above
+      ConfigurationInstance configuration = cache.get(resolverSetResult, () -> createConfiguration(resolverSetResult, event));
+      // important to account between the boundaries of the lock to prevent race condition
       updateUsageStatistic(configuration);
       return configuration;
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw (Error) cause;
     } finally {
-      cacheWriteLock.unlock();
+      cacheReadLock.unlock();
     }
   }
 
@@ -215,19 +244,53 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     super.registerConfiguration(configuration);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Instances which were evicted from the cache are also returned, once they have no in-flight operations.
+   */
   @Override
   public List<ConfigurationInstance> getExpired() {
     cacheWriteLock.lock();
     try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(toImmutableList());
+      List<ConfigurationInstance> expired =
+          cache.asMap().entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
+            cache.asMap().remove(entry.getKey());
+            return entry.getValue();
+          }).collect(toImmutableList());
+
+      // an evicted instance may have just been handed out and not have its operation accounted as in-flight yet, so it is
+      // only disposed once it also expired
+      List<ConfigurationInstance> idleEvicted = evicted.stream().filter(this::isExpired).collect(toImmutableList());
+      evicted.removeAll(idleEvicted);
+
+      List<ConfigurationInstance> disposable =
+          ImmutableList.<ConfigurationInstance>builder().addAll(expired).addAll(idleEvicted).build();
+      disposable.forEach(this::unregisterConfiguration);
+      logCacheStats(disposable.size());
+      return disposable;
     } finally {
       cacheWriteLock.unlock();
     }
   }
 
+  /**
+   * @return the hit, miss and eviction counts of the cache of instances of this configuration
+   * @since 4.1
+   */
+  public CacheStats getCacheStats() {
+    return cache.stats();
+  }
+
+  private void logCacheStats(int disposed) {
+    if (LOGGER.isDebugEnabled()) {
+      CacheStats stats = getCacheStats();
+      LOGGER.debug("Dynamic configuration '{}': {} cached instances, {} evicted instances pending disposal, {} disposed "
+          + "instances, {} hits, {} misses, {} evictions", getName(), cache.size(), evicted.size(), disposed, stats.hitCount(),
+                   stats.missCount(), stats.evictionCount());
+    }
+  }
+
   private boolean isExpired(ConfigurationInstance configuration) {
     ConfigurationStats stats = configuration.getStatistics();
     return stats.getInflightOperations() == 0 && expirationPolicy.isExpired(stats.getLastUsedMillis(), MILLISECONDS);
@@ -60,6 +60,14 @@ public final class InterceptableOperationExecutorWrapper<M extends ComponentMode
     return delegate.execute(executionContext);
   }
 
+  /**
+   * @return the decorated {@link ComponentExecutor}
+   * @since 4.1
+   */
+  public ComponentExecutor<M> getDelegate() {
+    return delegate;
+  }
+
   /**
    * Performs dependency injection into the {@link #delegate} and the items in the {@link #interceptors} list.
    * <p>
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a given {@link Method} on a target object.
+ * <p>
+ * Exceptions thrown by the method are propagated as they would be by
+ * {@link org.springframework.util.ReflectionUtils#invokeMethod(Method, Object, Object...)}: runtime exceptions and errors are
+ * rethrown as they are and checked exceptions are wrapped in an {@link java.lang.reflect.UndeclaredThrowableException}.
+ *
+ * @since 4.1
+ * @see MethodInvokerFactory
+ */
+public interface MethodInvoker {
+
+  /**
+   * @param target the object to invoke the method on, or {@code null} if the method is static
+   * @param args the arguments of the method, already converted to its parameter types
+   * @return the value returned by the method, or {@code null} if it is {@code void}
+   */
+  Object invoke(Object target, Object[] args);
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.ReflectionUtils.handleInvocationTargetException;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
+import org.slf4j.Logger;
+
+/**
+ * Creates the {@link MethodInvoker} used to invoke the methods that implement extension components.
+ * <p>
+ * Whenever possible, the invoker calls the method through a class generated for the method's declaring class, which casts the
+ * target and arguments and calls the method directly, so no reflective dispatch or access checks are performed on each
+ * invocation. If that class can't be generated, for example because the class loader of the extension can't see the code
+ * generation library, or if the {@link #REFLECTIVE_INVOCATION_PROPERTY} system property is set, the method is invoked through
+ * reflection.
+ *
+ * @since 4.1
+ */
+public final class MethodInvokerFactory {
+
+  /**
+   * System property to always invoke the methods of extension components through reflection.
+   */
+  public static final String REFLECTIVE_INVOCATION_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extension.reflectiveInvocation";
+
+  private static final Logger LOGGER = getLogger(MethodInvokerFactory.class);
+
+  private MethodInvokerFactory() {}
+
+  /**
+   * @param method the method to invoke
+   * @return a {@link MethodInvoker} for the given {@code method}
+   */
+  public static MethodInvoker createInvoker(Method method) {
+    if (!getBoolean(REFLECTIVE_INVOCATION_PROPERTY)) {
+      try {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        return new GeneratedMethodInvoker(FastClass.create(declaringClass.getClassLoader(), declaringClass).getMethod(method));
+      } catch (Exception | LinkageError e) {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Could not generate an invoker for method " + method + ", it will be invoked through reflection.", e);
+        }
+      }
+    }
+    return createReflectiveInvoker(method);
+  }
+
+  /**
+   * @param method the method to invoke
+   * @return a {@link MethodInvoker} that invokes the given {@code method} through reflection
+   */
+  public static MethodInvoker createReflectiveInvoker(Method method) {
+    return (target, args) -> invokeMethod(method, target, args);
+  }
+
+  private static final class GeneratedMethodInvoker implements MethodInvoker {
+
+    private final FastMethod method;
+
+    private GeneratedMethodInvoker(FastMethod method) {
+      this.method = method;
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        handleInvocationTargetException(e);
+        // Unreachable, the exception is always rethrown
+        return null;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "GeneratedMethodInvoker[" + method.getJavaMethod() + "]";
+    }
+  }
+}
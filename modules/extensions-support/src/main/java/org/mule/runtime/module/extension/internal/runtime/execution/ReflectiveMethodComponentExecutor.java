@@ -12,8 +12,9 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerFactory.createInvoker;
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.springframework.util.ReflectionUtils.invokeMethod;
+
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
@@ -34,6 +35,9 @@ import org.slf4j.Logger;
 
 /**
  * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method}
+ * <p>
+ * The method is invoked through the {@link MethodInvoker} obtained from {@link MethodInvokerFactory} when this executor is
+ * created, which avoids reflective dispatch whenever possible.
  *
  * @param <M> the generic type of the associated {@link ComponentModel}
  * @since 4.0
@@ -55,6 +59,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private static final ArgumentResolverDelegate NO_ARGS_DELEGATE = new NoArgumentsResolverDelegate();
 
   private final Method method;
+  private final Class<?>[] parameterTypes;
+  private final MethodInvoker methodInvoker;
   private final Object componentInstance;
   private final ArgumentResolverDelegate argumentResolverDelegate;
   private final ClassLoader extensionClassLoader;
@@ -64,8 +70,10 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> parameterGroupModels, Method method,
                                            Object componentInstance) {
     this.method = method;
+    this.parameterTypes = method.getParameterTypes();
+    this.methodInvoker = createInvoker(method);
     this.componentInstance = componentInstance;
-    argumentResolverDelegate = isEmpty(method.getParameterTypes())
+    argumentResolverDelegate = isEmpty(parameterTypes)
         ? NO_ARGS_DELEGATE
         : new MethodArgumentResolverDelegate(parameterGroupModels, method);
     extensionClassLoader = method.getDeclaringClass().getClassLoader();
@@ -73,8 +81,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   public Object execute(ExecutionContext<M> executionContext) throws Exception {
     return withContextClassLoader(extensionClassLoader,
-                                  () -> invokeMethod(method, componentInstance,
-                                                     getParameterValues(executionContext, method.getParameterTypes())));
+                                  () -> methodInvoker.invoke(componentInstance,
+                                                             getParameterValues(executionContext, parameterTypes)));
   }
 
   private Object[] getParameterValues(ExecutionContext<M> executionContext, Class<?>[] parameterTypes) {
@@ -114,7 +122,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
     return ec -> withContextClassLoader(extensionClassLoader,
                                         () -> {
                                           final Object[] resolved =
-                                              getParameterValues(ec, method.getParameterTypes());
+                                              getParameterValues(ec, parameterTypes);
 
                                           final Map<String, Object> resolvedParams = new HashMap<>();
                                           for (int i = 0; i < method.getParameterCount(); ++i) {
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.operation;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.rx.Exceptions.wrapFatal;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+
+import org.mule.runtime.api.lifecycle.Startable;
+import org.mule.runtime.api.lifecycle.Stoppable;
+import org.mule.runtime.api.meta.model.ComponentModel;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
+import org.mule.runtime.module.extension.api.runtime.privileged.BatchableComponentExecutor;
+import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Collects the executions of a component through a {@link BatchableComponentExecutor}, and performs them in batches.
+ * <p>
+ * Executions with the same {@link ConfigurationInstance} are added to the same batch. A batch is dispatched when it reaches
+ * the {@link BatchableComponentExecutor#getMaxBatchSize() maximum size} of the executor, or when the configured window has
+ * elapsed since its first execution was added, whatever happens first. The result of each execution is then propagated to its
+ * own {@link Publisher}.
+ * <p>
+ * Batches are dispatched on an IO scheduler, as the bulk calls performed by batchable executors are usually blocking. An
+ * execution which is cancelled before its batch is dispatched is removed from it.
+ *
+ * @since 4.1
+ */
+final class ComponentExecutionBatcher<M extends ComponentModel> implements Startable, Stoppable {
+
+  private final BatchableComponentExecutor<M> executor;
+  private final long windowMillis;
+  private final ClassLoader extensionClassLoader;
+  private final SchedulerService schedulerService;
+  private final int maxBatchSize;
+
+  private final Map<ConfigurationInstance, Batch> openBatches = new HashMap<>();
+  private volatile Scheduler scheduler;
+
+  /**
+   * Creates a new instance
+   *
+   * @param executor             the {@link BatchableComponentExecutor} to perform the batches with
+   * @param windowMillis         the maximum time to wait for a batch to fill, in milliseconds
+   * @param extensionClassLoader the class loader of the extension which owns the component
+   * @param schedulerService     the {@link SchedulerService} to obtain the scheduler which dispatches the batches
+   */
+  ComponentExecutionBatcher(BatchableComponentExecutor<M> executor, long windowMillis, ClassLoader extensionClassLoader,
+                            SchedulerService schedulerService) {
+    this.executor = executor;
+    this.windowMillis = windowMillis;
+    this.extensionClassLoader = extensionClassLoader;
+    this.schedulerService = schedulerService;
+    this.maxBatchSize = max(1, executor.getMaxBatchSize());
+  }
+
+  /**
+   * Adds the execution with the given {@code context} to a batch
+   *
+   * @param context the {@link ExecutionContextAdapter} of the execution
+   * @return a {@link Publisher} of the result of the execution
+   */
+  Publisher<Object> execute(ExecutionContextAdapter<M> context) {
+    return Mono.create(sink -> {
+      add(context, sink);
+      sink.onCancel(() -> remove(context));
+    });
+  }
+
+  /**
+   * Removes the execution with the given {@code context} from its batch, if the batch hasn't been dispatched yet. In that case,
+   * the {@link Publisher} returned by {@link #execute(ExecutionContextAdapter)} fails with a {@link CancellationException},
+   * as the execution is never performed.
+   *
+   * @param context the {@link ExecutionContextAdapter} of the execution to cancel
+   */
+  void cancel(ExecutionContextAdapter<M> context) {
+    MonoSink<Object> sink = remove(context);
+    if (sink != null) {
+      sink.error(new CancellationException("Execution cancelled before its batch was dispatched"));
+    }
+  }
+
+  private MonoSink<Object> remove(ExecutionContextAdapter<M> context) {
+    final ConfigurationInstance config = context.getConfiguration().orElse(null);
+    synchronized (openBatches) {
+      Batch batch = openBatches.get(config);
+      if (batch == null) {
+        return null;
+      }
+
+      MonoSink<Object> sink = batch.remove(context);
+      if (batch.size() == 0) {
+        // its scheduled flush finds that it is no longer open
+        openBatches.remove(config);
+      }
+      return sink;
+    }
+  }
+
+  private void add(ExecutionContextAdapter<M> context, MonoSink<Object> sink) {
+    final ConfigurationInstance config = context.getConfiguration().orElse(null);
+    Batch newBatch = null;
+    Batch fullBatch = null;
+
+    synchronized (openBatches) {
+      Batch batch = openBatches.get(config);
+      if (batch == null) {
+        batch = new Batch(config);
+        openBatches.put(config, batch);
+        newBatch = batch;
+      }
+
+      batch.add(context, sink);
+      if (batch.size() >= maxBatchSize) {
+        openBatches.remove(config);
+        fullBatch = batch;
+      }
+    }
+
+    if (fullBatch != null) {
+      submit(fullBatch);
+    } else if (newBatch != null) {
+      scheduleFlush(newBatch);
+    }
+  }
+
+  private void scheduleFlush(Batch batch) {
+    final Scheduler scheduler = this.scheduler;
+    if (scheduler != null) {
+      try {
+        scheduler.schedule(() -> flush(batch), windowMillis, MILLISECONDS);
+        return;
+      } catch (RejectedExecutionException e) {
+        // the scheduler is being stopped, dispatch the batch right away
+      }
+    }
+    flush(batch);
+  }
+
+  private void submit(Batch batch) {
+    final Scheduler scheduler = this.scheduler;
+    if (scheduler != null) {
+      try {
+        scheduler.submit(() -> dispatch(batch));
+        return;
+      } catch (RejectedExecutionException e) {
+        // the scheduler is being stopped, dispatch the batch in the calling thread
+      }
+    }
+    dispatch(batch);
+  }
+
+  private void flush(Batch batch) {
+    synchronized (openBatches) {
+      if (openBatches.get(batch.config) != batch) {
+        // already dispatched because it got full
+        return;
+      }
+      openBatches.remove(batch.config);
+    }
+
+    dispatch(batch);
+  }
+
+  private void dispatch(Batch batch) {
+    Publisher<List<Object>> results;
+    try {
+      results = withContextClassLoader(extensionClassLoader, () -> executor.execute(batch.contexts));
+    } catch (Throwable t) {
+      batch.error(wrapFatal(t));
+      return;
+    }
+
+    Mono.from(results)
+        .defaultIfEmpty(emptyList())
+        .subscribe(batch::success, batch::error);
+  }
+
+  @Override
+  public void start() {
+    if (scheduler == null) {
+      scheduler = schedulerService.ioScheduler();
+    }
+  }
+
+  /**
+   * Dispatches the batches which are still open, and stops the scheduler.
+   */
+  @Override
+  public void stop() {
+    List<Batch> pending;
+    synchronized (openBatches) {
+      pending = new ArrayList<>(openBatches.values());
+      openBatches.clear();
+    }
+    pending.forEach(this::dispatch);
+
+    if (scheduler != null) {
+      try {
+        scheduler.stop();
+      } finally {
+        scheduler = null;
+      }
+    }
+  }
+
+  private final class Batch {
+
+    private final ConfigurationInstance config;
+    private final List<ExecutionContext<M>> contexts = new ArrayList<>();
+    private final List<MonoSink<Object>> sinks = new ArrayList<>();
+
+    private Batch(ConfigurationInstance config) {
+      this.config = config;
+    }
+
+    private void add(ExecutionContextAdapter<M> context, MonoSink<Object> sink) {
+      contexts.add(context);
+      sinks.add(sink);
+    }
+
+    private MonoSink<Object> remove(ExecutionContextAdapter<M> context) {
+      for (int i = 0; i < contexts.size(); ++i) {
+        if (contexts.get(i) == context) {
+          contexts.remove(i);
+          return sinks.remove(i);
+        }
+      }
+      return null;
+    }
+
+    private int size() {
+      return contexts.size();
+    }
+
+    private void success(List<Object> results) {
+      if (results.size() != sinks.size()) {
+        error(new IllegalStateException(format("Batch of %d executions returned %d results", sinks.size(), results.size())));
+        return;
+      }
+
+      for (int i = 0; i < sinks.size(); ++i) {
+        sinks.get(i).success(results.get(i));
+      }
+    }
+
+    private void error(Throwable t) {
+      sinks.forEach(sink -> sink.error(t));
+    }
+  }
+}
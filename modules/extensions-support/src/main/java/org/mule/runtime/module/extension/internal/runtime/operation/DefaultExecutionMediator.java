@@ -27,6 +27,7 @@ import org.mule.runtime.api.util.Reference;
 import org.mule.runtime.core.api.execution.ExecutionTemplate;
 import org.mule.runtime.core.api.retry.policy.NoRetryPolicyTemplate;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
+import org.mule.runtime.core.api.transaction.TransactionCoordination;
 import org.mule.runtime.core.api.util.func.CheckedBiFunction;
 import org.mule.runtime.core.internal.connection.ConnectionManagerAdapter;
 import org.mule.runtime.core.internal.connection.ConnectionProviderWrapper;
@@ -49,6 +50,8 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -69,6 +72,9 @@ import reactor.core.publisher.Mono;
  * available interceptors. If the operation fails with {@link ConnectionException}, then a retry might be attempted depending on
  * the configured {@link RetryPolicyTemplate}. Notice that if a retry is attempted, the entire cycle of interception (before,
  * onSuccess/onError, after) will be fired again.
+ * <p>
+ * If created with a {@link ComponentExecutionBatcher}, executions outside of a transaction are performed in batches through
+ * it, after the {@link Interceptor#before(ExecutionContext)} phase of each one.
  *
  * @since 4.0
  */
@@ -81,6 +87,7 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
   private final ExecutionTemplate<?> defaultExecutionTemplate = callback -> callback.process();
   private final ModuleExceptionHandler moduleExceptionHandler;
   private final List<ValueTransformer> valueTransformers;
+  private final ComponentExecutionBatcher<T> batcher;
 
   private final RetryPolicyTemplate fallbackRetryPolicyTemplate = new NoRetryPolicyTemplate();
 
@@ -95,6 +102,22 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
                                   ConnectionManagerAdapter connectionManager,
                                   ErrorTypeRepository typeRepository,
                                   ValueTransformer... valueTransformers) {
+    this(extensionModel, operationModel, connectionManager, typeRepository, (ComponentExecutionBatcher<T>) null,
+         valueTransformers);
+  }
+
+  /**
+   * Creates a new instance which performs the executions in batches through the given {@code batcher}
+   *
+   * @since 4.1
+   */
+  DefaultExecutionMediator(ExtensionModel extensionModel,
+                           T operationModel,
+                           ConnectionManagerAdapter connectionManager,
+                           ErrorTypeRepository typeRepository,
+                           ComponentExecutionBatcher<T> batcher,
+                           ValueTransformer... valueTransformers) {
+    this.batcher = batcher;
     this.connectionManager = connectionManager;
     this.exceptionEnricherManager = new ExceptionHandlerManager(extensionModel, operationModel);
     this.moduleExceptionHandler = new ModuleExceptionHandler(operationModel, extensionModel, typeRepository);
@@ -112,12 +135,12 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
    */
   @Override
   public Publisher<Object> execute(ComponentExecutor<T> executor, ExecutionContextAdapter<T> context) {
-    final Optional<MutableConfigurationStats> stats = getMutableConfigurationStats(context);
-    stats.ifPresent(s -> s.addInflightOperation());
+    final InflightOperation inflightOperation = new InflightOperation(getMutableConfigurationStats(context));
 
     try {
       return (Mono<Object>) getExecutionTemplate((ExecutionContextAdapter<ComponentModel>) context)
-          .execute(() -> executeWithInterceptors(executor, context, collectInterceptors(context, executor), stats));
+          .execute(() -> executeWithInterceptors(executor, context, collectInterceptors(context, executor),
+                                                 inflightOperation));
     } catch (Exception e) {
       return error(e);
     } catch (Throwable t) {
@@ -128,7 +151,7 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
   private Mono<Object> executeWithInterceptors(ComponentExecutor<T> executor,
                                                ExecutionContextAdapter<T> context,
                                                final List<Interceptor> interceptors,
-                                               Optional<MutableConfigurationStats> stats) {
+                                               InflightOperation inflightOperation) {
 
     List<Interceptor> executedInterceptors = new ArrayList<>(interceptors.size());
     // If the operation is retried, then the interceptors need to be executed again,
@@ -137,37 +160,52 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
     Mono<Object> publisher = Mono.create(sink -> {
       Mono<Object> result;
 
+      inflightOperation.attemptStarted();
       InterceptorsExecutionResult beforeExecutionResult = before(context, interceptors);
       if (beforeExecutionResult.isOk()) {
-        result = from(withContextClassLoader(getClassLoader(context.getExtensionModel()), () -> executor.execute(context)));
+        if (isBatched(context)) {
+          result = from(batcher.execute(context));
+          // An execution still waiting for its batch is never performed, so it is removed from it and finishes right away
+          sink.onCancel(() -> batcher.cancel(context));
+        } else {
+          result = from(withContextClassLoader(getClassLoader(context.getExtensionModel()), () -> executor.execute(context)));
+        }
         executedInterceptors.addAll(interceptors);
       } else {
         result = error(beforeExecutionResult.getThrowable());
         executedInterceptors.addAll(beforeExecutionResult.getExecutedInterceptors());
       }
 
+      // The execution is not disposed if the sink is cancelled, as when a fork-join router already has the results it
+      // requires. The operation can't be stopped and keeps using its resources (the connection, for example), so the after
+      // phase which releases them is performed only once it actually finishes, even if nobody is waiting for its result.
       result
           .map(value -> transform(context, value))
           .doOnSuccess(value -> {
             onSuccess(context, value, interceptors);
-            stats.ifPresent(s -> s.discountInflightOperation());
+            afterExecution(context, value, executedInterceptors);
+            inflightOperation.attemptFinished();
+            inflightOperation.discount();
             sink.success(value);
           }).onErrorMap(t -> mapError(context, interceptors, t))
           .subscribe(v -> {
-          }, sink::error);
-    })
-        .doOnSuccessOrError((value, e) -> {
-          try {
-            after(context, value, executedInterceptors);
-          } finally {
-            executedInterceptors.clear();
-          }
-        });
+          }, e -> {
+            afterExecution(context, null, executedInterceptors);
+            inflightOperation.attemptFinished();
+            sink.error(e);
+          });
+    });
 
     return from(getRetryPolicyTemplate(context).applyPolicy(publisher,
                                                             e -> extractConnectionException(e).isPresent(),
-                                                            e -> stats.ifPresent(s -> s.discountInflightOperation()),
-                                                            throwable -> throwable));
+                                                            e -> inflightOperation.discount(),
+                                                            throwable -> throwable))
+        .doOnCancel(inflightOperation::cancel);
+  }
+
+  private boolean isBatched(ExecutionContextAdapter<T> context) {
+    return batcher != null && !context.getTransactionConfig().isPresent()
+        && TransactionCoordination.getInstance().getTransaction() == null;
   }
 
   private Throwable mapError(ExecutionContextAdapter context, List<Interceptor> interceptors, Throwable e) {
@@ -223,6 +261,14 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
     return exceptionHolder.get();
   }
 
+  private void afterExecution(ExecutionContext context, Object result, List<Interceptor> executedInterceptors) {
+    try {
+      after(context, result, executedInterceptors);
+    } finally {
+      executedInterceptors.clear();
+    }
+  }
+
   void after(ExecutionContext executionContext, Object result, List<Interceptor> interceptors) {
     intercept(interceptors, interceptor -> interceptor.after(executionContext, result),
               interceptor -> format(
@@ -289,4 +335,46 @@ public final class DefaultExecutionMediator<T extends ComponentModel> implements
       accumulator.addAll(((Interceptable) subject).getInterceptors());
     }
   }
+
+  /**
+   * Keeps track of an execution in the {@link MutableConfigurationStats} of its configuration.
+   * <p>
+   * The execution is discounted once, whether it succeeds, its retries are exhausted or it is cancelled. A cancelled execution
+   * is discounted when its running attempt finishes, or right away if there's none.
+   */
+  private static final class InflightOperation {
+
+    private final Optional<MutableConfigurationStats> stats;
+    private final AtomicBoolean discounted = new AtomicBoolean(false);
+    private final AtomicInteger runningAttempts = new AtomicInteger(0);
+    private volatile boolean cancelled = false;
+
+    private InflightOperation(Optional<MutableConfigurationStats> stats) {
+      this.stats = stats;
+      stats.ifPresent(s -> s.addInflightOperation());
+    }
+
+    private void attemptStarted() {
+      runningAttempts.incrementAndGet();
+    }
+
+    private void attemptFinished() {
+      if (runningAttempts.decrementAndGet() == 0 && cancelled) {
+        discount();
+      }
+    }
+
+    private void cancel() {
+      cancelled = true;
+      if (runningAttempts.get() == 0) {
+        discount();
+      }
+    }
+
+    private void discount() {
+      if (discounted.compareAndSet(false, true)) {
+        stats.ifPresent(s -> s.discountInflightOperation());
+      }
+    }
+  }
 }
@@ -6,9 +6,13 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.operation;
 
+import static java.lang.Long.getLong;
 import static java.lang.String.format;
 import static org.mule.runtime.api.metadata.resolving.MetadataFailure.Builder.newFailure;
 import static org.mule.runtime.api.metadata.resolving.MetadataResult.failure;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE_ASYNC;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
@@ -16,6 +20,7 @@ import static org.mule.runtime.module.extension.internal.runtime.ExecutionTypeMa
 import static org.mule.runtime.module.extension.internal.util.MuleExtensionUtils.getClassLoader;
 
 import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.config.ConfigurationModel;
 import org.mule.runtime.api.meta.model.operation.OperationModel;
@@ -30,11 +35,17 @@ import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.api.streaming.CursorProviderFactory;
 import org.mule.runtime.core.internal.policy.PolicyManager;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationProvider;
+import org.mule.runtime.extension.api.runtime.operation.ComponentExecutor;
+import org.mule.runtime.module.extension.api.runtime.privileged.BatchableComponentExecutor;
 import org.mule.runtime.module.extension.internal.metadata.EntityMetadataMediator;
+import org.mule.runtime.module.extension.internal.runtime.execution.InterceptableOperationExecutorWrapper;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 
 /**
  * An implementation of a {@link ComponentMessageProcessor} for {@link OperationModel operation models}
+ * <p>
+ * When {@link #BATCH_WINDOW_PROPERTY} is set and the operation is executed by a {@link BatchableComponentExecutor}, concurrent
+ * executions of the operation are performed in batches.
  *
  * @since 3.7.0
  */
@@ -44,7 +55,16 @@ public class OperationMessageProcessor extends ComponentMessageProcessor<Operati
   static final String INVALID_TARGET_MESSAGE =
       "Root component '%s' defines an invalid usage of operation '%s' which uses %s as %s";
 
+  /**
+   * System property to set the maximum time, in milliseconds, that operations executed by a {@link BatchableComponentExecutor}
+   * wait for other executions to be performed in the same batch. Defaults to {@code 0}, which disables batching.
+   *
+   * @since 4.1
+   */
+  public static final String BATCH_WINDOW_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extension.operation.batchWindow";
+
   private final EntityMetadataMediator entityMetadataMediator;
+  private ComponentExecutionBatcher<OperationModel> batcher;
 
   public OperationMessageProcessor(ExtensionModel extensionModel,
                                    OperationModel operationModel,
@@ -100,6 +120,46 @@ public class OperationMessageProcessor extends ComponentMessageProcessor<Operati
     }
   }
 
+  @Override
+  protected ExecutionMediator createExecutionMediator() {
+    batcher = createBatcher();
+    if (batcher == null) {
+      return super.createExecutionMediator();
+    }
+
+    return new DefaultExecutionMediator<>(extensionModel, componentModel, connectionManager,
+                                          muleContext.getErrorTypeRepository(), batcher);
+  }
+
+  private ComponentExecutionBatcher<OperationModel> createBatcher() {
+    final long window = getLong(BATCH_WINDOW_PROPERTY, 0);
+    ComponentExecutor executor = componentExecutor instanceof InterceptableOperationExecutorWrapper
+        ? ((InterceptableOperationExecutorWrapper) componentExecutor).getDelegate()
+        : componentExecutor;
+
+    if (window <= 0 || !(executor instanceof BatchableComponentExecutor)) {
+      return null;
+    }
+
+    return new ComponentExecutionBatcher<>((BatchableComponentExecutor<OperationModel>) executor, window, classLoader,
+                                           muleContext.getSchedulerService());
+  }
+
+  @Override
+  public void doStart() throws MuleException {
+    super.doStart();
+    startIfNeeded(batcher);
+  }
+
+  @Override
+  public void doStop() throws MuleException {
+    try {
+      stopIfNeeded(batcher);
+    } finally {
+      super.doStop();
+    }
+  }
+
   @Override
   public ProcessingType getProcessingType() {
     ProcessingType processingType = asProcessingType(componentModel.getExecutionType());
@@ -6,9 +6,16 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.operation;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.Thread.currentThread;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.operation.OperationModel;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.extension.ExtensionManager;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.api.streaming.CursorProviderFactory;
 import org.mule.runtime.core.api.streaming.iterator.ConsumerStreamingIterator;
@@ -23,16 +30,33 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.streaming.PagingProviderProducer;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A specialization of {@link OperationMessageProcessor} which supports auto paging by the means of a
  * {@link ConsumerStreamingIterator}
+ * <p>
+ * When {@link #PAGE_PREFETCH_DEPTH_PROPERTY} is set, the following pages are fetched on an IO scheduler while the current one is
+ * consumed.
  *
  * @since 4.0
  */
 public class PagedOperationMessageProcessor extends OperationMessageProcessor {
 
+  /**
+   * System property to set how many pages paged operations fetch ahead of the consumer. Defaults to {@code 0}, which means
+   * that pages are fetched on demand.
+   *
+   * @since 4.1
+   */
+  public static final String PAGE_PREFETCH_DEPTH_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extension.paging.prefetchDepth";
+
   private final ExtensionConnectionSupplier connectionSupplier;
+  private final int prefetchDepth = getInteger(PAGE_PREFETCH_DEPTH_PROPERTY, 0);
+  private final LatencyHistogram pageLatency = new LatencyHistogram();
+  private final Object prefetchLock = new Object();
+  private Scheduler prefetchScheduler;
+  private int inflightPrefetches = 0;
 
   public PagedOperationMessageProcessor(ExtensionModel extensionModel,
                                         OperationModel operationModel,
@@ -58,7 +82,7 @@ public class PagedOperationMessageProcessor extends OperationMessageProcessor {
       Optional<ConfigurationInstance> config = operationContext.getConfiguration();
       Producer<?> producer =
           new PagingProviderProducer((PagingProvider) value, config.get(),
-                                     operationContext, connectionSupplier);
+                                     operationContext, connectionSupplier, prefetchDepth, this::prefetch, pageLatency);
 
       ListConsumer<?> consumer = new ListConsumer(producer);
       consumer.loadNextPage();
@@ -66,6 +90,101 @@ public class PagedOperationMessageProcessor extends OperationMessageProcessor {
     };
   }
 
+  /**
+   * Fetches a page ahead on the {@link #prefetchScheduler}, keeping track of it so that the scheduler is not stopped while the
+   * page is being fetched.
+   *
+   * @param fetch the fetching of the page
+   * @throws RejectedExecutionException if this processor is stopped
+   */
+  private void prefetch(Runnable fetch) {
+    Scheduler scheduler;
+    synchronized (prefetchLock) {
+      if (prefetchScheduler == null) {
+        throw new RejectedExecutionException("Paged operation is stopped");
+      }
+      scheduler = prefetchScheduler;
+      inflightPrefetches++;
+    }
+
+    try {
+      scheduler.execute(() -> {
+        try {
+          fetch.run();
+        } finally {
+          prefetchCompleted();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      prefetchCompleted();
+      throw e;
+    }
+  }
+
+  private void prefetchCompleted() {
+    synchronized (prefetchLock) {
+      inflightPrefetches--;
+      prefetchLock.notifyAll();
+    }
+  }
+
+  @Override
+  public void doStart() throws MuleException {
+    super.doStart();
+    if (prefetchDepth > 0) {
+      synchronized (prefetchLock) {
+        if (prefetchScheduler == null) {
+          prefetchScheduler = muleContext.getSchedulerService().ioScheduler();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void doStop() throws MuleException {
+    try {
+      super.doStop();
+    } finally {
+      stopPrefetchScheduler();
+    }
+  }
+
+  /**
+   * Rejects any further page to be fetched ahead, so the consumers fetch them on demand, and stops the scheduler once the
+   * pages being fetched are done, or the shutdown timeout elapses.
+   */
+  private void stopPrefetchScheduler() {
+    Scheduler scheduler;
+    synchronized (prefetchLock) {
+      scheduler = prefetchScheduler;
+      prefetchScheduler = null;
+      if (scheduler == null) {
+        return;
+      }
+
+      long deadline = currentTimeMillis() + muleContext.getConfiguration().getShutdownTimeout();
+      long remaining;
+      while (inflightPrefetches > 0 && (remaining = deadline - currentTimeMillis()) > 0) {
+        try {
+          prefetchLock.wait(remaining);
+        } catch (InterruptedException e) {
+          currentThread().interrupt();
+          break;
+        }
+      }
+    }
+
+    scheduler.stop();
+  }
+
+  /**
+   * @return the time taken to fetch each page of the results of this operation, in milliseconds
+   * @since 4.1
+   */
+  public LatencyHistogram getPageLatencyHistogram() {
+    return pageLatency;
+  }
+
   @Override
   protected ExecutionMediator createExecutionMediator() {
     return new DefaultExecutionMediator(extensionModel,
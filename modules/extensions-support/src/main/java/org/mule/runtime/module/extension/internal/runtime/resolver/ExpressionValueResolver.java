@@ -28,7 +28,7 @@ import javax.inject.Inject;
  * A {@link ValueResolver} which evaluates a MEL expressions
  * <p>
  * It resolves the expressions by making use of the {@link AttributeEvaluator} so that it's compatible with simple expressions and
- * templates alike
+ * templates alike. The expression is compiled once, when the evaluator is initialised.
  *
  * @param <T>
  * @since 4.0
@@ -44,7 +44,7 @@ public class ExpressionValueResolver<T> implements ExpressionBasedValueResolver<
       (evaluator, extendedExpressionManager) -> {
         synchronized (extendedExpressionManager) {
           if (!evaluatorInitialized) {
-            evaluator.initialize(extendedExpressionManager);
+            evaluator.compile(extendedExpressionManager);
             evaluatorInitialiser = (e, c) -> {
             };
             evaluatorInitialized = true;
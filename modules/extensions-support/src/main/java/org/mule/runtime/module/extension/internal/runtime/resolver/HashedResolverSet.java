@@ -22,7 +22,7 @@ public class HashedResolverSet extends ResolverSet {
   }
 
   @Override
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return HashedResolverSetResult.newBuilder();
+  ResolverSetResult createResult(ResolverSetLayout layout, Object[] values) {
+    return new HashedResolverSetResult(layout.asMap(values), layout.hashCode(values));
   }
 }
@@ -6,8 +6,7 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
-import static java.util.Collections.unmodifiableMap;
-
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -53,7 +52,7 @@ public class HashedResolverSetResult extends ResolverSetResult {
      */
     @Override
     public ResolverSetResult build() {
-      return new HashedResolverSetResult(unmodifiableMap(values), hashCode);
+      return new HashedResolverSetResult(new HashMap<>(values), hashCode);
     }
   }
 
@@ -61,8 +60,12 @@ public class HashedResolverSetResult extends ResolverSetResult {
     return new Builder();
   }
 
-  private HashedResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
-    super(evaluationResult);
+  /**
+   * @param evaluationResult the resolved values. They are not copied.
+   * @param hashCode         the hash code of the values, in the order they were resolved
+   */
+  HashedResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
+    super(evaluationResult, false);
     this.hashCode = hashCode;
   }
 
@@ -8,7 +8,6 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
-import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveValue;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.Initialisable;
@@ -39,6 +38,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   private Map<String, ValueResolver<?>> resolvers = new LinkedHashMap<>();
   private boolean dynamic = false;
   private final MuleContext muleContext;
+  private volatile ResolverSetLayout layout;
 
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
@@ -60,6 +60,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (resolvers.put(key, resolver) != null) {
       throw new IllegalStateException("A value was already given for key " + key);
     }
+    layout = null;
 
     if (!dynamic && resolver.isDynamic()) {
       dynamic = true;
@@ -95,6 +96,8 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
 
   /**
    * Evaluates all the added {@link ValueResolver}s and returns the results into a {@link ResolverSetResult}
+   * <p>
+   * The resolvers which always return the same constant are only evaluated once.
    *
    * @param context a not {@code null} {@link ValueResolvingContext}
    * @return a {@link ResolverSetResult}
@@ -102,13 +105,17 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
    */
   @Override
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
-    ResolverSetResult.Builder builder = getResolverSetBuilder();
+    ResolverSetLayout layout = getLayout();
+    return createResult(layout, layout.resolve(context));
+  }
 
-    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
-      builder.add(entry.getKey(), resolveValue(entry.getValue(), context));
+  private ResolverSetLayout getLayout() {
+    ResolverSetLayout layout = this.layout;
+    if (layout == null) {
+      layout = new ResolverSetLayout(resolvers);
+      this.layout = layout;
     }
-
-    return builder.build();
+    return layout;
   }
 
   /**
@@ -141,10 +148,11 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     } catch (MuleException e) {
       throw new MuleRuntimeException(e);
     }
+    getLayout();
   }
 
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return ResolverSetResult.newBuilder();
+  ResolverSetResult createResult(ResolverSetLayout layout, Object[] values) {
+    return new ResolverSetResult(layout.asMap(values), false);
   }
 
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.resolver;
+
+import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveValue;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.streaming.CursorProvider;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The resolvers of a {@link ResolverSet} compiled into index addressed arrays, so that resolving them doesn't iterate or hash
+ * the keys.
+ * <p>
+ * The values of the resolvers that always return the same constant are computed once when the layout is created, and copied
+ * into the values of each resolution. Only the remaining resolvers are evaluated on each resolution. The part of the
+ * {@link HashedResolverSetResult} hash code that comes from the constant values is precomputed too.
+ *
+ * @since 4.1
+ */
+final class ResolverSetLayout {
+
+  private final String[] keys;
+  private final Map<String, Integer> indexes;
+  private final ValueResolver<?>[] resolvers;
+  private final Object[] constantValues;
+  private final int[] dynamicIndexes;
+  private final int[] hashMultipliers;
+  private final int constantsHashCode;
+
+  ResolverSetLayout(Map<String, ValueResolver<?>> resolversByKey) {
+    final int size = resolversByKey.size();
+    keys = new String[size];
+    indexes = new HashMap<>();
+    resolvers = new ValueResolver[size];
+    constantValues = new Object[size];
+    hashMultipliers = new int[size];
+
+    int[] dynamic = new int[size];
+    int dynamicCount = 0;
+    int index = 0;
+    for (Map.Entry<String, ValueResolver<?>> entry : resolversByKey.entrySet()) {
+      keys[index] = entry.getKey();
+      indexes.put(entry.getKey(), index);
+      resolvers[index] = entry.getValue();
+
+      Object constantValue = getConstantValue(entry.getValue());
+      if (constantValue == entry.getValue()) {
+        dynamic[dynamicCount++] = index;
+      } else {
+        constantValues[index] = constantValue;
+      }
+      ++index;
+    }
+    dynamicIndexes = new int[dynamicCount];
+    System.arraycopy(dynamic, 0, dynamicIndexes, 0, dynamicCount);
+
+    // The hash code is the same as the one calculated by HashedResolverSetResult.Builder when adding the values in order:
+    // 31^size + the sum of 31^(size - 1 - i) * hash(value i)
+    int multiplier = 1;
+    for (int i = size - 1; i >= 0; --i) {
+      hashMultipliers[i] = multiplier;
+      multiplier *= 31;
+    }
+    int hashCode = multiplier;
+    for (int i = 0; i < size; ++i) {
+      if (!isDynamic(i)) {
+        hashCode += hashMultipliers[i] * valueHashCode(constantValues[i]);
+      }
+    }
+    constantsHashCode = hashCode;
+  }
+
+  /**
+   * @return the value that the given {@code resolver} always returns, or the {@code resolver} itself if it has to be evaluated
+   *         on each resolution.
+   */
+  private static Object getConstantValue(ValueResolver<?> resolver) {
+    if (!(resolver instanceof StaticValueResolver || resolver instanceof StaticLiteralValueResolver)) {
+      return resolver;
+    }
+
+    Object value;
+    try {
+      value = resolver.resolve(null);
+    } catch (MuleException e) {
+      return resolver;
+    }
+
+    // Nested resolvers and streams have to be resolved each time
+    if (value instanceof ValueResolver || value instanceof CursorProvider
+        || (value instanceof TypedValue && ((TypedValue) value).getValue() instanceof CursorProvider)) {
+      return resolver;
+    }
+    return value;
+  }
+
+  private boolean isDynamic(int index) {
+    for (int dynamicIndex : dynamicIndexes) {
+      if (dynamicIndex == index) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Evaluates the resolvers that are not constant.
+   *
+   * @param context the context of the resolution
+   * @return the values of each resolver, in the order they were added to the {@link ResolverSet}
+   * @throws MuleException if any resolver fails
+   */
+  Object[] resolve(ValueResolvingContext context) throws MuleException {
+    final Object[] values = constantValues.clone();
+    for (int index : dynamicIndexes) {
+      values[index] = resolveValue(resolvers[index], context);
+    }
+    return values;
+  }
+
+  /**
+   * @param values values returned by {@link #resolve(ValueResolvingContext)}
+   * @return the hash code of the values, as calculated by {@link HashedResolverSetResult.Builder}
+   */
+  int hashCode(Object[] values) {
+    int hashCode = constantsHashCode;
+    for (int index : dynamicIndexes) {
+      hashCode += hashMultipliers[index] * valueHashCode(values[index]);
+    }
+    return hashCode;
+  }
+
+  private static int valueHashCode(Object value) {
+    return value == null ? 0 : value.hashCode();
+  }
+
+  /**
+   * @param values values returned by {@link #resolve(ValueResolvingContext)}
+   * @return an immutable {@link Map} of the keys to the given {@code values}
+   */
+  Map<String, Object> asMap(Object[] values) {
+    return new ValuesMap(values);
+  }
+
+  /**
+   * Immutable {@link Map} backed by the values of a resolution, which shares the keys and their indexes with the layout.
+   */
+  private final class ValuesMap extends AbstractMap<String, Object> {
+
+    private final Object[] values;
+
+    private ValuesMap(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Object get(Object key) {
+      Integer index = indexes.get(key);
+      return index == null ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexes.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<Entry<String, Object>>() {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          return new Iterator<Entry<String, Object>>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+              return index < keys.length;
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+              ++index;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return keys.length;
+        }
+      };
+    }
+  }
+}
@@ -74,7 +74,15 @@ public class ResolverSetResult {
   private final Map<String, Object> evaluationResult;
 
   ResolverSetResult(Map<String, Object> evaluationResult) {
-    this.evaluationResult = new HashMap<>(evaluationResult);
+    this(evaluationResult, true);
+  }
+
+  /**
+   * @param evaluationResult the resolved values
+   * @param copy             whether to copy the given values. Immutable values don't need to be copied.
+   */
+  ResolverSetResult(Map<String, Object> evaluationResult, boolean copy) {
+    this.evaluationResult = copy ? new HashMap<>(evaluationResult) : evaluationResult;
   }
 
   /**
@@ -112,11 +120,8 @@ public class ResolverSetResult {
 
   @Override
   public int hashCode() {
-    int hashcode = 1;
-    for (Object val : evaluationResult.values()) {
-      hashcode = calculateValueHash(hashcode, val);
-    }
-    return hashcode;
+    // Independent of the iteration order, so that equal results have the same hash code regardless of how they were built
+    return evaluationResult.hashCode();
   }
 
   static int calculateValueHash(int hashcode, Object val) {
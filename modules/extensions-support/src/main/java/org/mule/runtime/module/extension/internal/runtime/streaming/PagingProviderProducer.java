@@ -7,11 +7,18 @@
 
 package org.mule.runtime.module.extension.internal.runtime.streaming;
 
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.commons.collections.CollectionUtils.isEmpty;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.util.LazyValue;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 import org.mule.runtime.core.api.streaming.iterator.Producer;
 import org.mule.runtime.core.api.transaction.Transaction;
 import org.mule.runtime.core.api.transaction.TransactionCoordination;
@@ -23,11 +30,22 @@ import org.mule.runtime.module.extension.internal.runtime.connectivity.Extension
 import org.mule.runtime.module.extension.internal.runtime.transaction.ExtensionTransactionKey;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 
 /**
  * Implementation of {@link Producer} that uses an instance of {@link PagingProvider} to get its results.
+ * <p>
+ * When created with a prefetch depth and an {@link Executor}, the following pages are fetched on that executor while the
+ * current one is consumed, up to the given number of pages ahead. Since each page depends on the previous one, pages are still
+ * fetched one at a time and in order, so sticky connections are never used concurrently. Prefetching is not done within a
+ * transaction, since its connection is bound to the consumer's thread.
  *
  * @param <T> the type of the elements returned by the {@link PagingProvider}.
  * @since 3.5.0
@@ -40,25 +58,148 @@ public final class PagingProviderProducer<T> implements Producer<List<T>> {
   private final ExtensionConnectionSupplier connectionSupplier;
   private final ExecutionContextAdapter executionContext;
   private final ConnectionSupplierFactory connectionSupplierFactory;
+  private final int prefetchDepth;
+  private final Executor prefetchExecutor;
+  private final LatencyHistogram pageLatency;
+
+  private final Deque<CompletableFuture<List<T>>> prefetchedPages = new ArrayDeque<>();
+  private CompletableFuture<List<T>> lastPrefetchedPage;
+  private boolean prefetching;
+  private volatile boolean closed = false;
 
   public PagingProviderProducer(PagingProvider<Object, T> delegate,
                                 ConfigurationInstance config,
                                 ExecutionContextAdapter executionContext,
                                 ExtensionConnectionSupplier connectionSupplier) {
+    this(delegate, config, executionContext, connectionSupplier, 0, null, null);
+  }
+
+  /**
+   * Creates a new instance which fetches pages ahead of the consumer
+   *
+   * @param delegate           the {@link PagingProvider} to get the pages from
+   * @param config             the config of the paged operation
+   * @param executionContext   the context of the paged operation
+   * @param connectionSupplier the supplier of the connections to get the pages with
+   * @param prefetchDepth      the maximum number of pages to fetch ahead of the consumer. {@code 0} disables prefetching.
+   * @param prefetchExecutor   the {@link Executor} in which pages are fetched ahead. {@code null} disables prefetching.
+   * @param pageLatency        a {@link LatencyHistogram} in which to record the time taken to fetch each page, in
+   *                           milliseconds. May be {@code null}.
+   * @since 4.1
+   */
+  public PagingProviderProducer(PagingProvider<Object, T> delegate,
+                                ConfigurationInstance config,
+                                ExecutionContextAdapter executionContext,
+                                ExtensionConnectionSupplier connectionSupplier,
+                                int prefetchDepth,
+                                Executor prefetchExecutor,
+                                LatencyHistogram pageLatency) {
     this.delegate = new PagingProviderWrapper(delegate);
     this.config = config;
     this.executionContext = executionContext;
     this.connectionSupplier = connectionSupplier;
+    this.prefetchDepth = prefetchDepth;
+    this.prefetchExecutor = prefetchExecutor;
+    this.pageLatency = pageLatency;
 
     this.connectionSupplierFactory = createConnectionSupplierFactory();
+    this.prefetching = prefetchDepth > 0 && prefetchExecutor != null && !isTransactional();
   }
 
   /**
-   * Asks the delegate for the next page
+   * Asks the delegate for the next page, or takes it from the prefetched ones
    */
   @Override
   public List<T> produce() {
-    return performWithConnection(connection -> delegate.getPage(connection));
+    if (prefetching || !prefetchedPages.isEmpty()) {
+      prefetch();
+      CompletableFuture<List<T>> page = prefetchedPages.poll();
+      if (page != null) {
+        List<T> result;
+        try {
+          result = awaitPage(page);
+        } catch (RejectedExecutionException e) {
+          // The executor was stopped before the page was fetched, fetch it and the remaining ones on demand
+          stopPrefetching();
+          return fetchPage();
+        }
+        if (isEmpty(result)) {
+          prefetching = false;
+        } else {
+          prefetch();
+        }
+        return result;
+      }
+    }
+
+    return fetchPage();
+  }
+
+  private List<T> fetchPage() {
+    if (closed) {
+      return null;
+    }
+
+    long startTime = nanoTime();
+    try {
+      return performWithConnection(connection -> delegate.getPage(connection));
+    } finally {
+      if (pageLatency != null) {
+        pageLatency.record(NANOSECONDS.toMillis(nanoTime() - startTime));
+      }
+    }
+  }
+
+  /**
+   * Schedules the fetching of the following pages, until there are {@link #prefetchDepth} pages pending to be consumed. Each
+   * page is fetched after the previous one, and no more pages are fetched once an empty one is obtained.
+   */
+  private void prefetch() {
+    final ClassLoader classLoader = currentThread().getContextClassLoader();
+    try {
+      while (prefetching && prefetchedPages.size() < prefetchDepth) {
+        CompletableFuture<List<T>> page = lastPrefetchedPage == null
+            ? supplyAsync(() -> withContextClassLoader(classLoader, this::fetchPage), prefetchExecutor)
+            : lastPrefetchedPage.thenApplyAsync(previous -> isEmpty(previous)
+                ? previous
+                : withContextClassLoader(classLoader, this::fetchPage), prefetchExecutor);
+
+        prefetchedPages.add(page);
+        lastPrefetchedPage = page;
+      }
+    } catch (RejectedExecutionException e) {
+      // The executor is shutting down, fetch the remaining pages on demand
+      prefetching = false;
+    }
+  }
+
+  /**
+   * Discards the pages scheduled to be fetched ahead. Must only be called once they are known not to have been fetched.
+   */
+  private void stopPrefetching() {
+    prefetching = false;
+    prefetchedPages.clear();
+    lastPrefetchedPage = null;
+  }
+
+  private List<T> awaitPage(CompletableFuture<List<T>> page) {
+    try {
+      return page.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new MuleRuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Waits for the pages being fetched ahead, so that the delegate is not used concurrently.
+   */
+  private void awaitPrefetchedPages() {
+    if (lastPrefetchedPage != null) {
+      lastPrefetchedPage.handle((page, e) -> null).join();
+    }
   }
 
   /**
@@ -66,6 +207,7 @@ public final class PagingProviderProducer<T> implements Producer<List<T>> {
    */
   @Override
   public int getSize() {
+    awaitPrefetchedPages();
     return performWithConnection(connection -> delegate.getTotalResults(connection)).orElse(-1);
   }
 
@@ -95,6 +237,8 @@ public final class PagingProviderProducer<T> implements Producer<List<T>> {
    */
   @Override
   public void close() throws IOException {
+    closed = true;
+    awaitPrefetchedPages();
     try {
       ConnectionSupplier connectionSupplier = connectionSupplierFactory.getConnectionSupplier();
       delegate.close(connectionSupplier.getConnection());
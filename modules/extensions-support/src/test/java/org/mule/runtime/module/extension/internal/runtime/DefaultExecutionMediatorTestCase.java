@@ -74,6 +74,7 @@ import java.util.function.Consumer;
 
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 
 @SmallTest
 @RunWith(MockitoJUnitRunner.class)
@@ -274,6 +275,40 @@ public class DefaultExecutionMediatorTestCase extends AbstractMuleContextTestCas
     });
   }
 
+  @Test
+  public void cancelledOperationReleasedWhenFinished() throws Throwable {
+    MonoProcessor<Object> operation = MonoProcessor.create();
+    when(operationExecutor.execute(operationContext)).thenReturn(operation);
+
+    execute().subscribe().dispose();
+
+    assertBefore();
+    assertAfter(never());
+    verify(configurationStats, never()).discountInflightOperation();
+
+    operation.onNext(result);
+
+    assertOnSuccess(times(1));
+    assertAfter(result);
+    assertStatistics();
+  }
+
+  @Test
+  public void cancelledOperationReleasedWhenFailed() throws Throwable {
+    MonoProcessor<Object> operation = MonoProcessor.create();
+    when(operationExecutor.execute(operationContext)).thenReturn(operation);
+
+    execute().subscribe().dispose();
+    assertAfter(never());
+
+    operation.onError(connectionException);
+
+    assertOnError(times(1));
+    assertAfter(null);
+    verify(operationExecutor).execute(operationContext);
+    assertStatistics();
+  }
+
   private void assertException(Consumer<Throwable> assertion) throws Throwable {
     try {
       execute().block();
@@ -316,6 +351,10 @@ public class DefaultExecutionMediatorTestCase extends AbstractMuleContextTestCas
     verifyInOrder(interceptor -> interceptor.after(operationContext, expected));
   }
 
+  private void assertAfter(VerificationMode verificationMode) {
+    verifyInOrder(interceptor -> interceptor.after(any(), any()), verificationMode);
+  }
+
   private void assertResult(Object result) {
     assertThat(result, is(sameInstance(this.result)));
   }
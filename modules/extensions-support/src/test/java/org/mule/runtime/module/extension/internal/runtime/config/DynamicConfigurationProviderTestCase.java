@@ -28,6 +28,7 @@ import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 import static org.mule.runtime.api.util.ExtensionModelTestUtils.visitableMock;
 import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
+import static org.mule.runtime.module.extension.internal.runtime.config.DynamicConfigurationProvider.MAX_CACHED_INSTANCES_PROPERTY;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext.from;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.mockClassLoaderModelProperty;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.mockConfigurationInstance;
@@ -40,6 +41,7 @@ import org.mule.runtime.api.meta.model.operation.OperationModel;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationProvider;
 import org.mule.runtime.core.internal.config.ImmutableExpirationPolicy;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ConnectionProviderResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
@@ -47,6 +49,7 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetRe
 import org.mule.tck.size.SmallTest;
 import org.mule.test.heisenberg.extension.HeisenbergExtension;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 
 import java.util.HashMap;
@@ -199,7 +202,48 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void evictedInstancesAreExpired() throws Exception {
+    System.setProperty(MAX_CACHED_INSTANCES_PROPERTY, "1");
+    DynamicConfigurationProvider boundedProvider;
+    try {
+      boundedProvider = new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel, resolverSet,
+                                                         connectionProviderResolver, expirationPolicy, muleContext);
+    } finally {
+      System.clearProperty(MAX_CACHED_INSTANCES_PROPERTY);
+    }
+    muleContext.getInjector().inject(boundedProvider);
+    boundedProvider.initialise();
+    boundedProvider.start();
+
+    try {
+      HeisenbergExtension instance1 = (HeisenbergExtension) boundedProvider.get(event).getValue();
+      HeisenbergExtension instance2 = makeAlternateInstance(boundedProvider);
+      assertThat(boundedProvider.get(event).getValue(), is(sameInstance(instance2)));
+
+      // the evicted instance was used recently, so it may still be in use
+      assertThat(boundedProvider.getExpired().isEmpty(), is(true));
+
+      timeSupplier.move(10, MINUTES);
+      List<Object> expired = boundedProvider.getExpired().stream().map(config -> config.getValue()).collect(toImmutableList());
+      assertThat(expired, containsInAnyOrder(instance1, instance2));
+      assertThat(boundedProvider.getExpired().isEmpty(), is(true));
+
+      CacheStats stats = boundedProvider.getCacheStats();
+      assertThat(stats.hitCount(), is(1L));
+      assertThat(stats.missCount(), is(2L));
+      assertThat(stats.evictionCount(), is(1L));
+    } finally {
+      boundedProvider.stop();
+      boundedProvider.dispose();
+    }
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
+    return makeAlternateInstance(provider);
+  }
+
+  private HeisenbergExtension makeAlternateInstance(ConfigurationProvider provider) throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
     mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
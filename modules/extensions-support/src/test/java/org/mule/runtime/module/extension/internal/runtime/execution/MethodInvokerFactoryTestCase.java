@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerFactory.REFLECTIVE_INVOCATION_PROPERTY;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerFactory.createInvoker;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerFactory.createReflectiveInvoker;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@SmallTest
+@RunWith(Parameterized.class)
+public class MethodInvokerFactoryTestCase extends AbstractMuleTestCase {
+
+  private static final RuntimeException RUNTIME_EXCEPTION = new RuntimeException();
+  private static final IOException CHECKED_EXCEPTION = new IOException();
+
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+        {"generated", (Function<Method, MethodInvoker>) MethodInvokerFactory::createInvoker},
+        {"reflective", (Function<Method, MethodInvoker>) MethodInvokerFactory::createReflectiveInvoker}
+    });
+  }
+
+  private final Function<Method, MethodInvoker> invokerFactory;
+  private final TestOperations operations = new TestOperations();
+
+  public MethodInvokerFactoryTestCase(String name, Function<Method, MethodInvoker> invokerFactory) {
+    this.invokerFactory = invokerFactory;
+  }
+
+  @Test
+  public void invokeWithPrimitiveArguments() throws Exception {
+    MethodInvoker invoker = invokerFactory.apply(TestOperations.class.getMethod("concat", String.class, int.class, char.class));
+    assertThat(invoker.invoke(operations, new Object[] {"a", 1, 'b'}), is("a1b"));
+  }
+
+  @Test
+  public void invokeVoid() throws Exception {
+    MethodInvoker invoker = invokerFactory.apply(TestOperations.class.getMethod("run"));
+    assertThat(invoker.invoke(operations, new Object[] {}), is(nullValue()));
+    assertThat(operations.runs, is(1));
+  }
+
+  @Test
+  public void invokeStatic() throws Exception {
+    MethodInvoker invoker = invokerFactory.apply(TestOperations.class.getMethod("twice", long.class));
+    assertThat(invoker.invoke(null, new Object[] {2L}), is(4L));
+  }
+
+  @Test
+  public void invokeOverridden() throws Exception {
+    MethodInvoker invoker = invokerFactory.apply(TestOperations.class.getMethod("run"));
+    TestOperations overriding = new TestOperations() {
+
+      @Override
+      public void run() {
+        runs += 10;
+      }
+    };
+    invoker.invoke(overriding, new Object[] {});
+    assertThat(overriding.runs, is(10));
+  }
+
+  @Test
+  public void runtimeExceptionPropagated() throws Exception {
+    MethodInvoker invoker = invokerFactory.apply(TestOperations.class.getMethod("fail"));
+    try {
+      invoker.invoke(operations, new Object[] {});
+      fail("was expecting an exception");
+    } catch (RuntimeException e) {
+      assertThat(e, is(sameInstance(RUNTIME_EXCEPTION)));
+    }
+  }
+
+  @Test
+  public void checkedExceptionWrapped() throws Exception {
+    MethodInvoker invoker = invokerFactory.apply(TestOperations.class.getMethod("failChecked"));
+    try {
+      invoker.invoke(operations, new Object[] {});
+      fail("was expecting an exception");
+    } catch (UndeclaredThrowableException e) {
+      assertThat(e.getUndeclaredThrowable(), is(sameInstance(CHECKED_EXCEPTION)));
+    }
+  }
+
+  @Test
+  public void reflectiveInvocationEnabled() throws Exception {
+    Method method = TestOperations.class.getMethod("run");
+    System.setProperty(REFLECTIVE_INVOCATION_PROPERTY, "true");
+    try {
+      assertThat(createInvoker(method), instanceOf(createReflectiveInvoker(method).getClass()));
+    } finally {
+      System.clearProperty(REFLECTIVE_INVOCATION_PROPERTY);
+    }
+  }
+
+  public static class TestOperations {
+
+    protected int runs = 0;
+
+    public String concat(String string, int number, char character) {
+      return string + number + character;
+    }
+
+    public void run() {
+      runs++;
+    }
+
+    public static long twice(long value) {
+      return value * 2;
+    }
+
+    public void fail() {
+      throw RUNTIME_EXCEPTION;
+    }
+
+    public void failChecked() throws IOException {
+      throw CHECKED_EXCEPTION;
+    }
+  }
+}
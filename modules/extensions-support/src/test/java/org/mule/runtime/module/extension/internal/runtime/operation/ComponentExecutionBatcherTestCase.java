@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.operation;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Optional.of;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.publisher.Mono.just;
+
+import org.mule.runtime.api.meta.model.operation.OperationModel;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
+import org.mule.runtime.module.extension.api.runtime.privileged.BatchableComponentExecutor;
+import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+@SmallTest
+public class ComponentExecutionBatcherTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_BATCH_SIZE = 3;
+
+  private final ConfigurationInstance config = mock(ConfigurationInstance.class);
+  private final TestBatchableExecutor executor = new TestBatchableExecutor();
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private ComponentExecutionBatcher<OperationModel> batcher;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+  }
+
+  @After
+  public void after() throws Exception {
+    if (batcher != null) {
+      batcher.stop();
+    }
+    schedulerService.stop();
+  }
+
+  @Test
+  public void dispatchFullBatch() throws Exception {
+    createBatcher(HOURS.toMillis(1));
+
+    List<ExecutionContextAdapter<OperationModel>> contexts = new ArrayList<>();
+    List<CompletableFuture<Object>> results = new ArrayList<>();
+    for (int i = 0; i < MAX_BATCH_SIZE; ++i) {
+      ExecutionContextAdapter<OperationModel> context = createContext(config);
+      contexts.add(context);
+      results.add(from(batcher.execute(context)).toFuture());
+    }
+
+    for (int i = 0; i < MAX_BATCH_SIZE; ++i) {
+      assertThat(results.get(i).get(5, SECONDS), is(sameInstance(contexts.get(i))));
+    }
+    assertThat(executor.batches, hasSize(1));
+    assertThat(executor.batches.get(0), contains(contexts.toArray()));
+    assertThat(executor.threads, not(hasItem(currentThread())));
+  }
+
+  @Test
+  public void dispatchBatchAfterWindow() throws Exception {
+    createBatcher(10);
+
+    ExecutionContextAdapter<OperationModel> context1 = createContext(config);
+    ExecutionContextAdapter<OperationModel> context2 = createContext(config);
+    CompletableFuture<Object> result1 = from(batcher.execute(context1)).toFuture();
+    CompletableFuture<Object> result2 = from(batcher.execute(context2)).toFuture();
+
+    assertThat(result1.get(5, SECONDS), is(sameInstance(context1)));
+    assertThat(result2.get(5, SECONDS), is(sameInstance(context2)));
+    assertThat(executor.batches, hasSize(1));
+  }
+
+  @Test
+  public void batchPerConfig() throws Exception {
+    createBatcher(10);
+
+    ExecutionContextAdapter<OperationModel> context1 = createContext(config);
+    ExecutionContextAdapter<OperationModel> context2 = createContext(mock(ConfigurationInstance.class));
+    from(batcher.execute(context1)).block(Duration.ofSeconds(5));
+    from(batcher.execute(context2)).block(Duration.ofSeconds(5));
+
+    assertThat(executor.batches, hasSize(2));
+  }
+
+  @Test
+  public void batchFailure() throws Exception {
+    createBatcher(HOURS.toMillis(1));
+    executor.failure = new IllegalArgumentException("bulk failed");
+
+    List<CompletableFuture<Object>> results = new ArrayList<>();
+    for (int i = 0; i < MAX_BATCH_SIZE; ++i) {
+      results.add(from(batcher.execute(createContext(config))).toFuture());
+    }
+
+    for (CompletableFuture<Object> result : results) {
+      try {
+        result.get(5, SECONDS);
+        fail("Execution should have failed");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(sameInstance(executor.failure)));
+      }
+    }
+  }
+
+  @Test
+  public void cancelledExecutionRemovedFromBatch() throws Exception {
+    createBatcher(HOURS.toMillis(1));
+
+    ExecutionContextAdapter<OperationModel> context1 = createContext(config);
+    ExecutionContextAdapter<OperationModel> cancelled = createContext(config);
+    CompletableFuture<Object> result1 = from(batcher.execute(context1)).toFuture();
+    from(batcher.execute(cancelled)).subscribe().dispose();
+
+    List<ExecutionContextAdapter<OperationModel>> contexts = new ArrayList<>();
+    contexts.add(context1);
+    List<CompletableFuture<Object>> results = new ArrayList<>();
+    results.add(result1);
+    for (int i = 1; i < MAX_BATCH_SIZE; ++i) {
+      ExecutionContextAdapter<OperationModel> context = createContext(config);
+      contexts.add(context);
+      results.add(from(batcher.execute(context)).toFuture());
+    }
+
+    for (int i = 0; i < MAX_BATCH_SIZE; ++i) {
+      assertThat(results.get(i).get(5, SECONDS), is(sameInstance(contexts.get(i))));
+    }
+    assertThat(executor.batches, hasSize(1));
+    assertThat(executor.batches.get(0), contains(contexts.toArray()));
+  }
+
+  @Test
+  public void cancelFailsPendingExecution() throws Exception {
+    createBatcher(HOURS.toMillis(1));
+
+    ExecutionContextAdapter<OperationModel> context = createContext(config);
+    CompletableFuture<Object> result = from(batcher.execute(context)).toFuture();
+    batcher.cancel(context);
+
+    try {
+      result.get(5, SECONDS);
+      fail("Execution should have been cancelled");
+    } catch (CancellationException e) {
+      // the execution never reached the executor
+    }
+
+    batcher.stop();
+    assertThat(executor.batches, hasSize(0));
+  }
+
+  @Test
+  public void stopDispatchesOpenBatches() throws Exception {
+    createBatcher(HOURS.toMillis(1));
+
+    ExecutionContextAdapter<OperationModel> context = createContext(config);
+    CompletableFuture<Object> result = from(batcher.execute(context)).toFuture();
+    batcher.stop();
+
+    assertThat(result.get(5, SECONDS), is(sameInstance(context)));
+  }
+
+  private void createBatcher(long windowMillis) {
+    batcher = new ComponentExecutionBatcher<>(executor, windowMillis, getClass().getClassLoader(), schedulerService);
+    batcher.start();
+  }
+
+  private ExecutionContextAdapter<OperationModel> createContext(ConfigurationInstance config) {
+    ExecutionContextAdapter<OperationModel> context = mock(ExecutionContextAdapter.class);
+    when(context.getConfiguration()).thenReturn(of(config));
+    return context;
+  }
+
+  private static class TestBatchableExecutor implements BatchableComponentExecutor<OperationModel> {
+
+    private final List<List<ExecutionContext<OperationModel>>> batches = new CopyOnWriteArrayList<>();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private Exception failure;
+
+    @Override
+    public Publisher<List<Object>> execute(List<ExecutionContext<OperationModel>> executionContexts) {
+      batches.add(new ArrayList<>(executionContexts));
+      threads.add(currentThread());
+      if (failure != null) {
+        return error(failure);
+      }
+
+      List<Object> results = new ArrayList<>(executionContexts);
+      return just(results);
+    }
+
+    @Override
+    public Publisher<Object> execute(ExecutionContext<OperationModel> executionContext) {
+      return error(new UnsupportedOperationException());
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+      return MAX_BATCH_SIZE;
+    }
+  }
+}
@@ -7,9 +7,14 @@
 package org.mule.runtime.module.extension.internal.runtime.operation;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonMap;
 import static java.util.Optional.of;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -18,8 +23,10 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doReturn;
@@ -39,6 +46,7 @@ import static org.mule.runtime.core.internal.interception.DefaultInterceptionEve
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.runtime.operation.Result.builder;
+import static org.mule.runtime.module.extension.internal.runtime.operation.OperationMessageProcessor.BATCH_WINDOW_PROPERTY;
 import static org.mule.runtime.module.extension.internal.runtime.operation.OperationMessageProcessor.INVALID_TARGET_MESSAGE;
 import static org.mule.tck.junit4.matcher.DataTypeMatcher.like;
 import static org.mule.tck.junit4.matcher.MetadataKeyMatcher.metadataKeyWithId;
@@ -73,13 +81,18 @@ import org.mule.runtime.core.internal.el.DefaultExpressionManager;
 import org.mule.runtime.core.internal.el.mvel.MVELExpressionLanguage;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.api.transaction.Transaction;
+import org.mule.runtime.core.api.transaction.TransactionCoordination;
 import org.mule.runtime.core.internal.policy.OperationExecutionFunction;
 import org.mule.runtime.extension.api.declaration.type.DefaultExtensionsTypeLoaderFactory;
 import org.mule.runtime.extension.api.model.ImmutableOutputModel;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
+import org.mule.runtime.extension.api.runtime.operation.Interceptor;
 import org.mule.runtime.extension.api.runtime.operation.Result;
+import org.mule.runtime.module.extension.api.runtime.privileged.BatchableComponentExecutor;
 import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
 import org.mule.runtime.module.extension.internal.runtime.ValueResolvingException;
+import org.mule.runtime.module.extension.internal.runtime.execution.InterceptableOperationExecutorWrapper;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext;
 import org.mule.tck.size.SmallTest;
@@ -89,9 +102,14 @@ import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.common.reflect.TypeToken;
@@ -101,6 +119,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.reactivestreams.Publisher;
 
 @SmallTest
 @RunWith(MockitoJUnitRunner.class)
@@ -467,6 +486,72 @@ public class OperationMessageProcessorTestCase extends AbstractOperationMessageP
     verify(streamingManager).manage(same(provider), any());
   }
 
+  @Test
+  public void executionsBatched() throws Exception {
+    TestBatchableExecutor batchableExecutor = new TestBatchableExecutor(3);
+    TestConnectionInterceptor interceptor = new TestConnectionInterceptor();
+    setUpBatchingOperationMessageProcessor(batchableExecutor, interceptor);
+
+    ExecutorService executor = newFixedThreadPool(3);
+    try {
+      List<Future<CoreEvent>> results = new ArrayList<>();
+      for (int i = 0; i < 3; ++i) {
+        results.add(executor.submit(() -> messageProcessor.process(event)));
+      }
+
+      Set<Object> payloads = new HashSet<>();
+      for (Future<CoreEvent> result : results) {
+        payloads.add(result.get(5, SECONDS).getMessage().getPayload().getValue());
+      }
+
+      assertThat(batchableExecutor.batches, hasSize(1));
+      assertThat(batchableExecutor.batches.get(0), hasSize(3));
+      assertThat(batchableExecutor.executions.get(), is(0));
+      // each execution went through the interceptors with its own connection, which was released afterwards
+      assertThat(interceptor.released, hasSize(3));
+      assertThat(payloads, equalTo(new HashSet<>(interceptor.released)));
+    } finally {
+      executor.shutdownNow();
+      messageProcessor.stop();
+    }
+  }
+
+  @Test
+  public void executionInTransactionNotBatched() throws Exception {
+    TestBatchableExecutor batchableExecutor = new TestBatchableExecutor(3);
+    TestConnectionInterceptor interceptor = new TestConnectionInterceptor();
+    setUpBatchingOperationMessageProcessor(batchableExecutor, interceptor);
+
+    Transaction transaction = mock(Transaction.class);
+    TransactionCoordination.getInstance().bindTransaction(transaction);
+    try {
+      CoreEvent result = messageProcessor.process(event);
+
+      assertThat(batchableExecutor.batches, hasSize(0));
+      assertThat(batchableExecutor.executions.get(), is(1));
+      assertThat(interceptor.released, hasSize(1));
+      assertThat(result.getMessage().getPayload().getValue(), is(sameInstance(interceptor.released.get(0))));
+    } finally {
+      TransactionCoordination.getInstance().unbindTransaction(transaction);
+      messageProcessor.stop();
+    }
+  }
+
+  private void setUpBatchingOperationMessageProcessor(BatchableComponentExecutor<OperationModel> batchableExecutor,
+                                                      Interceptor interceptor)
+      throws Exception {
+    when(operationExecutorFactory.createExecutor(same(operationModel), anyMap()))
+        .thenReturn(new InterceptableOperationExecutorWrapper<>(batchableExecutor, asList(interceptor)));
+
+    System.setProperty(BATCH_WINDOW_PROPERTY, String.valueOf(HOURS.toMillis(1)));
+    try {
+      messageProcessor = setUpOperationMessageProcessor();
+    } finally {
+      System.clearProperty(BATCH_WINDOW_PROPERTY);
+    }
+    messageProcessor.start();
+  }
+
   private void assertProcessingType(ExecutionType executionType, ProcessingType expectedProcessingType) {
     when(operationModel.getExecutionType()).thenReturn(executionType);
     assertThat(messageProcessor.getProcessingType(), is(expectedProcessingType));
@@ -493,4 +578,57 @@ public class OperationMessageProcessorTestCase extends AbstractOperationMessageP
     when(operationExecutor.execute(any(ExecutionContext.class)))
         .thenReturn(just(payload));
   }
+
+  private static final String CONNECTION_VARIABLE = "connection";
+
+  /**
+   * Sets a new connection on each execution, as the connection interceptor does
+   */
+  private static class TestConnectionInterceptor implements Interceptor<OperationModel> {
+
+    private final List<Object> released = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void before(ExecutionContext<OperationModel> executionContext) {
+      ((ExecutionContextAdapter) executionContext).setVariable(CONNECTION_VARIABLE, new Object());
+    }
+
+    @Override
+    public void after(ExecutionContext<OperationModel> executionContext, Object result) {
+      released.add(((ExecutionContextAdapter) executionContext).removeVariable(CONNECTION_VARIABLE));
+    }
+  }
+
+  /**
+   * Returns the connection of each execution as its result
+   */
+  private static class TestBatchableExecutor implements BatchableComponentExecutor<OperationModel> {
+
+    private final int maxBatchSize;
+    private final List<List<ExecutionContext<OperationModel>>> batches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private TestBatchableExecutor(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public Publisher<List<Object>> execute(List<ExecutionContext<OperationModel>> executionContexts) {
+      batches.add(new ArrayList<>(executionContexts));
+      return just(executionContexts.stream()
+          .map(context -> ((ExecutionContextAdapter) context).getVariable(CONNECTION_VARIABLE))
+          .collect(toList()));
+    }
+
+    @Override
+    public Publisher<Object> execute(ExecutionContext<OperationModel> executionContext) {
+      executions.incrementAndGet();
+      return just(((ExecutionContextAdapter) executionContext).getVariable(CONNECTION_VARIABLE));
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+  }
 }
@@ -9,6 +9,10 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.getParameter;
 import org.mule.runtime.api.lifecycle.Lifecycle;
@@ -100,6 +104,55 @@ public class ResolverSetTestCase extends AbstractMuleTestCase {
     assertThat(set.isDynamic(), is(true));
   }
 
+  @Test
+  public void resolveConstantsOnce() throws Exception {
+    ValueResolver<String> constant = spy(new StaticValueResolver<>(NAME));
+    set.add("constant", constant);
+
+    assertThat(set.resolve(resolvingContext).get("constant"), is(NAME));
+    assertThat(set.resolve(resolvingContext).get("constant"), is(NAME));
+    verify(constant, times(1)).resolve(any());
+  }
+
+  @Test
+  public void addAfterResolve() throws Exception {
+    set.resolve(resolvingContext);
+    set.add("constant", new StaticValueResolver<>(NAME));
+
+    ResolverSetResult result = set.resolve(resolvingContext);
+    assertResult(result, mapping);
+    assertThat(result.get("constant"), is(NAME));
+  }
+
+  @Test
+  public void hashedResultConsistentWithBuilder() throws Exception {
+    ResolverSet hashedSet = new HashedResolverSet(muleContext);
+    mapping.forEach((key, value) -> hashedSet.add(key.getName(), value));
+    hashedSet.add("constant", new StaticValueResolver<>(NAME));
+    hashedSet.add("null", new StaticValueResolver<>(null));
+
+    ResolverSetResult.Builder builder = HashedResolverSetResult.newBuilder()
+        .add("myName", NAME)
+        .add("age", AGE)
+        .add("constant", NAME)
+        .add("null", null);
+    ResolverSetResult expected = builder.build();
+
+    ResolverSetResult result = hashedSet.resolve(resolvingContext);
+    assertThat(result, is(expected));
+    assertThat(result.hashCode(), is(expected.hashCode()));
+    assertThat(result.asMap(), is(expected.asMap()));
+  }
+
+  @Test
+  public void resultConsistentWithBuilder() throws Exception {
+    ResolverSetResult expected = ResolverSetResult.newBuilder().add("myName", NAME).add("age", AGE).build();
+
+    ResolverSetResult result = set.resolve(resolvingContext);
+    assertThat(result, is(expected));
+    assertThat(result.hashCode(), is(expected.hashCode()));
+  }
+
   private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception {
     assertThat(result, is(notNullValue()));
     for (Map.Entry<ParameterModel, ValueResolver> entry : mapping.entrySet()) {
@@ -7,6 +7,9 @@
 package org.mule.runtime.module.extension.internal.runtime.streaming;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
@@ -21,6 +24,7 @@ import static org.mockito.Mockito.when;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
 import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
@@ -29,6 +33,11 @@ import org.mule.tck.size.SmallTest;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -97,6 +106,114 @@ public class PagingProviderProducerTestCase {
     verify(connectionHandler).release();
   }
 
+  @Test
+  public void prefetch() throws Exception {
+    List<String> page1 = asList("bleh");
+    List<String> page2 = asList("blah");
+    List<String> page3 = asList("bluh");
+    when(delegate.getPage(anyObject())).thenReturn(page1, page2, page3, emptyList());
+
+    ExecutorService executor = newSingleThreadExecutor();
+    LatencyHistogram pageLatency = new LatencyHistogram();
+    try {
+      producer = new PagingProviderProducer<>(delegate, config, executionContext, extensionConnectionSupplier, 2, executor,
+                                              pageLatency);
+
+      assertThat(producer.produce(), sameInstance(page1));
+      assertThat(producer.produce(), sameInstance(page2));
+      assertThat(producer.produce(), sameInstance(page3));
+      assertThat(producer.produce().isEmpty(), is(true));
+
+      producer.close();
+      verify(delegate, times(4)).getPage(any());
+      assertThat(pageLatency.getSnapshot().getCount(), is(4L));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void prefetchWhileConsumerIsBusy() throws Exception {
+    List<List<String>> pages = asList(asList("bleh"), asList("blah"), emptyList());
+    AtomicInteger fetchedPages = new AtomicInteger();
+    CountDownLatch secondPageFetched = new CountDownLatch(2);
+    when(delegate.getPage(anyObject())).thenAnswer(invocation -> {
+      List<String> page = pages.get(fetchedPages.getAndIncrement());
+      secondPageFetched.countDown();
+      return page;
+    });
+
+    ExecutorService executor = newSingleThreadExecutor();
+    try {
+      producer = new PagingProviderProducer<>(delegate, config, executionContext, extensionConnectionSupplier, 1, executor,
+                                              null);
+
+      assertThat(producer.produce(), sameInstance(pages.get(0)));
+      // the consumer is busy with the first page, the second one is fetched meanwhile
+      assertThat(secondPageFetched.await(5, SECONDS), is(true));
+      assertThat(producer.produce(), sameInstance(pages.get(1)));
+      assertThat(producer.produce().isEmpty(), is(true));
+
+      producer.close();
+      verify(delegate, times(3)).getPage(any());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void prefetchRejectedFetchesOnDemand() throws Exception {
+    List<String> page1 = asList("bleh");
+    List<String> page2 = asList("blah");
+    List<String> page3 = asList("bluh");
+    when(delegate.getPage(anyObject())).thenReturn(page1, page2, page3, emptyList());
+
+    AtomicInteger executions = new AtomicInteger();
+    Executor stoppingExecutor = task -> {
+      if (executions.getAndIncrement() > 0) {
+        throw new RejectedExecutionException();
+      }
+      new Thread(task).start();
+    };
+
+    producer = new PagingProviderProducer<>(delegate, config, executionContext, extensionConnectionSupplier, 2,
+                                            stoppingExecutor, null);
+
+    assertThat(producer.produce(), sameInstance(page1));
+    assertThat(producer.produce(), sameInstance(page2));
+    assertThat(producer.produce(), sameInstance(page3));
+    assertThat(producer.produce().isEmpty(), is(true));
+
+    producer.close();
+    verify(delegate, times(4)).getPage(any());
+  }
+
+  @Test
+  public void prefetchWithStickyConnection() throws Exception {
+    when(delegate.useStickyConnections()).thenReturn(true);
+    when(delegate.getPage(anyObject())).thenReturn(asList("bleh"), asList("blah"), emptyList());
+
+    ConnectionHandler connectionHandler = mock(ConnectionHandler.class);
+    when(extensionConnectionSupplier.getConnection(any())).thenReturn(connectionHandler);
+
+    ExecutorService executor = newSingleThreadExecutor();
+    try {
+      producer = new PagingProviderProducer<>(delegate, config, executionContext, extensionConnectionSupplier, 2, executor,
+                                              null);
+      producer.produce();
+      producer.produce();
+      assertThat(producer.produce().isEmpty(), is(true));
+
+      verify(connectionHandler, times(1)).getConnection();
+      verify(connectionHandler, never()).release();
+
+      producer.close();
+      verify(connectionHandler).release();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void totalAvailable() {
     final int total = 10;
@@ -30,6 +30,7 @@ import static org.mule.runtime.core.api.construct.Flow.INITIAL_STATE_STARTED;
 import static org.mule.runtime.core.api.context.notification.ListenerSubscriptionPair.ANY_SELECTOR_STRING;
 import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
 import static org.mule.runtime.core.api.transaction.MuleTransactionConfig.ACTION_INDIFFERENT_STRING;
+import static org.mule.runtime.core.internal.routing.forkjoin.CollectListHedgedForkJoinStrategyFactory.DEFAULT_INITIAL_HEDGE_DELAY;
 import static org.mule.runtime.dsl.api.component.AttributeDefinition.Builder.fromChildCollectionConfiguration;
 import static org.mule.runtime.dsl.api.component.AttributeDefinition.Builder.fromChildConfiguration;
 import static org.mule.runtime.dsl.api.component.AttributeDefinition.Builder.fromChildMapConfiguration;
@@ -53,6 +54,7 @@ import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_S
 import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE;
 import static org.mule.runtime.extension.api.ExtensionConstants.DYNAMIC_CONFIG_EXPIRATION_FREQUENCY;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.NON_REPEATABLE_BYTE_STREAM_ALIAS;
+import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_FILE_STORE_BYTES_STREAM_ALIAS;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.NON_REPEATABLE_OBJECTS_STREAM_ALIAS;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_IN_MEMORY_BYTES_STREAM_ALIAS;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_IN_MEMORY_OBJECTS_STREAM_ALIAS;
@@ -96,6 +98,7 @@ import org.mule.runtime.config.internal.factories.SchedulingMessageSourceFactory
 import org.mule.runtime.config.internal.factories.SubflowMessageProcessorChainFactoryBean;
 import org.mule.runtime.config.internal.factories.TryProcessorFactoryBean;
 import org.mule.runtime.config.internal.factories.streaming.InMemoryCursorIteratorProviderObjectFactory;
+import org.mule.runtime.config.internal.factories.streaming.FileStoreCursorStreamProviderObjectFactory;
 import org.mule.runtime.config.internal.factories.streaming.InMemoryCursorStreamProviderObjectFactory;
 import org.mule.runtime.config.internal.factories.streaming.NullCursorIteratorProviderObjectFactory;
 import org.mule.runtime.config.internal.factories.streaming.NullCursorStreamProviderObjectFactory;
@@ -154,13 +157,17 @@ import org.mule.runtime.core.internal.routing.IdempotentMessageValidator;
 import org.mule.runtime.core.internal.routing.MessageChunkAggregator;
 import org.mule.runtime.core.internal.routing.MessageChunkSplitter;
 import org.mule.runtime.core.internal.routing.MessageProcessorExpressionPair;
+import org.mule.runtime.core.internal.routing.ParallelForeach;
 import org.mule.runtime.core.internal.routing.Resequencer;
 import org.mule.runtime.core.internal.routing.RoundRobin;
 import org.mule.runtime.core.internal.routing.ScatterGatherRouter;
 import org.mule.runtime.core.internal.routing.SimpleCollectionAggregator;
 import org.mule.runtime.core.internal.routing.Splitter;
 import org.mule.runtime.core.internal.routing.UntilSuccessful;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectFirstSuccessfulForkJoinStrategyFactory;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListHedgedForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectQuorumForkJoinStrategyFactory;
 import org.mule.runtime.core.internal.routing.requestreply.SimpleAsyncRequestReplyRequester;
 import org.mule.runtime.core.internal.security.PasswordBasedEncryptionStrategy;
 import org.mule.runtime.core.internal.security.SecretKeyEncryptionStrategy;
@@ -242,11 +249,15 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
   private static final String SCATTER_GATHER = "scatter-gather";
   private static final String FORK_JOIN_STRATEGY = "forkJoinStrategyFactory";
   private static final String COLLECT_LIST = "collect-list";
+  private static final String COLLECT_FIRST_SUCCESSFUL = "collect-first-successful";
+  private static final String COLLECT_QUORUM = "collect-quorum";
+  private static final String COLLECT_LIST_HEDGED = "collect-list-hedged";
   private static final String ENRICHER = "enricher";
   private static final String ASYNC = "async";
   private static final String TRY = "try";
   private static final String UNTIL_SUCCESSFUL = "until-successful";
   private static final String FOREACH = "foreach";
+  private static final String PARALLEL_FOREACH = "parallel-foreach";
   private static final String FIRST_SUCCESSFUL = "first-successful";
   private static final String ROUND_ROBIN = "round-robin";
   private static final String CHOICE = "choice";
@@ -397,6 +408,19 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(COLLECT_LIST)
         .withTypeDefinition(fromType(CollectListForkJoinStrategyFactory.class))
         .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(COLLECT_FIRST_SUCCESSFUL)
+        .withTypeDefinition(fromType(CollectFirstSuccessfulForkJoinStrategyFactory.class))
+        .withConstructorParameterDefinition(fromSimpleParameter("count").withDefaultValue(1).build())
+        .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(COLLECT_QUORUM)
+        .withTypeDefinition(fromType(CollectQuorumForkJoinStrategyFactory.class))
+        .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(COLLECT_LIST_HEDGED)
+        .withTypeDefinition(fromType(CollectListHedgedForkJoinStrategyFactory.class))
+        .withConstructorParameterDefinition(fromSimpleParameter("initialHedgeDelay")
+            .withDefaultValue(DEFAULT_INITIAL_HEDGE_DELAY)
+            .build())
+        .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(SCATTER_GATHER)
         .withTypeDefinition(fromType(ScatterGatherRouter.class))
         .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").build())
@@ -441,6 +465,9 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
             .withSetterParameterDefinition("maxRetries", fromSimpleParameter("maxRetries").withDefaultValue(5).build())
             .withSetterParameterDefinition("millisBetweenRetries",
                                            fromSimpleParameter("millisBetweenRetries").withDefaultValue(60000).build())
+            .withSetterParameterDefinition("backoffMultiplier", fromSimpleParameter("backoffMultiplier").build())
+            .withSetterParameterDefinition("maxMillisBetweenRetries", fromSimpleParameter("maxMillisBetweenRetries").build())
+            .withSetterParameterDefinition("jitter", fromSimpleParameter("jitter").build())
             .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
             .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(FOREACH).withTypeDefinition(fromType(Foreach.class))
@@ -450,6 +477,19 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
         .withSetterParameterDefinition("counterVariableName", fromSimpleParameter("counterVariableName").build())
         .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
         .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(PARALLEL_FOREACH)
+        .withTypeDefinition(fromType(ParallelForeach.class))
+        .withSetterParameterDefinition("collectionExpression", fromSimpleParameter("collection").build())
+        .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").build())
+        .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+        .withSetterParameterDefinition("ordered", fromSimpleParameter("ordered").build())
+        .withSetterParameterDefinition("target", fromSimpleParameter("target").build())
+        .withSetterParameterDefinition("targetValue", fromSimpleParameter("targetValue")
+            .withDefaultValue("#[payload]")
+            .build())
+        .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
+        .withSetterParameterDefinition(FORK_JOIN_STRATEGY, fromChildConfiguration(ForkJoinStrategyFactory.class).build())
+        .asScope().build());
     componentBuildingDefinitions
         .add(baseDefinition.withIdentifier(FIRST_SUCCESSFUL).withTypeDefinition(fromType(FirstSuccessful.class))
             .withSetterParameterDefinition(MESSAGE_PROCESSORS,
@@ -1093,6 +1133,19 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
                                                 .withDefaultValue(DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT).build())
         .build());
 
+    buildingDefinitions.add(baseDefinition
+        .withIdentifier(REPEATABLE_FILE_STORE_BYTES_STREAM_ALIAS)
+        .withTypeDefinition(fromType(CursorStreamProviderFactory.class))
+        .withObjectFactoryType(FileStoreCursorStreamProviderObjectFactory.class)
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("inMemorySize")
+                                                .withDefaultValue(DEFAULT_BYTES_STREAMING_MAX_BUFFER_SIZE)
+                                                .build())
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("bufferUnit", value -> DataUnit.valueOf((String) value))
+                                                .withDefaultValue(DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT).build())
+        .build());
+
     buildingDefinitions.add(baseDefinition
         .withIdentifier(NON_REPEATABLE_BYTE_STREAM_ALIAS)
         .withTypeDefinition(fromType(CursorStreamProviderFactory.class))
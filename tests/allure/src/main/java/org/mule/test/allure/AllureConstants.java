@@ -260,6 +260,9 @@ public interface AllureConstants {
       String COLLECT_LIST = "Collect List";
       String COLLECT_MAP = "Collect Map";
       String JOIN_ONLY = "Join Only";
+      String COLLECT_FIRST_SUCCESSFUL = "Collect First Successful";
+      String COLLECT_QUORUM = "Collect Quorum";
+      String COLLECT_LIST_HEDGED = "Collect List Hedged";
     }
 
   }
@@ -356,6 +359,11 @@ public interface AllureConstants {
       String FOR_EACH = "Foreach";
     }
 
+    interface ParallelForeachStory {
+
+      String PARALLEL_FOR_EACH = "Parallel Foreach";
+    }
+
     interface ScatterGatherStory {
 
       String SCATTER_GATHER = "Scatter Gather";
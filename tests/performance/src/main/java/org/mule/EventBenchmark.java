@@ -37,6 +37,8 @@ public class EventBenchmark extends AbstractBenchmark {
   private Flow flow;
   private CoreEvent event;
   private CoreEvent eventWith10VariablesProperties;
+  private CoreEvent eventWith40Variables;
+  private String[] updatedVariableKeys;
   private CoreEvent eventWith50VariablesProperties;
   private CoreEvent eventWith100VariablesProperties;
 
@@ -51,6 +53,11 @@ public class EventBenchmark extends AbstractBenchmark {
         CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(messageBuilder.build());
     event = eventBuilder.build();
     eventWith10VariablesProperties = createMuleEventWithFlowVarsAndProperties(10);
+    eventWith40Variables = createMuleEvent(of(PAYLOAD), 40);
+    updatedVariableKeys = new String[30];
+    for (int i = 0; i < updatedVariableKeys.length; i++) {
+      updatedVariableKeys[i] = "FlOwVaRiAbLeKeY" + (i + 1);
+    }
     eventWith50VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
     eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
   }
@@ -124,6 +131,22 @@ public class EventBenchmark extends AbstractBenchmark {
     return CoreEvent.builder(eventWith100VariablesProperties).addVariable(KEY, VALUE).build();
   }
 
+  @Benchmark
+  public CoreEvent removeEventVariableEventWith50VariablesProperties() {
+    return CoreEvent.builder(eventWith50VariablesProperties).removeVariable("flowVariableKey25").build();
+  }
+
+  /**
+   * Simulates a flow with 30 processors, each one of them updating one of the 40 variables of the event.
+   */
+  @Benchmark
+  public CoreEvent updateVariableIn30ProcessorsEventWith40Variables() {
+    CoreEvent current = eventWith40Variables;
+    for (int i = 0; i < updatedVariableKeys.length; i++) {
+      current = CoreEvent.builder(current).addVariable(updatedVariableKeys[i], VALUE).build();
+    }
+    return current;
+  }
 
   @Benchmark
   public CoreEvent copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
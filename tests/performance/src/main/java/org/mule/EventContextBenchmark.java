@@ -6,11 +6,13 @@
  */
 package org.mule;
 
+import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
 import static org.mule.runtime.core.api.exception.NullExceptionHandler.getInstance;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.event.DefaultEventContext.child;
 import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
 import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
 import static reactor.core.publisher.Mono.from;
@@ -42,6 +44,8 @@ import org.openjdk.jmh.annotations.Warmup;
 @OutputTimeUnit(NANOSECONDS)
 public class EventContextBenchmark extends AbstractBenchmark {
 
+  private static final int CHILD_CONTEXTS = 16;
+
   private MuleContext muleContext;
   private Flow flow;
   private String id = UUID.getUUID();
@@ -101,4 +105,36 @@ public class EventContextBenchmark extends AbstractBenchmark {
     return new Object[] {result, complete};
   }
 
+  @Benchmark
+  public BaseEventContext createChildEventContext() {
+    return child((BaseEventContext) create(flow, CONNECTOR_LOCATION), empty());
+  }
+
+  @Benchmark
+  public Object[] createChildEventContextAndComplete() {
+    AtomicBoolean complete = new AtomicBoolean();
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    BaseEventContext childContext = child(eventContext, empty());
+    eventContext.onTerminated((response, throwable) -> complete.set(true));
+    childContext.success(event);
+    eventContext.success(event);
+    return new Object[] {childContext, complete};
+  }
+
+  @Benchmark
+  public Object[] createChildEventContextsAndCompleteAfterParent() {
+    AtomicBoolean complete = new AtomicBoolean();
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    BaseEventContext[] childContexts = new BaseEventContext[CHILD_CONTEXTS];
+    for (int i = 0; i < CHILD_CONTEXTS; ++i) {
+      childContexts[i] = child(eventContext, empty());
+    }
+    eventContext.onTerminated((response, throwable) -> complete.set(true));
+    eventContext.success(event);
+    for (BaseEventContext childContext : childContexts) {
+      childContext.success(event);
+    }
+    return new Object[] {childContexts, complete};
+  }
+
 }
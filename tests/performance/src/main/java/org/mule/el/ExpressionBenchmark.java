@@ -7,6 +7,7 @@
 package org.mule.el;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
@@ -17,6 +18,7 @@ import org.mule.runtime.api.event.EventContext;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -31,12 +33,16 @@ public class ExpressionBenchmark extends AbstractBenchmark {
   private MuleContext muleContext;
   private CoreEvent event;
   private EventContext context;
+  private CompiledExpression dwPayload;
+  private CompiledExpression dwFlowVars;
 
   @Setup
   public void setup() throws MuleException {
     muleContext = createMuleContextWithServices();
     context = create(createFlow(muleContext), CONNECTOR_LOCATION);
     event = CoreEvent.builder(context).message(of(PAYLOAD)).addVariable("foo", "bar").build();
+    dwPayload = muleContext.getExpressionManager().compile("payload");
+    dwFlowVars = muleContext.getExpressionManager().compile("vars.foo == 'bar'");
   }
 
   @TearDown
@@ -55,6 +61,11 @@ public class ExpressionBenchmark extends AbstractBenchmark {
     return muleContext.getExpressionManager().evaluate("payload", event).getValue();
   }
 
+  @Benchmark
+  public Object dwPayloadCompiled() {
+    return dwPayload.evaluate(event, CONNECTOR_LOCATION, NULL_BINDING_CONTEXT).getValue();
+  }
+
   @Benchmark
   public Object melFlowVars() {
     return muleContext.getExpressionManager().evaluate("mel:flowVars['foo']=='bar'", event).getValue();
@@ -65,6 +76,11 @@ public class ExpressionBenchmark extends AbstractBenchmark {
     return muleContext.getExpressionManager().evaluate("vars.foo == 'bar'", event).getValue();
   }
 
+  @Benchmark
+  public Object dwFlowVarsCompiled() {
+    return dwFlowVars.evaluate(event, CONNECTOR_LOCATION, NULL_BINDING_CONTEXT).getValue();
+  }
+
   @Benchmark
   public Object melGetLocale() {
     return muleContext.getExpressionManager().evaluate("mel:java.util.Locale.getDefault().getLanguage()", event).getValue();
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.el;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.CompiledTemplate;
+import org.mule.runtime.core.api.el.ExtendedExpressionManager;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+@OutputTimeUnit(NANOSECONDS)
+public class TemplateBenchmark extends AbstractBenchmark {
+
+  private static final String LOG_TEMPLATE = "Processing message #[payload] with foo #[vars.foo] in flow";
+  private static final String PARSE_TEMPLATE = "#['Processing message ' ++ payload ++ ' with foo ' ++ vars.foo]";
+
+  private MuleContext muleContext;
+  private ExtendedExpressionManager expressionManager;
+  private CoreEvent event;
+  private CompiledTemplate compiledLogTemplate;
+  private CompiledTemplate compiledParseTemplate;
+
+  @Setup
+  public void setup() throws MuleException {
+    muleContext = createMuleContextWithServices();
+    expressionManager = muleContext.getExpressionManager();
+    event = CoreEvent.builder(create(createFlow(muleContext), CONNECTOR_LOCATION)).message(of(PAYLOAD))
+        .addVariable("foo", "bar").build();
+    compiledLogTemplate = expressionManager.compileLogTemplate(LOG_TEMPLATE);
+    compiledParseTemplate = expressionManager.compileTemplate(PARSE_TEMPLATE);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public String parseLogTemplate() {
+    return expressionManager.parseLogTemplate(LOG_TEMPLATE, event, CONNECTOR_LOCATION, NULL_BINDING_CONTEXT);
+  }
+
+  @Benchmark
+  public String compiledLogTemplate() {
+    return compiledLogTemplate.evaluate(event, CONNECTOR_LOCATION, NULL_BINDING_CONTEXT);
+  }
+
+  @Benchmark
+  public String parseTemplate() {
+    return expressionManager.parse(PARSE_TEMPLATE, event, CONNECTOR_LOCATION);
+  }
+
+  @Benchmark
+  public String compiledParseTemplate() {
+    return compiledParseTemplate.evaluate(event, CONNECTOR_LOCATION, NULL_BINDING_CONTEXT);
+  }
+
+}
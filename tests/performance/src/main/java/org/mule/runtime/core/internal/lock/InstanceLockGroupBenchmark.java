@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import org.mule.AbstractBenchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures locking and unlocking ids of an {@link InstanceLockGroup}, either over a few ids that threads contend for or over
+ * many distinct ids, with fair and unfair locks.
+ */
+public class InstanceLockGroupBenchmark extends AbstractBenchmark {
+
+  @Param({"1", "10000"})
+  public int lockIds;
+
+  @Param({"true", "false"})
+  public boolean fair;
+
+  private InstanceLockGroup lockGroup;
+  private String[] keys;
+
+  @Setup
+  public void setup() {
+    lockGroup = new InstanceLockGroup(new SingleServerLockProvider(fair));
+    keys = new String[lockIds];
+    for (int i = 0; i < lockIds; ++i) {
+      keys[i] = KEY + i;
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    lockGroup.dispose();
+  }
+
+  @Benchmark
+  public String lockUnlock() {
+    String key = keys[ThreadLocalRandom.current().nextInt(lockIds)];
+    lockGroup.lock(key);
+    try {
+      return key;
+    } finally {
+      lockGroup.unlock(key);
+    }
+  }
+
+  @Benchmark
+  public boolean tryLockUnlock() {
+    String key = keys[ThreadLocalRandom.current().nextInt(lockIds)];
+    boolean locked = lockGroup.tryLock(key);
+    if (locked) {
+      lockGroup.unlock(key);
+    }
+    return locked;
+  }
+}
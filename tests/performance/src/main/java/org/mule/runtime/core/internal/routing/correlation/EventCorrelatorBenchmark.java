@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.correlation;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.message.GroupCorrelation;
+import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the time to complete an aggregation group through an {@link EventCorrelator}. Each invocation processes all the
+ * events of a new group, so running it with several threads shows the contention between threads working on different groups.
+ */
+public class EventCorrelatorBenchmark extends AbstractBenchmark {
+
+  private static final String STORE_PREFIX = "benchmark";
+
+  @Param({"2"})
+  public int groupSize;
+
+  private final AtomicLong groupIds = new AtomicLong();
+
+  private MuleContext muleContext;
+  private Flow flow;
+  private EventCorrelator eventCorrelator;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow, FlowConstruct.class);
+
+    ObjectStore<Long> processedGroups = muleContext.getObjectStoreManager()
+        .createObjectStore(STORE_PREFIX + ".processedGroups", ObjectStoreSettings.builder()
+            .persistent(false)
+            .maxEntries(10000)
+            .expirationInterval(1000L)
+            .build());
+
+    eventCorrelator = new EventCorrelator(new CollectionCorrelatorCallback(muleContext, STORE_PREFIX), null, muleContext, flow,
+                                          new PartitionedInMemoryObjectStore(), STORE_PREFIX, processedGroups);
+    eventCorrelator.setTimeout(MINUTES.toMillis(1));
+    eventCorrelator.start();
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    eventCorrelator.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public CoreEvent completeGroup() throws Exception {
+    String groupId = "group-" + groupIds.incrementAndGet();
+    CoreEvent aggregated = null;
+    for (int i = 1; i <= groupSize; ++i) {
+      CoreEvent event = CoreEvent.builder(create(flow, CONNECTOR_LOCATION, groupId))
+          .message(of(PAYLOAD))
+          .groupCorrelation(Optional.of(GroupCorrelation.of(i, groupSize)))
+          .build();
+      aggregated = eventCorrelator.process(event);
+    }
+    return aggregated;
+  }
+}
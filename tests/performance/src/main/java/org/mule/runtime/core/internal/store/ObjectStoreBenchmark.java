@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.util.func.CheckedRunnable;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
+import org.mule.runtime.core.internal.util.store.ObjectStorePartition;
+import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the basic operations of the in memory and persistent object store implementations.
+ * <p/>
+ * {@link #storeRetrieveAndRemove()} goes through the whole life of an entry. {@link #storeAndExpire()} keeps the store at
+ * {@link #MAX_ENTRIES} entries, so each invocation stores an entry and evicts the oldest one.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class ObjectStoreBenchmark extends AbstractBenchmark {
+
+  private static final String PARTITION_NAME = "benchmark";
+  private static final int MAX_ENTRIES = 1000;
+
+  @Param({"inMemory", "persistent", "logStructured"})
+  public String store;
+
+  private MuleContext muleContext;
+  private File storeDirectory;
+  private ObjectStore<String> objectStore;
+  private CheckedRunnable expire;
+  private final AtomicLong keys = new AtomicLong();
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    storeDirectory = Files.createTempDirectory("object-store-benchmark").toFile();
+
+    switch (store) {
+      case "inMemory":
+        PartitionedInMemoryObjectStore<String> inMemoryStore = new PartitionedInMemoryObjectStore<>();
+        inMemoryStore.open(PARTITION_NAME);
+        objectStore = new ObjectStorePartition<>(PARTITION_NAME, inMemoryStore);
+        expire = () -> inMemoryStore.expire(UNBOUNDED, MAX_ENTRIES, PARTITION_NAME);
+        break;
+      case "persistent":
+        PersistentObjectStorePartition<String> persistentPartition =
+            new PersistentObjectStorePartition<>(muleContext, PARTITION_NAME, storeDirectory);
+        persistentPartition.open();
+        objectStore = persistentPartition;
+        expire = () -> persistentPartition.expire(UNBOUNDED, MAX_ENTRIES);
+        break;
+      case "logStructured":
+        LogStructuredObjectStorePartition<String> logStructuredPartition =
+            new LogStructuredObjectStorePartition<>(muleContext, PARTITION_NAME, storeDirectory);
+        logStructuredPartition.open();
+        objectStore = logStructuredPartition;
+        expire = () -> logStructuredPartition.expire(UNBOUNDED, MAX_ENTRIES);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown object store " + store);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    objectStore.close();
+    deleteQuietly(storeDirectory);
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public String storeRetrieveAndRemove() throws ObjectStoreException {
+    String key = KEY + keys.incrementAndGet();
+    objectStore.store(key, VALUE);
+    objectStore.retrieve(key);
+    return objectStore.remove(key);
+  }
+
+  @Benchmark
+  public String storeAndExpire() throws Exception {
+    String key = KEY + keys.incrementAndGet();
+    objectStore.store(key, VALUE);
+    expire.run();
+    return key;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+
+import java.nio.ByteBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the allocate/deallocate round trip of the {@link ByteBufferManager} implementations. Run it with several threads to
+ * see the contention on each of them.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@OutputTimeUnit(NANOSECONDS)
+public class ByteBufferManagerBenchmark extends AbstractBenchmark {
+
+  @Param({"pooling", "sizeClassed", "sizeClassedDirect"})
+  public String manager;
+
+  @Param({"8192"})
+  public int capacity;
+
+  private ByteBufferManager bufferManager;
+
+  @Setup
+  public void setup() {
+    switch (manager) {
+      case "pooling":
+        bufferManager = new PoolingByteBufferManager();
+        break;
+      case "sizeClassed":
+        bufferManager = new SizeClassedByteBufferManager(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, false);
+        break;
+      case "sizeClassedDirect":
+        bufferManager = new SizeClassedByteBufferManager(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, true);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown buffer manager " + manager);
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    ((Disposable) bufferManager).dispose();
+  }
+
+  @Benchmark
+  public Object allocateAndDeallocate() {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    buffer.put((byte) 1);
+    bufferManager.deallocate(buffer);
+    return buffer;
+  }
+}
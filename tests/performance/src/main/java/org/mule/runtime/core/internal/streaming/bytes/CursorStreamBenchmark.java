@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading a stream through {@link BufferedCursorStream cursors} over each of the repeatable stream buffers.
+ * <p/>
+ * {@link #bufferAndRead()} buffers a new stream on each invocation and consumes it with {@link #cursors} cursors reading in
+ * turns. {@link #readBufferedStream()} reads a stream that has already been buffered, run it with several threads to see how
+ * concurrent cursors on the same provider contend.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class CursorStreamBenchmark extends AbstractBenchmark {
+
+  private static final int BUFFER_SIZE = 256 * 1024;
+  private static final int READ_SIZE = 8 * 1024;
+
+  @Param({"inMemory", "chunked", "fileStore"})
+  public String buffer;
+
+  @Param({"1", "4", "16"})
+  public int cursors;
+
+  @Param({"1048576"})
+  public int dataSize;
+
+  private byte[] data;
+  private PoolingByteBufferManager bufferManager;
+  private CursorStreamProvider bufferedProvider;
+
+  @Setup
+  public void setup() throws IOException {
+    data = new byte[dataSize];
+    new Random(dataSize).nextBytes(data);
+    bufferManager = new PoolingByteBufferManager();
+
+    bufferedProvider = createProvider();
+    try (CursorStream cursor = bufferedProvider.openCursor()) {
+      consume(cursor, new byte[READ_SIZE]);
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    bufferedProvider.releaseResources();
+    bufferManager.dispose();
+  }
+
+  @Benchmark
+  public long bufferAndRead() throws IOException {
+    CursorStreamProvider provider = createProvider();
+    CursorStream[] openCursors = new CursorStream[cursors];
+    try {
+      for (int i = 0; i < cursors; ++i) {
+        openCursors[i] = provider.openCursor();
+      }
+
+      byte[] readBuffer = new byte[READ_SIZE];
+      long total = 0;
+      int finished = 0;
+      while (finished < cursors) {
+        finished = 0;
+        for (CursorStream cursor : openCursors) {
+          int read = cursor.read(readBuffer, 0, READ_SIZE);
+          if (read == -1) {
+            finished++;
+          } else {
+            total += read;
+          }
+        }
+      }
+      return total;
+    } finally {
+      for (CursorStream cursor : openCursors) {
+        if (cursor != null) {
+          cursor.close();
+        }
+      }
+      provider.releaseResources();
+    }
+  }
+
+  @Benchmark
+  public long readBufferedStream() throws IOException {
+    try (CursorStream cursor = bufferedProvider.openCursor()) {
+      return consume(cursor, new byte[READ_SIZE]);
+    }
+  }
+
+  private long consume(CursorStream cursor, byte[] readBuffer) throws IOException {
+    long total = 0;
+    int read;
+    while ((read = cursor.read(readBuffer, 0, readBuffer.length)) != -1) {
+      total += read;
+    }
+    return total;
+  }
+
+  private CursorStreamProvider createProvider() {
+    ByteArrayInputStream stream = new ByteArrayInputStream(data);
+    switch (buffer) {
+      case "inMemory":
+        return new InMemoryCursorStreamProvider(stream, inMemoryConfig(), bufferManager, false);
+      case "chunked":
+        return new InMemoryCursorStreamProvider(stream, inMemoryConfig(), bufferManager, true);
+      case "fileStore":
+        return new FileStoreCursorStreamProvider(stream, new FileStoreCursorStreamConfig(new DataSize(BUFFER_SIZE, BYTE)),
+                                                 bufferManager);
+      default:
+        throw new IllegalArgumentException("Unknown buffer " + buffer);
+    }
+  }
+
+  private InMemoryCursorStreamConfig inMemoryConfig() {
+    return new InMemoryCursorStreamConfig(new DataSize(BUFFER_SIZE, BYTE),
+                                          new DataSize(BUFFER_SIZE, BYTE),
+                                          new DataSize(0, BYTE));
+  }
+}
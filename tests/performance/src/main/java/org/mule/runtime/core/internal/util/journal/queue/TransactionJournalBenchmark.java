@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal.queue;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.SYNC_INTERVAL_PROPERTY;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.SYNC_POLICY_PROPERTY;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
+import org.mule.runtime.core.internal.util.queue.DefaultQueueStore;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time for a complete transaction (one add plus its commit) on the local queue transaction journal. Run it with 1,
+ * 8 and 64 threads to see how the group commit writer amortizes writes and forces across concurrent committers.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@OutputTimeUnit(MICROSECONDS)
+public class TransactionJournalBenchmark extends AbstractBenchmark {
+
+  @Param({"NONE", "BATCH", "INTERVAL"})
+  public String syncPolicy;
+
+  private MuleContext muleContext;
+  private File logDirectory;
+  private LocalTxQueueTransactionJournal journal;
+  private DefaultQueueStore queue;
+  private final AtomicInteger txIds = new AtomicInteger();
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    logDirectory = Files.createTempDirectory("journal-benchmark").toFile();
+    System.setProperty(SYNC_POLICY_PROPERTY, syncPolicy);
+    System.setProperty(SYNC_INTERVAL_PROPERTY, "1");
+    try {
+      journal = new LocalTxQueueTransactionJournal(logDirectory.getAbsolutePath(), muleContext);
+    } finally {
+      System.clearProperty(SYNC_POLICY_PROPERTY);
+      System.clearProperty(SYNC_INTERVAL_PROPERTY);
+    }
+    queue = new DefaultQueueStore("benchmarkQueue", muleContext, new DefaultQueueConfiguration());
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    journal.close();
+    deleteQuietly(logDirectory);
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public Object addAndCommit() {
+    Integer txId = txIds.incrementAndGet();
+    journal.logAdd(txId, queue, PAYLOAD);
+    journal.logCommit(txId);
+    return txId;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.util.queue.PersistentQueueStoreType.DUAL_FILE;
+import static org.mule.runtime.core.api.util.queue.PersistentQueueStoreType.SEGMENTED_LOG;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
+import org.mule.runtime.core.api.util.queue.Queue;
+import org.mule.runtime.core.api.util.queue.QueueConfiguration;
+import org.mule.runtime.core.api.util.queue.QueueSession;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Files;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures offering and polling an item through a {@link TransactionalQueueManager} queue, without transaction and within a
+ * local transaction, for transient queues and each persistent queue store. Each thread uses its own {@link QueueSession} on
+ * the same queue.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class QueueManagerBenchmark extends AbstractBenchmark {
+
+  private static final String QUEUE_NAME = "benchmarkQueue";
+  private static final long TIMEOUT = 1000;
+
+  @Param({"transient", "dualFile", "segmentedLog"})
+  public String queueType;
+
+  private MuleContext muleContext;
+  private File workingDirectory;
+  private TransactionalQueueManager queueManager;
+
+  @Setup
+  public void setup() throws Exception {
+    workingDirectory = Files.createTempDirectory("queue-manager-benchmark").toFile();
+    System.setProperty(SYSTEM_PROPERTY_PREFIX + "workingDirectory", workingDirectory.getAbsolutePath());
+    try {
+      muleContext = createMuleContextWithServices();
+    } finally {
+      System.clearProperty(SYSTEM_PROPERTY_PREFIX + "workingDirectory");
+    }
+    muleContext.start();
+
+    queueManager = new TransactionalQueueManager();
+    queueManager.setMuleContext(muleContext);
+    queueManager.initialise();
+    queueManager.setDefaultQueueConfiguration(createQueueConfiguration());
+    queueManager.start();
+  }
+
+  private QueueConfiguration createQueueConfiguration() {
+    switch (queueType) {
+      case "transient":
+        return new DefaultQueueConfiguration(0, false);
+      case "dualFile":
+        return new DefaultQueueConfiguration(0, true, DUAL_FILE);
+      case "segmentedLog":
+        return new DefaultQueueConfiguration(0, true, SEGMENTED_LOG);
+      default:
+        throw new IllegalArgumentException("Unknown queue type " + queueType);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    queueManager.stop();
+    queueManager.dispose();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+    deleteQuietly(workingDirectory);
+  }
+
+  @Benchmark
+  public Serializable offerAndPoll(SessionState state) throws Exception {
+    state.queue.offer(PAYLOAD, TIMEOUT);
+    return state.queue.poll(TIMEOUT);
+  }
+
+  @Benchmark
+  public Serializable offerAndPollTransacted(SessionState state) throws Exception {
+    state.session.begin();
+    state.queue.offer(PAYLOAD, TIMEOUT);
+    state.session.commit();
+
+    state.session.begin();
+    Serializable item = state.queue.poll(TIMEOUT);
+    state.session.commit();
+    return item;
+  }
+
+  @State(Thread)
+  public static class SessionState {
+
+    private QueueSession session;
+    private Queue queue;
+
+    @Setup
+    public void setup(QueueManagerBenchmark benchmark) {
+      session = benchmark.queueManager.getQueueSession();
+      queue = session.getQueue(QUEUE_NAME);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerFactory.createInvoker;
+import static org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerFactory.createReflectiveInvoker;
+
+import org.mule.AbstractBenchmark;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the dispatch of an operation method with a {@link MethodInvoker}, either through reflection or through a generated
+ * class.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class MethodInvokerBenchmark extends AbstractBenchmark {
+
+  @Param({"true", "false"})
+  public boolean reflective;
+
+  private final Operations operations = new Operations();
+  private MethodInvoker invoker;
+
+  @Setup
+  public void setup() throws Exception {
+    Method method = Operations.class.getMethod("operation", String.class, int.class, boolean.class);
+    invoker = reflective ? createReflectiveInvoker(method) : createInvoker(method);
+  }
+
+  @Benchmark
+  public Object invokeOperation() {
+    return invoker.invoke(operations, new Object[] {KEY, 1, true});
+  }
+
+  public static class Operations {
+
+    public String operation(String key, int index, boolean enabled) {
+      return enabled ? key : null;
+    }
+  }
+}
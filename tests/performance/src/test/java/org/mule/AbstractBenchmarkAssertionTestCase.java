@@ -9,6 +9,7 @@ package org.mule;
 import static java.lang.System.getProperty;
 import static java.lang.Boolean.getBoolean;
 import static java.util.Collections.EMPTY_MAP;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -67,6 +68,20 @@ public abstract class AbstractBenchmarkAssertionTestCase extends AbstractMuleTes
     runAndAssertBenchmark(clazz, testName, 1, EMPTY_MAP, expectedResult, timeUnit, expectedAllocation);
   }
 
+  /**
+   * Run a JMH benchmark and assert that the allocation per benchmark iteration is less than or equal to an expected value,
+   * regardless of the time it takes.
+   *
+   * @param clazz the JMS benchmark class.
+   * @param testName the name of the test method.
+   * @param expectedAllocation the expected maximum allocation in bytes per benchmark iteration.
+   */
+  protected void runAndAssertBenchmarkAllocation(Class clazz, String testName, final double expectedAllocation) {
+    runAndAssertBenchmark(clazz, testName, 1, EMPTY_MAP, NANOSECONDS, true,
+                          runResult -> assertThat(runResult.getSecondaryResults().get(NORM_ALLOCATION_RESULT_KEY).getScore(),
+                                                  lessThanOrEqualTo(expectedAllocation)));
+  }
+
   /**
    * Run a JMH benchmark and assert that the primary result is less than or equal to an expected value.
    *
@@ -75,6 +75,16 @@ public class EventBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionT
     runAndAssertBenchmark(EventBenchmark.class, "addEventVariableEventWith100VariablesProperties", 25, MICROSECONDS, 21200);
   }
 
+  @Test
+  public void removeEventVariableEventWith50VariablesProperties() {
+    runAndAssertBenchmarkAllocation(EventBenchmark.class, "removeEventVariableEventWith50VariablesProperties", 1000);
+  }
+
+  @Test
+  public void updateVariableIn30ProcessorsEventWith40Variables() {
+    runAndAssertBenchmarkAllocation(EventBenchmark.class, "updateVariableIn30ProcessorsEventWith40Variables", 30000);
+  }
+
   @Test
   public void copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
     runAndAssertBenchmark(EventBenchmark.class, "copyWith10FlowVarsAnd10PropertiesWrite1OfEach", 15, MICROSECONDS, 13700);
@@ -28,4 +28,9 @@ public class ExpressionBenchmarkAssertionTestCase extends AbstractBenchmarkAsser
     runAndAssertBenchmark(ExpressionBenchmark.class, "dwPayload", 5000, NANOSECONDS, 7000);
   }
 
+  @Test
+  public void evaluateCompiledPayloadDW() {
+    runAndAssertBenchmark(ExpressionBenchmark.class, "dwPayloadCompiled", 5000, NANOSECONDS, 7000);
+  }
+
 }
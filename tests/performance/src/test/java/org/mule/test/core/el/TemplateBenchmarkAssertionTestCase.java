@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.el;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.el.TemplateBenchmark;
+
+import org.junit.Test;
+
+public class TemplateBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void compiledLogTemplate() {
+    runAndAssertBenchmark(TemplateBenchmark.class, "compiledLogTemplate", 12000, NANOSECONDS);
+  }
+
+  @Test
+  public void compiledParseTemplate() {
+    runAndAssertBenchmark(TemplateBenchmark.class, "compiledParseTemplate", 8000, NANOSECONDS);
+  }
+
+}
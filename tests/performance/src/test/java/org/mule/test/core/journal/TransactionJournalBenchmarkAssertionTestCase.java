@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.journal;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.util.journal.queue.TransactionJournalBenchmark;
+
+import org.junit.Test;
+
+public class TransactionJournalBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void noSyncSingleCommitter() {
+    assertAddAndCommit("NONE", 1, 50);
+  }
+
+  @Test
+  public void noSyncEightCommitters() {
+    assertAddAndCommit("NONE", 8, 200);
+  }
+
+  @Test
+  public void noSyncSixtyFourCommitters() {
+    assertAddAndCommit("NONE", 64, 1500);
+  }
+
+  @Test
+  public void batchSyncSingleCommitter() {
+    assertAddAndCommit("BATCH", 1, 5000);
+  }
+
+  @Test
+  public void batchSyncEightCommitters() {
+    assertAddAndCommit("BATCH", 8, 6000);
+  }
+
+  @Test
+  public void batchSyncSixtyFourCommitters() {
+    assertAddAndCommit("BATCH", 64, 10000);
+  }
+
+  @Test
+  public void intervalSyncSixtyFourCommitters() {
+    assertAddAndCommit("INTERVAL", 64, 5000);
+  }
+
+  private void assertAddAndCommit(String syncPolicy, int committers, double expectedMicros) {
+    runAndAssertBenchmark(TransactionJournalBenchmark.class, "addAndCommit", committers,
+                          singletonMap("syncPolicy", new String[] {syncPolicy}), MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedMicros)));
+  }
+}
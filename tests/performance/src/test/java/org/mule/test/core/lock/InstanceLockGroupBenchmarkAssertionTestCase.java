@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.lock;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.lock.InstanceLockGroupBenchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class InstanceLockGroupBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void lockUnlock() {
+    assertBenchmark("lockUnlock", "10000", "false", 1, 200);
+  }
+
+  @Test
+  public void lockUnlockDistinctIdsSixteenThreads() {
+    assertBenchmark("lockUnlock", "10000", "false", 16, 1000);
+  }
+
+  @Test
+  public void lockUnlockSameIdSixteenThreadsUnfair() {
+    assertBenchmark("lockUnlock", "1", "false", 16, 5000);
+  }
+
+  @Test
+  public void tryLockUnlockDistinctIdsSixteenThreads() {
+    assertBenchmark("tryLockUnlock", "10000", "false", 16, 1000);
+  }
+
+  private void assertBenchmark(String benchmark, String lockIds, String fair, int threads, double expectedNanos) {
+    Map<String, String[]> params = new HashMap<>();
+    params.put("lockIds", new String[] {lockIds});
+    params.put("fair", new String[] {fair});
+    runAndAssertBenchmark(InstanceLockGroupBenchmark.class, benchmark, threads, params, NANOSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(), lessThanOrEqualTo(expectedNanos)));
+  }
+}
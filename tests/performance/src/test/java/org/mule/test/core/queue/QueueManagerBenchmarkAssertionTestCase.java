@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.queue;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.util.queue.QueueManagerBenchmark;
+
+import org.junit.Test;
+
+public class QueueManagerBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void transientOfferAndPoll() {
+    assertBenchmark("transient", "offerAndPoll", 1, 20);
+  }
+
+  @Test
+  public void transientOfferAndPollEightThreads() {
+    assertBenchmark("transient", "offerAndPoll", 8, 100);
+  }
+
+  @Test
+  public void transientOfferAndPollTransacted() {
+    assertBenchmark("transient", "offerAndPollTransacted", 1, 200);
+  }
+
+  @Test
+  public void dualFileOfferAndPoll() {
+    assertBenchmark("dualFile", "offerAndPoll", 1, 500);
+  }
+
+  @Test
+  public void segmentedLogOfferAndPoll() {
+    assertBenchmark("segmentedLog", "offerAndPoll", 1, 200);
+  }
+
+  @Test
+  public void segmentedLogOfferAndPollTransacted() {
+    assertBenchmark("segmentedLog", "offerAndPollTransacted", 1, 1000);
+  }
+
+  private void assertBenchmark(String queueType, String benchmark, int threads, double expectedMicros) {
+    runAndAssertBenchmark(QueueManagerBenchmark.class, benchmark, threads, singletonMap("queueType", new String[] {queueType}),
+                          MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedMicros)));
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.routing;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.routing.correlation.EventCorrelatorBenchmark;
+
+import org.junit.Test;
+
+public class EventCorrelatorBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void completeGroupSingleThread() {
+    assertCompleteGroup(1, 50);
+  }
+
+  @Test
+  public void completeGroupFourThreads() {
+    assertCompleteGroup(4, 100);
+  }
+
+  @Test
+  public void completeGroupSixteenThreads() {
+    assertCompleteGroup(16, 300);
+  }
+
+  @Test
+  public void completeGroupSixtyFourThreads() {
+    assertCompleteGroup(64, 1200);
+  }
+
+  private void assertCompleteGroup(int threads, double expectedMicros) {
+    runAndAssertBenchmark(EventCorrelatorBenchmark.class, "completeGroup", threads,
+                          singletonMap("groupSize", new String[] {"2"}), MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedMicros)));
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.store;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.store.ObjectStoreBenchmark;
+
+import org.junit.Test;
+
+public class ObjectStoreBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void inMemoryStoreRetrieveAndRemove() {
+    assertBenchmark("inMemory", "storeRetrieveAndRemove", 1, 5);
+  }
+
+  @Test
+  public void inMemoryStoreRetrieveAndRemoveSixteenThreads() {
+    assertBenchmark("inMemory", "storeRetrieveAndRemove", 16, 50);
+  }
+
+  @Test
+  public void inMemoryStoreAndExpire() {
+    assertBenchmark("inMemory", "storeAndExpire", 1, 10);
+  }
+
+  @Test
+  public void persistentStoreRetrieveAndRemove() {
+    assertBenchmark("persistent", "storeRetrieveAndRemove", 1, 2000);
+  }
+
+  @Test
+  public void logStructuredStoreRetrieveAndRemove() {
+    assertBenchmark("logStructured", "storeRetrieveAndRemove", 1, 200);
+  }
+
+  @Test
+  public void logStructuredStoreAndExpire() {
+    assertBenchmark("logStructured", "storeAndExpire", 1, 500);
+  }
+
+  private void assertBenchmark(String store, String benchmark, int threads, double expectedMicros) {
+    runAndAssertBenchmark(ObjectStoreBenchmark.class, benchmark, threads, singletonMap("store", new String[] {store}),
+                          MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedMicros)));
+  }
+}
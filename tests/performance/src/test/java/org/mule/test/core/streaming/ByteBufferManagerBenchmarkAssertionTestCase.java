@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.streaming;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.streaming.bytes.ByteBufferManagerBenchmark;
+
+import org.junit.Test;
+
+public class ByteBufferManagerBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void poolingSingleThread() {
+    assertAllocateAndDeallocate("pooling", 1, 1000);
+  }
+
+  @Test
+  public void poolingSixtyFourThreads() {
+    assertAllocateAndDeallocate("pooling", 64, 50000);
+  }
+
+  @Test
+  public void sizeClassedSingleThread() {
+    assertAllocateAndDeallocate("sizeClassed", 1, 150);
+  }
+
+  @Test
+  public void sizeClassedSixtyFourThreads() {
+    assertAllocateAndDeallocate("sizeClassed", 64, 2000);
+  }
+
+  @Test
+  public void sizeClassedDirectSixtyFourThreads() {
+    assertAllocateAndDeallocate("sizeClassedDirect", 64, 5000);
+  }
+
+  private void assertAllocateAndDeallocate(String manager, int threads, double expectedNanos) {
+    runAndAssertBenchmark(ByteBufferManagerBenchmark.class, "allocateAndDeallocate", threads,
+                          singletonMap("manager", new String[] {manager}), NANOSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedNanos)));
+  }
+}
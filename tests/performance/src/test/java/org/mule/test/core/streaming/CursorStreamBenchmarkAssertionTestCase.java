@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.core.streaming;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.core.internal.streaming.bytes.CursorStreamBenchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CursorStreamBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void inMemorySingleCursor() {
+    assertBufferAndRead("inMemory", 1, 2000);
+  }
+
+  @Test
+  public void inMemorySixteenCursors() {
+    assertBufferAndRead("inMemory", 16, 15000);
+  }
+
+  @Test
+  public void chunkedSingleCursor() {
+    assertBufferAndRead("chunked", 1, 1000);
+  }
+
+  @Test
+  public void chunkedSixteenCursors() {
+    assertBufferAndRead("chunked", 16, 10000);
+  }
+
+  @Test
+  public void fileStoreSingleCursor() {
+    assertBufferAndRead("fileStore", 1, 5000);
+  }
+
+  @Test
+  public void inMemoryConcurrentCursors() {
+    assertReadBufferedStream("inMemory", 16, 5000);
+  }
+
+  @Test
+  public void chunkedConcurrentCursors() {
+    assertReadBufferedStream("chunked", 16, 5000);
+  }
+
+  @Test
+  public void fileStoreConcurrentCursors() {
+    assertReadBufferedStream("fileStore", 16, 5000);
+  }
+
+  private void assertBufferAndRead(String buffer, int cursors, double expectedMicros) {
+    runAndAssertBenchmark(CursorStreamBenchmark.class, "bufferAndRead", 1, params(buffer, cursors), MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedMicros)));
+  }
+
+  private void assertReadBufferedStream(String buffer, int threads, double expectedMicros) {
+    runAndAssertBenchmark(CursorStreamBenchmark.class, "readBufferedStream", threads, params(buffer, 1), MICROSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(),
+                                                  lessThanOrEqualTo(expectedMicros)));
+  }
+
+  private Map<String, String[]> params(String buffer, int cursors) {
+    Map<String, String[]> params = new HashMap<>();
+    params.put("buffer", new String[] {buffer});
+    params.put("cursors", new String[] {String.valueOf(cursors)});
+    return params;
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.test.module.extension;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.AbstractBenchmarkAssertionTestCase;
+import org.mule.runtime.module.extension.internal.runtime.execution.MethodInvokerBenchmark;
+
+import org.junit.Test;
+
+public class MethodInvokerBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionTestCase {
+
+  @Test
+  public void reflectiveInvocation() {
+    assertBenchmark("true", 50);
+  }
+
+  @Test
+  public void generatedInvocation() {
+    assertBenchmark("false", 25);
+  }
+
+  private void assertBenchmark(String reflective, double expectedNanos) {
+    runAndAssertBenchmark(MethodInvokerBenchmark.class, "invokeOperation", 1,
+                          singletonMap("reflective", new String[] {reflective}), NANOSECONDS, false,
+                          runResult -> assertThat(runResult.getPrimaryResult().getScore(), lessThanOrEqualTo(expectedNanos)));
+  }
+}